@@ -45,4 +45,11 @@ public interface Cache<K,V> {
     public void invalidateAll();
 
     public Map<K, Optional<V>> asMap();
+
+    /**
+     * @return the statistics of the cache, CacheStats.EMPTY if not recorded
+     */
+    public default CacheStats stats() {
+        return CacheStats.EMPTY;
+    }
 }
@@ -48,6 +48,24 @@ public class CacheFactory {
         return new CaffeineLoadingCache<>(size, expirePolicy, ttl, loader);
     }
 
+    /**
+     *
+     * @param <K>          the type of the cache keys
+     * @param <V>          the type of the cached values
+     * @param size         the size of the cache
+     * @param expirePolicy specifies how and when each entry should be automatically
+     *                     removed from the cache
+     * @param ttl          Time To Live in milliseconds
+     * @param refresh      milliseconds after the write when an entry is reloaded
+     *                     in background on the next access, 0 to disable
+     * @param loader       the cache loader used to obtain new values
+     * @return the cache
+     */
+    public static <K, V> LoadingCache<K, V> createLocalLoadingCache(long size, Cache.EXPIRE_POLICY expirePolicy,
+            long ttl, long refresh, Function<K, V> loader) {
+        return new CaffeineLoadingCache<>(size, expirePolicy, ttl, refresh, loader);
+    }
+
     /**
      * @param <K>    the type of the cache keys
      * @param <V>    the type of the cached values
@@ -84,6 +102,88 @@ public class CacheFactory {
         return new CaffeineCache<>(size, expirePolicy, ttl, remover);
     }
 
+    /**
+     * creates a local loading cache and registers it in the CacheRegistry
+     *
+     * @param <K>          the type of the cache keys
+     * @param <V>          the type of the cached values
+     * @param name         the name of the cache
+     * @param size         the size of the cache
+     * @param expirePolicy specifies how and when each entry should be automatically
+     *                     removed from the cache
+     * @param ttl          Time To Live in milliseconds
+     * @param loader       the cache loader used to obtain new values
+     * @return the cache
+     */
+    public static <K, V> LoadingCache<K, V> createLocalLoadingCache(String name, long size, Cache.EXPIRE_POLICY expirePolicy,
+            long ttl, Function<K, V> loader) {
+        return CacheRegistry.getInstance().register(name, createLocalLoadingCache(size, expirePolicy, ttl, loader));
+    }
+
+    /**
+     * creates a local loading cache and registers it in the CacheRegistry
+     *
+     * @param <K>          the type of the cache keys
+     * @param <V>          the type of the cached values
+     * @param name         the name of the cache
+     * @param size         the size of the cache
+     * @param expirePolicy specifies how and when each entry should be automatically
+     *                     removed from the cache
+     * @param ttl          Time To Live in milliseconds
+     * @param refresh      milliseconds after the write when an entry is reloaded
+     *                     in background on the next access, 0 to disable
+     * @param loader       the cache loader used to obtain new values
+     * @return the cache
+     */
+    public static <K, V> LoadingCache<K, V> createLocalLoadingCache(String name, long size, Cache.EXPIRE_POLICY expirePolicy,
+            long ttl, long refresh, Function<K, V> loader) {
+        return CacheRegistry.getInstance().register(name, createLocalLoadingCache(size, expirePolicy, ttl, refresh, loader));
+    }
+
+    /**
+     * creates a hash map loading cache and registers it in the CacheRegistry
+     *
+     * @param <K>    the type of the cache keys
+     * @param <V>    the type of the cached values
+     * @param name   the name of the cache
+     * @param loader the cache loader used to obtain new values
+     * @return the cache
+     */
+    public static <K, V> LoadingCache<K, V> createHashMapLoadingCache(String name, Function<K, V> loader) {
+        return CacheRegistry.getInstance().register(name, createHashMapLoadingCache(loader));
+    }
+
+    /**
+     * creates a local cache and registers it in the CacheRegistry
+     *
+     * @param <K> the type of the cache keys
+     * @param <V> the type of the cached values
+     * @param name the name of the cache
+     * @param size the size of the cache
+     * @param expirePolicy specifies how and when each entry should be automatically removed from the cache
+     * @param ttl Time To Live in milliseconds
+     * @return the cache.
+    */
+    public static <K,V> Cache<K,V> createLocalCache(String name, long size, Cache.EXPIRE_POLICY expirePolicy, long ttl) {
+        return CacheRegistry.getInstance().register(name, createLocalCache(size, expirePolicy, ttl));
+    }
+
+    /**
+     * creates a local cache and registers it in the CacheRegistry
+     *
+     * @param <K> the type of the cache keys.
+     * @param <V> the type of the cached values.
+     * @param name the name of the cache
+     * @param size the size of the cache.
+     * @param expirePolicy specifies how and when each entry should be automatically removed from the cache.
+     * @param ttl Time To Live in milliseconds.
+     * @param remover the cache remover to invoke each time a value is automatically removed from the cache according to the expire xpolicy
+     * @return the cache.
+    */
+    public static <K,V> Cache<K,V> createLocalCache(String name, long size, Cache.EXPIRE_POLICY expirePolicy, long ttl, Consumer<Map.Entry<K, Optional<V>>> remover) {
+        return CacheRegistry.getInstance().register(name, createLocalCache(size, expirePolicy, ttl, remover));
+    }
+
     private CacheFactory() {
     }
 }
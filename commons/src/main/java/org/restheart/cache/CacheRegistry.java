@@ -0,0 +1,111 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the caches created by CacheFactory with a name, so that
+ * their statistics can be reported and they can be invalidated.
+ *
+ * Caches are weakly referenced: a cache is unregistered when it is garbage
+ * collected. Registering a cache with the name of another one replaces it.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CacheRegistry {
+    private final Map<String, WeakReference<Cache<?, ?>>> caches = new ConcurrentHashMap<>();
+
+    private CacheRegistry() {
+    }
+
+    public static CacheRegistry getInstance() {
+        return CacheRegistryHolder.INSTANCE;
+    }
+
+    private static class CacheRegistryHolder {
+        private static final CacheRegistry INSTANCE = new CacheRegistry();
+    }
+
+    /**
+     * @param <C>   the type of the cache
+     * @param name  the name of the cache
+     * @param cache the cache
+     * @return the cache
+     */
+    public <C extends Cache<?, ?>> C register(String name, C cache) {
+        this.caches.put(name, new WeakReference<>(cache));
+        return cache;
+    }
+
+    /**
+     * @param name the name of the cache
+     */
+    public void unregister(String name) {
+        this.caches.remove(name);
+    }
+
+    /**
+     * unregisters the cache only if it is the one registered with the name
+     *
+     * @param name  the name of the cache
+     * @param cache the cache
+     */
+    public void unregister(String name, Cache<?, ?> cache) {
+        this.caches.computeIfPresent(name, (n, ref) -> ref.get() == cache ? null : ref);
+    }
+
+    /**
+     * @param name the name of the cache
+     * @return the cache, or null if no cache is registered with the name
+     */
+    public Cache<?, ?> get(String name) {
+        var ref = this.caches.get(name);
+        var cache = ref == null ? null : ref.get();
+
+        if (ref != null && cache == null) {
+            this.caches.remove(name, ref);
+        }
+
+        return cache;
+    }
+
+    /**
+     * @return the registered caches, sorted by name
+     */
+    public Map<String, Cache<?, ?>> caches() {
+        var ret = new TreeMap<String, Cache<?, ?>>();
+
+        this.caches.forEach((name, ref) -> {
+            var cache = ref.get();
+
+            if (cache == null) {
+                this.caches.remove(name, ref);
+            } else {
+                ret.put(name, cache);
+            }
+        });
+
+        return ret;
+    }
+}
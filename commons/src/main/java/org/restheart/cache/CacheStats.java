@@ -0,0 +1,58 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.cache;
+
+/**
+ * Statistics about the performance of a Cache
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ * @param hitCount         the number of times lookups returned a cached value
+ * @param missCount        the number of times lookups did not find a cached value
+ * @param loadSuccessCount the number of successful loads
+ * @param loadFailureCount the number of failed loads
+ * @param totalLoadTime    the total time spent loading values, in nanoseconds
+ * @param evictionCount    the number of evicted entries
+ */
+public record CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime, long evictionCount) {
+    public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    /**
+     * @return the number of lookups
+     */
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return the ratio of lookups that returned a cached value, 1.0 when there were no lookups
+     */
+    public double hitRate() {
+        var requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the average time spent loading a value, in nanoseconds
+     */
+    public double averageLoadPenalty() {
+        var loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+}
@@ -19,7 +19,9 @@
  */
 package org.restheart.cache;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -29,4 +31,16 @@ import java.util.Optional;
  */
 public interface LoadingCache<K,V> extends Cache<K,V> {
     public Optional<V> getLoading(K key);
+
+    /**
+     * @param key
+     * @return a future of the value, that is loaded asynchronously if not cached
+     */
+    public CompletableFuture<Optional<V>> getLoadingAsync(K key);
+
+    /**
+     * @param keys
+     * @return the values of the keys, loading the ones not cached
+     */
+    public Map<K, Optional<V>> getAll(Iterable<? extends K> keys);
 }
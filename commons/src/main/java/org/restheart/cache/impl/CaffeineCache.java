@@ -32,6 +32,7 @@ import com.github.benmanes.caffeine.cache.RemovalListener;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.restheart.cache.CacheStats;
 
 /**
  *
@@ -46,6 +47,7 @@ public class CaffeineCache<K, V> implements org.restheart.cache.Cache<K, V> {
         var builder = Caffeine.newBuilder();
 
         builder.maximumSize(size);
+        builder.recordStats();
 
         if (ttl > 0 && expirePolicy == EXPIRE_POLICY.AFTER_WRITE) {
             builder.expireAfterWrite(ttl, TimeUnit.MILLISECONDS);
@@ -60,6 +62,7 @@ public class CaffeineCache<K, V> implements org.restheart.cache.Cache<K, V> {
         var builder = Caffeine.newBuilder();
 
         builder.maximumSize(size);
+        builder.recordStats();
 
         if (ttl > 0 && expirePolicy == EXPIRE_POLICY.AFTER_WRITE) {
             builder.expireAfterWrite(ttl, TimeUnit.MILLISECONDS);
@@ -106,4 +109,10 @@ public class CaffeineCache<K, V> implements org.restheart.cache.Cache<K, V> {
     public void cleanUp() {
         wrapped.cleanUp();
     }
+
+    @Override
+    public CacheStats stats() {
+        var stats = wrapped.stats();
+        return new CacheStats(stats.hitCount(), stats.missCount(), stats.loadSuccessCount(), stats.loadFailureCount(), stats.totalLoadTime(), stats.evictionCount());
+    }
 }
@@ -19,27 +19,52 @@
  */
 package org.restheart.cache.impl;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
-import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
+import org.restheart.cache.CacheStats;
+
 /**
+ * A LoadingCache backed by Caffeine's AsyncLoadingCache.
+ *
+ * getLoading() loads missing entries in the calling thread; getLoadingAsync()
+ * and the refresh of entries older than the refresh time are executed in
+ * background, so that hot entries are reloaded without blocking the callers.
+ *
+ * Loads are counted by the loader itself: Caffeine records the stats of a
+ * background refresh only after the reloaded value is visible, and the two
+ * load paths would otherwise be reported inconsistently.
  *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  * @param <K> the class of the keys.
  * @param <V> the class of the values (is Optional-ized).
  */
 public class CaffeineLoadingCache<K, V> implements org.restheart.cache.LoadingCache<K, V> {
+    private final AsyncLoadingCache<K, Optional<V>> async;
     private final LoadingCache<K, Optional<V>> wrapped;
+    private final Function<K, V> loader;
+
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
 
     public CaffeineLoadingCache(long size, EXPIRE_POLICY expirePolicy, long ttl, Function<K, V> loader) {
+        this(size, expirePolicy, ttl, 0, loader);
+    }
+
+    public CaffeineLoadingCache(long size, EXPIRE_POLICY expirePolicy, long ttl, long refresh, Function<K, V> loader) {
+        this.loader = loader;
+
         var builder = Caffeine.newBuilder();
 
         builder.maximumSize(size);
@@ -50,19 +75,45 @@ public class CaffeineLoadingCache<K, V> implements org.restheart.cache.LoadingCa
             builder.expireAfterAccess(ttl, TimeUnit.MILLISECONDS);
         }
 
-        wrapped = builder.build(new CacheLoader<K, Optional<V>>() {
+        if (refresh > 0) {
+            builder.refreshAfterWrite(refresh, TimeUnit.MILLISECONDS);
+        }
+
+        builder.recordStats();
+
+        this.async = builder.buildAsync(new AsyncCacheLoader<K, Optional<V>>() {
             @Override
-            public Optional<V> load(K key) throws Exception {
-                return Optional.ofNullable(loader.apply(key));
+            public CompletableFuture<Optional<V>> asyncLoad(K key, Executor executor) {
+                // missing entries are loaded in the calling thread
+                try {
+                    return CompletableFuture.completedFuture(load(key));
+                } catch(Throwable t) {
+                    return CompletableFuture.failedFuture(t);
+                }
             }
 
             @Override
-            public Map<? extends K, ? extends Optional<V>> loadAll(Set<? extends K> keys) throws Exception {
-                var ret = new HashMap<K, Optional<V>>();
-                keys.stream().forEachOrdered(key -> ret.put(key, Optional.ofNullable(loader.apply(key))));
-                return ret;
+            public CompletableFuture<Optional<V>> asyncReload(K key, Optional<V> oldValue, Executor executor) {
+                return CompletableFuture.supplyAsync(() -> load(key), executor);
             }
         });
+
+        this.wrapped = this.async.synchronous();
+    }
+
+    private Optional<V> load(K key) {
+        var start = System.nanoTime();
+
+        try {
+            var ret = Optional.ofNullable(this.loader.apply(key));
+            this.loadSuccessCount.increment();
+            return ret;
+        } catch(RuntimeException | Error e) {
+            this.loadFailureCount.increment();
+            throw e;
+        } finally {
+            this.totalLoadTime.add(System.nanoTime() - start);
+        }
     }
 
     @Override
@@ -75,6 +126,22 @@ public class CaffeineLoadingCache<K, V> implements org.restheart.cache.LoadingCa
         return wrapped.get(key);
     }
 
+    @Override
+    public CompletableFuture<Optional<V>> getLoadingAsync(K key) {
+        return async.get(key, (k, executor) -> CompletableFuture.supplyAsync(() -> load(k), executor));
+    }
+
+    @Override
+    public Map<K, Optional<V>> getAll(Iterable<? extends K> keys) {
+        return wrapped.getAll(keys);
+    }
+
+    @Override
+    public CacheStats stats() {
+        var stats = wrapped.stats();
+        return new CacheStats(stats.hitCount(), stats.missCount(), loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTime.sum(), stats.evictionCount());
+    }
+
     @Override
     public void put(K key, V value) {
         wrapped.put(key, Optional.ofNullable(value));
@@ -22,6 +22,7 @@ package org.restheart.cache.impl;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import com.google.common.collect.Maps;
 
@@ -58,6 +59,18 @@ public class HashMapLoadingCache<K, V> implements org.restheart.cache.LoadingCac
         }
     }
 
+    @Override
+    public CompletableFuture<Optional<V>> getLoadingAsync(K key) {
+        return CompletableFuture.completedFuture(getLoading(key));
+    }
+
+    @Override
+    public Map<K, Optional<V>> getAll(Iterable<? extends K> keys) {
+        var ret = new HashMap<K, Optional<V>>();
+        keys.forEach(key -> ret.put(key, getLoading(key)));
+        return ret;
+    }
+
     @Override
     public void put(K key, V value) {
         wrapped.put(key, Optional.ofNullable(value));
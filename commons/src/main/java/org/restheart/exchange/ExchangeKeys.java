@@ -136,6 +136,31 @@ public interface ExchangeKeys {
      */
     public static final String WRITE_MODE_SHORT_QPARAM_KEY = "wm";
 
+    /**
+     *
+     */
+    public static final String READ_PREFERENCE_QPARAM_KEY = "readPreference";
+
+    /**
+     *
+     */
+    public static final String READ_CONCERN_QPARAM_KEY = "readConcern";
+
+    /**
+     *
+     */
+    public static final String WRITE_CONCERN_QPARAM_KEY = "writeConcern";
+
+    /**
+     *
+     */
+    public static final String EXPLAIN_QPARAM_KEY = "explain";
+
+    /**
+     *
+     */
+    public static final String ASYNC_QPARAM_KEY = "async";
+
     // matadata
 
     /**
@@ -148,6 +173,21 @@ public interface ExchangeKeys {
      */
     public static final String ETAG_POLICY_METADATA_KEY = "etagPolicy";
 
+    /**
+     *
+     */
+    public static final String READ_PREFERENCE_METADATA_KEY = "readPreference";
+
+    /**
+     *
+     */
+    public static final String READ_CONCERN_METADATA_KEY = "readConcern";
+
+    /**
+     *
+     */
+    public static final String WRITE_CONCERN_METADATA_KEY = "writeConcern";
+
     // special resource names
 
     /**
@@ -175,6 +215,11 @@ public interface ExchangeKeys {
      */
     public static final String _METRICS = "_metrics";
 
+    /**
+     *
+     */
+    public static final String _SLOW_QUERIES = "_slowqueries";
+
     /**
      *
      */
@@ -452,6 +497,11 @@ public interface ExchangeKeys {
          */
         METRICS,
 
+        /**
+         *
+         */
+        SLOW_QUERIES,
+
         /**
          *
          */
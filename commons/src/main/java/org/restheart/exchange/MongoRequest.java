@@ -19,6 +19,9 @@
  */
 package org.restheart.exchange;
 
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.Headers;
 import io.undertow.util.PathTemplateMatch;
@@ -45,6 +48,7 @@ import org.restheart.exchange.ExchangeKeys.HAL_MODE;
 import org.restheart.exchange.ExchangeKeys.REPRESENTATION_FORMAT;
 import org.restheart.exchange.ExchangeKeys.TYPE;
 import org.restheart.mongodb.db.sessions.ClientSessionImpl;
+import org.restheart.utils.MongoOptionsUtils;
 import org.restheart.utils.URLUtils;
 import org.slf4j.LoggerFactory;
 
@@ -101,8 +105,23 @@ public class MongoRequest extends BsonRequest {
 
     private boolean noProps = false;
 
+    private boolean explain = false;
+    private boolean async = false;
+
     private ClientSessionImpl clientSession = null;
 
+    private ReadPreference readPreference = null;
+    private ReadConcern readConcern = null;
+    private ReadPreference defaultReadPreference = null;
+    private ReadConcern defaultReadConcern = null;
+
+    private WriteConcern writeConcern = null;
+
+    // the options defined in the collection metadata, parsed by setCollectionProps()
+    private ReadPreference collReadPreference = null;
+    private ReadConcern collReadConcern = null;
+    private WriteConcern collWriteConcern = null;
+
     /**
      * the HAL mode
      */
@@ -284,6 +303,7 @@ public class MongoRequest extends BsonRequest {
                 || (type == TYPE.DB_META && sdi.startsWith(DB_META_DOCID))
                 || (type == TYPE.BULK_DOCUMENTS && RESOURCES_WILDCARD_KEY.equals(sdi))
                 || (type == TYPE.METRICS && _METRICS.equalsIgnoreCase(sdi))
+                || (type == TYPE.SLOW_QUERIES && _SLOW_QUERIES.equalsIgnoreCase(sdi))
                 || (type == TYPE.COLLECTION_SIZE && _SIZE.equalsIgnoreCase(sdi))
                 || (type == TYPE.INDEX && _INDEXES.equalsIgnoreCase(sdi))
                 || (type == TYPE.COLLECTION_META && _META.equalsIgnoreCase(sdi))
@@ -345,6 +365,8 @@ public class MongoRequest extends BsonRequest {
             type = TYPE.TRANSACTION;
         } else if (pathTokens.length < 3 && pathTokens[1].equalsIgnoreCase(_METRICS)) {
             type = TYPE.METRICS;
+        } else if (pathTokens.length < 3 && pathTokens[1].equalsIgnoreCase(_SLOW_QUERIES)) {
+            type = TYPE.SLOW_QUERIES;
         } else if (pathTokens.length < 3) {
             type = TYPE.DB;
         } else if (pathTokens.length >= 3 && pathTokens[2].endsWith(FS_FILES_SUFFIX)) {
@@ -374,10 +396,14 @@ public class MongoRequest extends BsonRequest {
             }
         } else if (pathTokens.length >= 3 && pathTokens[2].equalsIgnoreCase(_METRICS)) {
             type = TYPE.METRICS;
+        } else if (pathTokens.length == 3 && pathTokens[2].equalsIgnoreCase(_SLOW_QUERIES)) {
+            type = TYPE.SLOW_QUERIES;
         } else if (pathTokens.length < 4) {
             type = TYPE.COLLECTION;
         } else if (pathTokens.length == 4 && pathTokens[3].equalsIgnoreCase(_METRICS)) {
             type = TYPE.METRICS;
+        } else if (pathTokens.length == 4 && pathTokens[3].equalsIgnoreCase(_SLOW_QUERIES)) {
+            type = TYPE.SLOW_QUERIES;
         } else if (pathTokens.length == 4 && pathTokens[3].equalsIgnoreCase(_INDEXES)) {
             type = TYPE.COLLECTION_INDEXES;
         } else if (pathTokens.length == 4 && pathTokens[3].equals(RESOURCES_WILDCARD_KEY)) {
@@ -904,6 +930,38 @@ public class MongoRequest extends BsonRequest {
      */
     public void setCollectionProps(BsonDocument collectionProps) {
         this.collectionProps = collectionProps;
+        this.collReadPreference = null;
+        this.collReadConcern = null;
+        this.collWriteConcern = null;
+
+        if (collectionProps == null) {
+            return;
+        }
+
+        // parsed once, the getters are invoked several times per request
+        if (collectionProps.containsKey(READ_PREFERENCE_METADATA_KEY)) {
+            try {
+                this.collReadPreference = MongoOptionsUtils.readPreference(collectionProps.get(READ_PREFERENCE_METADATA_KEY));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("wrong {} metadata in collection {}: {}", READ_PREFERENCE_METADATA_KEY, getCollectionName(), iae.getMessage());
+            }
+        }
+
+        if (collectionProps.containsKey(READ_CONCERN_METADATA_KEY)) {
+            try {
+                this.collReadConcern = MongoOptionsUtils.readConcern(collectionProps.get(READ_CONCERN_METADATA_KEY));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("wrong {} metadata in collection {}: {}", READ_CONCERN_METADATA_KEY, getCollectionName(), iae.getMessage());
+            }
+        }
+
+        if (collectionProps.containsKey(WRITE_CONCERN_METADATA_KEY)) {
+            try {
+                this.collWriteConcern = MongoOptionsUtils.writeConcern(collectionProps.get(WRITE_CONCERN_METADATA_KEY));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("wrong {} metadata in collection {}: {}", WRITE_CONCERN_METADATA_KEY, getCollectionName(), iae.getMessage());
+            }
+        }
     }
 
     /**
@@ -1186,6 +1244,86 @@ public class MongoRequest extends BsonRequest {
         this.shardKey = shardKey;
     }
 
+    /**
+     * Returns the read preference to use for the request, that is the one
+     * specified via query parameter, otherwise the one defined in the
+     * collection metadata, otherwise the default one of the mongo-mount.
+     *
+     * @return the read preference or null to use the MongoClient's one
+     */
+    public ReadPreference getReadPreference() {
+        if (readPreference != null) {
+            return readPreference;
+        }
+
+        return collReadPreference != null ? collReadPreference : defaultReadPreference;
+    }
+
+    /**
+     * @param readPreference the read preference specified via query parameter
+     */
+    public void setReadPreference(ReadPreference readPreference) {
+        this.readPreference = readPreference;
+    }
+
+    /**
+     * @param defaultReadPreference the read preference defined by the mongo-mount
+     */
+    public void setDefaultReadPreference(ReadPreference defaultReadPreference) {
+        this.defaultReadPreference = defaultReadPreference;
+    }
+
+    /**
+     * Returns the read concern to use for the request, that is the one
+     * specified via query parameter, otherwise the one defined in the
+     * collection metadata, otherwise the default one of the mongo-mount.
+     *
+     * @return the read concern or null to use the MongoClient's one
+     */
+    public ReadConcern getReadConcern() {
+        if (readConcern != null) {
+            return readConcern;
+        }
+
+        return collReadConcern != null ? collReadConcern : defaultReadConcern;
+    }
+
+    /**
+     * @param readConcern the read concern specified via query parameter
+     */
+    public void setReadConcern(ReadConcern readConcern) {
+        this.readConcern = readConcern;
+    }
+
+    /**
+     * @param defaultReadConcern the read concern defined by the mongo-mount
+     */
+    public void setDefaultReadConcern(ReadConcern defaultReadConcern) {
+        this.defaultReadConcern = defaultReadConcern;
+    }
+
+    /**
+     * Returns the write concern to use for the request, that is the one
+     * specified via query parameter, otherwise the one defined in the
+     * collection metadata.
+     *
+     * @return the write concern or null to use the MongoClient's one
+     */
+    public WriteConcern getWriteConcern() {
+        if (writeConcern != null) {
+            return writeConcern;
+        }
+
+        return collWriteConcern;
+    }
+
+    /**
+     * @param writeConcern the write concern specified via query parameter
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
     /**
      * @return the noProps
      */
@@ -1200,6 +1338,34 @@ public class MongoRequest extends BsonRequest {
         this.noProps = noProps;
     }
 
+    /**
+     * @return true if the query plan is requested rather than the data
+     */
+    public boolean isExplain() {
+        return explain;
+    }
+
+    /**
+     * @param explain true to request the query plan rather than the data
+     */
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+
+    /**
+     * @return true if the operation is requested to run asynchronously
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * @param async true to request the operation to run asynchronously
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     /**
      * helper method to check request resource type
      *
@@ -1434,6 +1600,15 @@ public class MongoRequest extends BsonRequest {
         return getType() == TYPE.METRICS;
     }
 
+    /**
+     * helper method to check request resource type
+     *
+     * @return true if type is TYPE.SLOW_QUERIES
+     */
+    public boolean isSlowQueries() {
+        return getType() == TYPE.SLOW_QUERIES;
+    }
+
     /**
      * helper method to check if a request writes a document or a file or a
      * schema
@@ -16,7 +16,7 @@ import static org.restheart.utils.BsonUtils.document;
 public class ConnectionChecker {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionChecker.class);
 
-    private static LoadingCache<MongoClient, Boolean> CACHE = CacheFactory.createLocalLoadingCache(10, EXPIRE_POLICY.AFTER_WRITE, 5_000, mclient -> {
+    private static LoadingCache<MongoClient, Boolean> CACHE = CacheFactory.createLocalLoadingCache("mongo.connectionChecker", 10, EXPIRE_POLICY.AFTER_WRITE, 5_000, mclient -> {
         if (mclient == null) {
             return false;
         }
@@ -31,10 +31,17 @@ import java.lang.annotation.Target;
  * Plugins in package org.restheart.plugins.mongodb can also use
  * MongoDBClientSingleton.getInstance().getClient()
  *
+ * Set value to get one of the named clients defined in the mongo-clients
+ * configuration option, e.g. @InjectMongoClient("analytics")
+ *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface InjectMongoClient {
-
+    /**
+     * @return the name of the client as defined in mongo-clients; the
+     * client defined by mongo-uri is injected if empty
+     */
+    String value() default "";
 }
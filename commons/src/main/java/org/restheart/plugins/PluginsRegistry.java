@@ -174,4 +174,12 @@ public interface PluginsRegistry {
      * @param dependency
      */
     public void injectDependency(Object dependency);
+
+    /**
+     * injects a named dependency, e.g. a MongoClient defined in mongo-clients
+     *
+     * @param name
+     * @param dependency
+     */
+    public void injectDependency(String name, Object dependency);
 }
@@ -0,0 +1,70 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.plugins.security;
+
+import org.restheart.utils.HttpStatus;
+
+/**
+ * Thrown by an Authenticator that cannot verify the credentials because it is
+ * overloaded, the request is rejected with the given status code (503 Service
+ * Unavailable or 429 Too Many Requests) rather than 401 Unauthorized
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AuthenticatorOverloadedException extends RuntimeException {
+    private static final long serialVersionUID = -3462049528405318735L;
+
+    private final int statusCode;
+    private final int retryAfter;
+
+    /**
+     *
+     * @param message
+     * @param statusCode the response status code
+     * @param retryAfter the value of the Retry-After response header in seconds
+     */
+    public AuthenticatorOverloadedException(String message, int statusCode, int retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     *
+     * @param message
+     */
+    public AuthenticatorOverloadedException(String message) {
+        this(message, HttpStatus.SC_SERVICE_UNAVAILABLE, 1);
+    }
+
+    /**
+     * @return the response status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the value of the Retry-After response header in seconds
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
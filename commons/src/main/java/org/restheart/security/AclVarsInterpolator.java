@@ -137,7 +137,8 @@ public class AclVarsInterpolator {
             } else if (request.getAuthenticatedAccount() instanceof FileRealmAccount faccount) {
                 return toBson(faccount.getAccountProperties());
             } else if (request.getAuthenticatedAccount() instanceof JwtAccount jwtAccount) {
-                return BsonUtils.parse(jwtAccount.getJwtPayload());
+                var payload = jwtAccount.getJwtPayloadDocument();
+                return payload == null ? BsonNull.VALUE : payload;
             } else {
                 return BsonNull.VALUE;
             }
@@ -220,9 +221,9 @@ public class AclVarsInterpolator {
             } else if (request.getAuthenticatedAccount() instanceof FileRealmAccount faccount) {
                 return fromProperties(faccount.getAccountProperties(), value.substring(6));
             } else if (request.getAuthenticatedAccount() instanceof JwtAccount jwtAccount) {
-                var jwpPayload = BsonUtils.parse(jwtAccount.getJwtPayload());
+                var bsonPayload = jwtAccount.getJwtPayloadDocument();
 
-                if (jwpPayload instanceof BsonDocument bsonPayload) {
+                if (bsonPayload != null) {
                     var prop = value.substring(6);
 
                     if (prop.contains(".")) {
@@ -282,10 +283,10 @@ public class AclVarsInterpolator {
         } else if (request.getAuthenticatedAccount() instanceof FileRealmAccount faccount) {
             return toBson(faccount.getAccountProperties()).asDocument();
         } else if (request.getAuthenticatedAccount() instanceof JwtAccount jwtAccount) {
-            var payload = BsonUtils.parse(jwtAccount.getJwtPayload());
+            var payload = jwtAccount.getJwtPayloadDocument();
 
-            if (payload instanceof BsonDocument bsonPayload) {
-                return bsonPayload;
+            if (payload != null) {
+                return payload;
             } else {
                 LOGGER.warn("jwt payload is not a json object, returning null account document");
                 return null;
@@ -0,0 +1,168 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security;
+
+import java.util.function.LongSupplier;
+
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.cache.LoadingCache;
+
+import com.google.common.net.HttpHeaders;
+
+import io.undertow.attribute.ExchangeAttributes;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+
+/**
+ * Tracks the outcome of the authentication attempts per client (remote ip or
+ * X-Forwarded-For header) in a sliding time window of 10 seconds.
+ *
+ * Each client has a fixed number of time buckets, so that recording an attempt
+ * and computing the failure rate are O(1). Clients are kept in a size bounded
+ * cache and evicted when not seen for the duration of the window.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AuthFailuresTracker {
+    public static final long WINDOW_MS = 10_000;
+    public static final int DEFAULT_MAX_CLIENTS = 100_000;
+
+    private static final int BUCKETS = 10;
+    private static final long BUCKET_MS = WINDOW_MS / BUCKETS;
+    private static final HttpString _X_FORWARDED_FOR = HttpString.tryFromString(HttpHeaders.X_FORWARDED_FOR);
+
+    private final LongSupplier clock;
+    private volatile LoadingCache<String, Window> windows;
+
+    AuthFailuresTracker(int maxClients, LongSupplier clock) {
+        this.clock = clock;
+        this.windows = createCache(maxClients);
+    }
+
+    public static AuthFailuresTracker getInstance() {
+        return AuthFailuresTrackerHolder.INSTANCE;
+    }
+
+    private static class AuthFailuresTrackerHolder {
+        private static final AuthFailuresTracker INSTANCE = new AuthFailuresTracker(DEFAULT_MAX_CLIENTS, System::currentTimeMillis);
+    }
+
+    private static LoadingCache<String, Window> createCache(int maxClients) {
+        return CacheFactory.createLocalLoadingCache("bruteForceAttackGuard.clients", maxClients, Cache.EXPIRE_POLICY.AFTER_READ, WINDOW_MS, k -> new Window());
+    }
+
+    /**
+     * Sets the maximum number of tracked clients, discarding the current data
+     *
+     * @param maxClients
+     */
+    public void setMaxClients(int maxClients) {
+        this.windows = createCache(maxClients);
+    }
+
+    /**
+     * @param exchange
+     * @param useXForwardedFor true to use the X-Forwarded-For header, false to use the remote ip
+     * @return the key of the client, or null if useXForwardedFor and the header is missing
+     */
+    public static String key(HttpServerExchange exchange, boolean useXForwardedFor) {
+        if (useXForwardedFor) {
+            var xff = ExchangeAttributes.requestHeader(_X_FORWARDED_FOR).readAttribute(exchange);
+            return xff == null ? null : "x-forwarded-for:".concat(xff);
+        } else {
+            return "remote-ip:".concat(ExchangeAttributes.remoteIp().readAttribute(exchange));
+        }
+    }
+
+    /**
+     * records an authentication attempt
+     *
+     * @param key the key of the client
+     * @param success true if the authentication succeeded
+     */
+    public void record(String key, boolean success) {
+        var window = this.windows.getLoading(key);
+
+        if (window != null && window.isPresent()) {
+            window.get().record(this.clock.getAsLong() / BUCKET_MS, success);
+        }
+    }
+
+    /**
+     * @param key the key of the client
+     * @return the rate of the failed authentication attempts in the last 10
+     *         seconds, 0 for unknown clients
+     */
+    public double failureRate(String key) {
+        var window = this.windows.get(key);
+
+        if (window != null && window.isPresent()) {
+            return window.get().failureRate(this.clock.getAsLong() / BUCKET_MS);
+        } else {
+            return 0d;
+        }
+    }
+
+    /**
+     * @return the (approximate) number of tracked clients
+     */
+    public long size() {
+        this.windows.cleanUp();
+        return this.windows.asMap().size();
+    }
+
+    private static class Window {
+        // slot i holds the counts of the bucket with index stamps[i]
+        private final long[] stamps = new long[BUCKETS];
+        private final int[] attempts = new int[BUCKETS];
+        private final int[] failures = new int[BUCKETS];
+
+        synchronized void record(long bucket, boolean success) {
+            var slot = (int) (bucket % BUCKETS);
+
+            if (this.stamps[slot] != bucket) {
+                this.stamps[slot] = bucket;
+                this.attempts[slot] = 0;
+                this.failures[slot] = 0;
+            }
+
+            this.attempts[slot]++;
+
+            if (!success) {
+                this.failures[slot]++;
+            }
+        }
+
+        synchronized double failureRate(long bucket) {
+            int _attempts = 0;
+            int _failures = 0;
+
+            for (int slot = 0; slot < BUCKETS; slot++) {
+                if (bucket - this.stamps[slot] < BUCKETS) {
+                    _attempts += this.attempts[slot];
+                    _failures += this.failures[slot];
+                }
+            }
+
+            return _attempts == 0 ? 0d : (double) _failures / _attempts;
+        }
+    }
+}
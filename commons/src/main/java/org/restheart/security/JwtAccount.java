@@ -20,7 +20,8 @@
 package org.restheart.security;
 
 import java.util.Set;
-
+import org.bson.BsonDocument;
+import org.restheart.utils.BsonUtils;
 
 /**
  * Jwt Account
@@ -33,6 +34,7 @@ public class JwtAccount extends BaseAccount {
      */
     private static final long serialVersionUID = -2405615782892727187L;
     final private String jwtPayload;
+    private transient volatile BsonDocument jwtPayloadDocument = null;
 
     /**
      *
@@ -45,6 +47,19 @@ public class JwtAccount extends BaseAccount {
         this.jwtPayload = jwtPayload;
     }
 
+    /**
+     *
+     * @param name
+     * @param roles
+     * @param jwtPayload
+     * @param jwtPayloadDocument the parsed jwtPayload
+     */
+    public JwtAccount(final String name, final Set<String> roles, String jwtPayload, BsonDocument jwtPayloadDocument) {
+        super(name, roles);
+        this.jwtPayload = jwtPayload;
+        this.jwtPayloadDocument = jwtPayloadDocument;
+    }
+
     /**
      *
      * @return the jwtPayload
@@ -53,6 +68,25 @@ public class JwtAccount extends BaseAccount {
         return jwtPayload;
     }
 
+    /**
+     * The parsed jwtPayload. The document can be shared between the requests
+     * authenticated with the same token and must not be modified.
+     *
+     * @return the jwtPayload as a BsonDocument or null if it is not a json
+     *         object
+     */
+    public BsonDocument getJwtPayloadDocument() {
+        if (jwtPayloadDocument == null && jwtPayload != null) {
+            var parsed = BsonUtils.parse(jwtPayload);
+
+            if (parsed instanceof BsonDocument doc) {
+                this.jwtPayloadDocument = doc;
+            }
+        }
+
+        return jwtPayloadDocument;
+    }
+
     @Override
     public String toString() {
         return super.toString()
@@ -39,6 +39,9 @@ public class MongoPermissions {
     private final boolean allowBulkPatch;
     private final boolean allowBulkDelete;
     private final boolean allowWriteMode;
+    private final boolean allowReadPreference;
+    private final boolean allowReadConcern;
+    private final boolean allowWriteConcern;
     private final BsonDocument mergeRequest;
     private final BsonDocument projectResponse;
     private final BsonDocument readFilter;
@@ -46,7 +49,7 @@ public class MongoPermissions {
 
     public static final MongoPermissions ALLOW_ALL_MONGO_PERMISSIONS = new MongoPermissions(
         null, null,
-        true, true, true, true,
+        true, true, true, true, true, true, true,
         null, null);
 
     public MongoPermissions() {
@@ -54,6 +57,9 @@ public class MongoPermissions {
         this.allowBulkPatch = false;
         this.allowBulkDelete = false;
         this.allowWriteMode = false;
+        this.allowReadPreference = false;
+        this.allowReadConcern = false;
+        this.allowWriteConcern = false;
         this.readFilter = null;
         this.writeFilter = null;
         this.mergeRequest = null;
@@ -62,6 +68,7 @@ public class MongoPermissions {
 
     MongoPermissions(BsonDocument readFilter, BsonDocument writeFilter, boolean allowManagementRequests,
             boolean allowBulkPatch, boolean allowBulkDelete, boolean allowWriteMode,
+            boolean allowReadPreference, boolean allowReadConcern, boolean allowWriteConcern,
             BsonDocument mergeRequest, BsonDocument projectResponse) {
         this.readFilter = readFilter == null ? null
                 : readFilter.isNull() ? null : BsonUtils.escapeKeys(readFilter.asDocument(), true).asDocument();
@@ -73,6 +80,9 @@ public class MongoPermissions {
         this.allowBulkPatch = allowBulkPatch;
         this.allowBulkDelete = allowBulkDelete;
         this.allowWriteMode = allowWriteMode;
+        this.allowReadPreference = allowReadPreference;
+        this.allowReadConcern = allowReadConcern;
+        this.allowWriteConcern = allowWriteConcern;
 
         this.mergeRequest = mergeRequest;
         this.projectResponse = projectResponse;
@@ -176,6 +186,8 @@ public class MongoPermissions {
             return new MongoPermissions(readFilter, writeFilter, parseBooleanArg(args, "allowManagementRequests"),
                     parseBooleanArg(args, "allowBulkPatch"), parseBooleanArg(args, "allowBulkDelete"),
                     parseBooleanArg(args, "allowWriteMode"),
+                    parseBooleanArg(args, "allowReadPreference"), parseBooleanArg(args, "allowReadConcern"),
+                    parseBooleanArg(args, "allowWriteConcern"),
                     mergeRequest, projectResponse);
         }
     }
@@ -187,6 +199,9 @@ public class MongoPermissions {
         map.put("allowBulkPatch", this.allowBulkPatch);
         map.put("allowBulkDelete", this.allowBulkDelete);
         map.put("allowWriteMode", this.allowWriteMode);
+        map.put("allowReadPreference", this.allowReadPreference);
+        map.put("allowReadConcern", this.allowReadConcern);
+        map.put("allowWriteConcern", this.allowWriteConcern);
         map.put("readFilter", this.readFilter);
         map.put("writeFilter", this.writeFilter);
 
@@ -325,6 +340,8 @@ public class MongoPermissions {
             return new MongoPermissions(readFilter, writeFilter, parseBooleanArg(args, "allowManagementRequests"),
                     parseBooleanArg(args, "allowBulkPatch"), parseBooleanArg(args, "allowBulkDelete"),
                     parseBooleanArg(args, "allowWriteMode"),
+                    parseBooleanArg(args, "allowReadPreference"), parseBooleanArg(args, "allowReadConcern"),
+                    parseBooleanArg(args, "allowWriteConcern"),
                     mergeRequest, projectResponse);
         }
     }
@@ -419,4 +436,28 @@ public class MongoPermissions {
     public boolean isAllowWriteMode() {
         return this.allowWriteMode;
     }
+
+    public boolean getAllowReadPreference() {
+        return this.allowReadPreference;
+    }
+
+    public boolean isAllowReadPreference() {
+        return this.allowReadPreference;
+    }
+
+    public boolean getAllowReadConcern() {
+        return this.allowReadConcern;
+    }
+
+    public boolean isAllowReadConcern() {
+        return this.allowReadConcern;
+    }
+
+    public boolean getAllowWriteConcern() {
+        return this.allowWriteConcern;
+    }
+
+    public boolean isAllowWriteConcern() {
+        return this.allowWriteConcern;
+    }
 }
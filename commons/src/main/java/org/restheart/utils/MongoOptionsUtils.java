@@ -0,0 +1,202 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.utils;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.json.JsonParseException;
+
+/**
+ * Helper methods to parse the MongoDB read and write options specified via
+ * configuration, collection metadata or query parameters
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class MongoOptionsUtils {
+    private MongoOptionsUtils() {
+    }
+
+    /**
+     *
+     * @param value the read preference name, e.g. primary or secondaryPreferred
+     * @return the ReadPreference or null if value is null
+     * @throws IllegalArgumentException if value is not a valid read preference
+     */
+    public static ReadPreference readPreference(String value) throws IllegalArgumentException {
+        return value == null ? null : ReadPreference.valueOf(value.trim());
+    }
+
+    /**
+     *
+     * @param value the read concern level, e.g. local or majority
+     * @return the ReadConcern or null if value is null
+     * @throws IllegalArgumentException if value is not a valid read concern level
+     */
+    public static ReadConcern readConcern(String value) throws IllegalArgumentException {
+        return value == null ? null : new ReadConcern(ReadConcernLevel.fromString(value.trim()));
+    }
+
+    /**
+     *
+     * @param value a BsonString with the read preference name
+     * @return the ReadPreference or null if value is null
+     * @throws IllegalArgumentException if value is not a valid read preference
+     */
+    public static ReadPreference readPreference(BsonValue value) throws IllegalArgumentException {
+        if (value == null || value.isNull()) {
+            return null;
+        } else if (!value.isString()) {
+            throw new IllegalArgumentException("read preference must be a string");
+        } else {
+            return readPreference(value.asString().getValue());
+        }
+    }
+
+    /**
+     *
+     * @param value a BsonString with the read concern level
+     * @return the ReadConcern or null if value is null
+     * @throws IllegalArgumentException if value is not a valid read concern level
+     */
+    public static ReadConcern readConcern(BsonValue value) throws IllegalArgumentException {
+        if (value == null || value.isNull()) {
+            return null;
+        } else if (!value.isString()) {
+            throw new IllegalArgumentException("read concern must be a string");
+        } else {
+            return readConcern(value.asString().getValue());
+        }
+    }
+
+    /**
+     * Parses the write concern, that can be specified either as the w
+     * value (e.g. 1 or majority) or as a JSON object with the optional
+     * properties w, j and wtimeout, e.g. {"w": 1, "j": false}
+     *
+     * Unacknowledged write concerns are not supported.
+     *
+     * @param value the write concern
+     * @return the WriteConcern or null if value is null
+     * @throws IllegalArgumentException if value is not a valid write concern
+     */
+    public static WriteConcern writeConcern(String value) throws IllegalArgumentException {
+        if (value == null) {
+            return null;
+        }
+
+        var _value = value.trim();
+
+        if (_value.startsWith("{")) {
+            try {
+                return writeConcern(BsonDocument.parse(_value));
+            } catch (JsonParseException jpe) {
+                throw new IllegalArgumentException("write concern is not a valid JSON object", jpe);
+            }
+        } else {
+            return checkAcknowledged(w(_value));
+        }
+    }
+
+    /**
+     * Parses the write concern, that can be specified either as the w
+     * value (e.g. 1 or "majority") or as a document with the optional
+     * properties w, j and wtimeout, e.g. {"w": 1, "j": false}
+     *
+     * Unacknowledged write concerns are not supported.
+     *
+     * @param value the write concern
+     * @return the WriteConcern or null if value is null
+     * @throws IllegalArgumentException if value is not a valid write concern
+     */
+    public static WriteConcern writeConcern(BsonValue value) throws IllegalArgumentException {
+        if (value == null || value.isNull()) {
+            return null;
+        } else if (value.isString()) {
+            return writeConcern(value.asString().getValue());
+        } else if (value.isNumber()) {
+            return checkAcknowledged(new WriteConcern(value.asNumber().intValue()));
+        } else if (!value.isDocument()) {
+            throw new IllegalArgumentException("write concern must be a string, a number or an object");
+        }
+
+        var doc = value.asDocument();
+
+        for (var key: doc.keySet()) {
+            if (!"w".equals(key) && !"j".equals(key) && !"wtimeout".equals(key)) {
+                throw new IllegalArgumentException("write concern has invalid property " + key + ", valid properties are w, j and wtimeout");
+            }
+        }
+
+        var w = doc.get("w");
+        var j = doc.get("j");
+        var wtimeout = doc.get("wtimeout");
+
+        WriteConcern wc;
+
+        if (w == null) {
+            wc = WriteConcern.ACKNOWLEDGED;
+        } else if (w.isString()) {
+            wc = w(w.asString().getValue());
+        } else if (w.isNumber()) {
+            wc = new WriteConcern(w.asNumber().intValue());
+        } else {
+            throw new IllegalArgumentException("write concern w must be a string or a number");
+        }
+
+        if (j != null) {
+            if (!j.isBoolean()) {
+                throw new IllegalArgumentException("write concern j must be a boolean");
+            }
+
+            wc = wc.withJournal(j.asBoolean().getValue());
+        }
+
+        if (wtimeout != null) {
+            if (!wtimeout.isNumber() || wtimeout.asNumber().longValue() < 0) {
+                throw new IllegalArgumentException("write concern wtimeout must be a positive number");
+            }
+
+            wc = wc.withWTimeout(wtimeout.asNumber().longValue(), TimeUnit.MILLISECONDS);
+        }
+
+        return checkAcknowledged(wc);
+    }
+
+    private static WriteConcern w(String w) {
+        try {
+            return new WriteConcern(Integer.parseInt(w));
+        } catch (NumberFormatException nfe) {
+            return new WriteConcern(w);
+        }
+    }
+
+    private static WriteConcern checkAcknowledged(WriteConcern wc) {
+        if (!wc.isAcknowledged()) {
+            throw new IllegalArgumentException("unacknowledged write concern is not supported");
+        }
+
+        return wc;
+    }
+}
@@ -307,10 +307,10 @@ public class PluginUtils {
     }
 
     @SuppressWarnings("rawtypes")
-    private static LoadingCache<ExchangeTypeResolver, Type> RC = CacheFactory.createHashMapLoadingCache(plugin -> plugin.requestType());
+    private static LoadingCache<ExchangeTypeResolver, Type> RC = CacheFactory.createHashMapLoadingCache("plugins.requestTypes", plugin -> plugin.requestType());
 
     @SuppressWarnings("rawtypes")
-    private static LoadingCache<ExchangeTypeResolver, Type> SC = CacheFactory.createHashMapLoadingCache(plugin -> plugin.responseType());
+    private static LoadingCache<ExchangeTypeResolver, Type> SC = CacheFactory.createHashMapLoadingCache("plugins.responseTypes", plugin -> plugin.responseType());
 
     /**
      * Plugin.requestType() is heavy. This helper methods speeds up invocation using
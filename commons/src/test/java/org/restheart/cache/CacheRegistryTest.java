@@ -0,0 +1,62 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CacheRegistryTest {
+    @Test
+    public void testRegister() {
+        var registry = CacheRegistry.getInstance();
+        var cache = CacheFactory.<String, Integer>createLocalLoadingCache("test.registered", 10, Cache.EXPIRE_POLICY.NEVER, 0, key -> key.length());
+
+        assertSame(cache, registry.get("test.registered"));
+        assertTrue(registry.caches().containsKey("test.registered"));
+
+        cache.getLoading("a");
+        cache.getLoading("a");
+
+        var stats = registry.get("test.registered").stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(0.5d, stats.hitRate(), 0d);
+
+        // the cache is replaced by another one with the same name
+        var other = CacheFactory.<String, Integer>createLocalCache("test.registered", 10, Cache.EXPIRE_POLICY.NEVER, 0);
+        assertSame(other, registry.get("test.registered"));
+
+        // the old cache does not unregister the new one
+        registry.unregister("test.registered", cache);
+        assertSame(other, registry.get("test.registered"));
+
+        registry.unregister("test.registered", other);
+        assertNull(registry.get("test.registered"));
+        assertFalse(registry.caches().containsKey("test.registered"));
+    }
+}
@@ -0,0 +1,109 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.cache.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.restheart.cache.Cache;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CaffeineLoadingCacheTest {
+    @Test
+    public void testGetLoading() {
+        var loads = new AtomicInteger(0);
+        var instance = new CaffeineLoadingCache<String, Integer>(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 10000, key -> {
+            loads.incrementAndGet();
+            return "null".equals(key) ? null : key.length();
+        });
+
+        assertEquals(Integer.valueOf(3), instance.getLoading("abc").get());
+        assertEquals(Integer.valueOf(3), instance.getLoading("abc").get());
+        assertFalse(instance.getLoading("null").isPresent());
+        assertEquals(2, loads.get());
+
+        var stats = instance.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(2, stats.loadSuccessCount());
+    }
+
+    @Test
+    public void testGetLoadingAsyncAndGetAll() throws Exception {
+        var instance = new CaffeineLoadingCache<String, Integer>(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 10000, key -> key.length());
+
+        assertEquals(Integer.valueOf(2), instance.getLoadingAsync("ab").get(5, TimeUnit.SECONDS).get());
+        assertEquals(Integer.valueOf(2), instance.get("ab").get());
+
+        var all = instance.getAll(List.of("a", "ab", "abc"));
+        assertEquals(3, all.size());
+        assertEquals(Integer.valueOf(1), all.get("a").get());
+        assertEquals(Integer.valueOf(3), all.get("abc").get());
+    }
+
+    @Test
+    public void testRefreshAfterWrite() throws Exception {
+        var version = new AtomicInteger(0);
+        var instance = new CaffeineLoadingCache<String, Integer>(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 60_000, 50, key -> version.incrementAndGet());
+
+        assertEquals(Integer.valueOf(1), instance.getLoading("a").get());
+
+        Thread.sleep(100);
+
+        // the stale value is returned while it is reloaded in background
+        assertEquals(Integer.valueOf(1), instance.getLoading("a").get());
+
+        var deadline = System.currentTimeMillis() + 5_000;
+        while (instance.get("a").get() == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Integer.valueOf(2), instance.get("a").get());
+        assertTrue(instance.stats().loadSuccessCount() >= 2);
+    }
+
+    @Test
+    public void testLoadFailures() {
+        var instance = new CaffeineLoadingCache<String, Integer>(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 10000, key -> {
+            if ("fail".equals(key)) {
+                throw new IllegalStateException("load failed");
+            }
+
+            return key.length();
+        });
+
+        assertThrows(IllegalStateException.class, () -> instance.getLoading("fail"));
+        assertEquals(Integer.valueOf(2), instance.getLoading("ok").get());
+
+        var stats = instance.stats();
+        assertEquals(1, stats.loadSuccessCount());
+        assertEquals(1, stats.loadFailureCount());
+        assertTrue(stats.totalLoadTime() > 0);
+    }
+}
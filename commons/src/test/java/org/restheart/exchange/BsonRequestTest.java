@@ -20,11 +20,16 @@
 
 package org.restheart.exchange;
 
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HttpString;
+import org.bson.BsonDocument;
 import org.junit.After;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -232,4 +237,34 @@ public class BsonRequestTest {
         request = MongoRequest.init(ex, whereUri, whatUri);
         assertEquals("/db/coll/x", request.getUnmappedRequestUri());
     }
+
+    /**
+     *
+     */
+    @Test
+    public void testCollectionOptions() {
+        HttpServerExchange ex = mock(HttpServerExchange.class);
+        when(ex.getRequestPath()).thenReturn("/db/coll");
+        when(ex.getRequestMethod()).thenReturn(HttpString.EMPTY);
+
+        var request = MongoRequest.init(ex, "/", "*");
+        request.setDefaultReadPreference(ReadPreference.primary());
+        request.setDefaultReadConcern(ReadConcern.LOCAL);
+
+        request.setCollectionProps(BsonDocument.parse("{'readPreference': 'secondaryPreferred', 'readConcern': 'majority', 'writeConcern': {'w': 'majority'}}"));
+        assertEquals(ReadPreference.secondaryPreferred(), request.getReadPreference());
+        assertEquals(ReadConcern.MAJORITY, request.getReadConcern());
+        assertEquals(WriteConcern.MAJORITY, request.getWriteConcern());
+
+        // the query parameters take precedence
+        request.setReadPreference(ReadPreference.nearest());
+        assertEquals(ReadPreference.nearest(), request.getReadPreference());
+        request.setReadPreference(null);
+
+        // wrong options are ignored
+        request.setCollectionProps(BsonDocument.parse("{'readPreference': 'wrong', 'readConcern': 'wrong', 'writeConcern': 0}"));
+        assertEquals(ReadPreference.primary(), request.getReadPreference());
+        assertEquals(ReadConcern.LOCAL, request.getReadConcern());
+        assertNull(request.getWriteConcern());
+    }
 }
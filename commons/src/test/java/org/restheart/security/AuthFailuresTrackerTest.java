@@ -0,0 +1,71 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AuthFailuresTrackerTest {
+    @Test
+    public void testFailureRate() {
+        var now = new AtomicLong(1_000_000);
+        var tracker = new AuthFailuresTracker(100, now::get);
+
+        assertEquals(0d, tracker.failureRate("a"), 0d);
+
+        tracker.record("a", false);
+        tracker.record("a", false);
+        now.addAndGet(3_000);
+        tracker.record("a", true);
+        tracker.record("b", true);
+
+        assertEquals(2d / 3, tracker.failureRate("a"), 0.0001d);
+        assertEquals(0d, tracker.failureRate("b"), 0d);
+
+        // the first two failures fall out of the window
+        now.addAndGet(AuthFailuresTracker.WINDOW_MS - 1_000);
+        assertEquals(0d, tracker.failureRate("a"), 0d);
+
+        tracker.record("a", false);
+        assertEquals(0.5d, tracker.failureRate("a"), 0.0001d);
+
+        // a reused bucket slot is reset
+        now.addAndGet(AuthFailuresTracker.WINDOW_MS);
+        tracker.record("a", true);
+        assertEquals(0d, tracker.failureRate("a"), 0d);
+    }
+
+    @Test
+    public void testBounded() {
+        var tracker = new AuthFailuresTracker(100, System::currentTimeMillis);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("client-" + i, false);
+        }
+
+        assertTrue(tracker.size() <= 100);
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-commons
+ * %%
+ * Copyright (C) 2019 - 2020 SoftInstigate
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.utils;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonString;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class MongoOptionsUtilsTest {
+    @Test
+    public void testReadPreference() {
+        assertEquals(ReadPreference.secondaryPreferred(), MongoOptionsUtils.readPreference("secondaryPreferred"));
+        assertNull(MongoOptionsUtils.readPreference((String) null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidReadPreference() {
+        MongoOptionsUtils.readPreference("foo");
+    }
+
+    @Test
+    public void testReadConcern() {
+        assertEquals(ReadConcern.MAJORITY, MongoOptionsUtils.readConcern("majority"));
+        assertEquals(ReadConcern.LOCAL, MongoOptionsUtils.readConcern(new BsonString("local")));
+        assertNull(MongoOptionsUtils.readConcern((String) null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidReadConcern() {
+        MongoOptionsUtils.readConcern("foo");
+    }
+
+    @Test
+    public void testWriteConcernW() {
+        assertEquals(WriteConcern.MAJORITY, MongoOptionsUtils.writeConcern("majority"));
+        assertEquals(WriteConcern.W1, MongoOptionsUtils.writeConcern("1"));
+        assertEquals(WriteConcern.MAJORITY, MongoOptionsUtils.writeConcern(new BsonString("majority")));
+    }
+
+    @Test
+    public void testWriteConcernDocument() {
+        var expected = WriteConcern.W1.withJournal(false).withWTimeout(1000, TimeUnit.MILLISECONDS);
+        assertEquals(expected, MongoOptionsUtils.writeConcern("{ \"wtimeout\": 1000, \"j\": false, \"w\": 1 }"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnacknowledgedWriteConcern() {
+        MongoOptionsUtils.writeConcern("0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWriteConcernProperty() {
+        MongoOptionsUtils.writeConcern("{ \"w\": 1, \"fsync\": true }");
+    }
+}
@@ -299,10 +299,15 @@ public class PluginsFactory {
         }
     }
 
-    void injectMongoDbDependencies(MongoClient mclient) {
+    /**
+     * @param name the name of the client as defined in mongo-clients, empty for
+     * the client defined by mongo-uri
+     * @param mclient
+     */
+    void injectMongoDbDependencies(String name, MongoClient mclient) {
         for (var ip: PLUGINS_TO_INJECT_DEPS) {
             try {
-                invokeInjectMongoClientMethods(ip, mclient);
+                invokeInjectMongoClientMethods(ip, name, mclient);
             } catch (InvocationTargetException ite) {
                 if (ite.getCause() != null && ite.getCause() instanceof NoClassDefFoundError) {
                     var errMsg = "Error handling the request. " + "An external dependency is missing for " + ip.type
@@ -423,16 +428,21 @@ public class PluginsFactory {
         }
     }
 
-    private void invokeInjectMongoClientMethods(InstatiatedPlugin ip, MongoClient mclient)
+    private void invokeInjectMongoClientMethods(InstatiatedPlugin ip, String name, MongoClient mclient)
             throws ConfigurationException, InstantiationException, IllegalAccessException, InvocationTargetException {
-        // finds @InjectMongoClient methods
+        // finds @InjectMongoClient methods asking for the client with that name
 
         for (var injection : ip.descriptor.injections) {
-            if (InjectMongoClient.class.equals(injection.clazz)) {
+            var clientName = injection.params.stream()
+                .filter(p -> "value".equals(p.getKey()))
+                .map(p -> p.getValue().toString())
+                .findFirst().orElse("");
+
+            if (InjectMongoClient.class.equals(injection.clazz) && clientName.equals(name)) {
                 // try to inovke @InjectMongoClient method
                 try {
                     ip.clazz.getDeclaredMethod(injection.method, MongoClient.class).invoke(ip.instance, mclient);
-                    LOGGER.trace("Injected MongoClient into {}.{}()", ip.clazz.getSimpleName(),
+                    LOGGER.trace("Injected MongoClient {} into {}.{}()", name, ip.clazz.getSimpleName(),
                             injection.method);
                 } catch (NoSuchMethodException nme) {
                     throw new ConfigurationException(ip.type + " " + ip.name
@@ -268,7 +268,7 @@ public class PluginsRegistryImpl implements PluginsRegistry {
 
     @SuppressWarnings("rawtypes")
     private LoadingCache<AbstractMap.SimpleEntry<Service, InterceptPoint>, List<Interceptor>> SRV_INTERCEPTORS_CACHE = CacheFactory
-        .createHashMapLoadingCache((key) -> __interceptors(key.getKey(), key.getValue()));
+        .createHashMapLoadingCache("plugins.serviceInterceptors", (key) -> __interceptors(key.getKey(), key.getValue()));
 
     @SuppressWarnings("rawtypes")
     private List<Interceptor> __interceptors(Service service, InterceptPoint interceptPoint) {
@@ -362,8 +362,13 @@ public class PluginsRegistryImpl implements PluginsRegistry {
 
     @Override
     public void injectDependency(Object mclient) {
+        injectDependency("", mclient);
+    }
+
+    @Override
+    public void injectDependency(String name, Object mclient) {
         if (mclient instanceof MongoClient) {
-            PluginsFactory.getInstance().injectMongoDbDependencies((MongoClient) mclient);
+            PluginsFactory.getInstance().injectMongoDbDependencies(name, (MongoClient) mclient);
         } else {
             throw new IllegalArgumentException("Unkwnown dependency type");
         }
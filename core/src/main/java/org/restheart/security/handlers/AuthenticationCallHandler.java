@@ -23,19 +23,13 @@ package org.restheart.security.handlers;
 import io.undertow.attribute.ExchangeAttributes;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
-import java.util.concurrent.TimeUnit;
-import com.codahale.metrics.Histogram;
-import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.SharedMetricRegistries;
-import com.codahale.metrics.Slf4jReporter;
-import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
-import com.codahale.metrics.Slf4jReporter.LoggingLevel;
-import static org.restheart.utils.MetricsUtils.unauthHistogramName;
+import io.undertow.util.Headers;
 
 import org.restheart.exchange.Request;
 import org.restheart.handlers.CORSHandler;
 import org.restheart.handlers.PipelinedHandler;
-import org.restheart.plugins.security.Authenticator;
+import org.restheart.plugins.security.AuthenticatorOverloadedException;
+import org.restheart.security.AuthFailuresTracker;
 import org.restheart.utils.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,22 +48,9 @@ import org.slf4j.LoggerFactory;
  */
 public class AuthenticationCallHandler extends PipelinedHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationCallHandler.class);
-    private static MetricRegistry AUTH_METRIC_REGISTRY = SharedMetricRegistries.getOrCreate("AUTH");
 
     private static final String BLOCK_AUTH_ERR_MSG = "Request authentication was blocked";
 
-    static {
-        if (LOGGER.isTraceEnabled()) {
-            Slf4jReporter
-                .forRegistry(AUTH_METRIC_REGISTRY)
-                .outputTo(LOGGER)
-                .filter((name, metric) -> name.startsWith(MetricRegistry.name(Authenticator.class, "unauth")))
-                .withLoggingLevel(LoggingLevel.TRACE)
-                .build()
-                .start(5, TimeUnit.SECONDS);
-        }
-    }
-
     public AuthenticationCallHandler(final PipelinedHandler next) {
         super(next);
     }
@@ -100,7 +81,7 @@ public class AuthenticationCallHandler extends PipelinedHandler {
             // set status code and end exchange
             exchange.setStatusCode(HttpStatus.SC_TOO_MANY_REQUESTS);
             exchange.endExchange();
-        } else if (sc.authenticate() && (!sc.isAuthenticationRequired() || sc.isAuthenticated())) {
+        } else if (authenticate(exchange) && (!sc.isAuthenticationRequired() || sc.isAuthenticated())) {
             // 1 authentication is always attempted
             // 2 requests fails if and only if authentication fails
             //   and authentication is required by all enabled authorizers,
@@ -112,6 +93,9 @@ public class AuthenticationCallHandler extends PipelinedHandler {
             if (!exchange.isComplete()) {
                 next(exchange);
             }
+        } else if (exchange.isComplete()) {
+            // rejected because the authenticator is overloaded
+            return;
         } else {
             updateAuthMetrics(exchange, false);
 
@@ -124,41 +108,49 @@ public class AuthenticationCallHandler extends PipelinedHandler {
     }
 
     /**
-     * Registers the percentage of failed authentication in dropwizard's
-     * slide time window histograms of 10 seconds.
+     * Calls SecurityContext.authenticate(). If an authenticator is overloaded,
+     * the request is rejected with the status code of the
+     * AuthenticatorOverloadedException, without counting as a failed
+     * authentication.
      *
-     * For each request this register one histogram whose name contains the remote ip
-     * and one with the value of the header X-Forwarded-For, if present.
+     * @param exchange
+     * @return the result of SecurityContext.authenticate()
+     */
+    private boolean authenticate(HttpServerExchange exchange) {
+        try {
+            return exchange.getSecurityContext().authenticate();
+        } catch (AuthenticatorOverloadedException aoe) {
+            LOGGER.warn("Authentication rejected: {}", aoe.getMessage());
+
+            // add CORS headers
+            CORSHandler.injectAccessControlAllowHeaders(exchange);
+            exchange.getResponseHeaders().put(Headers.RETRY_AFTER, aoe.getRetryAfter());
+            // set status code and end exchange
+            exchange.setStatusCode(aoe.getStatusCode());
+            exchange.endExchange();
+            return false;
+        }
+    }
+
+    /**
+     * Records the outcome of the authentication in the AuthFailuresTracker,
+     * that keeps the percentage of failed authentications in the last 10
+     * seconds.
      *
-     * This method updates the histograms with 1 for each failed authentication
-     * and with 0 for successful ones, so that the mean of each histogram is the
-     * percentage of the failed authentications in the last 10 seconds.
+     * For each request this records one attempt for the remote ip
+     * and one for the value of the header X-Forwarded-For, if present.
      *
      * @param exchange
      * @param success
      */
     private void updateAuthMetrics(HttpServerExchange exchange, boolean success) {
-        var histoNameWithXFF = unauthHistogramName(exchange, true);
+        var tracker = AuthFailuresTracker.getInstance();
+        var keyWithXFF = AuthFailuresTracker.key(exchange, true);
 
-        if (histoNameWithXFF != null) {
-            AUTH_METRIC_REGISTRY.histogram(histoNameWithXFF, () -> new Histogram(new SlidingTimeWindowArrayReservoir(10, TimeUnit.SECONDS))).update(success ? 0 : 1);
+        if (keyWithXFF != null) {
+            tracker.record(keyWithXFF, success);
         }
 
-        AUTH_METRIC_REGISTRY.histogram(unauthHistogramName(exchange, false), () -> new Histogram(new SlidingTimeWindowArrayReservoir(10, TimeUnit.SECONDS))).update(success ? 0 : 1);
-
-        var total = AUTH_METRIC_REGISTRY.counter(MetricRegistry.name(Authenticator.class, "_total"));
-        total.inc();
-
-        // every 1000 attemps prune the counters
-        // to avoid memory leacks
-        if (total.getCount() % 1000 == 0) {
-            pruneMetrics();
-            total.dec(total.getCount());
-        }
-    }
-
-    private void pruneMetrics() {
-        LOGGER.trace("pruning auth metrics");
-        AUTH_METRIC_REGISTRY.removeMatching((name, metric) -> name.startsWith(MetricRegistry.name(Authenticator.class, "unauth-")));
+        tracker.record(AuthFailuresTracker.key(exchange, false), success);
     }
-}
\ No newline at end of file
+}
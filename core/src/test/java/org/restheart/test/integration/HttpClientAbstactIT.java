@@ -769,11 +769,11 @@ public abstract class HttpClientAbstactIT extends AbstactIT {
         }
 
         final var documentDAO = Documents.get();
-        documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, collection1Name, Optional.of(new BsonString(document1Id)), Optional.empty(), Optional.empty(), document1Props, new ObjectId().toString(), false);
-        documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, collection2Name, Optional.of(new BsonString(document2Id)), Optional.empty(), Optional.empty(), document2Props, new ObjectId().toString(), false);
+        documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, collection1Name, Optional.of(new BsonString(document1Id)), Optional.empty(), Optional.empty(), document1Props, new ObjectId().toString(), false, Optional.empty());
+        documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, collection2Name, Optional.of(new BsonString(document2Id)), Optional.empty(), Optional.empty(), document2Props, new ObjectId().toString(), false, Optional.empty());
 
         for (String doc : docsPropsStrings) {
-            documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, docsCollectionName, Optional.of(new BsonObjectId(new ObjectId())), Optional.empty(), Optional.empty(), BsonDocument.parse(doc), new ObjectId().toString(), false);
+            documentDAO.writeDocument(Optional.empty(), METHOD.PUT, WRITE_MODE.UPSERT, dbName, docsCollectionName, Optional.of(new BsonObjectId(new ObjectId())), Optional.empty(), Optional.empty(), BsonDocument.parse(doc), new ObjectId().toString(), false, Optional.empty());
         }
         LOG.debug("test data created");
     }
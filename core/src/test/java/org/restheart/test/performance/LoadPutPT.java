@@ -180,6 +180,7 @@ public class LoadPutPT extends AbstractPT {
                 Optional.empty(),
                 content,
                 null,
-                false);
+                false,
+                Optional.empty()); // default write concern
     }
 }
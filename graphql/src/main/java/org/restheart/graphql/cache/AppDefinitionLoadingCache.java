@@ -38,8 +38,8 @@ public class AppDefinitionLoadingCache {
     private static final long MAX_CACHE_SIZE = 1_000;
 
     private AppDefinitionLoadingCache(){
-        this.appLoadingCache = CacheFactory.createLocalLoadingCache(MAX_CACHE_SIZE,
-                Cache.EXPIRE_POLICY.AFTER_WRITE, ttl,
+        this.appLoadingCache = CacheFactory.createLocalLoadingCache("graphql.apps", MAX_CACHE_SIZE,
+                Cache.EXPIRE_POLICY.AFTER_WRITE, ttl, ttl / 2,
                 (String key) -> {
                     try {
                         return AppDefinitionLoader.loadAppDefinition(key);
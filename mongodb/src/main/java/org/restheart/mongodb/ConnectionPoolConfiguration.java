@@ -0,0 +1,97 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.connection.ConnectionPoolSettings;
+
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.*;
+import static org.restheart.utils.ConfigurationUtils.asInteger;
+import static org.restheart.utils.ConfigurationUtils.asLong;
+
+/**
+ * The settings of the MongoDB connection pool, see mongo-connection-pool
+ * configuration option
+ *
+ * Options specified in the connection string (e.g. maxPoolSize) take
+ * precedence over these settings.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public record ConnectionPoolConfiguration(
+    int minSize,
+    int maxSize,
+    long maxWaitTime,
+    int maxConnecting,
+    long maxConnectionIdleTime) {
+
+    public static final ConnectionPoolConfiguration DEFAULT = new ConnectionPoolConfiguration(
+        DEFAULT_MONGO_CONNECTION_POOL_MIN_SIZE,
+        DEFAULT_MONGO_CONNECTION_POOL_MAX_SIZE,
+        DEFAULT_MONGO_CONNECTION_POOL_MAX_WAIT_TIME,
+        DEFAULT_MONGO_CONNECTION_POOL_MAX_CONNECTING,
+        DEFAULT_MONGO_CONNECTION_POOL_MAX_IDLE_TIME);
+
+    public ConnectionPoolConfiguration {
+        if (minSize < 0 || maxSize < 0 || maxWaitTime < 0 || maxConnecting <= 0 || maxConnectionIdleTime < 0) {
+            throw new IllegalArgumentException("wrong " + MONGO_CONNECTION_POOL_KEY + ", values must be positive");
+        }
+
+        if (maxSize > 0 && minSize > maxSize) {
+            throw new IllegalArgumentException("wrong " + MONGO_CONNECTION_POOL_KEY + ", " + MONGO_CONNECTION_POOL_MIN_SIZE_KEY + " cannot be greater than " + MONGO_CONNECTION_POOL_MAX_SIZE_KEY);
+        }
+    }
+
+    /**
+     *
+     * @param conf the mongo-connection-pool configuration map, can be null
+     * @param defaults the values of the options missing in conf
+     * @param silent
+     * @return the ConnectionPoolConfiguration
+     */
+    public static ConnectionPoolConfiguration from(Map<String, Object> conf, ConnectionPoolConfiguration defaults, boolean silent) {
+        if (conf == null) {
+            return defaults;
+        }
+
+        return new ConnectionPoolConfiguration(
+            asInteger(conf, MONGO_CONNECTION_POOL_MIN_SIZE_KEY, defaults.minSize(), silent),
+            asInteger(conf, MONGO_CONNECTION_POOL_MAX_SIZE_KEY, defaults.maxSize(), silent),
+            asLong(conf, MONGO_CONNECTION_POOL_MAX_WAIT_TIME_KEY, defaults.maxWaitTime(), silent),
+            asInteger(conf, MONGO_CONNECTION_POOL_MAX_CONNECTING_KEY, defaults.maxConnecting(), silent),
+            asLong(conf, MONGO_CONNECTION_POOL_MAX_IDLE_TIME_KEY, defaults.maxConnectionIdleTime(), silent));
+    }
+
+    /**
+     * applies the settings to the ConnectionPoolSettings.Builder
+     *
+     * @param builder
+     */
+    public void apply(ConnectionPoolSettings.Builder builder) {
+        builder.minSize(minSize)
+            .maxSize(maxSize)
+            .maxWaitTime(maxWaitTime, TimeUnit.MILLISECONDS)
+            .maxConnecting(maxConnecting)
+            .maxConnectionIdleTime(maxConnectionIdleTime, TimeUnit.MILLISECONDS);
+    }
+}
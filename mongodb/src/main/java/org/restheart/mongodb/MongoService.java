@@ -28,6 +28,8 @@ import io.undertow.util.PathTemplate;
 import io.undertow.util.PathTemplateMatch;
 import io.undertow.util.PathTemplateMatcher;
 
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -41,6 +43,8 @@ import org.restheart.exchange.MongoResponse;
 import org.restheart.exchange.Request;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.handlers.PipelinedWrappingHandler;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.MONGO_MOUNT_READ_CONCERN_KEY;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.MONGO_MOUNT_READ_PREFERENCE_KEY;
 import static org.restheart.mongodb.MongoServiceConfigurationKeys.MONGO_MOUNT_WHAT_KEY;
 import static org.restheart.mongodb.MongoServiceConfigurationKeys.MONGO_MOUNT_WHERE_KEY;
 import org.restheart.mongodb.db.MongoClientSingleton;
@@ -58,6 +62,7 @@ import org.restheart.plugins.PluginsRegistry;
 import org.restheart.plugins.RegisterPlugin;
 import org.restheart.plugins.Service;
 import org.restheart.utils.HttpStatus;
+import org.restheart.utils.MongoOptionsUtils;
 import org.restheart.utils.PluginUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -199,7 +204,9 @@ public class MongoService implements Service<MongoRequest, MongoResponse> {
             var mm = mongoMountsMatch(e, path);
 
             if (mm != null) {
-                MongoRequest.init(e, mm.uri, mm.resource);
+                var request = MongoRequest.init(e, mm.uri, mm.resource);
+                request.setDefaultReadPreference(mm.readPreference);
+                request.setDefaultReadConcern(mm.readConcern);
             } else {
                 LOGGER.warn("No MongoDb resource bound for {}. "
                         + "Check mongo service configuration: "
@@ -249,11 +256,31 @@ public class MongoService implements Service<MongoRequest, MongoResponse> {
 
         MongoServiceConfiguration.get().getMongoMounts()
                 .stream()
-                .forEachOrdered(e -> ret.add(new MongoMount((String) e.get(MONGO_MOUNT_WHAT_KEY), resolveURI((String) e.get(MONGO_MOUNT_WHERE_KEY)))));
+                .forEachOrdered(e -> ret.add(new MongoMount(
+                    (String) e.get(MONGO_MOUNT_WHAT_KEY),
+                    resolveURI((String) e.get(MONGO_MOUNT_WHERE_KEY)),
+                    readPreference(e.get(MONGO_MOUNT_READ_PREFERENCE_KEY)),
+                    readConcern(e.get(MONGO_MOUNT_READ_CONCERN_KEY)))));
 
         return ret;
     }
 
+    private static ReadPreference readPreference(Object value) {
+        try {
+            return value == null ? null : MongoOptionsUtils.readPreference(value.toString());
+        } catch(IllegalArgumentException iae) {
+            throw new IllegalArgumentException("wrong '" + MONGO_MOUNT_READ_PREFERENCE_KEY + "' " + value + ". check your 'mongo-mounts'.", iae);
+        }
+    }
+
+    private static ReadConcern readConcern(Object value) {
+        try {
+            return value == null ? null : MongoOptionsUtils.readConcern(value.toString());
+        } catch(IllegalArgumentException iae) {
+            throw new IllegalArgumentException("wrong '" + MONGO_MOUNT_READ_CONCERN_KEY + "' " + value + ". check your 'mongo-mounts'.", iae);
+        }
+    }
+
     /**
      *
      * @param uri
@@ -300,8 +327,8 @@ public class MongoService implements Service<MongoRequest, MongoResponse> {
     /**
      * helper class to store mongo mounts info
      */
-    private static record MongoMount(String resource, String uri) {
-        public MongoMount(String resource, String uri) {
+    private static record MongoMount(String resource, String uri, ReadPreference readPreference, ReadConcern readConcern) {
+        public MongoMount(String resource, String uri, ReadPreference readPreference, ReadConcern readConcern) {
             if (uri == null) {
                 throw new IllegalArgumentException("'where' cannot be null. check your 'mongo-mounts'.");
             }
@@ -320,6 +347,8 @@ public class MongoService implements Service<MongoRequest, MongoResponse> {
 
             this.resource = resource;
             this.uri = org.restheart.utils.URLUtils.removeTrailingSlashes(uri);
+            this.readPreference = readPreference;
+            this.readConcern = readConcern;
         }
 
         @Override
@@ -64,6 +64,8 @@ public class MongoServiceConfiguration {
     private final String instanceBaseURL;
     private final REPRESENTATION_FORMAT defaultRepresentationFormat;
     private final ConnectionString mongoUri;
+    private final ConnectionPoolConfiguration connectionPool;
+    private final Map<String, NamedClient> mongoClients;
     private final List<Map<String, Object>> mongoMounts;
     private final Map<String, Map<String, Object>> pluginsArgs;
     private final boolean localCacheEnabled;
@@ -82,8 +84,16 @@ public class MongoServiceConfiguration {
     private final ETAG_CHECK_POLICY docEtagCheckPolicy;
     private final Map<String, Object> connectionOptions;
     private final long queryTimeLimit;
+    private final long slowQueryThreshold;
+    private final int slowQueriesBufferSize;
     private final long aggregationTimeLimit;
     private final boolean aggregationCheckOperators;
+    private final int aggregationCursorPoolSize;
+    private final long aggregationCursorPoolTtl;
+    private final int changeStreamsQueueSize;
+    private final CHANGE_STREAMS_OVERFLOW_POLICY changeStreamsOverflowPolicy;
+    private final int clientSessionsPoolSize;
+    private final long clientSessionsPoolTtl;
     private final int cursorBatchSize;
     private final int defaultPagesize;
     private final int maxPagesize;
@@ -153,6 +163,33 @@ public class MongoServiceConfiguration {
 
         mongoUri = _mongoUri;
 
+        connectionPool = connectionPool(asMap(conf, MONGO_CONNECTION_POOL_KEY, silent), ConnectionPoolConfiguration.DEFAULT, silent);
+
+        var _mongoClients = new LinkedHashMap<String, NamedClient>();
+
+        asListOfMaps(conf, MONGO_CLIENTS_KEY, new ArrayList<>(), silent).stream().forEachOrdered(c -> {
+            var name = asString(c, MONGO_CLIENT_NAME_KEY, null, silent);
+            var uri = asString(c, MONGO_URI_KEY, null, silent);
+
+            if (name == null || uri == null) {
+                throw new ConfigurationException("Wrong parameter " + MONGO_CLIENTS_KEY + ", each client requires '" + MONGO_CLIENT_NAME_KEY + "' and '" + MONGO_URI_KEY + "'");
+            }
+
+            if (_mongoClients.containsKey(name)) {
+                throw new ConfigurationException("Wrong parameter " + MONGO_CLIENTS_KEY + ", duplicate client name " + name);
+            }
+
+            var pool = connectionPool(asMap(c, MONGO_CONNECTION_POOL_KEY, silent), connectionPool, silent);
+
+            try {
+                _mongoClients.put(name, new NamedClient(name, new ConnectionString(uri), pool));
+            } catch (IllegalArgumentException iae) {
+                throw new ConfigurationException("Wrong parameter " + MONGO_CLIENTS_KEY + ", invalid " + MONGO_URI_KEY + " for client " + name, iae);
+            }
+        });
+
+        mongoClients = Collections.unmodifiableMap(_mongoClients);
+
         List<Map<String, Object>> mongoMountsDefault = new ArrayList<>();
         Map<String, Object> defaultMongoMounts = new HashMap<>();
         defaultMongoMounts.put(MONGO_MOUNT_WHAT_KEY, DEFAULT_MONGO_MOUNT_WHAT);
@@ -166,8 +203,30 @@ public class MongoServiceConfiguration {
         requestsLimit = asInteger(conf, REQUESTS_LIMIT_KEY, 100, silent);
 
         queryTimeLimit = asLong(conf, QUERY_TIME_LIMIT_KEY, (long) 0, silent);
+        slowQueryThreshold = asLong(conf, SLOW_QUERY_THRESHOLD_KEY, DEFAULT_SLOW_QUERY_THRESHOLD, silent);
+        slowQueriesBufferSize = asInteger(conf, SLOW_QUERIES_BUFFER_SIZE_KEY, DEFAULT_SLOW_QUERIES_BUFFER_SIZE, silent);
         aggregationTimeLimit = asLong(conf, AGGREGATION_TIME_LIMIT_KEY, (long) 0, silent);
         aggregationCheckOperators = asBoolean(conf, AGGREGATION_CHECK_OPERATORS, true, silent);
+        aggregationCursorPoolSize = asInteger(conf, AGGREGATION_CURSOR_POOL_SIZE_KEY, DEFAULT_AGGREGATION_CURSOR_POOL_SIZE, silent);
+        aggregationCursorPoolTtl = asLong(conf, AGGREGATION_CURSOR_POOL_TTL_KEY, DEFAULT_AGGREGATION_CURSOR_POOL_TTL, silent);
+
+        changeStreamsQueueSize = asInteger(conf, CHANGE_STREAMS_QUEUE_SIZE_KEY, DEFAULT_CHANGE_STREAMS_QUEUE_SIZE, silent);
+
+        clientSessionsPoolSize = asInteger(conf, CLIENT_SESSIONS_POOL_SIZE_KEY, DEFAULT_CLIENT_SESSIONS_POOL_SIZE, silent);
+        clientSessionsPoolTtl = asLong(conf, CLIENT_SESSIONS_POOL_TTL_KEY, DEFAULT_CLIENT_SESSIONS_POOL_TTL, silent);
+
+        {
+            CHANGE_STREAMS_OVERFLOW_POLICY policy;
+            try {
+                var value = asString(conf, CHANGE_STREAMS_OVERFLOW_POLICY_KEY, CHANGE_STREAMS_OVERFLOW_POLICY.DROP_OLDEST.name(), silent);
+                policy = CHANGE_STREAMS_OVERFLOW_POLICY.valueOf(value.toUpperCase(Locale.getDefault()).replace('-', '_'));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("wrong value for parameter {} setting it to default value {}", CHANGE_STREAMS_OVERFLOW_POLICY_KEY,
+                        CHANGE_STREAMS_OVERFLOW_POLICY.DROP_OLDEST);
+                policy = CHANGE_STREAMS_OVERFLOW_POLICY.DROP_OLDEST;
+            }
+            changeStreamsOverflowPolicy = policy;
+        }
 
         localCacheEnabled = asBoolean(conf, LOCAL_CACHE_ENABLED_KEY, true, silent);
         localCacheTtl = asLong(conf, LOCAL_CACHE_TTL_KEY, (long) 1000, silent);
@@ -250,10 +309,19 @@ public class MongoServiceConfiguration {
         }
     }
 
+    private static ConnectionPoolConfiguration connectionPool(Map<String, Object> conf, ConnectionPoolConfiguration defaults, boolean silent) {
+        try {
+            return ConnectionPoolConfiguration.from(conf, defaults, silent);
+        } catch (IllegalArgumentException iae) {
+            throw new ConfigurationException("Wrong parameter " + MONGO_CONNECTION_POOL_KEY + ": " + iae.getMessage(), iae);
+        }
+    }
+
     @Override
     public String toString() {
         return "Configuration{instanceBaseURL=" + instanceBaseURL
                 + ", defaultRepresentationFromat=" + defaultRepresentationFormat + ", mongoUri=" + mongoUri
+                + ", connectionPool=" + connectionPool + ", mongoClients=" + mongoClients.keySet()
                 + ", mongoMounts=" + mongoMounts + ", pluginsArgs=" + getPluginsArgs() + ", localCacheEnabled="
                 + localCacheEnabled + ", localCacheTtl=" + localCacheTtl + ", schemaCacheEnabled=" + schemaCacheEnabled
                 + ", schemaCacheTtl=" + schemaCacheTtl + ", requestsLimit=" + requestsLimit + ", metricsGatheringLevel="
@@ -263,8 +331,12 @@ public class MongoServiceConfiguration {
                 + eagerRndSliceMinWidht + ", eagerRndMaxCursors=" + eagerRndMaxCursors + ", dbEtagCheckPolicy="
                 + dbEtagCheckPolicy + ", collEtagCheckPolicy=" + collEtagCheckPolicy + ", docEtagCheckPolicy="
                 + docEtagCheckPolicy + ", connectionOptions=" + connectionOptions + ", queryTimeLimit=" + queryTimeLimit
+                + ", slowQueryThreshold=" + slowQueryThreshold + ", slowQueriesBufferSize=" + slowQueriesBufferSize
                 + ", aggregationTimeLimit=" + aggregationTimeLimit + ", aggregationCheckOperators="
-                + aggregationCheckOperators + ", cursorBatchSize=" + cursorBatchSize + ", defaultPagesize="
+                + aggregationCheckOperators + ", aggregationCursorPoolSize=" + aggregationCursorPoolSize
+                + ", aggregationCursorPoolTtl=" + aggregationCursorPoolTtl + ", changeStreamsQueueSize=" + changeStreamsQueueSize
+                + ", changeStreamsOverflowPolicy=" + changeStreamsOverflowPolicy + ", clientSessionsPoolSize=" + clientSessionsPoolSize
+                + ", clientSessionsPoolTtl=" + clientSessionsPoolTtl + ", cursorBatchSize=" + cursorBatchSize + ", defaultPagesize="
                 + defaultPagesize + ", maxPagesize=" + maxPagesize + ", configurationFileMap=" + configurationFileMap
                 + '}';
     }
@@ -304,6 +376,20 @@ public class MongoServiceConfiguration {
         return queryTimeLimit;
     }
 
+    /**
+     * @return the slowQueryThreshold
+     */
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * @return the slowQueriesBufferSize
+     */
+    public int getSlowQueriesBufferSize() {
+        return slowQueriesBufferSize;
+    }
+
     /**
      * @return the aggregationTimeLimit
      */
@@ -318,6 +404,48 @@ public class MongoServiceConfiguration {
         return aggregationCheckOperators;
     }
 
+    /**
+     * @return the aggregationCursorPoolSize
+     */
+    public int getAggregationCursorPoolSize() {
+        return aggregationCursorPoolSize;
+    }
+
+    /**
+     * @return the aggregationCursorPoolTtl
+     */
+    public long getAggregationCursorPoolTtl() {
+        return aggregationCursorPoolTtl;
+    }
+
+    /**
+     * @return the changeStreamsQueueSize
+     */
+    public int getChangeStreamsQueueSize() {
+        return changeStreamsQueueSize;
+    }
+
+    /**
+     * @return the changeStreamsOverflowPolicy
+     */
+    public CHANGE_STREAMS_OVERFLOW_POLICY getChangeStreamsOverflowPolicy() {
+        return changeStreamsOverflowPolicy;
+    }
+
+    /**
+     * @return the clientSessionsPoolSize
+     */
+    public int getClientSessionsPoolSize() {
+        return clientSessionsPoolSize;
+    }
+
+    /**
+     * @return the clientSessionsPoolTtl
+     */
+    public long getClientSessionsPoolTtl() {
+        return clientSessionsPoolTtl;
+    }
+
     /**
      * @return the eagerLinearSliceWidht
      */
@@ -367,6 +495,20 @@ public class MongoServiceConfiguration {
         return mongoUri;
     }
 
+    /**
+     * @return the connectionPool
+     */
+    public ConnectionPoolConfiguration getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * @return the named mongo clients, see mongo-clients
+     */
+    public Map<String, NamedClient> getMongoClients() {
+        return mongoClients;
+    }
+
     /**
      * @return the pluginsArgs
      */
@@ -498,4 +640,24 @@ public class MongoServiceConfiguration {
          */
         COLLECTION
     }
+
+    /**
+     * what to do when the queue of a change stream client is full
+     */
+    public enum CHANGE_STREAMS_OVERFLOW_POLICY {
+        /**
+         * drop the oldest queued notification
+         */
+        DROP_OLDEST,
+        /**
+         * close the connection of the client, that can reconnect
+         */
+        DISCONNECT
+    }
+
+    /**
+     * a named mongo client, see mongo-clients
+     */
+    public static record NamedClient(String name, ConnectionString mongoUri, ConnectionPoolConfiguration connectionPool) {
+    }
 }
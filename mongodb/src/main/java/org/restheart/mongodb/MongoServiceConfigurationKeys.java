@@ -118,16 +118,161 @@ public interface MongoServiceConfigurationKeys {
      */
     public static final String AGGREGATION_TIME_LIMIT_KEY = "aggregation-time-limit";
 
+    /**
+     * the key for the slow-query-threshold property, in milliseconds
+     */
+    public static final String SLOW_QUERY_THRESHOLD_KEY = "slow-query-threshold";
+
+    /**
+     * the key for the slow-queries-buffer-size property
+     */
+    public static final String SLOW_QUERIES_BUFFER_SIZE_KEY = "slow-queries-buffer-size";
+
+    /**
+     * default value for slow-query-threshold, 0 disables slow queries capture
+     */
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD = 0;
+
+    /**
+     * default value for slow-queries-buffer-size
+     */
+    public static final int DEFAULT_SLOW_QUERIES_BUFFER_SIZE = 100;
+
     /**
      * The key for enabling check that aggregation variables contains operators.
      */
     public static final String AGGREGATION_CHECK_OPERATORS = "aggregation-check-operators";
 
+    /**
+     * the key for the aggregation-cursor-pool-size property.
+     */
+    public static final String AGGREGATION_CURSOR_POOL_SIZE_KEY = "aggregation-cursor-pool-size";
+
+    /**
+     * the key for the aggregation-cursor-pool-ttl property.
+     */
+    public static final String AGGREGATION_CURSOR_POOL_TTL_KEY = "aggregation-cursor-pool-ttl";
+
+    /**
+     * default value for aggregation-cursor-pool-size
+     */
+    public static final int DEFAULT_AGGREGATION_CURSOR_POOL_SIZE = 100;
+
+    /**
+     * default value for aggregation-cursor-pool-ttl, in milliseconds.
+     * must be less than 10 minutes, the idle timeout of cursors in mongodb
+     */
+    public static final long DEFAULT_AGGREGATION_CURSOR_POOL_TTL = 5 * 60 * 1000;
+
+    /**
+     * the key for the change-streams-queue-size property, the max number of
+     * notifications queued for each change stream client
+     */
+    public static final String CHANGE_STREAMS_QUEUE_SIZE_KEY = "change-streams-queue-size";
+
+    /**
+     * the key for the change-streams-overflow-policy property, what to do
+     * when the queue of a change stream client is full
+     */
+    public static final String CHANGE_STREAMS_OVERFLOW_POLICY_KEY = "change-streams-overflow-policy";
+
+    /**
+     * default value for change-streams-queue-size
+     */
+    public static final int DEFAULT_CHANGE_STREAMS_QUEUE_SIZE = 1000;
+
+    /**
+     * the key for the client-sessions-pool-size property, the max number of
+     * session ids whose client sessions are pooled
+     */
+    public static final String CLIENT_SESSIONS_POOL_SIZE_KEY = "client-sessions-pool-size";
+
+    /**
+     * the key for the client-sessions-pool-ttl property.
+     */
+    public static final String CLIENT_SESSIONS_POOL_TTL_KEY = "client-sessions-pool-ttl";
+
+    /**
+     * default value for client-sessions-pool-size
+     */
+    public static final int DEFAULT_CLIENT_SESSIONS_POOL_SIZE = 1000;
+
+    /**
+     * default value for client-sessions-pool-ttl, in milliseconds
+     */
+    public static final long DEFAULT_CLIENT_SESSIONS_POOL_TTL = 60 * 1000;
+
     /**
      * the key for the mongo-uri property.
      */
     public static final String MONGO_URI_KEY = "mongo-uri";
 
+    /**
+     * the key for the mongo-connection-pool property.
+     */
+    public static final String MONGO_CONNECTION_POOL_KEY = "mongo-connection-pool";
+
+    /**
+     * the key for the mongo-connection-pool.min-size property.
+     */
+    public static final String MONGO_CONNECTION_POOL_MIN_SIZE_KEY = "min-size";
+
+    /**
+     * the key for the mongo-connection-pool.max-size property.
+     */
+    public static final String MONGO_CONNECTION_POOL_MAX_SIZE_KEY = "max-size";
+
+    /**
+     * the key for the mongo-connection-pool.max-wait-time property.
+     */
+    public static final String MONGO_CONNECTION_POOL_MAX_WAIT_TIME_KEY = "max-wait-time";
+
+    /**
+     * the key for the mongo-connection-pool.max-connecting property.
+     */
+    public static final String MONGO_CONNECTION_POOL_MAX_CONNECTING_KEY = "max-connecting";
+
+    /**
+     * the key for the mongo-connection-pool.max-connection-idle-time property.
+     */
+    public static final String MONGO_CONNECTION_POOL_MAX_IDLE_TIME_KEY = "max-connection-idle-time";
+
+    /**
+     * default value for mongo-connection-pool.min-size
+     */
+    public static final int DEFAULT_MONGO_CONNECTION_POOL_MIN_SIZE = 0;
+
+    /**
+     * default value for mongo-connection-pool.max-size
+     */
+    public static final int DEFAULT_MONGO_CONNECTION_POOL_MAX_SIZE = 128;
+
+    /**
+     * default value for mongo-connection-pool.max-wait-time, in milliseconds
+     */
+    public static final long DEFAULT_MONGO_CONNECTION_POOL_MAX_WAIT_TIME = 2 * 60 * 1000;
+
+    /**
+     * default value for mongo-connection-pool.max-connecting
+     */
+    public static final int DEFAULT_MONGO_CONNECTION_POOL_MAX_CONNECTING = 2;
+
+    /**
+     * default value for mongo-connection-pool.max-connection-idle-time, in
+     * milliseconds. 0 means no limit
+     */
+    public static final long DEFAULT_MONGO_CONNECTION_POOL_MAX_IDLE_TIME = 0;
+
+    /**
+     * the key for the mongo-clients property, the list of the named clients
+     */
+    public static final String MONGO_CLIENTS_KEY = "mongo-clients";
+
+    /**
+     * the key for the name property of a mongo-clients entry.
+     */
+    public static final String MONGO_CLIENT_NAME_KEY = "name";
+
     /**
      * the key for the mongo-mounts property.
      */
@@ -143,6 +288,16 @@ public interface MongoServiceConfigurationKeys {
      */
     public static final String MONGO_MOUNT_WHERE_KEY = "where";
 
+    /**
+     * the key for the read-preference mongo-mount property.
+     */
+    public static final String MONGO_MOUNT_READ_PREFERENCE_KEY = "read-preference";
+
+    /**
+     * the key for the read-concern mongo-mount property.
+     */
+    public static final String MONGO_MOUNT_READ_CONCERN_KEY = "read-concern";
+
     /**
      * the default value for the where mongo-mount property.
      */
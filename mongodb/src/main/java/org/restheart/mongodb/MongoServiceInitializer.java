@@ -71,7 +71,10 @@ public class MongoServiceInitializer implements Initializer {
             return;
         }
 
-        MongoClientSingleton.init(MongoServiceConfiguration.get().getMongoUri(), pluginsRegistry);
+        MongoClientSingleton.init(MongoServiceConfiguration.get().getMongoUri(),
+            MongoServiceConfiguration.get().getConnectionPool(),
+            MongoServiceConfiguration.get().getMongoClients(),
+            pluginsRegistry);
 
         // force first connection to MongoDb
         MongoClientSingleton.getInstance();
@@ -0,0 +1,215 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.mongodb.MongoCursorNotFoundException;
+import com.mongodb.client.MongoCursor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import org.bson.BsonDocument;
+import static org.fusesource.jansi.Ansi.Color.GREEN;
+import static org.fusesource.jansi.Ansi.Color.RED;
+import static org.fusesource.jansi.Ansi.ansi;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.mongodb.MongoServiceConfiguration;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_AGGREGATION_CURSOR_POOL_SIZE;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_AGGREGATION_CURSOR_POOL_TTL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the server-side cursors of aggregations open between requests, so that
+ * reading the page n+1 of an aggregation continues iterating the cursor used
+ * to read the page n instead of executing again the whole pipeline.
+ *
+ * A cursor is handed out to one request only; the request puts it back
+ * with the new position once it has read its page. Cursors that are not
+ * reused within the TTL or that exceed the pool size are closed.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AggregationCursorPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregationCursorPool.class);
+
+    private static final long TTL = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getAggregationCursorPoolTtl()
+        : DEFAULT_AGGREGATION_CURSOR_POOL_TTL;
+
+    private static final long POOL_SIZE = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getAggregationCursorPoolSize()
+        : DEFAULT_AGGREGATION_CURSOR_POOL_SIZE;
+
+    /**
+     *
+     * @return
+     */
+    public static AggregationCursorPool getInstance() {
+        return AggregationCursorPoolSingletonHolder.INSTANCE;
+    }
+
+    private final Cache<AggregationCursorPoolEntryKey, PooledCursor> cache;
+
+    private AggregationCursorPool() {
+        // the remover closes the cursors evicted or expired,
+        // but not the ones that have been claimed by a request
+        cache = CacheFactory.createLocalCache("mongo.aggregationCursorPool", POOL_SIZE, Cache.EXPIRE_POLICY.AFTER_WRITE, TTL, entry -> {
+            if (entry.getValue() != null && entry.getValue().isPresent()) {
+                var pooled = entry.getValue().get();
+
+                if (pooled.claim()) {
+                    LOGGER.debug("closing expired aggregation cursor {}", entry.getKey());
+                    pooled.cursor().close();
+                }
+            }
+        });
+    }
+
+    /**
+     *
+     * @return true if the pool can hold cursors
+     */
+    public boolean isEnabled() {
+        return POOL_SIZE > 0;
+    }
+
+    /**
+     * Removes the cursor with the given key from the pool and hands it out
+     * to the caller, that becomes responsible for closing it or putting it back
+     *
+     * @param key
+     * @return the cursor positioned at key.position() or null if not available
+     */
+    public MongoCursor<BsonDocument> get(AggregationCursorPoolEntryKey key) {
+        var _pooled = cache.get(key);
+
+        if (_pooled != null && _pooled.isPresent() && _pooled.get().claim()) {
+            cache.invalidate(key);
+            LOGGER.debug("{} aggregation cursor in pool with position {}", ansi().fg(GREEN).bold().a("found").reset().toString(), key.position());
+            return _pooled.get().cursor();
+        } else {
+            LOGGER.debug("{} aggregation cursor in pool with position {}", ansi().fg(RED).bold().a("no").reset().toString(), key.position());
+            return null;
+        }
+    }
+
+    /**
+     * Puts a cursor in the pool; the cursor is closed if it is exhausted
+     *
+     * @param key the key, whose position must be the number of documents
+     * already consumed from the cursor
+     * @param cursor
+     */
+    public void put(AggregationCursorPoolEntryKey key, MongoCursor<BsonDocument> cursor) {
+        if (!isEnabled() || (cursor.available() == 0 && cursor.getServerCursor() == null)) {
+            cursor.close();
+        } else {
+            cache.put(key, new PooledCursor(cursor));
+        }
+    }
+
+    /**
+     * Reads a page of an aggregation from the pooled cursor positioned at its
+     * first document, if available, otherwise from a new cursor. The cursor is
+     * then put back in the pool, so that the next page can be read without
+     * executing the pipeline again. If reading fails, the cursor is closed.
+     *
+     * @param key the key, whose position is the number of documents before the page
+     * @param pagesize the number of documents of the page
+     * @param executor executes the pipeline skipping the given number of
+     * documents and returns its cursor, invoked if no cursor is pooled
+     * @return the documents of the page
+     */
+    public List<BsonDocument> page(AggregationCursorPoolEntryKey key, int pagesize, IntFunction<MongoCursor<BsonDocument>> executor) {
+        var ret = new ArrayList<BsonDocument>();
+        var cursor = get(key);
+
+        if (cursor != null) {
+            try {
+                read(cursor, ret, pagesize);
+            } catch (MongoCursorNotFoundException ex) {
+                // the cursor expired on the server, execute the pipeline again
+                LOGGER.debug("pooled aggregation cursor not found on the server, executing the pipeline again");
+                cursor.close();
+                cursor = null;
+                ret.clear();
+            }
+        }
+
+        if (cursor == null) {
+            cursor = executor.apply(key.position());
+            read(cursor, ret, pagesize);
+        }
+
+        put(key.withPosition(key.position() + ret.size()), cursor);
+
+        return ret;
+    }
+
+    /**
+     * reads up to pagesize documents, closing the cursor on errors
+     */
+    private static void read(MongoCursor<BsonDocument> cursor, List<BsonDocument> page, int pagesize) {
+        var read = false;
+
+        try {
+            while (page.size() < pagesize && cursor.hasNext()) {
+                page.add(cursor.next());
+            }
+
+            read = true;
+        } finally {
+            if (!read) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * A pooled cursor can be claimed once, either by a request or by the
+     * cache remover that closes it
+     */
+    private static class PooledCursor {
+        private final MongoCursor<BsonDocument> cursor;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        PooledCursor(MongoCursor<BsonDocument> cursor) {
+            this.cursor = cursor;
+        }
+
+        MongoCursor<BsonDocument> cursor() {
+            return cursor;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static class AggregationCursorPoolSingletonHolder {
+        private static final AggregationCursorPool INSTANCE = new AggregationCursorPool();
+
+        private AggregationCursorPoolSingletonHolder() {
+        }
+    };
+}
@@ -0,0 +1,53 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import java.util.List;
+import org.bson.BsonDocument;
+
+/**
+ * The key of the AggregationCursorPool entries.
+ *
+ * Two requests can share a pooled cursor only if they execute the same
+ * resolved stages on the same namespace with the same read preference and
+ * read concern; position is the number of documents already consumed from
+ * the cursor.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public record AggregationCursorPoolEntryKey(
+    String namespace,
+    List<BsonDocument> stages,
+    boolean allowDiskUse,
+    ReadPreference readPreference,
+    ReadConcern readConcern,
+    int position) {
+
+    /**
+     * @param position the new position
+     * @return a copy of this key with the given position
+     */
+    public AggregationCursorPoolEntryKey withPosition(int position) {
+        return new AggregationCursorPoolEntryKey(namespace, stages, allowDiskUse, readPreference, readConcern, position);
+    }
+}
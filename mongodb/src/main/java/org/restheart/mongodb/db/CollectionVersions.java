@@ -0,0 +1,257 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bson.BsonDocument;
+import org.restheart.mongodb.db.DocumentsCache.INVALIDATION;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks a version token for the collections that enable it in their
+ * metadata, for instance:
+ *
+ * <pre>
+ * { "versionETag": { "ttl": 60000, "invalidation": "CHANGE_STREAM" } }
+ * </pre>
+ *
+ * The version changes on every write handled by RESTHeart, including the
+ * commit of a transaction, and, with invalidation CHANGE_STREAM, on every
+ * change notified by a change stream on the collection. It also changes every
+ * ttl milliseconds, that must be greater than zero, so that with WRITES (the
+ * default) external writes are seen at worst after ttl.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CollectionVersions {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectionVersions.class);
+
+    /**
+     * the collection metadata element that enables the version
+     */
+    public static final String VERSION_ETAG_ELEMENT_NAME = "versionETag";
+
+    /**
+     * the version settings of a collection
+     */
+    public static record Settings(long ttl, INVALIDATION invalidation) {
+        private static final long DEFAULT_TTL = 60_000;
+
+        public Settings {
+            if (ttl <= 0) {
+                throw new IllegalArgumentException("ttl must be greater than zero");
+            }
+        }
+
+        /**
+         *
+         * @param collProps the collection properties
+         * @return the version settings or empty if the collection does not
+         * enable the version
+         */
+        public static Optional<Settings> from(BsonDocument collProps) {
+            if (collProps == null || !collProps.containsKey(VERSION_ETAG_ELEMENT_NAME) || !collProps.get(VERSION_ETAG_ELEMENT_NAME).isDocument()) {
+                return Optional.empty();
+            }
+
+            var ve = collProps.getDocument(VERSION_ETAG_ELEMENT_NAME);
+
+            try {
+                var ttl = ve.containsKey("ttl") && ve.get("ttl").isNumber() ? ve.getNumber("ttl").longValue() : DEFAULT_TTL;
+                var invalidation = ve.containsKey("invalidation") && ve.get("invalidation").isString()
+                    ? INVALIDATION.valueOf(ve.getString("invalidation").getValue().toUpperCase(Locale.ROOT).replace('-', '_'))
+                    : INVALIDATION.WRITES;
+
+                // the version must change periodically, writes of other clients are not seen otherwise
+                return ttl > 0 ? Optional.of(new Settings(ttl, invalidation)) : Optional.empty();
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("Invalid {} collection metadata: {}", VERSION_ETAG_ELEMENT_NAME, ve);
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static record CollKey(String db, String coll) {}
+
+    private class Version {
+        private final CollKey key;
+        private final Settings settings;
+        private final AtomicLong value;
+        private volatile CollectionWatcher watcher = null;
+        private volatile boolean closed = false;
+
+        Version(CollKey key, Settings settings) {
+            this.key = key;
+            this.settings = settings;
+            this.value = new AtomicLong(SEQUENCE.incrementAndGet());
+        }
+
+        void bump() {
+            value.set(SEQUENCE.incrementAndGet());
+        }
+
+        void watch() {
+            this.watcher = CollectionWatcher.watch(key.db(), key.coll(), id -> bump(), () -> remove(this));
+
+            if (closed && watcher != null) {
+                watcher.cancel();
+            }
+        }
+
+        void close() {
+            closed = true;
+
+            var w = watcher;
+
+            if (w != null) {
+                w.cancel();
+            }
+        }
+    }
+
+    /**
+     * versions are drawn from a single sequence, so that a collection
+     * whose version is dropped and tracked again never gets an old value
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong(0);
+
+    /**
+     * distinguishes the versions of this process from the ones of other
+     * nodes or previous runs
+     */
+    private static final String INSTANCE_ID = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final Map<CollKey, Version> versions = new ConcurrentHashMap<>();
+
+    private CollectionVersions() {
+    }
+
+    public static CollectionVersions get() {
+        return CollectionVersionsSingletonHolder.INSTANCE;
+    }
+
+    /**
+     *
+     * @param db
+     * @param coll
+     * @param settings
+     * @return the current version token of the collection
+     */
+    public String version(String db, String coll, Settings settings) {
+        var v = version(new CollKey(db, coll), settings);
+        var period = System.currentTimeMillis() / settings.ttl();
+
+        return INSTANCE_ID + "." + Long.toHexString(v.value.get()) + "." + Long.toHexString(period);
+    }
+
+    /**
+     * changes the version of a collection, to invoke when the collection is
+     * written
+     *
+     * @param db
+     * @param coll
+     */
+    public void bump(String db, String coll) {
+        var v = versions.get(new CollKey(db, coll));
+
+        if (v != null) {
+            v.bump();
+        }
+    }
+
+    /**
+     * changes the versions of all collections, to invoke when the written
+     * collections are unknown
+     */
+    public void bumpAll() {
+        versions.values().forEach(Version::bump);
+    }
+
+    /**
+     * drops the version of the collection, to invoke when the collection is
+     * deleted or its metadata updated
+     *
+     * @param db
+     * @param coll
+     */
+    public void drop(String db, String coll) {
+        var v = versions.remove(new CollKey(db, coll));
+
+        if (v != null) {
+            v.close();
+        }
+    }
+
+    /**
+     * drops the versions of the collections of a db
+     *
+     * @param db
+     */
+    public void dropDb(String db) {
+        versions.keySet().stream()
+            .filter(k -> k.db().equals(db))
+            .forEach(k -> drop(k.db(), k.coll()));
+    }
+
+    private Version version(CollKey key, Settings settings) {
+        var v = versions.get(key);
+
+        if (v != null && v.settings.equals(settings)) {
+            return v;
+        }
+
+        var created = new Version(key, settings);
+
+        var current = versions.compute(key, (k, existing) -> {
+            if (existing != null && existing.settings.equals(settings)) {
+                return existing;
+            } else {
+                if (existing != null) {
+                    existing.close();
+                }
+
+                return created;
+            }
+        });
+
+        if (current == created && settings.invalidation() == INVALIDATION.CHANGE_STREAM) {
+            created.watch();
+        }
+
+        return current;
+    }
+
+    private void remove(Version v) {
+        if (versions.remove(v.key, v)) {
+            v.close();
+        }
+    }
+
+    private static class CollectionVersionsSingletonHolder {
+        private static final CollectionVersions INSTANCE = new CollectionVersions();
+    }
+}
@@ -0,0 +1,128 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import java.util.function.Consumer;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a collection with a change stream to invalidate the read caches
+ * on the writes not handled by RESTHeart
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+class CollectionWatcher implements Subscriber<ChangeStreamDocument<Document>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectionWatcher.class);
+
+    private final String db;
+    private final String coll;
+    private final Consumer<BsonValue> onChange;
+    private final Runnable onEnd;
+
+    private volatile Subscription subscription = null;
+    private volatile boolean cancelled = false;
+
+    /**
+     *
+     * @param db
+     * @param coll
+     * @param onChange invoked with the _id of the changed document, or with
+     * null when the change affects the whole collection (drop, rename, etc)
+     * @param onEnd invoked when the change stream terminates
+     */
+    private CollectionWatcher(String db, String coll, Consumer<BsonValue> onChange, Runnable onEnd) {
+        this.db = db;
+        this.coll = coll;
+        this.onChange = onChange;
+        this.onEnd = onEnd;
+    }
+
+    /**
+     *
+     * @param db
+     * @param coll
+     * @param onChange invoked with the _id of the changed document, or with
+     * null when the change affects the whole collection (drop, rename, etc)
+     * @param onEnd invoked when the change stream terminates
+     * @return the watcher, or null if the change stream cannot be opened
+     */
+    static CollectionWatcher watch(String db, String coll, Consumer<BsonValue> onChange, Runnable onEnd) {
+        var watcher = new CollectionWatcher(db, coll, onChange, onEnd);
+
+        try {
+            MongoReactiveClientSingleton.get().getClient()
+                .getDatabase(db)
+                .getCollection(coll)
+                .watch()
+                .subscribe(watcher);
+
+            return watcher;
+        } catch (Throwable t) {
+            LOGGER.warn("Cannot watch {}/{}, the read caches are invalidated only by writes", db, coll, t);
+            return null;
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+
+        if (cancelled) {
+            s.cancel();
+        } else {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(ChangeStreamDocument<Document> change) {
+        var documentKey = change.getDocumentKey();
+
+        onChange.accept(documentKey != null && documentKey.containsKey("_id") ? documentKey.get("_id") : null);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        LOGGER.warn("Error from the change stream watching {}/{}", db, coll, t);
+        onEnd.run();
+    }
+
+    @Override
+    public void onComplete() {
+        onEnd.run();
+    }
+
+    void cancel() {
+        cancelled = true;
+
+        var s = subscription;
+
+        if (s != null) {
+            s.cancel();
+        }
+    }
+}
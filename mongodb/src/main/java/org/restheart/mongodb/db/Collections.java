@@ -22,6 +22,9 @@ package org.restheart.mongodb.db;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.MongoCommandException;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
@@ -96,6 +99,45 @@ class Collections {
         return client.getDatabase(dbName).getCollection(collName, BsonDocument.class);
     }
 
+    /**
+     * Returns the MongoCollection object for the collection in db dbName
+     * configured with the given read preference and read concern.
+     *
+     * @param dbName the database name of the collection
+     * @param collName the collection name
+     * @param readPreference the read preference, null to use the client default
+     * @param readConcern the read concern, null to use the client default
+     * @return the mongodb DBCollection object for the collection in db dbName
+     */
+    MongoCollection<BsonDocument> getCollection(final String dbName, final String collName, final ReadPreference readPreference, final ReadConcern readConcern) {
+        var coll = getCollection(dbName, collName);
+
+        if (readPreference != null) {
+            coll = coll.withReadPreference(readPreference);
+        }
+
+        if (readConcern != null) {
+            coll = coll.withReadConcern(readConcern);
+        }
+
+        return coll;
+    }
+
+    /**
+     * Returns the MongoCollection object for the collection in db dbName
+     * configured with the given write concern.
+     *
+     * @param dbName the database name of the collection
+     * @param collName the collection name
+     * @param writeConcern the write concern, null to use the client default
+     * @return the mongodb DBCollection object for the collection in db dbName
+     */
+    MongoCollection<BsonDocument> getCollection(final String dbName, final String collName, final WriteConcern writeConcern) {
+        var coll = getCollection(dbName, collName);
+
+        return writeConcern == null ? coll : coll.withWriteConcern(writeConcern);
+    }
+
     /**
      * Returns the number of documents in the given collection (taking into
      * account the filters in case).
@@ -105,11 +105,12 @@ public class CursorPool {
     private CursorPool(Databases dbsDAO) {
         this.dbsDAO = dbsDAO;
 
-        cache = CacheFactory.createLocalCache(POOL_SIZE, Cache.EXPIRE_POLICY.AFTER_READ, TTL);
+        cache = CacheFactory.createLocalCache("mongo.cursorPool", POOL_SIZE, Cache.EXPIRE_POLICY.AFTER_READ, TTL);
 
-        collSizes = CacheFactory.createLocalLoadingCache(100,
+        collSizes = CacheFactory.createLocalLoadingCache("mongo.collSizes", 100,
             org.restheart.cache.Cache.EXPIRE_POLICY.AFTER_WRITE,
             60 * 1000,
+            30 * 1000, // refreshed in background after 30 seconds
             (CursorPoolEntryKey key) -> dbsDAO.getCollectionSize(key.session(), key.collection(), key.filter())
         );
 
@@ -312,6 +313,8 @@ public class CursorPool {
     private Predicate<? super CursorPoolEntryKey> cursorsPoolFilterEq( CursorPoolEntryKey requestCursor) {
         return poolCursor
             -> Objects.equals(poolCursor.collection().getNamespace(), requestCursor.collection().getNamespace())
+            && Objects.equals(poolCursor.collection().getReadPreference(), requestCursor.collection().getReadPreference())
+            && Objects.equals(poolCursor.collection().getReadConcern(), requestCursor.collection().getReadConcern())
             && Objects.equals(poolCursor.filter(), requestCursor.filter())
             && Objects.equals(poolCursor.sort(), requestCursor.sort())
             && Objects.equals(poolCursor.keys(), requestCursor.keys())
@@ -322,6 +325,8 @@ public class CursorPool {
             CursorPoolEntryKey requestCursor) {
         return poolCursor
             -> Objects.equals(poolCursor.collection().getNamespace(), requestCursor.collection().getNamespace())
+            && Objects.equals(poolCursor.collection().getReadPreference(), requestCursor.collection().getReadPreference())
+            && Objects.equals(poolCursor.collection().getReadConcern(), requestCursor.collection().getReadConcern())
             && Objects.equals(poolCursor.filter(), requestCursor.filter())
             && Objects.equals(poolCursor.sort(), requestCursor.sort())
             && Objects.equals(poolCursor.keys(), requestCursor.keys())
@@ -20,6 +20,8 @@
  */
 package org.restheart.mongodb.db;
 
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
@@ -423,6 +425,18 @@ public class Databases {
         return collections.getCollection(dbName, collName);
     }
 
+    /**
+     *
+     * @param dbName
+     * @param collName
+     * @param readPreference the read preference, null to use the client default
+     * @param readConcern the read concern, null to use the client default
+     * @return the MongoCollection
+     */
+    public MongoCollection<BsonDocument> getCollection(final String dbName, final String collName, final ReadPreference readPreference, final ReadConcern readConcern) {
+        return collections.getCollection(dbName, collName, readPreference, readConcern);
+    }
+
     /**
      *
      * @param cs the client session
@@ -21,6 +21,7 @@
 package org.restheart.mongodb.db;
 
 import com.mongodb.MongoBulkWriteException;
+import com.mongodb.WriteConcern;
 import com.mongodb.assertions.Assertions;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
@@ -98,6 +99,7 @@ public class Documents {
      * @param newContent
      * @param requestEtag
      * @param checkEtag
+     * @param writeConcern the write concern
      * @return the OperationResult
      */
     public OperationResult writeDocument(
@@ -111,8 +113,9 @@ public class Documents {
         final Optional<BsonDocument> shardKeys,
         final BsonDocument newContent,
         final String requestEtag,
-        final boolean checkEtag) {
-        var mcoll = collections.getCollection(dbName, collName);
+        final boolean checkEtag,
+        final Optional<WriteConcern> writeConcern) {
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         // genereate new etag
         var newEtag = new BsonObjectId();
@@ -158,6 +161,7 @@ public class Documents {
      * @param documents
      * @param shardKeys
      * @param writeMode
+     * @param writeConcern the write concern
      * @return the BulkOperationResult
      */
     public BulkOperationResult bulkPostDocuments(
@@ -167,10 +171,11 @@ public class Documents {
         final BsonArray documents,
         final Optional<BsonDocument> filter,
         final Optional<BsonDocument> shardKeys,
-        final WRITE_MODE writeMode) {
+        final WRITE_MODE writeMode,
+        final Optional<WriteConcern> writeConcern) {
         Objects.requireNonNull(documents);
 
-        var mcoll = collections.getCollection(dbName, collName);
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         var newEtag = new BsonObjectId(new ObjectId());
 
@@ -195,6 +200,7 @@ public class Documents {
      * @param filter
      * @param shardedKeys
      * @param data
+     * @param writeConcern the write concern
      * @return the BulkOperationResult
      */
     public BulkOperationResult bulkPatchDocuments(
@@ -203,11 +209,12 @@ public class Documents {
         final String collName,
         final BsonDocument filter,
         final Optional<BsonDocument> shardKeys,
-        final BsonDocument data) {
+        final BsonDocument data,
+        final Optional<WriteConcern> writeConcern) {
         Objects.requireNonNull(filter);
         Assertions.assertFalse(filter.isEmpty());
 
-        var mcoll = collections.getCollection(dbName, collName);
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         var patches = new ArrayList<WriteModel<BsonDocument>>();
 
@@ -242,6 +249,7 @@ public class Documents {
      * @param shardedKeys
      * @param requestEtag
      * @param checkEtag
+     * @param writeConcern the write concern
      * @return the OperationResult
      */
     public OperationResult deleteDocument(
@@ -252,9 +260,9 @@ public class Documents {
         final Optional<BsonDocument> filter,
         final Optional<BsonDocument> shardKeys,
         final String requestEtag,
-        final boolean checkEtag
-    ) {
-        var mcoll = collections.getCollection(dbName, collName);
+        final boolean checkEtag,
+        final Optional<WriteConcern> writeConcern) {
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         var oldDocument = cs.isPresent()
                 ? mcoll.findOneAndDelete(cs.get(), idFilter(documentId, filter, shardKeys))
@@ -310,6 +318,7 @@ public class Documents {
      * @param collName
      * @param filter
      * @param shardedKeys
+     * @param writeConcern the write concern
      * @return the BulkOperationResult
      */
     public BulkOperationResult bulkDeleteDocuments(
@@ -317,11 +326,12 @@ public class Documents {
         final String dbName,
         final String collName,
         final BsonDocument filter,
-        final Optional<BsonDocument> shardedKeys) {
+        final Optional<BsonDocument> shardedKeys,
+        final Optional<WriteConcern> writeConcern) {
         Objects.requireNonNull(filter);
         Assertions.assertFalse(filter.isEmpty());
 
-        var mcoll = collections.getCollection(dbName, collName);
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         var deletes = new ArrayList<WriteModel<BsonDocument>>();
 
@@ -0,0 +1,352 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.cache.CacheRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-through cache of the documents of the collections that enable it in
+ * their metadata, for instance:
+ *
+ * <pre>
+ * { "docCache": { "size": 1000, "ttl": 60000, "invalidation": "CHANGE_STREAM" } }
+ * </pre>
+ *
+ * Cached documents are keyed by (id, projection, filter) and are invalidated
+ * by the writes handled by RESTHeart. With invalidation CHANGE_STREAM, a
+ * change stream on the collection also invalidates the documents modified
+ * by external writers; with WRITES (the default) external writes are seen
+ * when the cached documents expire after ttl milliseconds, that must be
+ * greater than zero.
+ *
+ * The writes executed in a transaction are invalidated again when the
+ * transaction commits. A document read while it is being invalidated is not
+ * cached: each collection has a generation, incremented by invalidations, and
+ * put() discards the documents read in a previous generation.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class DocumentsCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentsCache.class);
+
+    /**
+     * the collection metadata element that enables the cache
+     */
+    public static final String DOC_CACHE_ELEMENT_NAME = "docCache";
+
+    public enum INVALIDATION { WRITES, CHANGE_STREAM }
+
+    /**
+     * the cache settings of a collection
+     */
+    public static record Settings(long size, long ttl, INVALIDATION invalidation) {
+        private static final long DEFAULT_SIZE = 1_000;
+        private static final long DEFAULT_TTL = 60_000;
+
+        /**
+         *
+         * @param collProps the collection properties
+         * @return the cache settings or empty if the collection does not
+         * enable the documents cache
+         */
+        public static Optional<Settings> from(BsonDocument collProps) {
+            if (collProps == null || !collProps.containsKey(DOC_CACHE_ELEMENT_NAME) || !collProps.get(DOC_CACHE_ELEMENT_NAME).isDocument()) {
+                return Optional.empty();
+            }
+
+            var dc = collProps.getDocument(DOC_CACHE_ELEMENT_NAME);
+
+            try {
+                var size = dc.containsKey("size") && dc.get("size").isNumber() ? dc.getNumber("size").longValue() : DEFAULT_SIZE;
+                var ttl = dc.containsKey("ttl") && dc.get("ttl").isNumber() ? dc.getNumber("ttl").longValue() : DEFAULT_TTL;
+                var invalidation = dc.containsKey("invalidation") && dc.get("invalidation").isString()
+                    ? INVALIDATION.valueOf(dc.getString("invalidation").getValue().toUpperCase(Locale.ROOT).replace('-', '_'))
+                    : INVALIDATION.WRITES;
+
+                // the cached documents must expire, writes of other clients are not seen otherwise
+                return size > 0 && ttl > 0 ? Optional.of(new Settings(size, ttl, invalidation)) : Optional.empty();
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("Invalid {} collection metadata: {}", DOC_CACHE_ELEMENT_NAME, dc);
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * the key of a cached document
+     */
+    public static record DocKey(BsonValue id, BsonDocument projection, BsonDocument filter) {}
+
+    private static record CollKey(String db, String coll) {}
+
+    private class CollectionCache {
+        private final CollKey key;
+        private final Settings settings;
+        private final Cache<DocKey, BsonDocument> docs;
+        // the keys of the cached documents by id, so that invalidate(id) does not scan all keys
+        private final Map<BsonValue, Set<DocKey>> keysById = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong(0);
+        private volatile CollectionWatcher watcher = null;
+        private volatile boolean closed = false;
+
+        CollectionCache(CollKey key, Settings settings) {
+            this.key = key;
+            this.settings = settings;
+            this.docs = CacheFactory.createLocalCache(cacheName(key), settings.size(), Cache.EXPIRE_POLICY.AFTER_WRITE, settings.ttl());
+        }
+
+        void put(DocKey key, BsonDocument document, long readGeneration) {
+            // evicted documents leave their keys in keysById, prune them
+            if (keysById.size() > 2 * settings.size()) {
+                generation.incrementAndGet();
+                keysById.keySet().retainAll(docs.asMap().keySet().stream().map(DocKey::id).collect(Collectors.toSet()));
+            }
+
+            // the key is indexed before the document is cached, an invalidation
+            // that misses it has incremented the generation and the put is discarded
+            keysById.computeIfAbsent(key.id(), id -> ConcurrentHashMap.newKeySet()).add(key);
+
+            docs.asMap().compute(key, (k, current) -> generation.get() == readGeneration
+                ? Optional.of(document.clone())
+                : current);
+        }
+
+        void invalidate(BsonValue id) {
+            generation.incrementAndGet();
+
+            var keys = keysById.remove(id);
+
+            if (keys != null) {
+                keys.forEach(docs::invalidate);
+            }
+        }
+
+        void invalidateAll() {
+            generation.incrementAndGet();
+            keysById.clear();
+            docs.invalidateAll();
+        }
+
+        void watch() {
+            this.watcher = CollectionWatcher.watch(key.db(), key.coll(), id -> {
+                if (id != null) {
+                    invalidate(id);
+                } else {
+                    // drop, rename or invalidate
+                    invalidateAll();
+                }
+            }, () -> remove(this));
+
+            if (closed && watcher != null) {
+                watcher.cancel();
+            }
+        }
+
+        void close() {
+            closed = true;
+            invalidateAll();
+            CacheRegistry.getInstance().unregister(cacheName(key), docs);
+
+            var w = watcher;
+
+            if (w != null) {
+                w.cancel();
+            }
+        }
+    }
+
+    private final Map<CollKey, CollectionCache> caches = new ConcurrentHashMap<>();
+
+    private DocumentsCache() {
+    }
+
+    public static DocumentsCache get() {
+        return DocumentsCacheSingletonHolder.INSTANCE;
+    }
+
+    /**
+     *
+     * @param db
+     * @param coll
+     * @param settings
+     * @param key
+     * @return a copy of the cached document, or empty if not cached
+     */
+    public Optional<BsonDocument> get(String db, String coll, Settings settings, DocKey key) {
+        var cached = collectionCache(db, coll, settings).docs.get(key);
+
+        if (cached != null && cached.isPresent()) {
+            // the response content can be modified by interceptors
+            return Optional.of(cached.get().clone());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     *
+     * @param db
+     * @param coll
+     * @param settings
+     * @return the current generation of the collection cache, to get before
+     * reading a document that is then passed to put()
+     */
+    public long generation(String db, String coll, Settings settings) {
+        return collectionCache(db, coll, settings).generation.get();
+    }
+
+    /**
+     * caches a document, unless the collection cache has been invalidated
+     * since the document was read
+     *
+     * @param db
+     * @param coll
+     * @param settings
+     * @param key
+     * @param document
+     * @param readGeneration the generation returned by generation() before
+     * reading the document
+     */
+    public void put(String db, String coll, Settings settings, DocKey key, BsonDocument document, long readGeneration) {
+        collectionCache(db, coll, settings).put(key, document, readGeneration);
+    }
+
+    /**
+     * invalidates the cached versions of a document
+     *
+     * @param db
+     * @param coll
+     * @param id
+     */
+    public void invalidate(String db, String coll, BsonValue id) {
+        var cc = caches.get(new CollKey(db, coll));
+
+        if (cc != null) {
+            cc.invalidate(id);
+        }
+    }
+
+    /**
+     * invalidates all the cached documents of a collection
+     *
+     * @param db
+     * @param coll
+     */
+    public void invalidateCollection(String db, String coll) {
+        var cc = caches.get(new CollKey(db, coll));
+
+        if (cc != null) {
+            cc.invalidateAll();
+        }
+    }
+
+    /**
+     * invalidates the cached documents of all collections
+     */
+    public void invalidateAll() {
+        caches.values().forEach(CollectionCache::invalidateAll);
+    }
+
+    /**
+     * drops the cache of the collection, to invoke when the collection is
+     * deleted or its metadata updated
+     *
+     * @param db
+     * @param coll
+     */
+    public void drop(String db, String coll) {
+        var cc = caches.remove(new CollKey(db, coll));
+
+        if (cc != null) {
+            cc.close();
+        }
+    }
+
+    /**
+     * drops the caches of the collections of a db
+     *
+     * @param db
+     */
+    public void dropDb(String db) {
+        caches.keySet().stream()
+            .filter(k -> k.db().equals(db))
+            .forEach(k -> drop(k.db(), k.coll()));
+    }
+
+    private CollectionCache collectionCache(String db, String coll, Settings settings) {
+        var key = new CollKey(db, coll);
+        var cc = caches.get(key);
+
+        if (cc != null && cc.settings.equals(settings)) {
+            return cc;
+        }
+
+        var created = new AtomicReference<CollectionCache>();
+
+        // the cache is created by the winner of the race only, since creating it registers it in the CacheRegistry
+        var current = caches.compute(key, (k, existing) -> {
+            if (existing != null && existing.settings.equals(settings)) {
+                return existing;
+            } else {
+                if (existing != null) {
+                    existing.close();
+                }
+
+                created.set(new CollectionCache(key, settings));
+                return created.get();
+            }
+        });
+
+        if (current == created.get() && settings.invalidation() == INVALIDATION.CHANGE_STREAM) {
+            current.watch();
+        }
+
+        return current;
+    }
+
+    private static String cacheName(CollKey key) {
+        return "mongo.docs." + key.db() + "." + key.coll();
+    }
+
+    private void remove(CollectionCache cc) {
+        if (caches.remove(cc.key, cc)) {
+            cc.close();
+        }
+    }
+
+    private static class DocumentsCacheSingletonHolder {
+        private static final DocumentsCache INSTANCE = new DocumentsCache();
+    }
+}
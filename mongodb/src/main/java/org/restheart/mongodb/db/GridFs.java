@@ -21,6 +21,7 @@
 package org.restheart.mongodb.db;
 import com.google.common.annotations.VisibleForTesting;
 import com.mongodb.DuplicateKeyException;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.MongoGridFSException;
@@ -87,6 +88,7 @@ public class GridFs {
      * @param bucketName
      * @param metadata
      * @param filePath
+     * @param writeConcern the write concern
      * @return the OperationResult
      * @throws IOException
      * @throws DuplicateKeyException
@@ -96,13 +98,18 @@ public class GridFs {
             final String dbName,
             final String bucketName,
             final BsonDocument metadata,
-            final Path filePath)
+            final Path filePath,
+            final Optional<WriteConcern> writeConcern)
             throws IOException, DuplicateKeyException {
 
         final var bucket = extractBucketName(bucketName);
 
         var gridFSBucket = GridFSBuckets.create(db.getDatabase(dbName), bucket);
 
+        if (writeConcern.isPresent()) {
+            gridFSBucket = gridFSBucket.withWriteConcern(writeConcern.get());
+        }
+
         var filename = extractFilenameFromProperties(metadata);
 
         //add etag to metadata
@@ -140,6 +147,7 @@ public class GridFs {
      * @param filter
      * @param requestEtag
      * @param checkEtag
+     * @param writeConcern the write concern
      * @return
      * @throws IOException
      */
@@ -151,9 +159,10 @@ public class GridFs {
         final BsonValue fileId,
         final BsonDocument filter,
         final String requestEtag,
-        final boolean checkEtag) throws IOException {
+        final boolean checkEtag,
+        final Optional<WriteConcern> writeConcern) throws IOException {
 
-        var deletionResult = deleteFile(db, dbName, bucketName, fileId, filter, requestEtag, checkEtag);
+        var deletionResult = deleteFile(db, dbName, bucketName, fileId, filter, requestEtag, checkEtag, writeConcern);
 
         //https://www.w3.org/Protocols/rfc2616/rfc2616-sec9.html#sec9.7
         final boolean deleteOperationWasSuccessful = deletionResult.getHttpCode() == SC_NO_CONTENT || deletionResult.getHttpCode() == SC_OK;
@@ -161,7 +170,7 @@ public class GridFs {
         final boolean fileExisted = !fileDidntExist;
 
         if (deleteOperationWasSuccessful || fileDidntExist) {
-            var creationResult = createFile(db, dbName, bucketName, metadata, filePath);
+            var creationResult = createFile(db, dbName, bucketName, metadata, filePath, writeConcern);
 
             //https://www.w3.org/Protocols/rfc2616/rfc2616-sec9.html#sec9.5
             final boolean creationOperationWasSuccessful = SC_CREATED == creationResult.getHttpCode() || SC_OK == creationResult.getHttpCode();
@@ -208,6 +217,7 @@ public class GridFs {
      * @param filter
      * @param requestEtag
      * @param checkEtag
+     * @param writeConcern the write concern
      * @return the OperationResult
      */
     public OperationResult deleteFile(
@@ -217,12 +227,17 @@ public class GridFs {
         final BsonValue fileId,
         final BsonDocument filter,
         final String requestEtag,
-        final boolean checkEtag) {
+        final boolean checkEtag,
+        final Optional<WriteConcern> writeConcern) {
 
         final var bucket = extractBucketName(bucketName);
 
         var gridFSBucket = GridFSBuckets.create(db.getDatabase(dbName), bucket);
 
+        if (writeConcern.isPresent()) {
+            gridFSBucket = gridFSBucket.withWriteConcern(writeConcern.get());
+        }
+
         var file = getFileForId(gridFSBucket, fileId, filter);
 
         if (file == null) {
@@ -290,6 +305,7 @@ public class GridFs {
      * @param newContent
      * @param requestEtag
      * @param checkEtag
+     * @param writeConcern the write concern
      * @return
      */
     public OperationResult updateFileMetadata(
@@ -302,8 +318,9 @@ public class GridFs {
             final Optional<BsonDocument> shardKeys,
             final BsonDocument newContent,
             final String requestEtag,
-            final boolean checkEtag) {
-        var mcoll = collections.getCollection(dbName, collName);
+            final boolean checkEtag,
+            final Optional<WriteConcern> writeConcern) {
+        var mcoll = collections.getCollection(dbName, collName, writeConcern.orElse(null));
 
         // genereate new etag
         var newEtag = new BsonObjectId();
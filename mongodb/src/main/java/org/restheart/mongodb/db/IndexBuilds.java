@@ -0,0 +1,284 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the asynchronous index builds requested with PUT
+ * /db/coll/_indexes/name?async in a dedicated executor and keeps track of
+ * their status, so that GET /db/coll/_indexes can show the builds in
+ * progress.
+ *
+ * The progress of a running build is read from the currentOp command; it is
+ * not available if the user of the MongoDB connection is not allowed to
+ * execute it. Finished builds are kept for FINISHED_RETENTION milliseconds.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class IndexBuilds {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexBuilds.class);
+
+    /**
+     * max number of index builds executed at the same time
+     */
+    private static final int MAX_CONCURRENT_BUILDS = 2;
+
+    /**
+     * time in milliseconds a finished build is kept
+     */
+    static final long FINISHED_RETENTION = 10 * 60 * 1000;
+
+    public enum STATUS { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * the status of an index build
+     */
+    public static class IndexBuild {
+        private final String db;
+        private final String coll;
+        private final String name;
+        private final BsonDocument keys;
+        private final long startedAt;
+        private volatile STATUS status = STATUS.RUNNING;
+        private volatile long finishedAt = -1;
+        private volatile String error = null;
+
+        IndexBuild(String db, String coll, String name, BsonDocument keys) {
+            this.db = db;
+            this.coll = coll;
+            this.name = name;
+            this.keys = keys;
+            this.startedAt = System.currentTimeMillis();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public STATUS getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         *
+         * @param progress the progress of the build from currentOp, can be null
+         * @return the index build as a document of the indexes list
+         */
+        public BsonDocument asBson(BsonDocument progress) {
+            var _status = new BsonDocument()
+                .append("status", new BsonString(status.name()))
+                .append("startedAt", new BsonDateTime(startedAt))
+                .append("async", BsonBoolean.TRUE);
+
+            if (finishedAt > 0) {
+                _status.append("finishedAt", new BsonDateTime(finishedAt));
+            }
+
+            if (error != null) {
+                _status.append("error", new BsonString(error));
+            }
+
+            if (progress != null) {
+                _status.append("progress", progress);
+            }
+
+            return new BsonDocument("_id", new BsonString(name))
+                .append("key", keys)
+                .append("_build", _status);
+        }
+
+        private void finish(STATUS status, String error) {
+            this.finishedAt = System.currentTimeMillis();
+            this.error = error;
+            // set last, the status is read without synchronization
+            this.status = status;
+        }
+
+        private boolean isExpired(long now) {
+            return status != STATUS.RUNNING && now - finishedAt > FINISHED_RETENTION;
+        }
+    }
+
+    private static record BuildKey(String db, String coll, String name) {}
+
+    private final Map<BuildKey, IndexBuild> builds = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public static IndexBuilds get() {
+        return IndexBuildsSingletonHolder.INSTANCE;
+    }
+
+    IndexBuilds(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * starts building the index in background
+     *
+     * @param dbName
+     * @param collName
+     * @param keys
+     * @param options the index options, including the name
+     * @return the index build
+     * @throws IllegalStateException if a build of the index is running
+     */
+    public IndexBuild createIndex(String dbName, String collName, BsonDocument keys, BsonDocument options) {
+        var name = options.getString("name").getValue();
+
+        // the build outlives the request, so it cannot use its client session
+        return submit(dbName, collName, name, keys, () -> Databases.get().createIndex(Optional.empty(), dbName, collName, keys, Optional.of(options)));
+    }
+
+    IndexBuild submit(String dbName, String collName, String name, BsonDocument keys, Runnable build) {
+        prune();
+
+        var key = new BuildKey(dbName, collName, name);
+        var ib = new IndexBuild(dbName, collName, name, keys);
+
+        var current = builds.compute(key, (k, existing) -> existing != null && existing.status == STATUS.RUNNING ? existing : ib);
+
+        if (current != ib) {
+            throw new IllegalStateException("index " + name + " is already being built");
+        }
+
+        executor.execute(() -> {
+            try {
+                build.run();
+                ib.finish(STATUS.COMPLETED, null);
+                LOGGER.debug("Index {} on {}/{} built in {} msecs", name, dbName, collName, ib.finishedAt - ib.startedAt);
+            } catch (Throwable t) {
+                ib.finish(STATUS.FAILED, t.getMessage());
+                LOGGER.warn("Error building index {} on {}/{}", name, dbName, collName, t);
+            }
+        });
+
+        return ib;
+    }
+
+    /**
+     *
+     * @param dbName
+     * @param collName
+     * @return the index builds on the collection that are running or
+     * finished recently
+     */
+    public List<IndexBuild> getIndexBuilds(String dbName, String collName) {
+        prune();
+
+        return builds.values().stream()
+            .filter(ib -> ib.db.equals(dbName) && ib.coll.equals(collName))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * reads the progress of the index builds on the collection from the
+     * currentOp command
+     *
+     * @param dbName
+     * @param collName
+     * @return the map of index name to progress, empty if currentOp cannot
+     * be executed
+     */
+    public Map<String, BsonDocument> getProgress(String dbName, String collName) {
+        var ret = new HashMap<String, BsonDocument>();
+
+        try {
+            var cmd = new BsonDocument("currentOp", BsonBoolean.TRUE)
+                .append("command.createIndexes", new BsonString(collName))
+                .append("command.$db", new BsonString(dbName));
+
+            var result = MongoClientSingleton.get().client()
+                .getDatabase("admin")
+                .runCommand(cmd, BsonDocument.class);
+
+            if (result.containsKey("inprog") && result.get("inprog").isArray()) {
+                result.getArray("inprog").stream()
+                    .filter(op -> op.isDocument())
+                    .map(op -> op.asDocument())
+                    .forEach(op -> progress(op).ifPresent(progress -> indexNames(op).forEach(name -> ret.put(name, progress))));
+            }
+        } catch (Throwable t) {
+            LOGGER.debug("Cannot read the progress of the index builds on {}/{}", dbName, collName, t);
+        }
+
+        return ret;
+    }
+
+    private static Optional<BsonDocument> progress(BsonDocument op) {
+        var ret = new BsonDocument();
+
+        if (op.containsKey("progress") && op.get("progress").isDocument()) {
+            ret.putAll(op.getDocument("progress"));
+        }
+
+        if (op.containsKey("msg") && op.get("msg").isString()) {
+            ret.put("msg", op.get("msg"));
+        }
+
+        return ret.isEmpty() ? Optional.empty() : Optional.of(ret);
+    }
+
+    private static List<String> indexNames(BsonDocument op) {
+        var command = op.get("command");
+
+        if (command == null || !command.isDocument() || !command.asDocument().containsKey("indexes") || !command.asDocument().get("indexes").isArray()) {
+            return List.of();
+        }
+
+        return command.asDocument().getArray("indexes").stream()
+            .filter(i -> i.isDocument() && i.asDocument().containsKey("name") && i.asDocument().get("name").isString())
+            .map(i -> i.asDocument().getString("name").getValue())
+            .collect(Collectors.toList());
+    }
+
+    private void prune() {
+        var now = System.currentTimeMillis();
+        builds.values().removeIf(ib -> ib.isExpired(now));
+    }
+
+    private static class IndexBuildsSingletonHolder {
+        private static final IndexBuilds INSTANCE = new IndexBuilds(Executors.newFixedThreadPool(MAX_CONCURRENT_BUILDS,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("index-builds-%d")
+                .build()));
+    }
+}
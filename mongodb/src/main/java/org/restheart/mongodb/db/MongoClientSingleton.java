@@ -26,13 +26,16 @@ import static org.fusesource.jansi.Ansi.Color.RED;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
-import com.mongodb.connection.ConnectionPoolSettings;
-import com.mongodb.Block;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.bson.BsonDocument;
 import org.bson.BsonInt32;
+import org.restheart.mongodb.ConnectionPoolConfiguration;
+import org.restheart.mongodb.MongoServiceConfiguration.NamedClient;
 import org.restheart.plugins.PluginsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +51,8 @@ public class MongoClientSingleton {
 
     private static boolean initialized = false;
     private static ConnectionString mongoUri;
+    private static ConnectionPoolConfiguration connectionPool = ConnectionPoolConfiguration.DEFAULT;
+    private static Map<String, NamedClient> namedClientsConfs = Map.of();
     private static PluginsRegistry pluginsRegistry;
     private String serverVersion = null;
 
@@ -64,6 +69,19 @@ public class MongoClientSingleton {
         initialized = true;
     }
 
+    /**
+     *
+     * @param uri
+     * @param pool the connection pool settings
+     * @param namedClients the named clients, see mongo-clients
+     * @param pr
+     */
+    public static void init(ConnectionString uri, ConnectionPoolConfiguration pool, Map<String, NamedClient> namedClients, PluginsRegistry pr) {
+        connectionPool = pool;
+        namedClientsConfs = namedClients;
+        init(uri, pr);
+    }
+
     /**
      * @return the initialized
      */
@@ -97,10 +115,16 @@ public class MongoClientSingleton {
 
     private MongoClient mclient;
 
+    private final Map<String, MongoClient> namedClients = new ConcurrentHashMap<>();
+
     private MongoClientSingleton() {
         if (!initialized) {
             throw new IllegalStateException("not initialized");
         }
+
+        if (!namedClientsConfs.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::closeNamedClients, "mongo-named-clients-closer"));
+        }
     }
 
     private void setup() {
@@ -110,14 +134,8 @@ public class MongoClientSingleton {
 
         LOGGER.info("Connecting to MongoDB...");
 
-        // TODO add minSize and maxSize to configuration
         var settings = MongoClientSettings.builder()
-            .applyToConnectionPoolSettings(new Block<ConnectionPoolSettings.Builder>() {
-                @Override
-                public void apply(final ConnectionPoolSettings.Builder builder) {
-                    // default mongodb values: min=0 and max=100
-                    builder.minSize(0).maxSize(128);
-                }})
+            .applyToConnectionPoolSettings(builder -> connectionPool.apply(builder))
             .applicationName("restheart (sync)")
             .applyConnectionString(mongoUri)
             .build();
@@ -167,9 +185,10 @@ public class MongoClientSingleton {
         }
 
         // invoke Plugins methods annotated with @InjectMongoClient
-        // passing them the MongoClient
+        // passing them the MongoClient, or the named client they ask for
         if (pluginsRegistry != null) {
             pluginsRegistry.injectDependency(mclient);
+            namedClientsConfs.keySet().forEach(name -> pluginsRegistry.injectDependency(name, getClient(name)));
         }
     }
 
@@ -197,6 +216,58 @@ public class MongoClientSingleton {
         return this.mclient;
     }
 
+    /**
+     * Returns the named MongoClient defined in the mongo-clients configuration
+     * option. Each named client has its own connection pool, is created
+     * on first use and is closed on shutdown.
+     *
+     * Named clients are meant to be used by plugins, that get them with
+     * {@literal @}InjectMongoClient("name") or this method: the mongo service
+     * always uses the client returned by getClient(), since the Databases DAO,
+     * the metadata caches and the cursor pools are keyed only by db and
+     * collection names.
+     *
+     * @param name the name of the client
+     * @return the named MongoClient
+     * @throws IllegalArgumentException if no client is defined with that name
+     */
+    public MongoClient getClient(String name) {
+        if (!initialized) {
+            throw new IllegalStateException("MongoClientSingleton is not initialized");
+        }
+
+        var conf = namedClientsConfs.get(name);
+
+        if (conf == null) {
+            throw new IllegalArgumentException("mongo client " + name + " not defined, check mongo-clients configuration");
+        }
+
+        return namedClients.computeIfAbsent(name, n -> {
+            LOGGER.info("Connecting to MongoDB with client {}...", n);
+
+            var settings = MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(builder -> conf.connectionPool().apply(builder))
+                .applicationName("restheart (sync, " + n + ")")
+                .applyConnectionString(conf.mongoUri())
+                .build();
+
+            return MongoClients.create(settings);
+        });
+    }
+
+    private void closeNamedClients() {
+        namedClients.forEach((name, client) -> {
+            LOGGER.debug("Closing MongoDB client {}", name);
+            try {
+                client.close();
+            } catch (Throwable t) {
+                LOGGER.warn("Error closing MongoDB client {}", name, t);
+            }
+        });
+
+        namedClients.clear();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null) {
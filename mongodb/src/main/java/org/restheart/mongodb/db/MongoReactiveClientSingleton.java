@@ -20,13 +20,12 @@
  */
 package org.restheart.mongodb.db;
 
-import com.mongodb.Block;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
-import com.mongodb.connection.ConnectionPoolSettings;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
 import java.net.UnknownHostException;
+import org.restheart.mongodb.ConnectionPoolConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +40,8 @@ public class MongoReactiveClientSingleton {
 
     private static ConnectionString mongoUri;
 
+    private static ConnectionPoolConfiguration connectionPool = ConnectionPoolConfiguration.DEFAULT;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoReactiveClientSingleton.class);
 
     /**
@@ -53,6 +54,16 @@ public class MongoReactiveClientSingleton {
         initialized = uri != null;
     }
 
+    /**
+     *
+     * @param uri
+     * @param pool the connection pool settings
+     */
+    public static void init(ConnectionString uri, ConnectionPoolConfiguration pool) {
+        connectionPool = pool;
+        init(uri);
+    }
+
     /**
      * alias for getInstance()
      * @return the MongoReactiveClientSingleton
@@ -94,14 +105,8 @@ public class MongoReactiveClientSingleton {
 
     private void setup() throws UnknownHostException {
         if (isInitialized()) {
-            // TODO add minSize and maxSize to configuration
             var settings = MongoClientSettings.builder()
-                .applyToConnectionPoolSettings(new Block<ConnectionPoolSettings.Builder>() {
-                    @Override
-                    public void apply(final ConnectionPoolSettings.Builder builder) {
-                        // default values: min=0 and max=100
-                        builder.minSize(0).maxSize(128);
-                    }})
+                .applyToConnectionPoolSettings(builder -> connectionPool.apply(builder))
                 .applicationName("restheart (reactivestreams)")
                 .applyConnectionString(mongoUri)
                 .build();
@@ -0,0 +1,340 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import static java.lang.Thread.MIN_PRIORITY;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.bson.BsonArray;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.restheart.mongodb.MongoServiceConfiguration;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_SLOW_QUERIES_BUFFER_SIZE;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_SLOW_QUERY_THRESHOLD;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the last queries whose execution time exceeded the configured
+ * slow-query-threshold in a fixed size ring buffer, so that they can be
+ * inspected via the /_slowqueries resource.
+ *
+ * Recording is disabled when slow-query-threshold is 0; when the buffer is
+ * full, the oldest entry is overwritten.
+ *
+ * The plan of a slow query is explained asynchronously by a single thread
+ * with a small queue, so that a burst of slow queries does not add explain
+ * round trips to the requests; when the queue is full, the query is recorded
+ * without plan.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class SlowQueries {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueries.class);
+
+    private static final long THRESHOLD = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getSlowQueryThreshold()
+        : DEFAULT_SLOW_QUERY_THRESHOLD;
+
+    private static final int BUFFER_SIZE = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getSlowQueriesBufferSize()
+        : DEFAULT_SLOW_QUERIES_BUFFER_SIZE;
+
+    private static final int EXPLAIN_QUEUE_SIZE = 10;
+
+    /**
+     *
+     * @return
+     */
+    public static SlowQueries getInstance() {
+        return SlowQueriesSingletonHolder.INSTANCE;
+    }
+
+    private final long threshold;
+    private final SlowQuery[] buffer;
+    private final Executor explainer;
+    private int next = 0;
+
+    SlowQueries(long threshold, int bufferSize) {
+        this(threshold, bufferSize, new ThreadPoolExecutor(
+            1, 1,
+            1, TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("slow-queries-explainer-%d")
+                .setPriority(MIN_PRIORITY)
+                .build()));
+    }
+
+    SlowQueries(long threshold, int bufferSize, Executor explainer) {
+        this.threshold = threshold;
+        this.buffer = new SlowQuery[Math.max(bufferSize, 0)];
+        this.explainer = explainer;
+    }
+
+    /**
+     *
+     * @return true if slow queries are recorded
+     */
+    public boolean isEnabled() {
+        return threshold > 0 && buffer.length > 0;
+    }
+
+    /**
+     *
+     * @param elapsed the execution time in msecs
+     * @return true if a query that took elapsed msecs must be recorded
+     */
+    public boolean isSlow(long elapsed) {
+        return isEnabled() && elapsed >= threshold;
+    }
+
+    /**
+     * records the query if it is slow
+     *
+     * @param query
+     */
+    public void record(SlowQuery query) {
+        if (!isSlow(query.elapsed())) {
+            return;
+        }
+
+        LOGGER.debug("slow query on {}.{} took {} msecs", query.db(), query.collection(), query.elapsed());
+
+        synchronized (buffer) {
+            buffer[next] = query;
+            next = (next + 1) % buffer.length;
+        }
+    }
+
+    /**
+     * records the query if it is slow, after getting its plan
+     * asynchronously; the query is recorded without plan if too many slow
+     * queries are waiting to be explained
+     *
+     * @param query the slow query, its plan is ignored
+     * @param explain supplies the output of explain with QUERY_PLANNER
+     * verbosity, it is invoked by the explainer thread
+     */
+    public void record(SlowQuery query, Supplier<BsonDocument> explain) {
+        if (!isSlow(query.elapsed())) {
+            return;
+        }
+
+        try {
+            explainer.execute(() -> {
+                String plan;
+
+                try {
+                    plan = planSummary(explain.get());
+                } catch (Throwable t) {
+                    LOGGER.debug("error getting the plan of slow query on {}.{}", query.db(), query.collection(), t);
+                    plan = "n/a";
+                }
+
+                record(query.withPlan(plan));
+            });
+        } catch (RejectedExecutionException ree) {
+            LOGGER.debug("too many slow queries to explain, recording query on {}.{} without plan", query.db(), query.collection());
+            record(query.withPlan("n/a"));
+        }
+    }
+
+    /**
+     *
+     * @param db the db name, null to not filter by db
+     * @param collection the collection name, null to not filter by collection
+     * @return the recorded slow queries, the newest first
+     */
+    public List<SlowQuery> snapshot(String db, String collection) {
+        var ret = new ArrayList<SlowQuery>();
+
+        synchronized (buffer) {
+            for (var n = 1; n <= buffer.length; n++) {
+                var entry = buffer[Math.floorMod(next - n, buffer.length)];
+
+                if (entry == null) {
+                    break;
+                }
+
+                if ((db == null || db.equals(entry.db()))
+                    && (collection == null || collection.equals(entry.collection()))) {
+                    ret.add(entry);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * summarizes the winning plan of an explain output as the chain of its
+     * stages, e.g. LIMIT > FETCH > IXSCAN {a: 1}
+     *
+     * @param explain the output of explain with QUERY_PLANNER verbosity
+     * @return the plan summary or n/a if the winning plan is not available
+     */
+    public static String planSummary(BsonDocument explain) {
+        if (explain == null) {
+            return "n/a";
+        }
+
+        // aggregations report the plan of the $cursor stage
+        var queryPlanner = explain.get("queryPlanner");
+
+        if (queryPlanner == null && explain.isArray("stages")
+            && !explain.getArray("stages").isEmpty()
+            && explain.getArray("stages").get(0).isDocument()) {
+            var cursorStage = explain.getArray("stages").get(0).asDocument().get("$cursor");
+
+            if (cursorStage != null && cursorStage.isDocument()) {
+                queryPlanner = cursorStage.asDocument().get("queryPlanner");
+            }
+        }
+
+        if (queryPlanner == null || !queryPlanner.isDocument()
+            || !queryPlanner.asDocument().isDocument("winningPlan")) {
+            return "n/a";
+        }
+
+        var sb = new StringBuilder();
+        appendStage(sb, queryPlanner.asDocument().getDocument("winningPlan"));
+        return sb.toString();
+    }
+
+    private static void appendStage(StringBuilder sb, BsonDocument stage) {
+        sb.append(stage.isString("stage") ? stage.getString("stage").getValue() : "?");
+
+        if (stage.isDocument("keyPattern")) {
+            sb.append(" ").append(stage.getDocument("keyPattern").toJson());
+        }
+
+        if (stage.isDocument("inputStage")) {
+            sb.append(" > ");
+            appendStage(sb, stage.getDocument("inputStage"));
+        } else if (stage.isArray("inputStages")) {
+            sb.append(" > [");
+            var first = true;
+            for (var input : stage.getArray("inputStages")) {
+                if (input.isDocument()) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    appendStage(sb, input.asDocument());
+                    first = false;
+                }
+            }
+            sb.append("]");
+        }
+    }
+
+    /**
+     * A recorded slow query
+     *
+     * @param timestamp the time the query completed, in epoch msecs
+     * @param db
+     * @param collection
+     * @param filter
+     * @param sort
+     * @param keys
+     * @param hint
+     * @param pipeline the resolved stages for aggregations, null for queries
+     * @param page
+     * @param pagesize
+     * @param elapsed the execution time in msecs
+     * @param plan the plan summary, see planSummary()
+     */
+    public static record SlowQuery(
+        long timestamp,
+        String db,
+        String collection,
+        BsonDocument filter,
+        BsonDocument sort,
+        BsonDocument keys,
+        BsonDocument hint,
+        BsonArray pipeline,
+        int page,
+        int pagesize,
+        long elapsed,
+        String plan) {
+
+        /**
+         *
+         * @param plan
+         * @return a copy of this slow query with the given plan
+         */
+        public SlowQuery withPlan(String plan) {
+            return new SlowQuery(timestamp, db, collection, filter, sort, keys, hint, pipeline, page, pagesize, elapsed, plan);
+        }
+
+        /**
+         *
+         * @return the slow query as a BsonDocument
+         */
+        public BsonDocument asBson() {
+            var ret = new BsonDocument();
+
+            ret.put("timestamp", new BsonDateTime(timestamp));
+            ret.put("db", new BsonString(db));
+            ret.put("collection", new BsonString(collection));
+
+            if (pipeline != null) {
+                ret.put("pipeline", pipeline);
+            } else {
+                ret.put("filter", orNull(filter));
+                ret.put("sort", orNull(sort));
+                ret.put("keys", orNull(keys));
+                ret.put("hint", orNull(hint));
+            }
+
+            ret.put("page", new BsonInt32(page));
+            ret.put("pagesize", new BsonInt32(pagesize));
+            ret.put("elapsed", new BsonInt64(elapsed));
+            ret.put("plan", plan == null ? BsonNull.VALUE : new BsonString(plan));
+
+            return ret;
+        }
+
+        private static BsonValue orNull(BsonDocument doc) {
+            return doc == null ? BsonNull.VALUE : doc;
+        }
+    }
+
+    private static class SlowQueriesSingletonHolder {
+        private static final SlowQueries INSTANCE = new SlowQueries(THRESHOLD, BUFFER_SIZE);
+
+        private SlowQueriesSingletonHolder() {
+        }
+    };
+}
@@ -121,13 +121,36 @@ public class ClientSessionFactory {
             throw new IllegalArgumentException("Invalid session id");
         }
 
-        var cs = getClientSession(sid);
+        var cs = getPooledClientSession(exchange, sid);
 
         LOGGER.debug("Request is executed in session {}", _sid);
 
         return cs;
     }
 
+    /**
+     * acquires the client session from the ClientSessionsPool and releases it
+     * when the exchange completes
+     *
+     * @param exchange
+     * @param sid
+     * @return
+     */
+    protected ClientSessionImpl getPooledClientSession(HttpServerExchange exchange, UUID sid) {
+        var pool = ClientSessionsPool.getInstance();
+
+        var cs = pool.acquire(sid, () -> getClientSession(sid));
+
+        if (pool.isEnabled()) {
+            exchange.addExchangeCompleteListener((ex, nextListener) -> {
+                pool.release(sid, cs);
+                nextListener.proceed();
+            });
+        }
+
+        return cs;
+    }
+
     /**
      *
      * @param sid
@@ -0,0 +1,193 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db.sessions;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.mongodb.MongoServiceConfiguration;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_CLIENT_SESSIONS_POOL_SIZE;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_CLIENT_SESSIONS_POOL_TTL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of the client sessions of the requests with the sid query parameter.
+ *
+ * A client session is acquired at the beginning of a request and released
+ * when the request completes, so that the following requests of the same
+ * session reuse it, together with its server session, instead of creating
+ * new ones. A client session is never used by two requests at the same time.
+ *
+ * The pool is bounded by client-sessions-pool-size session ids; the idle
+ * client sessions of a session id are closed when unused for
+ * client-sessions-pool-ttl milliseconds or when the session id is evicted.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ClientSessionsPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientSessionsPool.class);
+
+    /**
+     * max number of idle client sessions kept for each session id
+     */
+    static final int MAX_IDLE_PER_SID = 8;
+
+    private final boolean enabled;
+    private final Cache<UUID, ConcurrentLinkedDeque<ClientSessionImpl>> pool;
+
+    public static ClientSessionsPool getInstance() {
+        return ClientSessionsPoolSingletonHolder.INSTANCE;
+    }
+
+    ClientSessionsPool(int size, long ttl) {
+        this.enabled = size > 0;
+        this.pool = CacheFactory.createLocalCache("mongo.clientSessionsPool", Math.max(size, 1),
+            Cache.EXPIRE_POLICY.AFTER_READ,
+            ttl,
+            entry -> {
+                if (entry.getValue() != null && entry.getValue().isPresent()) {
+                    LOGGER.debug("Closing pooled client sessions of sid {}", entry.getKey());
+                    entry.getValue().get().forEach(ClientSessionsPool::close);
+                }
+            });
+    }
+
+    /**
+     *
+     * @return true if the pool is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param sid the session id
+     * @param factory creates a new client session if none is idle for the sid
+     * @return an idle client session of the sid or a new one
+     */
+    public ClientSessionImpl acquire(UUID sid, Supplier<ClientSessionImpl> factory) {
+        if (!enabled) {
+            return factory.get();
+        }
+
+        var pooled = idle(sid).pollFirst();
+
+        if (pooled != null && !pooled.getServerSession().isClosed()) {
+            LOGGER.trace("Reusing pooled client session of sid {}", sid);
+            return pooled;
+        } else {
+            return factory.get();
+        }
+    }
+
+    /**
+     * returns the client session to the pool, to invoke when the request
+     * using it completes
+     *
+     * @param sid the session id
+     * @param cs the client session
+     */
+    public void release(UUID sid, ClientSessionImpl cs) {
+        if (!enabled || cs == null) {
+            return;
+        }
+
+        if (cs.getServerSession().isClosed()) {
+            // invalidated while in use
+            close(cs);
+            return;
+        }
+
+        var sessions = idle(sid);
+
+        if (sessions.size() < MAX_IDLE_PER_SID) {
+            sessions.addFirst(cs);
+
+            // the deque might have been evicted in the meantime
+            var current = pool.asMap().get(sid);
+
+            if ((current == null || current.orElse(null) != sessions) && sessions.removeFirstOccurrence(cs)) {
+                close(cs);
+            }
+        } else {
+            close(cs);
+        }
+    }
+
+    /**
+     * closes the pooled client sessions of the sid, to invoke when the
+     * session is not valid anymore
+     *
+     * @param sid the session id
+     */
+    public void invalidate(UUID sid) {
+        // the removal listener is notified asynchronously, close them now
+        var removed = pool.asMap().remove(sid);
+
+        if (removed != null && removed.isPresent()) {
+            removed.get().forEach(ClientSessionsPool::close);
+        }
+    }
+
+    /**
+     * invalidates the client session of a request whose session is not valid
+     * anymore, so that it is closed instead of being pooled on release, and
+     * closes the pooled client sessions of its sid
+     *
+     * @param cs the client session of the request
+     */
+    public void invalidate(ClientSessionImpl cs) {
+        if (cs == null) {
+            return;
+        }
+
+        if (cs.getServerSession() instanceof ServerSessionImpl ssi) {
+            ssi.close();
+        }
+
+        invalidate(cs.getSid());
+    }
+
+    private ConcurrentLinkedDeque<ClientSessionImpl> idle(UUID sid) {
+        return pool.asMap()
+            .computeIfAbsent(sid, k -> Optional.of(new ConcurrentLinkedDeque<>()))
+            .get();
+    }
+
+    private static void close(ClientSessionImpl cs) {
+        if (cs.getServerSession() instanceof ServerSessionImpl ssi) {
+            ssi.close();
+        }
+
+        cs.close();
+    }
+
+    private static class ClientSessionsPoolSingletonHolder {
+        private static final ClientSessionsPool INSTANCE = MongoServiceConfiguration.get() != null
+            ? new ClientSessionsPool(MongoServiceConfiguration.get().getClientSessionsPoolSize(), MongoServiceConfiguration.get().getClientSessionsPoolTtl())
+            : new ClientSessionsPool(DEFAULT_CLIENT_SESSIONS_POOL_SIZE, DEFAULT_CLIENT_SESSIONS_POOL_TTL);
+    }
+}
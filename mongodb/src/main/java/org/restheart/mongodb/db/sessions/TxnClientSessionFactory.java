@@ -119,7 +119,7 @@ public class TxnClientSessionFactory extends ClientSessionFactory {
         } else {
             LOGGER.debug("Request is executed in session {}", _sid);
 
-            return super.getClientSession(sid);
+            return getPooledClientSession(exchange, sid);
 
         }
     }
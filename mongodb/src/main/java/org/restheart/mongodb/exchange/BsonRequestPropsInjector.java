@@ -39,6 +39,11 @@ import static org.restheart.exchange.ExchangeKeys.HINT_QPARAM_KEY;
 import static org.restheart.exchange.ExchangeKeys.KEYS_QPARAM_KEY;
 import static org.restheart.exchange.ExchangeKeys.PAGESIZE_QPARAM_KEY;
 import static org.restheart.exchange.ExchangeKeys.PAGE_QPARAM_KEY;
+import static org.restheart.exchange.ExchangeKeys.READ_CONCERN_QPARAM_KEY;
+import static org.restheart.exchange.ExchangeKeys.READ_PREFERENCE_QPARAM_KEY;
+import static org.restheart.exchange.ExchangeKeys.WRITE_CONCERN_QPARAM_KEY;
+import static org.restheart.exchange.ExchangeKeys.EXPLAIN_QPARAM_KEY;
+import static org.restheart.exchange.ExchangeKeys.ASYNC_QPARAM_KEY;
 import org.restheart.exchange.ExchangeKeys.REPRESENTATION_FORMAT;
 import static org.restheart.exchange.ExchangeKeys.REPRESENTATION_FORMAT_KEY;
 import static org.restheart.exchange.ExchangeKeys.SHARDKEY_QPARAM_KEY;
@@ -53,6 +58,7 @@ import org.restheart.mongodb.handlers.aggregation.AggregationPipeline;
 import org.restheart.mongodb.utils.URLUtils;
 import org.restheart.utils.HttpStatus;
 import org.restheart.utils.BsonUtils;
+import org.restheart.utils.MongoOptionsUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -433,6 +439,68 @@ public class BsonRequestPropsInjector {
 
         request.setCursorAllocationPolicy(eager);
 
+        // get and check the readPreference parameter
+        Deque<String> __readPreference = exchange.getQueryParameters().get(READ_PREFERENCE_QPARAM_KEY);
+
+        if (__readPreference != null && !__readPreference.isEmpty()) {
+            try {
+                request.setReadPreference(MongoOptionsUtils.readPreference(__readPreference.getFirst()));
+            } catch (IllegalArgumentException iae) {
+                response.setInError(
+                        HttpStatus.SC_BAD_REQUEST,
+                        "illegal "
+                        + READ_PREFERENCE_QPARAM_KEY
+                        + " paramenter; must be primary, primaryPreferred, secondary, secondaryPreferred or nearest");
+                return;
+            }
+        }
+
+        // get and check the readConcern parameter
+        Deque<String> __readConcern = exchange.getQueryParameters().get(READ_CONCERN_QPARAM_KEY);
+
+        if (__readConcern != null && !__readConcern.isEmpty()) {
+            try {
+                request.setReadConcern(MongoOptionsUtils.readConcern(__readConcern.getFirst()));
+            } catch (IllegalArgumentException iae) {
+                response.setInError(
+                        HttpStatus.SC_BAD_REQUEST,
+                        "illegal "
+                        + READ_CONCERN_QPARAM_KEY
+                        + " paramenter; must be local, available, majority, linearizable or snapshot");
+                return;
+            }
+        }
+
+        // get and check the writeConcern parameter
+        Deque<String> __writeConcern = exchange.getQueryParameters().get(WRITE_CONCERN_QPARAM_KEY);
+
+        if (__writeConcern != null && !__writeConcern.isEmpty()) {
+            try {
+                request.setWriteConcern(MongoOptionsUtils.writeConcern(__writeConcern.getFirst()));
+            } catch (IllegalArgumentException iae) {
+                response.setInError(
+                        HttpStatus.SC_BAD_REQUEST,
+                        "illegal "
+                        + WRITE_CONCERN_QPARAM_KEY
+                        + " paramenter: "
+                        + iae.getMessage(), iae);
+                return;
+            }
+        }
+
+        // get the explain parameter, ?explain and ?explain=true enable it
+        Deque<String> __explain = exchange.getQueryParameters().get(EXPLAIN_QPARAM_KEY);
+
+        if (__explain != null && !__explain.isEmpty()) {
+            request.setExplain(!"false".equalsIgnoreCase(__explain.getFirst().trim()));
+        }
+
+        Deque<String> __async = exchange.getQueryParameters().get(ASYNC_QPARAM_KEY);
+
+        if (__async != null && !__async.isEmpty()) {
+            request.setAsync(!"false".equalsIgnoreCase(__async.getFirst().trim()));
+        }
+
         // get and check the doc id type parameter
         Deque<String> __docIdType = exchange.getQueryParameters().get(DOC_ID_TYPE_QPARAM_KEY);
 
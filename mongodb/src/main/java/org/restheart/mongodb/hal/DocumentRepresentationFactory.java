@@ -21,6 +21,7 @@
 package org.restheart.mongodb.hal;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import java.time.Instant;
 import java.util.List;
 import org.bson.BsonDocument;
@@ -43,6 +44,14 @@ class DocumentRepresentationFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentRepresentationFactory.class);
 
+    /**
+     * the relationships of the collection, parsed once per request and reused
+     * for all the documents of the page
+     */
+    private static record Relationships(List<Relationship> rels, boolean invalid) {}
+
+    private static final AttachmentKey<Relationships> RELATIONSHIPS_KEY = AttachmentKey.create(Relationships.class);
+
     private static boolean isBinaryFile(BsonDocument data) {
         return data.containsKey("filename") && data.containsKey("chunkSize");
     }
@@ -80,27 +89,48 @@ class DocumentRepresentationFactory {
         }
     }
 
+    private static Relationships getRelationships(HttpServerExchange exchange) {
+        var cached = exchange.getAttachment(RELATIONSHIPS_KEY);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Relationships ret;
+
+        try {
+            ret = new Relationships(Relationship.getFromJson(MongoRequest.of(exchange).getCollectionProps()), false);
+        } catch (InvalidMetadataException ex) {
+            ret = new Relationships(null, true);
+        }
+
+        exchange.putAttachment(RELATIONSHIPS_KEY, ret);
+
+        return ret;
+    }
+
     private static void addRelationshipsLinks(Resource rep,
             HttpServerExchange exchange,
             BsonDocument data) {
         var request = MongoRequest.of(exchange);
 
-        List<Relationship> rels = null;
+        var relationships = getRelationships(exchange);
 
-        try {
-            rels = Relationship.getFromJson(request.getCollectionProps());
-        } catch (InvalidMetadataException ex) {
+        if (relationships.invalid()) {
             rep.addWarning("collection " + request.getDBName()
                     + "/" + request.getCollectionName()
                     + " has invalid relationships definition");
         }
 
-        if (rels != null) {
+        var rels = relationships.rels();
+
+        if (rels != null && !rels.isEmpty()) {
+            var dbName = request.getDBName();
+            var collName = request.getCollectionName();
+
             for (Relationship rel : rels) {
                 try {
-                    String link = rel.getRelationshipLink(request,
-                            request.getDBName(),
-                            request.getCollectionName(), data);
+                    String link = rel.getRelationshipLink(request, dbName, collName, data);
 
                     if (link != null) {
                         rep.addLink(new Link(rel.getRel(), link));
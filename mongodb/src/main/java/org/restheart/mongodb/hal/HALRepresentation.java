@@ -89,6 +89,8 @@ public class HALRepresentation implements MongoInterceptor {
                 && !request.isSchemaStoreSize()
                 && !request.isFileBinary()
                 && !request.isMetrics()
+                && !request.isSlowQueries()
+                && !request.isExplain()
                 && request.isHandledBy("mongo")
                 && request.getRepresentationFormat() != null
                 && (Resource.isSHAL(request) || Resource.isHAL(request));
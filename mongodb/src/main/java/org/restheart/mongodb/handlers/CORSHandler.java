@@ -30,6 +30,7 @@ import static io.undertow.util.Headers.ORIGIN;
 import io.undertow.util.HttpString;
 import static java.lang.Boolean.TRUE;
 import org.restheart.handlers.PipelinedHandler;
+import org.restheart.mongodb.utils.ResponseHelper;
 import static org.restheart.mongodb.handlers.CORSHandler.CORSHeaders.ACCESS_CONTROL_ALLOW_CREDENTIAL;
 import static org.restheart.mongodb.handlers.CORSHandler.CORSHeaders.ACCESS_CONTROL_ALLOW_ORIGIN;
 import static org.restheart.mongodb.handlers.CORSHandler.CORSHeaders.ACCESS_CONTROL_EXPOSE_HEADERS;
@@ -117,6 +118,7 @@ public class CORSHandler extends PipelinedHandler {
         headers.addResponseHeader(ACCESS_CONTROL_EXPOSE_HEADERS,
                 LOCATION_STRING + ", "
                 + Headers.ETAG + ", "
+                + ResponseHelper.WRITE_CONCERN_HEADER + ", "
                 + HttpHeaders.X_POWERED_BY);
     }
 
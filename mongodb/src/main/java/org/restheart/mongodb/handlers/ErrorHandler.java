@@ -28,6 +28,7 @@ import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
+import org.restheart.mongodb.db.sessions.ClientSessionsPool;
 import org.restheart.mongodb.handlers.bulk.BulkResultRepresentationFactory;
 import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.utils.HttpStatus;
@@ -44,6 +45,9 @@ public class ErrorHandler implements HttpHandler {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ErrorHandler.class);
 
+    // the server error code NoSuchSession
+    private static final int NO_SUCH_SESSION = 206;
+
     /**
      * Creates a new instance of ErrorHandler
      *
@@ -83,6 +87,8 @@ public class ErrorHandler implements HttpHandler {
             response.setStatusCode(HttpStatus.SC_MULTI_STATUS);
             response.setContent(error);
         } catch (MongoException mce) {
+            invalidatePooledSessions(exchange, mce);
+
             int httpCode = ResponseHelper.getHttpStatusFromErrorCode(mce.getCode());
 
             if (httpCode >= 500 && mce.getMessage() != null && !mce.getMessage().isBlank()) {
@@ -98,4 +104,24 @@ public class ErrorHandler implements HttpHandler {
             response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Error handling the request, see log for more information", t);
         }
     }
+
+    /**
+     * invalidates the client session of the request and the pooled ones of
+     * its sid if the server does not know the session anymore
+     *
+     * @param exchange
+     * @param mce
+     */
+    private void invalidatePooledSessions(HttpServerExchange exchange, MongoException mce) {
+        if (mce.getCode() != NO_SUCH_SESSION) {
+            return;
+        }
+
+        var cs = MongoRequest.of(exchange).getClientSession();
+
+        if (cs != null) {
+            LOGGER.debug("Session {} not found, invalidating its client sessions", cs.getSid());
+            ClientSessionsPool.getInstance().invalidate(cs);
+        }
+    }
 }
@@ -62,6 +62,7 @@ import org.restheart.mongodb.handlers.root.GetRootHandler;
 import org.restheart.mongodb.handlers.schema.JsonMetaSchemaChecker;
 import org.restheart.mongodb.handlers.schema.JsonSchemaTransformer;
 import org.restheart.mongodb.handlers.sessions.PostSessionHandler;
+import org.restheart.mongodb.handlers.slowqueries.GetSlowQueriesHandler;
 import org.restheart.utils.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -374,6 +375,8 @@ public class RequestDispatcherHandler extends PipelinedHandler {
         putHandler(TYPE.SCHEMA, METHOD.DELETE, new DeleteDocumentHandler());
 
         putHandler(TYPE.METRICS, METHOD.GET, new MetricsHandler());
+
+        putHandler(TYPE.SLOW_QUERIES, METHOD.GET, new GetSlowQueriesHandler());
     }
 
     /**
@@ -47,8 +47,14 @@ public class AggregationPipeline extends AbstractAggregationOperation {
      */
     public static final String ALLOW_DISK_USER_ELEMENT_NAME = "allowDiskUse";
 
+    /**
+     *
+     */
+    public static final String CURSOR_PAGING_ELEMENT_NAME = "cursorPaging";
+
     private final BsonArray stages;
     private final BsonBoolean allowDiskUse;
+    private final BsonBoolean cursorPaging;
 
     /**
      * @param properties the json properties object. It must include the
@@ -56,6 +62,10 @@ public class AggregationPipeline extends AbstractAggregationOperation {
      * <ul>
      * <li><code>stages</code></li>
      * </ul>
+     * If <code>cursorPaging</code> is true, paging is applied iterating the
+     * aggregation cursor, that is kept open between requests (see
+     * AggregationCursorPool); in this case the stages must not use the
+     * <code>@skip</code> and <code>@limit</code> variables.
      * <strong>Note</strong> that the dollar prefixed operators in the stages
      * must be underscore escaped, e.g. "_$exits"
      * <p>
@@ -66,6 +76,7 @@ public class AggregationPipeline extends AbstractAggregationOperation {
      *   "type":"pipeline",
      *   "uri":"test_ap",
      *   "allowDiskUse": false,
+     *   "cursorPaging": false,
      *   "stages":
      *     [
      *       {"_$match": { "name": { "_$exists": true}}},
@@ -111,6 +122,19 @@ public class AggregationPipeline extends AbstractAggregationOperation {
         this.allowDiskUse = _allowDiskUse != null
                 ? _allowDiskUse.asBoolean()
                 : BsonBoolean.FALSE;
+
+        BsonValue _cursorPaging = properties.get(CURSOR_PAGING_ELEMENT_NAME);
+
+        if (_cursorPaging != null && !_cursorPaging.isBoolean()) {
+            throw new InvalidMetadataException("query /" + getUri()
+                    + "has invalid '" + CURSOR_PAGING_ELEMENT_NAME
+                    + "': " + _cursorPaging
+                    + "; must be boolean");
+        }
+
+        this.cursorPaging = _cursorPaging != null
+                ? _cursorPaging.asBoolean()
+                : BsonBoolean.FALSE;
     }
 
     /**
@@ -148,4 +172,11 @@ public class AggregationPipeline extends AbstractAggregationOperation {
     public BsonBoolean getAllowDiskUse() {
         return allowDiskUse;
     }
+
+    /**
+     * @return the cursorPaging
+     */
+    public BsonBoolean getCursorPaging() {
+        return cursorPaging;
+    }
 }
@@ -20,11 +20,13 @@
  */
 package org.restheart.mongodb.handlers.aggregation;
 
+import com.mongodb.ExplainVerbosity;
 import com.mongodb.MongoCommandException;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.MapReduceIterable;
 import io.undertow.server.HttpServerExchange;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.bson.BsonArray;
 import org.bson.BsonDocument;
@@ -37,7 +39,11 @@ import org.restheart.exchange.MongoResponse;
 import org.restheart.exchange.QueryVariableNotBoundException;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.MongoServiceConfiguration;
+import org.restheart.mongodb.db.AggregationCursorPool;
+import org.restheart.mongodb.db.AggregationCursorPoolEntryKey;
 import org.restheart.mongodb.db.Databases;
+import org.restheart.mongodb.db.SlowQueries;
+import org.restheart.mongodb.db.SlowQueries.SlowQuery;
 import org.restheart.security.AclVarsInterpolator;
 import org.restheart.security.FileRealmAccount;
 import org.restheart.security.JwtAccount;
@@ -59,6 +65,10 @@ public class GetAggregationHandler extends PipelinedHandler {
 
     private final Databases dbs = Databases.get();
 
+    private final AggregationCursorPool cursorPool = AggregationCursorPool.getInstance();
+
+    private final SlowQueries slowQueries = SlowQueries.getInstance();
+
     /**
      * Default ctor
      */
@@ -117,20 +127,28 @@ public class GetAggregationHandler extends PipelinedHandler {
             // add the default variables to the avars document
             injectAvars(request, avars);
 
+            var start = System.currentTimeMillis();
+
             switch (query.getType()) {
                 case MAP_REDUCE:
+                    if (request.isExplain()) {
+                        response.setInError(HttpStatus.SC_BAD_REQUEST, "explain is not supported for mapReduce");
+                        next(exchange);
+                        return;
+                    }
+
                     MapReduceIterable<BsonDocument> mrOutput;
                     var mapReduce = (MapReduce) query;
                     try {
                         var clientSession = request.getClientSession();
 
                         if (clientSession == null) {
-                            mrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName())
+                            mrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern())
                                 .mapReduce(mapReduce.getResolvedMap(avars), mapReduce.getResolvedReduce(avars))
                                 .filter(mapReduce.getResolvedQuery(avars))
                                 .maxTime(MongoServiceConfiguration.get() .getAggregationTimeLimit(), TimeUnit.MILLISECONDS);
                         } else {
-                            mrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName())
+                            mrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern())
                                 .mapReduce(clientSession, mapReduce.getResolvedMap(avars), mapReduce.getResolvedReduce(avars))
                                 .filter(mapReduce.getResolvedQuery(avars))
                                 .maxTime(MongoServiceConfiguration.get() .getAggregationTimeLimit(), TimeUnit.MILLISECONDS);
@@ -152,26 +170,68 @@ public class GetAggregationHandler extends PipelinedHandler {
                 case AGGREGATION_PIPELINE:
                     AggregateIterable<BsonDocument> agrOutput;
                     var pipeline = (AggregationPipeline) query;
+
+                    if (request.isExplain()) {
+                        // return the query plan instead of the data
+                        try {
+                            var explain = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern())
+                                .aggregate(pipeline.getResolvedStagesAsList(avars))
+                                .maxTime(MongoServiceConfiguration.get() .getAggregationTimeLimit(), TimeUnit.MILLISECONDS)
+                                .allowDiskUse(pipeline.getAllowDiskUse().getValue())
+                                .explain(BsonDocument.class, ExplainVerbosity.QUERY_PLANNER);
+
+                            response.setContent(explain);
+                            response.setContentTypeAsJson();
+                            response.setStatusCode(HttpStatus.SC_OK);
+                        } catch (MongoCommandException | InvalidMetadataException ex) {
+                            response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR, "error explaining aggregation pipeline", ex);
+                        } catch (QueryVariableNotBoundException qvnbe) {
+                            response.setInError(HttpStatus.SC_BAD_REQUEST, "error explaining aggregation pipeline: " + qvnbe.getMessage());
+                        }
+
+                        next(exchange);
+                        return;
+                    }
+
+                    // with cursorPaging, the page is read from a pooled cursor
+                    // client sessions are excluded since cursors are bound to them
+                    if (pipeline.getCursorPaging().getValue()
+                        && request.getClientSession() == null
+                        && cursorPool.isEnabled()) {
+                        try {
+                            _data.addAll(getCursorPagedData(request, pipeline, avars));
+                        } catch (MongoCommandException | InvalidMetadataException ex) {
+                            response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR, "error executing aggregation pipeline", ex);
+                            next(exchange);
+                            return;
+                        } catch (QueryVariableNotBoundException qvnbe) {
+                            response.setInError(HttpStatus.SC_BAD_REQUEST, "error executing aggregation pipeline: " + qvnbe.getMessage());
+                            next(exchange);
+                            return;
+                        }
+                        break;
+                    }
+
                     try {
                         var clientSession = request.getClientSession();
 
                         if (clientSession == null) {
-                            agrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName())
+                            agrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern())
                                 .aggregate(pipeline.getResolvedStagesAsList(avars))
                                 .maxTime(MongoServiceConfiguration.get() .getAggregationTimeLimit(), TimeUnit.MILLISECONDS)
                                 .allowDiskUse(pipeline.getAllowDiskUse().getValue());
                         } else {
-                            agrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName())
+                            agrOutput = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern())
                                 .aggregate(clientSession, pipeline.getResolvedStagesAsList(avars))
                                 .maxTime(MongoServiceConfiguration.get() .getAggregationTimeLimit(), TimeUnit.MILLISECONDS)
                                 .allowDiskUse(pipeline.getAllowDiskUse().getValue());
                         }
                     } catch (MongoCommandException | InvalidMetadataException ex) {
-                        response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR, "error executing aggreation pipeline", ex);
+                        response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR, "error executing aggregation pipeline", ex);
                         next(exchange);
                         return;
                     } catch (QueryVariableNotBoundException qvnbe) {
-                        response.setInError(HttpStatus.SC_BAD_REQUEST, "error executing aggreation pipeline: " + qvnbe.getMessage());
+                        response.setInError(HttpStatus.SC_BAD_REQUEST, "error executing aggregation pipeline: " + qvnbe.getMessage());
                         next(exchange);
                         return;
                     }
@@ -185,6 +245,12 @@ public class GetAggregationHandler extends PipelinedHandler {
                     next(exchange);
                     return;
             }
+
+            var elapsed = System.currentTimeMillis() - start;
+
+            if (query instanceof AggregationPipeline pipeline && slowQueries.isSlow(elapsed)) {
+                recordSlowQuery(request, pipeline, avars, elapsed);
+            }
         }
 
         if (exchange.isComplete()) {
@@ -212,6 +278,86 @@ public class GetAggregationHandler extends PipelinedHandler {
         }
     }
 
+    /**
+     * reads the requested page of the aggregation from a cursor of the
+     * AggregationCursorPool positioned at the first document of the page, if
+     * available, otherwise executes the pipeline with a final $skip stage
+     * that skips the previous pages on the server.
+     *
+     * @param request
+     * @param pipeline
+     * @param avars
+     * @return the documents of the requested page
+     * @throws InvalidMetadataException
+     * @throws QueryVariableNotBoundException
+     */
+    private List<BsonDocument> getCursorPagedData(MongoRequest request, AggregationPipeline pipeline, BsonDocument avars)
+        throws InvalidMetadataException, QueryVariableNotBoundException {
+        var coll = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern());
+        var stages = pipeline.getResolvedStagesAsList(avars);
+        var allowDiskUse = pipeline.getAllowDiskUse().getValue();
+        var pagesize = request.getPagesize();
+        var toskip = pagesize * (request.getPage() - 1);
+
+        // the collection's read options are the request's ones resolved against the client defaults
+        var key = new AggregationCursorPoolEntryKey(coll.getNamespace().getFullName(), stages, allowDiskUse, coll.getReadPreference(), coll.getReadConcern(), toskip);
+
+        return cursorPool.page(key, pagesize, skip -> coll.aggregate(withSkip(stages, skip))
+            .maxTime(MongoServiceConfiguration.get().getAggregationTimeLimit(), TimeUnit.MILLISECONDS)
+            .allowDiskUse(allowDiskUse)
+            .batchSize(MongoServiceConfiguration.get().getCursorBatchSize())
+            .cursor());
+    }
+
+    /**
+     *
+     * @param stages
+     * @param skip
+     * @return the stages followed by a $skip stage, if skip > 0
+     */
+    static List<BsonDocument> withSkip(List<BsonDocument> stages, int skip) {
+        if (skip <= 0) {
+            return stages;
+        }
+
+        var ret = new ArrayList<BsonDocument>(stages);
+        ret.add(new BsonDocument("$skip", new BsonInt32(skip)));
+        return ret;
+    }
+
+    private void recordSlowQuery(MongoRequest request, AggregationPipeline pipeline, BsonDocument avars, long elapsed) {
+        List<BsonDocument> stages;
+
+        try {
+            stages = pipeline.getResolvedStagesAsList(avars);
+        } catch (InvalidMetadataException | QueryVariableNotBoundException ex) {
+            // cannot happen, the pipeline has already been executed
+            return;
+        }
+
+        var coll = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern());
+        var allowDiskUse = pipeline.getAllowDiskUse().getValue();
+
+        var _stages = new BsonArray();
+        stages.forEach(_stages::add);
+
+        slowQueries.record(new SlowQuery(System.currentTimeMillis(),
+            request.getDBName(),
+            request.getCollectionName(),
+            null,
+            null,
+            null,
+            null,
+            _stages,
+            request.getPage(),
+            request.getPagesize(),
+            elapsed,
+            null),
+            () -> coll.aggregate(stages)
+                .allowDiskUse(allowDiskUse)
+                .explain(BsonDocument.class, ExplainVerbosity.QUERY_PLANNER));
+    }
+
     /**
      * adds the default variables to the avars document
      *
@@ -271,9 +417,9 @@ public class GetAggregationHandler extends PipelinedHandler {
             avars.put("@user", ba);
             ba.keySet().forEach(k -> avars.put("@user.".concat(k), ba.get(k)));
         } else if (account != null && account instanceof JwtAccount jwtAccount) {
-            var bva = BsonUtils.parse(jwtAccount.getJwtPayload());
+            var bda = jwtAccount.getJwtPayloadDocument();
 
-            if (bva instanceof BsonDocument bda) {
+            if (bda != null) {
                 avars.put("@user", bda);
                 bda.keySet().forEach(k -> avars.put("@user.".concat(k), bda.get(k)));
             } else {
@@ -28,6 +28,7 @@ import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Documents;
+import org.restheart.mongodb.utils.ResponseHelper;
 
 /**
  *
@@ -73,7 +74,10 @@ public class BulkDeleteDocumentsHandler extends PipelinedHandler {
             request.getDBName(),
             request.getCollectionName(),
             request.getFiltersDocument(),
-            Optional.ofNullable(request.getShardKey()));
+            Optional.ofNullable(request.getShardKey()),
+            Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         response.setDbOperationResult(result);
 
@@ -94,7 +94,10 @@ public class BulkPostCollectionHandler extends PipelinedHandler {
             documents,
             Optional.ofNullable(request.getFiltersDocument()),
             Optional.ofNullable(request.getShardKey()),
-            request.getWriteMode());
+            request.getWriteMode(),
+            Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         response.setDbOperationResult(result);
 
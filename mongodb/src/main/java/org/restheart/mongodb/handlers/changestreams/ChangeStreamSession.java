@@ -0,0 +1,210 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import io.undertow.server.session.SecureRandomSessionIdGenerator;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.restheart.mongodb.MongoServiceConfiguration;
+import org.restheart.mongodb.MongoServiceConfiguration.CHANGE_STREAMS_OVERFLOW_POLICY;
+import static org.restheart.mongodb.MongoServiceConfigurationKeys.DEFAULT_CHANGE_STREAMS_QUEUE_SIZE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client of a change stream, either connected via websocket or via
+ * server-sent events.
+ *
+ * Notifications are queued and sent one at a time: the next one is sent when
+ * the previous send completes. The queue is bounded by
+ * change-streams-queue-size; when it is full, the
+ * change-streams-overflow-policy either drops the oldest notification or
+ * disconnects the client.
+ *
+ * The queue is non-blocking: notifications are added by the
+ * NotificationDispatcher thread of the session and removed by the IO thread
+ * that completes the previous send.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public abstract class ChangeStreamSession {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamSession.class);
+
+    private static final int QUEUE_SIZE = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getChangeStreamsQueueSize()
+        : DEFAULT_CHANGE_STREAMS_QUEUE_SIZE;
+
+    private static final CHANGE_STREAMS_OVERFLOW_POLICY OVERFLOW_POLICY = MongoServiceConfiguration.get() != null
+        ? MongoServiceConfiguration.get().getChangeStreamsOverflowPolicy()
+        : CHANGE_STREAMS_OVERFLOW_POLICY.DROP_OLDEST;
+
+    private final String sessionId;
+    private final SessionKey sessionKey;
+
+    private final ConcurrentLinkedDeque<Notification> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queueSize = new AtomicInteger(0);
+    private final AtomicBoolean sending = new AtomicBoolean(false);
+
+    /**
+     * an encoded notification and its event id, the resume token of the
+     * change event
+     */
+    protected static record Notification(String data, String id) {}
+
+    protected ChangeStreamSession(SessionKey sessionKey) {
+        this.sessionId = new SecureRandomSessionIdGenerator().createSessionId();
+        this.sessionKey = sessionKey;
+    }
+
+    public String getId() {
+        return this.sessionId;
+    }
+
+    public SessionKey getSessionKey() {
+        return this.sessionKey;
+    }
+
+    /**
+     * queues the notification, applying the overflow policy if the queue is
+     * full, and starts sending it if no other send is in progress
+     *
+     * @param notification the encoded notification
+     * @param eventId the event id of the notification, can be null
+     */
+    public void send(String notification, String eventId) {
+        if (queueSize.get() >= QUEUE_SIZE) {
+            if (OVERFLOW_POLICY == CHANGE_STREAMS_OVERFLOW_POLICY.DROP_OLDEST) {
+                LOGGER.debug("Notification queue full, dropping oldest notification, sessionkey={}", sessionKey);
+
+                if (queue.pollFirst() != null) {
+                    queueSize.decrementAndGet();
+                }
+            } else {
+                LOGGER.debug("Notification queue full, disconnecting client, sessionkey={}", sessionKey);
+                closeQuietly();
+                return;
+            }
+        }
+
+        queue.addLast(new Notification(notification, eventId));
+        queueSize.incrementAndGet();
+
+        trySend();
+    }
+
+    /**
+     *
+     * @return true if the notification queue is full
+     */
+    public boolean isQueueFull() {
+        return queueSize.get() >= QUEUE_SIZE;
+    }
+
+    /**
+     * writes the notification to the client
+     *
+     * @param notification
+     * @param onComplete to invoke when the notification has been sent
+     * @param onError to invoke if sending the notification fails
+     */
+    protected abstract void write(Notification notification, Runnable onComplete, Consumer<Throwable> onError);
+
+    /**
+     * closes the underlying connection
+     *
+     * @throws IOException
+     */
+    protected abstract void closeConnection() throws IOException;
+
+    /**
+     * starts sending the queued notifications, unless a send is in progress
+     */
+    private void trySend() {
+        if (sending.compareAndSet(false, true)) {
+            sendNext();
+        }
+    }
+
+    private void sendNext() {
+        var next = queue.pollFirst();
+
+        if (next == null) {
+            sending.set(false);
+
+            // a notification might have been queued in the meantime
+            if (!queue.isEmpty()) {
+                trySend();
+            }
+
+            return;
+        }
+
+        if (queueSize.getAndDecrement() >= QUEUE_SIZE) {
+            // there is room again
+            resumeStream();
+        }
+
+        write(next, this::sendNext, t -> {
+            LOGGER.debug("Error sending notification, sessionkey={}", sessionKey, t);
+            closeQuietly();
+        });
+    }
+
+    protected void closeQuietly() {
+        queue.clear();
+        queueSize.set(0);
+
+        try {
+            close();
+        } catch (IOException ioe) {
+            LOGGER.warn("error closing session {}", sessionKey);
+        }
+    }
+
+    /**
+     * resumes the change stream if paused
+     */
+    private void resumeStream() {
+        var info = ChangeStreamsRegistry.getInstance().get(sessionKey);
+
+        if (info != null && info.getSubscriber() != null) {
+            info.getSubscriber().resume();
+        }
+    }
+
+    /**
+     * removes the session from the registry, to invoke when the connection
+     * has been closed
+     */
+    protected void onClosed() {
+        WebSocketSessionsRegistry.getInstance().remove(this.sessionKey, this);
+        // a paused stream might not have clients anymore, resume it to let it close
+        resumeStream();
+    }
+
+    public void close() throws IOException {
+        onClosed();
+        closeConnection();
+    }
+}
@@ -0,0 +1,76 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import io.undertow.server.handlers.sse.ServerSentEventConnection;
+import java.io.IOException;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A server-sent events client of a change stream.
+ *
+ * The id of each event is the resume token of the change event, so that a
+ * reconnecting client sends it back in the Last-Event-ID request header and
+ * the stream resumes after it.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ChangeStreamSseSession extends ChangeStreamSession {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamSseSession.class);
+
+    private final ServerSentEventConnection connection;
+
+    public ChangeStreamSseSession(ServerSentEventConnection connection, SessionKey sessionKey) {
+        super(sessionKey);
+        this.connection = connection;
+
+        connection.addCloseTask(c -> {
+            LOGGER.debug("Stream connection closed, sessionkey={}", sessionKey);
+            onClosed();
+        });
+    }
+
+    public ServerSentEventConnection getConnection() {
+        return this.connection;
+    }
+
+    @Override
+    protected void write(Notification notification, Runnable onComplete, Consumer<Throwable> onError) {
+        connection.send(notification.data(), null, notification.id(), new ServerSentEventConnection.EventCallback() {
+            @Override
+            public void done(ServerSentEventConnection connection, String data, String event, String id) {
+                onComplete.run();
+            }
+
+            @Override
+            public void failed(ServerSentEventConnection connection, String data, String event, String id, IOException e) {
+                onError.accept(e);
+            }
+        });
+    }
+
+    @Override
+    protected void closeConnection() throws IOException {
+        this.connection.close();
+    }
+}
@@ -20,10 +20,11 @@
  */
 package org.restheart.mongodb.handlers.changestreams;
 
-import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.mongodb.MongoException;
 import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import com.mongodb.client.model.changestream.FullDocument;
 
@@ -44,6 +45,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Subscribes to a MongoDB change stream and dispatches its notifications to
+ * the websocket and server-sent events clients watching it.
+ *
+ * The resume token of the last notification is tracked, so that after an
+ * error the stream is restarted with resumeAfter without losing the events in
+ * between. Notifications are requested one at a time: the stream is paused
+ * when the queues of all its clients are full and resumed when one of them
+ * has room again.
  *
  * @author omartrasatti
  */
@@ -51,6 +60,17 @@ public class ChangeStreamSubscriber implements Subscriber<ChangeStreamDocument<?
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamSubscriber.class);
 
+    /**
+     * max number of consecutive restarts without receiving any notification
+     */
+    private static final int MAX_RESTARTS = 3;
+
+    /**
+     * error code of ChangeStreamHistoryLost, the resume token is no longer in
+     * the oplog
+     */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
     private final SessionKey sessionKey;
     private List<BsonDocument> resolvedStages;
     private String dbName;
@@ -60,28 +80,44 @@ public class ChangeStreamSubscriber implements Subscriber<ChangeStreamDocument<?
     private boolean init;
     private Subscription sub;
 
+    private volatile BsonDocument resumeToken;
+    private volatile int restarts;
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+
     public ChangeStreamSubscriber(SessionKey sessionKey, List<BsonDocument> resolvedStages, String dbName, String collName) {
-        super();
-        this.sessionKey = sessionKey;
-        this.resolvedStages = resolvedStages;
-        this.dbName = dbName;
-        this.collName = collName;
-        this.init = false;
+        this(sessionKey, resolvedStages, dbName, collName, false, null, 0);
     }
 
     public ChangeStreamSubscriber(SessionKey sessionKey, List<BsonDocument> resolvedStages, String dbName, String collName, boolean init) {
+        this(sessionKey, resolvedStages, dbName, collName, init, null, 0);
+    }
+
+    /**
+     *
+     * @param sessionKey
+     * @param resolvedStages
+     * @param dbName
+     * @param collName
+     * @param init
+     * @param resumeToken the resume token the stream is resumed after, null
+     * if the stream starts from now
+     * @param restarts the number of consecutive restarts
+     */
+    public ChangeStreamSubscriber(SessionKey sessionKey, List<BsonDocument> resolvedStages, String dbName, String collName, boolean init, BsonDocument resumeToken, int restarts) {
         super();
         this.sessionKey = sessionKey;
         this.resolvedStages = resolvedStages;
         this.dbName = dbName;
         this.collName = collName;
         this.init = init;
+        this.resumeToken = resumeToken;
+        this.restarts = restarts;
     }
 
     @Override
     public void onSubscribe(final Subscription s) {
-        s.request(Long.MAX_VALUE);
         this.sub = s;
+        s.request(1);
     }
 
     @Override
@@ -90,14 +126,27 @@ public class ChangeStreamSubscriber implements Subscriber<ChangeStreamDocument<?
             setInit(true);
         }
 
-        if (!WebSocketSessionsRegistry.getInstance().get(sessionKey).isEmpty()) {
-            LOGGER.trace("[clients watching]: " + WebSocketSessionsRegistry.getInstance().get(sessionKey).size());
+        if (notification.getResumeToken() != null) {
+            this.resumeToken = notification.getResumeToken();
+        }
+
+        // the stream works again, the next error starts a new series of restarts
+        this.restarts = 0;
+
+        var sessions = WebSocketSessionsRegistry.getInstance().get(sessionKey);
+
+        if (!sessions.isEmpty()) {
+            LOGGER.trace("[clients watching]: " + sessions.size());
 
             LOGGER.trace("Change stream notification for sessionKey={}: {}", sessionKey, notification);
 
-            ChangeStreamWebsocketCallback.NOTIFICATION_PUBLISHER.submit(
-                new ChangeStreamNotification(sessionKey,
-                    BsonUtils.toJson(getDocument(notification), sessionKey.getJsonMode())));
+            // the json mode is part of the session key, so the notification
+            // is encoded once and the same string is sent to all sessions
+            var encoded = BsonUtils.toJson(getDocument(notification), sessionKey.getJsonMode());
+
+            NotificationDispatcher.getInstance().dispatch(Set.copyOf(sessions), encoded, eventId(notification.getResumeToken()));
+
+            requestNext();
         } else {
             this.stop();
             LOGGER.debug("Closing unwatched stream, sessionKey=" + sessionKey);
@@ -105,13 +154,85 @@ public class ChangeStreamSubscriber implements Subscriber<ChangeStreamDocument<?
         }
     }
 
+    /**
+     * requests the next notification, unless the queues of all clients are
+     * full; in this case the stream is paused until resume() is called
+     */
+    private void requestNext() {
+        if (hasRoom()) {
+            this.sub.request(1);
+        } else {
+            LOGGER.debug("Pausing stream, all clients queues are full, sessionKey={}", sessionKey);
+            paused.set(true);
+
+            // a queue might have been drained in the meantime
+            if (hasRoom()) {
+                resume();
+            }
+        }
+    }
+
+    /**
+     * resumes the stream if it was paused
+     */
+    public void resume() {
+        if (paused.compareAndSet(true, false)) {
+            LOGGER.debug("Resuming stream, sessionKey={}", sessionKey);
+            this.sub.request(1);
+        }
+    }
+
+    private boolean hasRoom() {
+        var sessions = WebSocketSessionsRegistry.getInstance().get(sessionKey);
+
+        return Set.copyOf(sessions).stream().anyMatch(s -> !s.isQueueFull()) || sessions.isEmpty();
+    }
+
+    /**
+     * the event id of a notification is the _data field of its resume token
+     *
+     * @param resumeToken
+     * @return the event id or null if the resume token is not a string
+     */
+    static String eventId(BsonDocument resumeToken) {
+        if (resumeToken != null && resumeToken.containsKey("_data") && resumeToken.get("_data").isString()) {
+            return resumeToken.getString("_data").getValue();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     *
+     * @return the resume token of the last notification
+     */
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    /**
+     *
+     * @return the number of consecutive restarts without receiving any notification
+     */
+    int getRestarts() {
+        return restarts;
+    }
+
     @Override
     public void onError(final Throwable t) {
         LOGGER.warn("Error from stream: " + t.getMessage());
 
-        if (init) {
+        if (init && restarts < MAX_RESTARTS) {
             LOGGER.warn("Restarting stream: {}/{}", dbName, collName);
-            restartStream();
+            restartStream(t);
+        } else if (sessionKey.getResumeToken() != null) {
+            // the stream was resumed after the Last-Event-ID of a client
+            if (t instanceof MongoException me && me.getCode() == CHANGE_STREAM_HISTORY_LOST && restarts < MAX_RESTARTS) {
+                restartStream(t);
+            } else {
+                LOGGER.warn("Closing the clients resuming the stream: {}/{}", dbName, collName);
+                closeAllOnError(sessionKey);
+            }
         } else {
             LOGGER.warn("Closing all connected ws clients: {}/{}", dbName, collName);
             closeAllOnError(dbName, collName);
@@ -119,49 +240,56 @@ public class ChangeStreamSubscriber implements Subscriber<ChangeStreamDocument<?
     }
 
     private void closeAllOnError(String db, String collection) {
-        var webSocketSessions = WebSocketSessionsRegistry.getInstance();
-        var changeStreams = ChangeStreamsRegistry.getInstance();
-
-        var sessionKeys = changeStreams.getSessionKeysOnCollection(db, collection);
-
-        sessionKeys.stream()
-            .collect(Collectors.toSet())
-            .forEach(sk -> {
-            var _webSocketSession = webSocketSessions.get(sk);
-            _webSocketSession.stream()
-                .collect(Collectors.toSet())
-                .forEach(wss -> {
-                    try {
-                        wss.close();
-                        webSocketSessions.remove(sk, wss);
-                    } catch(IOException ioe) {
-                        // LOGGER
-                    }
-            });
-
-            changeStreams.remove(sk);
-        });
+        ChangeStreamsRegistry.getInstance()
+            .getSessionKeysOnCollection(db, collection)
+            .forEach(this::closeAllOnError);
+    }
+
+    private void closeAllOnError(SessionKey sk) {
+        WebSocketSessionsRegistry.getInstance().closeAll(sk);
+        ChangeStreamsRegistry.getInstance().remove(sk);
     }
 
     private void setInit(boolean init) {
         this.init = init;
     }
 
-    private void restartStream() {
+    private void restartStream(Throwable cause) {
+        var _resumeToken = this.resumeToken;
+
+        if (_resumeToken != null && cause instanceof MongoException me && me.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+            LOGGER.warn("Cannot resume stream {}/{}, the resume token is no longer in the oplog. Notifications might be lost.", dbName, collName);
+            _resumeToken = null;
+        }
+
         try {
-            MongoReactiveClientSingleton
+            var newSubscriber = new ChangeStreamSubscriber(sessionKey,
+                        resolvedStages,
+                        dbName,
+                        collName,
+                        true,
+                        _resumeToken,
+                        restarts + 1);
+
+            var info = ChangeStreamsRegistry.getInstance().get(sessionKey);
+
+            if (info != null) {
+                info.setSubscriber(newSubscriber);
+            }
+
+            var publisher = MongoReactiveClientSingleton
                 .getInstance()
                 .getClient()
                 .getDatabase(dbName)
                 .getCollection(collName)
                 .watch(resolvedStages)
-                .fullDocument(FullDocument.UPDATE_LOOKUP)
-                .subscribe(new ChangeStreamSubscriber(sessionKey,
-                        resolvedStages,
-                        dbName,
-                        collName,
-                        true));
+                .fullDocument(FullDocument.UPDATE_LOOKUP);
+
+            if (_resumeToken != null) {
+                publisher = publisher.resumeAfter(_resumeToken);
+            }
 
+            publisher.subscribe(newSubscriber);
         }  catch(Throwable e) {
             LOGGER.warn("Error trying to restart the stream: " + e.getMessage());
         }
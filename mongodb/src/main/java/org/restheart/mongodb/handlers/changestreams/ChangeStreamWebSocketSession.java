@@ -20,30 +20,30 @@
  */
 package org.restheart.mongodb.handlers.changestreams;
 
-import io.undertow.server.session.SecureRandomSessionIdGenerator;
 import io.undertow.websockets.core.AbstractReceiveListener;
 import io.undertow.websockets.core.StreamSourceFrameChannel;
+import io.undertow.websockets.core.WebSocketCallback;
 import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.core.WebSockets;
 import java.io.IOException;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 /**
+ * A websocket client of a change stream.
  *
  * @author Omar Trasatti {@literal <omar@softinstigate.com>}
  */
 
-public class ChangeStreamWebSocketSession {
+public class ChangeStreamWebSocketSession extends ChangeStreamSession {
     private static final Logger LOGGER
             = LoggerFactory.getLogger(ChangeStreamWebSocketSession.class);
 
-    private final String sessionId;
-    private final SessionKey sessionKey;
     private final WebSocketChannel webSocketChannel;
 
     public ChangeStreamWebSocketSession(WebSocketChannel channel, SessionKey sessionKey) {
-        this.sessionId = new SecureRandomSessionIdGenerator().createSessionId();
+        super(sessionKey);
         this.webSocketChannel = channel;
-        this.sessionKey = sessionKey;
         initChannelReceiveListener(webSocketChannel);
     }
 
@@ -53,20 +53,27 @@ public class ChangeStreamWebSocketSession {
         channel.resumeReceives();
     }
 
-    public String getId() {
-        return this.sessionId;
+    public WebSocketChannel getChannel() {
+        return this.webSocketChannel;
     }
 
-    public SessionKey getSessionKey() {
-        return this.sessionKey;
-    }
+    @Override
+    protected void write(Notification notification, Runnable onComplete, Consumer<Throwable> onError) {
+        WebSockets.sendText(notification.data(), webSocketChannel, new WebSocketCallback<Void>() {
+            @Override
+            public void complete(final WebSocketChannel channel, Void context) {
+                onComplete.run();
+            }
 
-    public WebSocketChannel getChannel() {
-        return this.webSocketChannel;
+            @Override
+            public void onError(final WebSocketChannel channel, Void context, Throwable throwable) {
+                onError.accept(throwable);
+            }
+        });
     }
 
-    public void close() throws IOException {
-        WebSocketSessionsRegistry.getInstance().remove(this.sessionKey, this);
+    @Override
+    protected void closeConnection() throws IOException {
         this.webSocketChannel.close();
     }
 
@@ -78,7 +85,7 @@ public class ChangeStreamWebSocketSession {
         }
         @Override
         protected void onClose(WebSocketChannel webSocketChannel, StreamSourceFrameChannel channel) throws IOException {
-            LOGGER.debug("Stream connection closed, sessionkey={}", sessionKey);
+            LOGGER.debug("Stream connection closed, sessionkey={}", session.getSessionKey());
             this.session.close();
         }
     }
@@ -64,7 +64,7 @@ public class ChangeStreamsActivator implements Initializer {
 
         // *** init MongoDBReactiveClient
         try {
-            MongoReactiveClientSingleton.init(MongoServiceConfiguration.get().getMongoUri());
+            MongoReactiveClientSingleton.init(MongoServiceConfiguration.get().getMongoUri(), MongoServiceConfiguration.get().getConnectionPool());
             // force setup
             MongoReactiveClientSingleton.getInstance();
 
@@ -31,12 +31,21 @@ import java.util.concurrent.ConcurrentHashMap;
  * wraps a map to easily allow to get corresponding SessionInfo that
  * encapsulates db, coll, and opName
  *
+ * The session keys are also indexed by db and by collection, the indexes are
+ * maintained on put and remove so that the streams on a db or on a
+ * collection are found without scanning all the open streams.
+ *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  */
 public class ChangeStreamsRegistry {
 
     private final Map<SessionKey, SessionInfo> OPENED_STREAMS = new ConcurrentHashMap<SessionKey, SessionInfo>();
 
+    private final Map<String, Set<SessionKey>> KEYS_BY_DB = new ConcurrentHashMap<>();
+    private final Map<CollectionKey, Set<SessionKey>> KEYS_BY_COLLECTION = new ConcurrentHashMap<>();
+
+    private static record CollectionKey(String db, String coll) {}
+
     public static ChangeStreamsRegistry getInstance() {
         return ChangeStreamsRegistrySingletonHolder.INSTANCE;
     }
@@ -50,7 +59,15 @@ public class ChangeStreamsRegistry {
     }
 
     public SessionInfo put(SessionKey key, SessionInfo info) {
-        return OPENED_STREAMS.put(key, info);
+        var previous = OPENED_STREAMS.put(key, info);
+
+        if (previous != null) {
+            unindex(key, previous);
+        }
+
+        index(key, info);
+
+        return previous;
     }
 
     public boolean containsKey(SessionKey key) {
@@ -58,43 +75,85 @@ public class ChangeStreamsRegistry {
     }
 
     public SessionInfo remove(SessionKey key) {
-        return OPENED_STREAMS.remove(key);
+        var removed = OPENED_STREAMS.remove(key);
+
+        if (removed != null) {
+            unindex(key, removed);
+        }
+
+        return removed;
     }
 
     public Set<SessionKey> getSessionKeysOnDb(String db) {
-        var ret = new HashSet<SessionKey>();
         if (db == null) {
-            return ret;
+            return new HashSet<>();
         } else {
-            keySet().stream()
-            .filter(k -> db.equals(get(k).getDb()))
-            .forEach(ret::add);
-            return ret;
+            return copy(KEYS_BY_DB.get(db));
         }
     }
 
     public Set<SessionKey> getSessionKeysOnCollection(String db, String coll) {
-        var ret = new HashSet<SessionKey>();
         if (db == null || coll == null) {
-            return ret;
+            return new HashSet<>();
         } else {
-            keySet().stream()
-            .filter(k -> db.equals(get(k).getDb()) && coll.equals(get(k).getCollection()))
-            .forEach(ret::add);
-            return ret;
+            return copy(KEYS_BY_COLLECTION.get(new CollectionKey(db, coll)));
         }
     }
 
     public Set<SessionKey> getSessionKeysOnOperation(String db, String coll, String operation) {
-        var ret = new HashSet<SessionKey>();
-        if (db == null || coll == null || operation == null) {
-            return ret;
+        var ret = getSessionKeysOnCollection(db, coll);
+
+        if (operation == null) {
+            ret.clear();
         } else {
-            keySet().stream()
-            .filter(k -> db.equals(get(k).getDb()) && coll.equals(get(k).getCollection()) && operation.equals(get(k).getChangeStreamOperation()))
-            .forEach(ret::add);
-            return ret;
+            ret.removeIf(k -> {
+                var info = get(k);
+                return info == null || !operation.equals(info.getChangeStreamOperation());
+            });
         }
+
+        return ret;
+    }
+
+    private void index(SessionKey key, SessionInfo info) {
+        if (info.getDb() != null) {
+            add(KEYS_BY_DB, info.getDb(), key);
+
+            if (info.getCollection() != null) {
+                add(KEYS_BY_COLLECTION, new CollectionKey(info.getDb(), info.getCollection()), key);
+            }
+        }
+    }
+
+    private void unindex(SessionKey key, SessionInfo info) {
+        if (info.getDb() != null) {
+            remove(KEYS_BY_DB, info.getDb(), key);
+
+            if (info.getCollection() != null) {
+                remove(KEYS_BY_COLLECTION, new CollectionKey(info.getDb(), info.getCollection()), key);
+            }
+        }
+    }
+
+    // compute() is atomic per index key, a set is never removed while a
+    // session key is being added to it
+    private static <K> void add(Map<K, Set<SessionKey>> index, K k, SessionKey key) {
+        index.compute(k, (_k, keys) -> {
+            var ret = keys == null ? ConcurrentHashMap.<SessionKey>newKeySet() : keys;
+            ret.add(key);
+            return ret;
+        });
+    }
+
+    private static <K> void remove(Map<K, Set<SessionKey>> index, K k, SessionKey key) {
+        index.computeIfPresent(k, (_k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Set<SessionKey> copy(Set<SessionKey> keys) {
+        return keys == null ? new HashSet<>() : new HashSet<>(keys);
     }
 
     private static class ChangeStreamsRegistrySingletonHolder {
@@ -24,11 +24,15 @@ import com.mongodb.client.model.changestream.FullDocument;
 import io.undertow.Handlers;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.sse.ServerSentEventHandler;
 import io.undertow.util.AttachmentKey;
+import io.undertow.util.Headers;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import org.bson.BsonDocument;
+import org.bson.BsonString;
 import org.bson.json.JsonMode;
 import org.restheart.exchange.InvalidMetadataException;
 import org.restheart.exchange.MongoRequest;
@@ -42,6 +46,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Opens a change stream connection, either via WebSocket or, if the request
+ * accepts text/event-stream, via server-sent events.
+ *
+ * The id of a server-sent event is the resume token of the change event; a
+ * reconnecting client sending the Last-Event-ID request header gets its own
+ * stream, resumed after it, so that no change event is lost in between.
  *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  * @author Omar Trasatti {@literal <omar@softinstigate.com>}
@@ -52,12 +62,22 @@ public class GetChangeStreamHandler extends PipelinedHandler {
     private final String CONNECTION_HEADER_VALUE = "upgrade";
     private final String UPGRADE_HEADER_KEY = "upgrade";
     private final String UPGRADE_HEADER_VALUE = "websocket";
+    private final String SSE_CONTENT_TYPE = "text/event-stream";
+    private final String LAST_EVENT_ID_HEADER_KEY = "Last-Event-ID";
+
+    private static final Pattern RESUME_TOKEN_PATTERN = Pattern.compile("^[0-9a-fA-F]+$");
+
+    /**
+     * the interval of the keep-alive messages sent to server-sent events clients
+     */
+    private static final long SSE_KEEP_ALIVE_TIME = 30_000;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GetChangeStreamHandler.class);
     private static final HttpHandler WEBSOCKET_HANDSHAKE_HANDLER = Handlers.websocket(new ChangeStreamWebsocketCallback());
 
     public static final AttachmentKey<BsonDocument> AVARS_ATTACHMENT_KEY = AttachmentKey.create(BsonDocument.class);
     public static final AttachmentKey<JsonMode> JSON_MODE_ATTACHMENT_KEY = AttachmentKey.create(JsonMode.class);
+    public static final AttachmentKey<String> LAST_EVENT_ID_ATTACHMENT_KEY = AttachmentKey.create(String.class);
 
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
@@ -75,13 +95,48 @@ public class GetChangeStreamHandler extends PipelinedHandler {
                 exchange.putAttachment(JSON_MODE_ATTACHMENT_KEY, request.getJsonMode());
                 exchange.putAttachment(AVARS_ATTACHMENT_KEY, request.getAggreationVars());
 
-                startStream(exchange);
+                var streamKey = new SessionKey(exchange);
+
+                startStream(streamKey, request, getResolvedStagesAsList(request));
 
                 WEBSOCKET_HANDSHAKE_HANDLER.handleRequest(exchange);
+            } else if (isServerSentEventsRequest(exchange)) {
+                var lastEventId = exchange.getRequestHeaders().getFirst(LAST_EVENT_ID_HEADER_KEY);
+
+                if (lastEventId != null && !RESUME_TOKEN_PATTERN.matcher(lastEventId).matches()) {
+                    response.setInError(HttpStatus.SC_BAD_REQUEST,
+                            "Invalid Last-Event-ID request header, it must be the id of a stream event");
+
+                    next(exchange);
+                    return;
+                }
+
+                exchange.putAttachment(JSON_MODE_ATTACHMENT_KEY, request.getJsonMode());
+                exchange.putAttachment(AVARS_ATTACHMENT_KEY, request.getAggreationVars());
+
+                if (lastEventId != null) {
+                    exchange.putAttachment(LAST_EVENT_ID_ATTACHMENT_KEY, lastEventId);
+                }
+
+                var streamKey = new SessionKey(exchange);
+                var resolvedStages = getResolvedStagesAsList(request);
+
+                // the stream is started once the session is registered,
+                // otherwise its first notifications might find no clients
+                new ServerSentEventHandler((connection, _lastEventId) -> {
+                    connection.setKeepAliveTime(SSE_KEEP_ALIVE_TIME);
+
+                    LOGGER.debug("New stream connection, sessionkey={}", streamKey);
+
+                    WebSocketSessionsRegistry.getInstance().add(streamKey, new ChangeStreamSseSession(connection, streamKey));
+
+                    startStream(streamKey, request, resolvedStages);
+                }).handleRequest(exchange);
             } else {
                 response.setInError(HttpStatus.SC_BAD_REQUEST,
-                        "The stream connection requires WebSocket, "
-                        + "no 'Upgrade' or 'Connection' request header found");
+                        "The stream connection requires WebSocket or server-sent events, "
+                        + "no 'Upgrade' or 'Connection' request header found "
+                        + "and the 'Accept' request header does not include text/event-stream");
 
                 next(exchange);
             }
@@ -135,6 +190,13 @@ public class GetChangeStreamHandler extends PipelinedHandler {
                     .anyMatch(val -> val.toLowerCase().contains(UPGRADE_HEADER_VALUE));
     }
 
+    private boolean isServerSentEventsRequest(HttpServerExchange exchange) {
+        var acceptVals = exchange.getRequestHeaders().get(Headers.ACCEPT);
+
+        return acceptVals != null &&
+                acceptVals.stream().anyMatch(val -> val.toLowerCase().contains(SSE_CONTENT_TYPE));
+    }
+
     private List<BsonDocument> getResolvedStagesAsList(MongoRequest request) throws InvalidMetadataException, QueryVariableNotBoundException, QueryNotFoundException {
         String changesStreamOperation = request.getChangeStreamOperation();
 
@@ -159,27 +221,38 @@ public class GetChangeStreamHandler extends PipelinedHandler {
         return resolvedStages;
     }
 
-    private boolean startStream(HttpServerExchange exchange) throws QueryVariableNotBoundException, QueryNotFoundException, InvalidMetadataException {
-        
-        SessionKey streamKey = new SessionKey(exchange);
-        var request = MongoRequest.of(exchange);
+    private boolean startStream(SessionKey streamKey, MongoRequest request, List<BsonDocument> resolvedStages) {
+        if (!ChangeStreamsRegistry.getInstance().containsKey(streamKey)) {
+            var info = new SessionInfo(request);
+            var resumeToken = streamKey.getResumeToken() == null
+                ? null
+                : new BsonDocument("_data", new BsonString(streamKey.getResumeToken()));
 
-        List<BsonDocument> resolvedStages = getResolvedStagesAsList(request);
+            var subscriber = new ChangeStreamSubscriber(streamKey,
+                            resolvedStages,
+                            request.getDBName(),
+                            request.getCollectionName(),
+                            false,
+                            resumeToken,
+                            0);
 
-        if (!ChangeStreamsRegistry.getInstance().containsKey(streamKey)) {
-            ChangeStreamsRegistry.getInstance().put(streamKey, new SessionInfo(MongoRequest.of(exchange)));
+            info.setSubscriber(subscriber);
+
+            ChangeStreamsRegistry.getInstance().put(streamKey, info);
 
-            MongoReactiveClientSingleton
+            var publisher = MongoReactiveClientSingleton
                     .getInstance()
                     .getClient()
                     .getDatabase(request.getDBName())
                     .getCollection(request.getCollectionName())
                     .watch(resolvedStages)
-                    .fullDocument(FullDocument.UPDATE_LOOKUP)
-                    .subscribe(new ChangeStreamSubscriber(streamKey, 
-                            resolvedStages, 
-                            request.getDBName(), 
-                            request.getCollectionName()));
+                    .fullDocument(FullDocument.UPDATE_LOOKUP);
+
+            if (resumeToken != null) {
+                publisher = publisher.resumeAfter(resumeToken);
+            }
+
+            publisher.subscribe(subscriber);
 
             return true;
         } else {
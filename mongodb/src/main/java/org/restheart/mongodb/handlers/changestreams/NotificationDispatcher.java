@@ -0,0 +1,92 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches the change stream notifications to the websocket and
+ * server-sent events sessions.
+ *
+ * The sessions are partitioned over a fixed number of single thread
+ * executors by session id: the notifications of a session are always
+ * dispatched by the same thread, preserving their order, while different
+ * sessions are served in parallel without a global lock.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class NotificationDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final ExecutorService[] partitions;
+
+    /**
+     *
+     * @return
+     */
+    public static NotificationDispatcher getInstance() {
+        return NotificationDispatcherSingletonHolder.INSTANCE;
+    }
+
+    private NotificationDispatcher(int size) {
+        this.partitions = new ExecutorService[size];
+
+        for (var idx = 0; idx < size; idx++) {
+            this.partitions[idx] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("change-streams-dispatcher-" + idx)
+                .build());
+        }
+    }
+
+    /**
+     * dispatches the already encoded notification to the sessions
+     *
+     * @param sessions
+     * @param notification
+     * @param eventId the event id of the notification, can be null
+     */
+    public void dispatch(Collection<ChangeStreamSession> sessions, String notification, String eventId) {
+        sessions.forEach(session -> partition(session).execute(() -> {
+            try {
+                session.send(notification, eventId);
+            } catch (Throwable t) {
+                LOGGER.warn("Error dispatching notification, sessionkey={}", session.getSessionKey(), t);
+            }
+        }));
+    }
+
+    private ExecutorService partition(ChangeStreamSession session) {
+        return partitions[Math.floorMod(session.getId().hashCode(), partitions.length)];
+    }
+
+    private static class NotificationDispatcherSingletonHolder {
+        private static final NotificationDispatcher INSTANCE = new NotificationDispatcher(Runtime.getRuntime().availableProcessors());
+
+        private NotificationDispatcherSingletonHolder() {
+        }
+    }
+}
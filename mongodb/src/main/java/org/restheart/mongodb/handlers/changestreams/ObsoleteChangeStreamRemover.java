@@ -20,8 +20,7 @@
  */
 package org.restheart.mongodb.handlers.changestreams;
 
-import java.io.IOException;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
@@ -61,52 +60,17 @@ public class ObsoleteChangeStreamRemover implements MongoInterceptor {
     }
 
     private void closeAllOnDb(String db) {
-        var webSocketSessions = WebSocketSessionsRegistry.getInstance();
-        var changeStreams = ChangeStreamsRegistry.getInstance();
-
-        var sessionKeys = changeStreams.getSessionKeysOnDb(db);
-
-        sessionKeys.stream()
-            .collect(Collectors.toSet())
-            .forEach(sk -> {
-            var _webSocketSession = webSocketSessions.get(sk);
-            _webSocketSession.stream()
-                .collect(Collectors.toSet())
-                .forEach(wss -> {
-                    try {
-                        wss.close();
-                        webSocketSessions.remove(sk, wss);
-                    } catch(IOException ioe) {
-                        // LOGGER
-                    }
-            });
-
-            changeStreams.remove(sk);
-        });
+        closeAll(ChangeStreamsRegistry.getInstance().getSessionKeysOnDb(db));
     }
 
     private void closeAllOnCollection(String db, String collection) {
-        var webSocketSessions = WebSocketSessionsRegistry.getInstance();
-        var changeStreams = ChangeStreamsRegistry.getInstance();
-
-        var sessionKeys = changeStreams.getSessionKeysOnCollection(db, collection);
-
-        sessionKeys.stream()
-            .collect(Collectors.toSet())
-            .forEach(sk -> {
-            var _webSocketSession = webSocketSessions.get(sk);
-            _webSocketSession.stream()
-                .collect(Collectors.toSet())
-                .forEach(wss -> {
-                    try {
-                        wss.close();
-                        webSocketSessions.remove(sk, wss);
-                    } catch(IOException ioe) {
-                        // LOGGER
-                    }
-            });
+        closeAll(ChangeStreamsRegistry.getInstance().getSessionKeysOnCollection(db, collection));
+    }
 
-            changeStreams.remove(sk);
+    private void closeAll(Set<SessionKey> sessionKeys) {
+        sessionKeys.forEach(sk -> {
+            WebSocketSessionsRegistry.getInstance().closeAll(sk);
+            ChangeStreamsRegistry.getInstance().remove(sk);
         });
     }
 
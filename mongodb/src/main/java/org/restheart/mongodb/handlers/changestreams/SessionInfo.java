@@ -32,6 +32,7 @@ public class SessionInfo {
     private final String db;
     private final String collection;
     private final String changeStreamOperation;
+    private volatile ChangeStreamSubscriber subscriber = null;
 
     public SessionInfo(MongoRequest request) {
         this.db = request.getDBName();
@@ -39,6 +40,12 @@ public class SessionInfo {
         this.changeStreamOperation = request.getChangeStreamOperation();
     }
 
+    SessionInfo(String db, String collection, String changeStreamOperation) {
+        this.db = db;
+        this.collection = collection;
+        this.changeStreamOperation = changeStreamOperation;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(getDb(), getCollection(), getChangeStreamOperation());
@@ -78,4 +85,18 @@ public class SessionInfo {
     public String getChangeStreamOperation() {
         return changeStreamOperation;
     }
+
+    /**
+     * @return the subscriber of the change stream
+     */
+    public ChangeStreamSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * @param subscriber the subscriber of the change stream
+     */
+    public void setSubscriber(ChangeStreamSubscriber subscriber) {
+        this.subscriber = subscriber;
+    }
 }
@@ -37,11 +37,25 @@ public class SessionKey {
     private final String url;
     private final BsonDocument avars;
     private final JsonMode jsonMode;
+    private final String resumeToken;
 
     public SessionKey(String url, BsonDocument avars, JsonMode jsonMode) {
+        this(url, avars, jsonMode, null);
+    }
+
+    /**
+     *
+     * @param url
+     * @param avars
+     * @param jsonMode
+     * @param resumeToken the Last-Event-ID of a reconnecting server-sent
+     * events client, null if the stream starts from now
+     */
+    public SessionKey(String url, BsonDocument avars, JsonMode jsonMode, String resumeToken) {
         this.url = url;
         this.avars = avars;
         this.jsonMode = jsonMode;
+        this.resumeToken = resumeToken;
     }
 
     public SessionKey(WebSocketHttpExchange exchange) {
@@ -57,6 +71,7 @@ public class SessionKey {
 
         this.avars = exchange.getAttachment(GetChangeStreamHandler.AVARS_ATTACHMENT_KEY);
         this.jsonMode = exchange.getAttachment(GetChangeStreamHandler.JSON_MODE_ATTACHMENT_KEY);
+        this.resumeToken = exchange.getAttachment(GetChangeStreamHandler.LAST_EVENT_ID_ATTACHMENT_KEY);
     }
 
     public SessionKey(HttpServerExchange exchange) {
@@ -64,11 +79,12 @@ public class SessionKey {
 
         this.avars = exchange.getAttachment(GetChangeStreamHandler.AVARS_ATTACHMENT_KEY);
         this.jsonMode = exchange.getAttachment(GetChangeStreamHandler.JSON_MODE_ATTACHMENT_KEY);
+        this.resumeToken = exchange.getAttachment(GetChangeStreamHandler.LAST_EVENT_ID_ATTACHMENT_KEY);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getUrl(), getAvars(), getJsonMode());
+        return Objects.hash(getUrl(), getAvars(), getJsonMode(), getResumeToken());
     }
 
     @Override
@@ -112,4 +128,11 @@ public class SessionKey {
     public JsonMode getJsonMode() {
         return jsonMode;
     }
+
+    /**
+     * @return the resumeToken, the Last-Event-ID the stream is resumed after
+     */
+    public String getResumeToken() {
+        return resumeToken;
+    }
 }
@@ -20,41 +20,87 @@
  */
 package org.restheart.mongodb.handlers.changestreams;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.SetMultimap;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
- * Registry to keep track of web socket sessions
+ * Registry to keep track of the websocket and server-sent events sessions
+ *
+ * The sessions of a key are held in a concurrent set, so they can be
+ * iterated without holding a lock while clients connect and disconnect.
  *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  * @author Omar Trasatti {@literal <omar@softinstigate.com>}
  */
 public class WebSocketSessionsRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketSessionsRegistry.class);
 
-    private final SetMultimap<SessionKey, ChangeStreamWebSocketSession> MULTIMAP = Multimaps
-            .synchronizedSetMultimap(Multimaps.synchronizedSetMultimap(HashMultimap.<SessionKey, ChangeStreamWebSocketSession>create()));
+    private final Map<SessionKey, Set<ChangeStreamSession>> SESSIONS = new ConcurrentHashMap<>();
 
     public static WebSocketSessionsRegistry getInstance() {
         return CacheManagerSingletonHolder.INSTANCE;
     }
 
-    public Set<ChangeStreamWebSocketSession> get(SessionKey key) {
-        return MULTIMAP.get(key);
+    /**
+     *
+     * @param key
+     * @return a live, unmodifiable view of the sessions of the key
+     */
+    public Set<ChangeStreamSession> get(SessionKey key) {
+        var sessions = SESSIONS.get(key);
+        return sessions == null ? Collections.emptySet() : Collections.unmodifiableSet(sessions);
     }
 
     public Set<SessionKey> keySet() {
-        return MULTIMAP.keySet();
+        return SESSIONS.keySet();
+    }
+
+    public boolean add(SessionKey key, ChangeStreamSession session) {
+        var added = new boolean[1];
+
+        SESSIONS.compute(key, (k, sessions) -> {
+            var ret = sessions == null ? ConcurrentHashMap.<ChangeStreamSession>newKeySet() : sessions;
+            added[0] = ret.add(session);
+            return ret;
+        });
+
+        return added[0];
     }
 
-    public boolean add(SessionKey key, ChangeStreamWebSocketSession session) {
-        return MULTIMAP.put(key, session);
+    public boolean remove(SessionKey key, ChangeStreamSession session) {
+        var removed = new boolean[1];
+
+        SESSIONS.computeIfPresent(key, (k, sessions) -> {
+            removed[0] = sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+
+        return removed[0];
     }
 
-    public boolean remove(SessionKey key, ChangeStreamWebSocketSession session) {
-        return MULTIMAP.remove(key, session);
+    /**
+     * closes and removes all the sessions of the key
+     *
+     * @param key
+     */
+    public void closeAll(SessionKey key) {
+        var sessions = SESSIONS.remove(key);
+
+        if (sessions != null) {
+            sessions.forEach(session -> {
+                try {
+                    session.close();
+                } catch(IOException ioe) {
+                    LOGGER.debug("error closing session {}", key, ioe);
+                }
+            });
+        }
     }
 
     private static class CacheManagerSingletonHolder {
@@ -20,10 +20,14 @@
  */
 package org.restheart.mongodb.handlers.collection;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.mongodb.ExplainVerbosity;
 import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
 import io.undertow.server.HttpServerExchange;
 import org.bson.BsonArray;
 import org.bson.BsonDocument;
@@ -32,7 +36,11 @@ import org.restheart.exchange.IllegalQueryParamenterException;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
+import org.restheart.mongodb.db.CollectionVersions;
 import org.restheart.mongodb.db.Databases;
+import org.restheart.mongodb.db.SlowQueries;
+import org.restheart.mongodb.db.SlowQueries.SlowQuery;
+import org.restheart.mongodb.utils.RequestHelper;
 import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.utils.HttpStatus;
 import org.slf4j.Logger;
@@ -45,6 +53,10 @@ import org.slf4j.LoggerFactory;
 public class GetCollectionHandler extends PipelinedHandler {
     private Databases dbs = Databases.get();
 
+    private final SlowQueries slowQueries = SlowQueries.getInstance();
+
+    private final CollectionVersions versions = CollectionVersions.get();
+
     private static final Logger LOGGER = LoggerFactory.getLogger(GetCollectionHandler.class);
 
     /**
@@ -88,7 +100,19 @@ public class GetCollectionHandler extends PipelinedHandler {
             return;
         }
 
-        var coll = dbs.getCollection(request.getDBName(), request.getCollectionName());
+        // computed before querying, a concurrent write can only make it obsolete
+        var versionETag = versionETag(exchange, request);
+
+        // in case the request contains the IF_NONE_MATCH header with the current version etag,
+        // just return 304 NOT_MODIFIED code
+        if (RequestHelper.checkWeakReadEtag(exchange, versionETag)) {
+            ResponseHelper.injectEtagHeader(exchange, versionETag);
+            response.setStatusCode(HttpStatus.SC_NOT_MODIFIED);
+            next(exchange);
+            return;
+        }
+
+        var coll = dbs.getCollection(request.getDBName(), request.getCollectionName(), request.getReadPreference(), request.getReadConcern());
 
         long size = -1;
 
@@ -122,6 +146,22 @@ public class GetCollectionHandler extends PipelinedHandler {
                 return;
             }
 
+            if (request.isExplain()) {
+                // return the query plan instead of the data
+                var explain = dbs.findIterable(Optional.ofNullable(request.getClientSession()), coll, sort, filter, request.getHintDocument(), request.getProjectionDocument())
+                    .skip(request.getPagesize() * (request.getPage() - 1))
+                    .limit(request.getPagesize())
+                    .explain(BsonDocument.class, ExplainVerbosity.QUERY_PLANNER);
+
+                response.setContent(explain);
+                response.setContentTypeAsJson();
+                response.setStatusCode(HttpStatus.SC_OK);
+                next(exchange);
+                return;
+            }
+
+            var start = System.currentTimeMillis();
+
             try {
                 data = dbs.getCollectionData(
                         Optional.ofNullable(request.getClientSession()),
@@ -144,6 +184,12 @@ public class GetCollectionHandler extends PipelinedHandler {
                     throw me;
                 }
             }
+
+            var elapsed = System.currentTimeMillis() - start;
+
+            if (slowQueries.isSlow(elapsed)) {
+                recordSlowQuery(request, coll, sort, filter, elapsed);
+            }
         }
 
         if (exchange.isComplete()) {
@@ -158,7 +204,12 @@ public class GetCollectionHandler extends PipelinedHandler {
             response.setContentTypeAsJson();
             response.setStatusCode(HttpStatus.SC_OK);
 
-            ResponseHelper.injectEtagHeader(exchange, request.getCollectionProps());
+            if (versionETag != null) {
+                // the collection _etag is still returned in the collection properties
+                ResponseHelper.injectEtagHeader(exchange, versionETag);
+            } else {
+                ResponseHelper.injectEtagHeader(exchange, request.getCollectionProps());
+            }
 
             // call the ResponseTransformerMetadataHandler if piped in
             next(exchange);
@@ -167,4 +218,70 @@ public class GetCollectionHandler extends PipelinedHandler {
             next(exchange);
         }
     }
+
+    /**
+     * The weak etag of the collections that enable versionETag in their
+     * metadata. It combines the collection version with the parameters that
+     * determine the response (filter, sort, page, etc) and the account.
+     *
+     * @param exchange
+     * @param request
+     * @return the weak etag or null if not enabled
+     */
+    private String versionETag(HttpServerExchange exchange, MongoRequest request) {
+        // reads in a client session might see not yet committed data
+        if (request.getClientSession() != null || request.isExplain()) {
+            return null;
+        }
+
+        var settings = CollectionVersions.Settings.from(request.getCollectionProps());
+
+        if (settings.isEmpty()) {
+            return null;
+        }
+
+        BsonDocument filter;
+
+        try {
+            // includes the filters added by interceptors, e.g. by the permissions
+            filter = request.getFiltersDocument();
+        } catch (JsonParseException jpe) {
+            return null;
+        }
+
+        var account = request.getAuthenticatedAccount();
+
+        var params = Hashing.murmur3_128().newHasher()
+            .putString(String.valueOf(exchange.getQueryString()), StandardCharsets.UTF_8)
+            .putString(filter == null ? "" : filter.toJson(), StandardCharsets.UTF_8)
+            .putString(account == null ? "" : account.getPrincipal().getName(), StandardCharsets.UTF_8)
+            .putString(String.valueOf(request.getRepresentationFormat()), StandardCharsets.UTF_8)
+            .hash();
+
+        return "W/\"" + versions.version(request.getDBName(), request.getCollectionName(), settings.get()) + "." + params + "\"";
+    }
+
+    private void recordSlowQuery(MongoRequest request, MongoCollection<BsonDocument> coll, BsonDocument sort, BsonDocument filter, long elapsed) {
+        var hint = request.getHintDocument();
+        var keys = request.getProjectionDocument();
+        var page = request.getPage();
+        var pagesize = request.getPagesize();
+
+        slowQueries.record(new SlowQuery(System.currentTimeMillis(),
+            request.getDBName(),
+            request.getCollectionName(),
+            filter,
+            sort,
+            keys,
+            hint,
+            null,
+            page,
+            pagesize,
+            elapsed,
+            null),
+            () -> dbs.findIterable(Optional.empty(), coll, sort, filter, hint, keys)
+                .skip(pagesize * (page - 1))
+                .limit(pagesize)
+                .explain(BsonDocument.class, ExplainVerbosity.QUERY_PLANNER));
+    }
 }
@@ -117,7 +117,10 @@ public class PostCollectionHandler extends PipelinedHandler {
             Optional.ofNullable(request.getShardKey()),
             content,
             request.getETag(),
-            request.isETagCheckRequired());
+            request.isETagCheckRequired(),
+            Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         response.setDbOperationResult(result);
 
@@ -81,7 +81,10 @@ public class DeleteDocumentHandler extends PipelinedHandler {
             Optional.ofNullable(request.getFiltersDocument()),
             Optional.ofNullable(request.getShardKey()),
             request.getETag(),
-            request.isETagCheckRequired());
+            request.isETagCheckRequired(),
+            Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         response.setDbOperationResult(result);
 
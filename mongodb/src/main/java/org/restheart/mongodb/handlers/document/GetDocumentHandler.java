@@ -25,6 +25,7 @@ import static com.mongodb.client.model.Filters.eq;
 import io.undertow.server.HttpServerExchange;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Optional;
 import org.bson.BsonDocument;
 import org.bson.BsonObjectId;
 import org.bson.BsonString;
@@ -38,6 +39,7 @@ import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Databases;
+import org.restheart.mongodb.db.DocumentsCache;
 import org.restheart.mongodb.utils.RequestHelper;
 import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.utils.HttpStatus;
@@ -49,6 +51,7 @@ import org.restheart.utils.BsonUtils;
  */
 public class GetDocumentHandler extends PipelinedHandler {
     private final Databases dbs = Databases.get();
+    private final DocumentsCache docsCache = DocumentsCache.get();
 
     /**
      * Default ctor
@@ -133,11 +136,53 @@ public class GetDocumentHandler extends PipelinedHandler {
         }
 
         var cs = request.getClientSession();
-        var coll = dbs.getCollection(request.getDBName(), collName);
 
-        var document = cs == null
-                ? coll.find(query).projection(fieldsToReturn).first()
-                : coll.find(cs, query).projection(fieldsToReturn).first();
+        // documents read in a client session are not cached,
+        // they might be not yet committed or causally consistent
+        var cacheSettings = cs == null && request.getType() == TYPE.DOCUMENT
+                ? DocumentsCache.Settings.from(request.getCollectionProps())
+                : Optional.<DocumentsCache.Settings>empty();
+
+        final DocumentsCache.DocKey cacheKey;
+        final BsonDocument document;
+
+        if (cacheSettings.isPresent()) {
+            var filter = new BsonDocument();
+
+            if (request.getShardKey() != null) {
+                filter.put("shardKey", request.getShardKey());
+            }
+
+            if (request.getFiltersDocument() != null) {
+                filter.put("filter", request.getFiltersDocument());
+            }
+
+            cacheKey = new DocumentsCache.DocKey(docId, fieldsToReturn, filter);
+        } else {
+            cacheKey = null;
+        }
+
+        var cached = cacheKey != null
+                ? docsCache.get(request.getDBName(), collName, cacheSettings.get(), cacheKey)
+                : Optional.<BsonDocument>empty();
+
+        if (cached.isPresent()) {
+            document = cached.get();
+        } else {
+            var generation = cacheKey != null
+                    ? docsCache.generation(request.getDBName(), collName, cacheSettings.get())
+                    : 0;
+
+            var coll = dbs.getCollection(request.getDBName(), collName, request.getReadPreference(), request.getReadConcern());
+
+            document = cs == null
+                    ? coll.find(query).projection(fieldsToReturn).first()
+                    : coll.find(cs, query).projection(fieldsToReturn).first();
+
+            if (document != null && cacheKey != null) {
+                docsCache.put(request.getDBName(), collName, cacheSettings.get(), cacheKey, document, generation);
+            }
+        }
 
         if (document == null) {
             String errMsg = request.getDocumentId() == null
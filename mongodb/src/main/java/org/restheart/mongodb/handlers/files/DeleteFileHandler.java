@@ -22,6 +22,7 @@ package org.restheart.mongodb.handlers.files;
 
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.Headers;
+import java.util.Optional;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
@@ -78,7 +79,10 @@ public class DeleteFileHandler extends PipelinedHandler {
                         request.getDocumentId(),
                         request.getFiltersDocument(),
                         request.getETag(),
-                        request.isETagCheckRequired());
+                        request.isETagCheckRequired(),
+                        Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         response.setDbOperationResult(result);
 
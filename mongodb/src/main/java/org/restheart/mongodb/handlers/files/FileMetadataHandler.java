@@ -35,6 +35,7 @@ import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.GridFs;
 import org.restheart.mongodb.utils.RequestHelper;
+import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.utils.HttpStatus;
 
 /**
@@ -135,7 +136,10 @@ public class FileMetadataHandler extends PipelinedHandler {
             Optional.ofNullable(request.getShardKey()),
             content,
             request.getETag(),
-            request.isETagCheckRequired());
+            request.isETagCheckRequired(),
+            Optional.ofNullable(request.getWriteConcern()));
+
+        ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
 
         if (RequestHelper.isResponseInConflict(result, exchange)) {
             next(exchange);
@@ -99,6 +99,14 @@ public class GetFileBinaryHandler extends PipelinedHandler {
 
         var gridFSBucket = GridFSBuckets.create(MongoClientSingleton.getInstance().getClient().getDatabase(request.getDBName()), bucket);
 
+        if (request.getReadPreference() != null) {
+            gridFSBucket = gridFSBucket.withReadPreference(request.getReadPreference());
+        }
+
+        if (request.getReadConcern() != null) {
+            gridFSBucket = gridFSBucket.withReadConcern(request.getReadConcern());
+        }
+
         Bson filter;
 
         var filterQparam = request.getFiltersDocument();
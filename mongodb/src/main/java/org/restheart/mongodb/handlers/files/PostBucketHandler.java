@@ -25,12 +25,14 @@ import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HttpString;
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
+import java.util.Optional;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Databases;
 import org.restheart.mongodb.db.GridFs;
 import org.restheart.mongodb.db.OperationResult;
+import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.mongodb.utils.URLUtils;
 import org.restheart.utils.HttpStatus;
 import org.restheart.utils.RepresentationUtils;
@@ -99,7 +101,10 @@ public class PostBucketHandler extends PipelinedHandler {
                                 request.getDBName(),
                                 request.getCollectionName(),
                                 metadata,
-                                request.getFilePath());
+                                request.getFilePath(),
+                                Optional.ofNullable(request.getWriteConcern()));
+
+                ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
             } else {
                 response.setInError(
                         HttpStatus.SC_BAD_REQUEST,
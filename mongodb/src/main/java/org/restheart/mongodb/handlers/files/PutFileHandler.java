@@ -25,12 +25,14 @@ import com.mongodb.MongoWriteException;
 import io.undertow.server.HttpServerExchange;
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
+import java.util.Optional;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Databases;
 import org.restheart.mongodb.db.GridFs;
 import org.restheart.mongodb.db.OperationResult;
+import org.restheart.mongodb.utils.ResponseHelper;
 import org.restheart.utils.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -111,7 +113,10 @@ public class PutFileHandler extends PipelinedHandler {
                                 id,
                                 request.getFiltersDocument(),
                                 request.getETag(),
-                                request.isETagCheckRequired());
+                                request.isETagCheckRequired(),
+                                Optional.ofNullable(request.getWriteConcern()));
+
+                ResponseHelper.injectWriteConcernHeader(exchange, request.getWriteConcern());
             } else {
                 // throw new RuntimeException("error. file data is null");
                 // try to pass to next handler in order to PUT new metadata on existing file.
@@ -22,11 +22,15 @@ package org.restheart.mongodb.handlers.indexes;
 
 import io.undertow.server.HttpServerExchange;
 import java.util.Optional;
+import java.util.Map;
 import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Databases;
+import org.restheart.mongodb.db.IndexBuilds;
 import org.restheart.utils.HttpStatus;
 
 /**
@@ -78,6 +82,8 @@ public class GetIndexesHandler extends PipelinedHandler {
             _indexes.stream().forEachOrdered(indexes::add);
         }
 
+        addIndexBuilds(request.getDBName(), request.getCollectionName(), indexes);
+
         response.setContent(indexes);
         response.setCount(indexes.size());
 
@@ -86,4 +92,29 @@ public class GetIndexesHandler extends PipelinedHandler {
 
         next(exchange);
     }
+
+    /**
+     * adds the asynchronous builds in progress or recently finished; the
+     * index of a completed build is already in the list
+     *
+     * @param db
+     * @param coll
+     * @param indexes
+     */
+    private void addIndexBuilds(String db, String coll, BsonArray indexes) {
+        var builds = IndexBuilds.get().getIndexBuilds(db, coll);
+
+        if (builds.isEmpty()) {
+            return;
+        }
+
+        var progress = builds.stream().anyMatch(b -> b.getStatus() == IndexBuilds.STATUS.RUNNING)
+            ? IndexBuilds.get().getProgress(db, coll)
+            : Map.<String, BsonDocument>of();
+
+        builds.stream()
+            .filter(b -> b.getStatus() != IndexBuilds.STATUS.COMPLETED)
+            .filter(b -> indexes.stream().noneMatch(i -> i.isDocument() && new BsonString(b.getName()).equals(i.asDocument().get("_id"))))
+            .forEach(b -> indexes.add(b.asBson(progress.get(b.getName()))));
+    }
 }
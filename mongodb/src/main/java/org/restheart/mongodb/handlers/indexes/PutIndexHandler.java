@@ -21,6 +21,7 @@
 package org.restheart.mongodb.handlers.indexes;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
 
 import java.util.Optional;
 
@@ -31,6 +32,8 @@ import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
 import org.restheart.mongodb.db.Databases;
+import org.restheart.mongodb.db.IndexBuilds;
+import org.restheart.mongodb.utils.URLUtils;
 import org.restheart.utils.HttpStatus;
 
 /**
@@ -119,6 +122,23 @@ public class PutIndexHandler extends PipelinedHandler {
             return;
         }
 
+        if (request.isAsync()) {
+            try {
+                var build = IndexBuilds.get().createIndex(db, co, keys, ops);
+
+                response.setContent(build.asBson(null));
+                response.setContentTypeAsJson();
+                // the status of the build is shown in the indexes list
+                response.getHeaders().add(Headers.LOCATION, URLUtils.getParentPath(URLUtils.removeTrailingSlashes(exchange.getRequestPath())));
+                response.setStatusCode(HttpStatus.SC_ACCEPTED);
+            } catch (IllegalStateException ise) {
+                response.setInError(HttpStatus.SC_CONFLICT, ise.getMessage());
+            }
+
+            next(exchange);
+            return;
+        }
+
         try {
             dbs.createIndex(Optional.ofNullable(request.getClientSession()), db, co, keys, Optional.of(ops));
         } catch (Throwable t) {
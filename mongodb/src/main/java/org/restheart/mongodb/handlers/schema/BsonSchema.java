@@ -0,0 +1,810 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.json.JsonMode;
+import org.bson.types.Decimal128;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.restheart.utils.BsonUtils;
+
+/**
+ * A JSON Schema compiled to a tree of checks that validates BsonValues
+ * directly, without converting them to JSON text and org.json objects.
+ *
+ * It covers the subset of draft-4 used with RESTHeart: type, enum,
+ * properties, required, additionalProperties, patternProperties,
+ * min/maxProperties, items, additionalItems, min/maxItems, uniqueItems,
+ * minimum, maximum, exclusiveMinimum, exclusiveMaximum, multipleOf,
+ * min/maxLength, pattern, allOf, anyOf, oneOf, not and local $ref. Schemas
+ * using other keywords (e.g. format, dependencies or $ref to other schemas)
+ * are not supported, see isSupported(), and must be validated with everit.
+ *
+ * Values are checked against their JSON representation: BSON types without a
+ * JSON counterpart, such as ObjectId or Date, are checked as the extended JSON
+ * object they are rendered to in the request json mode, as everit does.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class BsonSchema {
+    private static final Set<String> UNSUPPORTED_KEYWORDS = Set.of(
+        "format", "dependencies", "const", "contains", "propertyNames",
+        "if", "then", "else", "readOnly", "writeOnly", "$id");
+
+    private final Node root;
+
+    private BsonSchema(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * compiles the schema
+     *
+     * @param schema
+     * @return the compiled schema, check isSupported() before using it
+     */
+    public static BsonSchema compile(BsonDocument schema) {
+        try {
+            return new BsonSchema(new Compiler(schema).compile(schema));
+        } catch (UnsupportedSchemaException | RuntimeException ex) {
+            // e.g. unsupported keywords or invalid patterns
+            return new BsonSchema(null);
+        }
+    }
+
+    /**
+     *
+     * @return true if the schema only uses keywords supported by BsonSchema
+     */
+    public boolean isSupported() {
+        return root != null;
+    }
+
+    /**
+     * validates a value
+     *
+     * @param value
+     * @param mode the json mode used to render BSON types without a JSON
+     * counterpart, null for the RESTHeart default
+     * @return the list of violations, empty if the value is valid
+     */
+    public List<String> validate(BsonValue value, JsonMode mode) {
+        if (root == null) {
+            throw new IllegalStateException("schema not supported");
+        }
+
+        var errors = new ArrayList<String>();
+        root.validate(new Context(mode), value, "#", errors);
+        return errors;
+    }
+
+    private static class UnsupportedSchemaException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedSchemaException(String keyword) {
+            super(keyword, null, false, false);
+        }
+    }
+
+    private static record Context(JsonMode mode) {
+        /**
+         * @return the value as it appears in JSON: documents, arrays, strings,
+         * booleans, nulls and numbers are returned as they are, other types
+         * are converted to their extended json representation
+         */
+        BsonValue shape(BsonValue value) {
+            if (value == null) {
+                return BsonNull.VALUE;
+            }
+
+            switch (value.getBsonType()) {
+                case DOCUMENT:
+                case ARRAY:
+                case STRING:
+                case BOOLEAN:
+                case NULL:
+                    return value;
+                case INT32:
+                case INT64:
+                    // canonical mode renders integers as {"$numberInt": ...}
+                    if (mode == null || mode == JsonMode.RELAXED) {
+                        return value;
+                    }
+                    break;
+                case DOUBLE:
+                    if ((mode == null || mode == JsonMode.RELAXED)
+                        && Double.isFinite(value.asDouble().getValue())) {
+                        return value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            var json = BsonUtils.toJson(new BsonDocument("v", value), mode);
+            return fromJson(new JSONObject(json).get("v"));
+        }
+
+        /**
+         * @return the value with all its nested values shaped
+         */
+        BsonValue deepShape(BsonValue value) {
+            var shaped = shape(value);
+
+            if (shaped.isDocument()) {
+                var ret = new BsonDocument();
+                shaped.asDocument().forEach((k, v) -> ret.put(k, deepShape(v)));
+                return ret;
+            } else if (shaped.isArray()) {
+                var ret = new BsonArray();
+                shaped.asArray().forEach(v -> ret.add(deepShape(v)));
+                return ret;
+            } else {
+                return shaped;
+            }
+        }
+
+        private static BsonValue fromJson(Object json) {
+            if (json instanceof JSONObject obj) {
+                var ret = new BsonDocument();
+                obj.keySet().forEach(k -> ret.put(k, fromJson(obj.get(k))));
+                return ret;
+            } else if (json instanceof JSONArray arr) {
+                var ret = new BsonArray();
+                arr.forEach(v -> ret.add(fromJson(v)));
+                return ret;
+            } else if (json instanceof String s) {
+                return new BsonString(s);
+            } else if (json instanceof Boolean b) {
+                return BsonBoolean.valueOf(b);
+            } else if (json instanceof Integer i) {
+                return new BsonInt32(i);
+            } else if (json instanceof Long l) {
+                return new BsonInt64(l);
+            } else if (json instanceof BigDecimal bd) {
+                return new BsonDecimal128(new Decimal128(bd));
+            } else if (json instanceof Number n) {
+                return new BsonDouble(n.doubleValue());
+            } else {
+                return BsonNull.VALUE;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private static interface Node {
+        void validate(Context ctx, BsonValue value, String path, List<String> errors);
+    }
+
+    private static class Compiler {
+        private final BsonDocument rootSchema;
+        private final Map<String, RefNode> refs = new HashMap<>();
+
+        Compiler(BsonDocument rootSchema) {
+            this.rootSchema = rootSchema;
+        }
+
+        Node compile(BsonValue _schema) throws UnsupportedSchemaException {
+            if (!_schema.isDocument()) {
+                throw new UnsupportedSchemaException("schema must be an object");
+            }
+
+            var schema = _schema.asDocument();
+
+            for (var keyword : schema.keySet()) {
+                if (UNSUPPORTED_KEYWORDS.contains(keyword)) {
+                    throw new UnsupportedSchemaException(keyword);
+                }
+            }
+
+            // draft-4: $ref overrides any other keyword
+            if (schema.containsKey("$ref")) {
+                return ref(schema.get("$ref"));
+            }
+
+            var nodes = new ArrayList<Node>();
+
+            if (schema.containsKey("type")) {
+                nodes.add(type(schema.get("type")));
+            }
+
+            if (schema.containsKey("enum")) {
+                nodes.add(enumeration(schema.get("enum")));
+            }
+
+            object(schema, nodes);
+            array(schema, nodes);
+            number(schema, nodes);
+            string(schema, nodes);
+            combined(schema, nodes);
+
+            return (ctx, value, path, errors) -> {
+                var shaped = ctx.shape(value);
+                for (var node : nodes) {
+                    node.validate(ctx, shaped, path, errors);
+                }
+            };
+        }
+
+        private Node ref(BsonValue _ref) throws UnsupportedSchemaException {
+            if (!_ref.isString() || !_ref.asString().getValue().startsWith("#")) {
+                // references to other schemas are resolved by everit
+                throw new UnsupportedSchemaException("$ref");
+            }
+
+            var pointer = _ref.asString().getValue();
+            var node = refs.get(pointer);
+
+            if (node == null) {
+                node = new RefNode();
+                // registered before compiling the target to allow recursion
+                refs.put(pointer, node);
+                node.target = compile(resolve(pointer));
+            }
+
+            return node;
+        }
+
+        private BsonValue resolve(String pointer) throws UnsupportedSchemaException {
+            BsonValue current = rootSchema;
+
+            for (var token : pointer.substring(1).split("/")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+
+                var _token = token.replace("~1", "/").replace("~0", "~");
+
+                if (current.isDocument() && current.asDocument().containsKey(_token)) {
+                    current = current.asDocument().get(_token);
+                } else if (current.isArray() && _token.matches("\\d+") && Integer.parseInt(_token) < current.asArray().size()) {
+                    current = current.asArray().get(Integer.parseInt(_token));
+                } else {
+                    throw new UnsupportedSchemaException("$ref " + pointer);
+                }
+            }
+
+            return current;
+        }
+
+        private Node type(BsonValue type) throws UnsupportedSchemaException {
+            List<String> types = new ArrayList<>();
+
+            if (type.isString()) {
+                types.add(type.asString().getValue());
+            } else if (type.isArray()) {
+                for (var t : type.asArray()) {
+                    if (!t.isString()) {
+                        throw new UnsupportedSchemaException("type");
+                    }
+                    types.add(t.asString().getValue());
+                }
+            } else {
+                throw new UnsupportedSchemaException("type");
+            }
+
+            return (ctx, value, path, errors) -> {
+                if (types.stream().noneMatch(t -> isOfType(value, t))) {
+                    errors.add(path + ": expected type: "
+                        + (types.size() == 1 ? types.get(0) : "one of " + types)
+                        + ", found: " + typeOf(value));
+                }
+            };
+        }
+
+        private Node enumeration(BsonValue _enum) throws UnsupportedSchemaException {
+            if (!_enum.isArray()) {
+                throw new UnsupportedSchemaException("enum");
+            }
+
+            var values = _enum.asArray();
+
+            return (ctx, value, path, errors) -> {
+                var shaped = ctx.deepShape(value);
+                if (values.stream().noneMatch(v -> jsonEquals(v, shaped))) {
+                    errors.add(path + ": " + toJson(shaped) + " is not a valid enum value");
+                }
+            };
+        }
+
+        private void object(BsonDocument schema, List<Node> nodes) throws UnsupportedSchemaException {
+            if (schema.containsKey("required")) {
+                var required = new ArrayList<String>();
+                for (var r : schema.get("required").isArray() ? schema.getArray("required") : new BsonArray()) {
+                    required.add(r.isString() ? r.asString().getValue() : r.toString());
+                }
+
+                nodes.add((ctx, value, path, errors) -> {
+                    if (value.isDocument()) {
+                        required.stream()
+                            .filter(r -> !value.asDocument().containsKey(r))
+                            .forEachOrdered(r -> errors.add(path + ": required key [" + r + "] not found"));
+                    }
+                });
+            }
+
+            var properties = new HashMap<String, Node>();
+
+            if (schema.isDocument("properties")) {
+                for (var p : schema.getDocument("properties").entrySet()) {
+                    properties.put(p.getKey(), compile(p.getValue()));
+                }
+            }
+
+            var patternProperties = new HashMap<Pattern, Node>();
+
+            if (schema.isDocument("patternProperties")) {
+                for (var p : schema.getDocument("patternProperties").entrySet()) {
+                    patternProperties.put(Pattern.compile(p.getKey()), compile(p.getValue()));
+                }
+            }
+
+            Node additionalProperties = null;
+            var noAdditionalProperties = false;
+
+            if (schema.containsKey("additionalProperties")) {
+                var ap = schema.get("additionalProperties");
+                if (ap.isBoolean()) {
+                    noAdditionalProperties = !ap.asBoolean().getValue();
+                } else {
+                    additionalProperties = compile(ap);
+                }
+            }
+
+            if (!properties.isEmpty() || !patternProperties.isEmpty() || additionalProperties != null || noAdditionalProperties) {
+                final var _additionalProperties = additionalProperties;
+                final var _noAdditionalProperties = noAdditionalProperties;
+
+                nodes.add((ctx, value, path, errors) -> {
+                    if (!value.isDocument()) {
+                        return;
+                    }
+
+                    for (var entry : value.asDocument().entrySet()) {
+                        var key = entry.getKey();
+                        var keyPath = path + "/" + key;
+                        var matched = false;
+
+                        var property = properties.get(key);
+                        if (property != null) {
+                            property.validate(ctx, entry.getValue(), keyPath, errors);
+                            matched = true;
+                        }
+
+                        for (var pp : patternProperties.entrySet()) {
+                            if (pp.getKey().matcher(key).find()) {
+                                pp.getValue().validate(ctx, entry.getValue(), keyPath, errors);
+                                matched = true;
+                            }
+                        }
+
+                        if (!matched) {
+                            if (_noAdditionalProperties) {
+                                errors.add(path + ": extraneous key [" + key + "] is not permitted");
+                            } else if (_additionalProperties != null) {
+                                _additionalProperties.validate(ctx, entry.getValue(), keyPath, errors);
+                            }
+                        }
+                    }
+                });
+            }
+
+            var minProperties = intKeyword(schema, "minProperties");
+            var maxProperties = intKeyword(schema, "maxProperties");
+
+            if (minProperties != null || maxProperties != null) {
+                nodes.add((ctx, value, path, errors) -> {
+                    if (value.isDocument()) {
+                        var size = value.asDocument().size();
+                        if (minProperties != null && size < minProperties) {
+                            errors.add(path + ": minimum size: [" + minProperties + "], found: [" + size + "]");
+                        }
+                        if (maxProperties != null && size > maxProperties) {
+                            errors.add(path + ": maximum size: [" + maxProperties + "], found: [" + size + "]");
+                        }
+                    }
+                });
+            }
+        }
+
+        private void array(BsonDocument schema, List<Node> nodes) throws UnsupportedSchemaException {
+            Node allItems = null;
+            List<Node> tupleItems = null;
+
+            if (schema.containsKey("items")) {
+                var items = schema.get("items");
+                if (items.isArray()) {
+                    tupleItems = new ArrayList<>();
+                    for (var item : items.asArray()) {
+                        tupleItems.add(compile(item));
+                    }
+                } else {
+                    allItems = compile(items);
+                }
+            }
+
+            Node additionalItems = null;
+            var noAdditionalItems = false;
+
+            if (tupleItems != null && schema.containsKey("additionalItems")) {
+                var ai = schema.get("additionalItems");
+                if (ai.isBoolean()) {
+                    noAdditionalItems = !ai.asBoolean().getValue();
+                } else {
+                    additionalItems = compile(ai);
+                }
+            }
+
+            if (allItems != null || tupleItems != null) {
+                final var _allItems = allItems;
+                final var _tupleItems = tupleItems;
+                final var _additionalItems = additionalItems;
+                final var _noAdditionalItems = noAdditionalItems;
+
+                nodes.add((ctx, value, path, errors) -> {
+                    if (!value.isArray()) {
+                        return;
+                    }
+
+                    var array = value.asArray();
+
+                    for (var idx = 0; idx < array.size(); idx++) {
+                        var itemPath = path + "/" + idx;
+
+                        if (_allItems != null) {
+                            _allItems.validate(ctx, array.get(idx), itemPath, errors);
+                        } else if (idx < _tupleItems.size()) {
+                            _tupleItems.get(idx).validate(ctx, array.get(idx), itemPath, errors);
+                        } else if (_noAdditionalItems) {
+                            errors.add(path + ": expected: [" + _tupleItems.size() + "] array items, found: [" + array.size() + "]");
+                            break;
+                        } else if (_additionalItems != null) {
+                            _additionalItems.validate(ctx, array.get(idx), itemPath, errors);
+                        }
+                    }
+                });
+            }
+
+            var minItems = intKeyword(schema, "minItems");
+            var maxItems = intKeyword(schema, "maxItems");
+            var uniqueItems = schema.isBoolean("uniqueItems") && schema.getBoolean("uniqueItems").getValue();
+
+            if (minItems != null || maxItems != null || uniqueItems) {
+                nodes.add((ctx, value, path, errors) -> {
+                    if (!value.isArray()) {
+                        return;
+                    }
+
+                    var size = value.asArray().size();
+
+                    if (minItems != null && size < minItems) {
+                        errors.add(path + ": expected minimum item count: " + minItems + ", found: " + size);
+                    }
+
+                    if (maxItems != null && size > maxItems) {
+                        errors.add(path + ": expected maximum item count: " + maxItems + ", found: " + size);
+                    }
+
+                    if (uniqueItems) {
+                        var items = value.asArray().stream().map(ctx::deepShape).toList();
+                        outer:
+                        for (var i = 0; i < items.size(); i++) {
+                            for (var j = i + 1; j < items.size(); j++) {
+                                if (jsonEquals(items.get(i), items.get(j))) {
+                                    errors.add(path + ": array items are not unique");
+                                    break outer;
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        private void number(BsonDocument schema, List<Node> nodes) throws UnsupportedSchemaException {
+            var minimum = numberKeyword(schema, "minimum");
+            var maximum = numberKeyword(schema, "maximum");
+            var multipleOf = numberKeyword(schema, "multipleOf");
+
+            if (schema.containsKey("exclusiveMinimum") && !schema.isBoolean("exclusiveMinimum")) {
+                // draft-6 numeric exclusiveMinimum
+                throw new UnsupportedSchemaException("exclusiveMinimum");
+            }
+
+            if (schema.containsKey("exclusiveMaximum") && !schema.isBoolean("exclusiveMaximum")) {
+                throw new UnsupportedSchemaException("exclusiveMaximum");
+            }
+
+            var exclusiveMinimum = schema.isBoolean("exclusiveMinimum") && schema.getBoolean("exclusiveMinimum").getValue();
+            var exclusiveMaximum = schema.isBoolean("exclusiveMaximum") && schema.getBoolean("exclusiveMaximum").getValue();
+
+            if (minimum == null && maximum == null && multipleOf == null) {
+                return;
+            }
+
+            nodes.add((ctx, value, path, errors) -> {
+                var n = toBigDecimal(value);
+
+                if (n == null) {
+                    return;
+                }
+
+                if (minimum != null) {
+                    var cmp = n.compareTo(minimum);
+                    if (exclusiveMinimum && cmp <= 0) {
+                        errors.add(path + ": " + n + " is not greater than " + minimum);
+                    } else if (cmp < 0) {
+                        errors.add(path + ": " + n + " is not greater or equal to " + minimum);
+                    }
+                }
+
+                if (maximum != null) {
+                    var cmp = n.compareTo(maximum);
+                    if (exclusiveMaximum && cmp >= 0) {
+                        errors.add(path + ": " + n + " is not less than " + maximum);
+                    } else if (cmp > 0) {
+                        errors.add(path + ": " + n + " is not less or equal to " + maximum);
+                    }
+                }
+
+                if (multipleOf != null && multipleOf.signum() != 0 && n.remainder(multipleOf).signum() != 0) {
+                    errors.add(path + ": " + n + " is not a multiple of " + multipleOf);
+                }
+            });
+        }
+
+        private void string(BsonDocument schema, List<Node> nodes) throws UnsupportedSchemaException {
+            var minLength = intKeyword(schema, "minLength");
+            var maxLength = intKeyword(schema, "maxLength");
+
+            Pattern pattern = null;
+
+            if (schema.containsKey("pattern")) {
+                if (!schema.isString("pattern")) {
+                    throw new UnsupportedSchemaException("pattern");
+                }
+                pattern = Pattern.compile(schema.getString("pattern").getValue());
+            }
+
+            if (minLength == null && maxLength == null && pattern == null) {
+                return;
+            }
+
+            final var _pattern = pattern;
+
+            nodes.add((ctx, value, path, errors) -> {
+                if (!value.isString()) {
+                    return;
+                }
+
+                var s = value.asString().getValue();
+                var length = s.codePointCount(0, s.length());
+
+                if (minLength != null && length < minLength) {
+                    errors.add(path + ": expected minLength: " + minLength + ", actual: " + length);
+                }
+
+                if (maxLength != null && length > maxLength) {
+                    errors.add(path + ": expected maxLength: " + maxLength + ", actual: " + length);
+                }
+
+                if (_pattern != null && !_pattern.matcher(s).find()) {
+                    errors.add(path + ": string [" + s + "] does not match pattern " + _pattern.pattern());
+                }
+            });
+        }
+
+        private void combined(BsonDocument schema, List<Node> nodes) throws UnsupportedSchemaException {
+            if (schema.containsKey("allOf")) {
+                var allOf = subschemas(schema, "allOf");
+                nodes.add((ctx, value, path, errors) -> allOf.forEach(s -> s.validate(ctx, value, path, errors)));
+            }
+
+            if (schema.containsKey("anyOf")) {
+                var anyOf = subschemas(schema, "anyOf");
+                nodes.add((ctx, value, path, errors) -> {
+                    if (anyOf.stream().noneMatch(s -> isValid(s, ctx, value, path))) {
+                        errors.add(path + ": no subschema matched out of the total " + anyOf.size() + " subschemas");
+                    }
+                });
+            }
+
+            if (schema.containsKey("oneOf")) {
+                var oneOf = subschemas(schema, "oneOf");
+                nodes.add((ctx, value, path, errors) -> {
+                    var matching = oneOf.stream().filter(s -> isValid(s, ctx, value, path)).count();
+                    if (matching != 1) {
+                        errors.add(path + ": " + matching + " subschemas matched instead of one");
+                    }
+                });
+            }
+
+            if (schema.containsKey("not")) {
+                var not = compile(schema.get("not"));
+                nodes.add((ctx, value, path, errors) -> {
+                    if (isValid(not, ctx, value, path)) {
+                        errors.add(path + ": subject must not be valid against schema");
+                    }
+                });
+            }
+        }
+
+        private List<Node> subschemas(BsonDocument schema, String keyword) throws UnsupportedSchemaException {
+            if (!schema.isArray(keyword)) {
+                throw new UnsupportedSchemaException(keyword);
+            }
+
+            var ret = new ArrayList<Node>();
+
+            for (var s : schema.getArray(keyword)) {
+                ret.add(compile(s));
+            }
+
+            return ret;
+        }
+
+        private static boolean isValid(Node node, Context ctx, BsonValue value, String path) {
+            var errors = new ArrayList<String>();
+            node.validate(ctx, value, path, errors);
+            return errors.isEmpty();
+        }
+
+        private static Integer intKeyword(BsonDocument schema, String keyword) throws UnsupportedSchemaException {
+            if (!schema.containsKey(keyword)) {
+                return null;
+            }
+
+            var n = toBigDecimal(schema.get(keyword));
+
+            if (n == null) {
+                throw new UnsupportedSchemaException(keyword);
+            }
+
+            return n.intValue();
+        }
+
+        private static BigDecimal numberKeyword(BsonDocument schema, String keyword) throws UnsupportedSchemaException {
+            if (!schema.containsKey(keyword)) {
+                return null;
+            }
+
+            var n = toBigDecimal(schema.get(keyword));
+
+            if (n == null) {
+                throw new UnsupportedSchemaException(keyword);
+            }
+
+            return n;
+        }
+    }
+
+    private static class RefNode implements Node {
+        private Node target;
+
+        @Override
+        public void validate(Context ctx, BsonValue value, String path, List<String> errors) {
+            target.validate(ctx, value, path, errors);
+        }
+    }
+
+    private static boolean isOfType(BsonValue value, String type) {
+        return switch (type) {
+            case "object" -> value.isDocument();
+            case "array" -> value.isArray();
+            case "string" -> value.isString();
+            case "boolean" -> value.isBoolean();
+            case "null" -> value.isNull();
+            case "integer" -> value.isInt32() || value.isInt64();
+            case "number" -> toBigDecimal(value) != null;
+            default -> false;
+        };
+    }
+
+    private static String typeOf(BsonValue value) {
+        if (value.isInt32() || value.isInt64()) {
+            return "integer";
+        } else if (toBigDecimal(value) != null) {
+            return "number";
+        } else {
+            return switch (value.getBsonType()) {
+                case DOCUMENT -> "object";
+                case ARRAY -> "array";
+                case STRING -> "string";
+                case BOOLEAN -> "boolean";
+                case NULL -> "null";
+                default -> value.getBsonType().name().toLowerCase();
+            };
+        }
+    }
+
+    private static BigDecimal toBigDecimal(BsonValue value) {
+        if (value.isInt32()) {
+            return BigDecimal.valueOf(value.asInt32().getValue());
+        } else if (value.isInt64()) {
+            return BigDecimal.valueOf(value.asInt64().getValue());
+        } else if (value.isDouble() && Double.isFinite(value.asDouble().getValue())) {
+            return BigDecimal.valueOf(value.asDouble().getValue());
+        } else if (value.isDecimal128() && !value.asDecimal128().getValue().isNaN() && !value.asDecimal128().getValue().isInfinite()) {
+            try {
+                return value.asDecimal128().getValue().bigDecimalValue();
+            } catch (ArithmeticException ae) {
+                // negative zero
+                return BigDecimal.ZERO;
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private static String toJson(BsonValue value) {
+        var json = BsonUtils.toJson(new BsonDocument("v", value));
+        // strip the wrapping document {"v":...}
+        return json.substring(json.indexOf(':') + 1, json.length() - 1);
+    }
+
+    /**
+     * JSON equality: numbers are equal if they have the same value
+     */
+    private static boolean jsonEquals(BsonValue a, BsonValue b) {
+        var na = toBigDecimal(a);
+        var nb = toBigDecimal(b);
+
+        if (na != null || nb != null) {
+            return na != null && nb != null && na.compareTo(nb) == 0;
+        } else if (a.isDocument() && b.isDocument()) {
+            var da = a.asDocument();
+            var db = b.asDocument();
+            return da.size() == db.size() && da.entrySet().stream()
+                .allMatch(e -> db.containsKey(e.getKey()) && jsonEquals(e.getValue(), db.get(e.getKey())));
+        } else if (a.isArray() && b.isArray()) {
+            var aa = a.asArray();
+            var ab = b.asArray();
+            if (aa.size() != ab.size()) {
+                return false;
+            }
+            for (var i = 0; i < aa.size(); i++) {
+                if (!jsonEquals(aa.get(i), ab.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return a.equals(b);
+        }
+    }
+}
@@ -54,14 +54,19 @@ public class JsonSchemaCacheSingleton {
 
     private Cache<String, Schema> schemaCache = null;
     private Cache<String, BsonDocument> rawSchemaCache = null;
+    private Cache<String, BsonSchema> compiledSchemaCache = null;
 
     JsonSchemaCacheSingleton() {
         if (MongoServiceConfiguration.get().isSchemaCacheEnabled()) {
-            this.schemaCache = CacheFactory.createLocalCache(MAX_CACHE_SIZE,
+            this.schemaCache = CacheFactory.createLocalCache("mongo.schemas", MAX_CACHE_SIZE,
                     Cache.EXPIRE_POLICY.AFTER_WRITE,
                     MongoServiceConfiguration.get().getSchemaCacheTtl());
 
-            this.rawSchemaCache = CacheFactory.createLocalCache(MAX_CACHE_SIZE,
+            this.rawSchemaCache = CacheFactory.createLocalCache("mongo.rawSchemas", MAX_CACHE_SIZE,
+                    Cache.EXPIRE_POLICY.AFTER_WRITE,
+                    MongoServiceConfiguration.get().getSchemaCacheTtl());
+
+            this.compiledSchemaCache = CacheFactory.createLocalCache("mongo.compiledSchemas", MAX_CACHE_SIZE,
                     Cache.EXPIRE_POLICY.AFTER_WRITE,
                     MongoServiceConfiguration.get().getSchemaCacheTtl());
         }
@@ -120,6 +125,34 @@ public class JsonSchemaCacheSingleton {
         }
     }
 
+    /**
+     *
+     * @param schemaStoreDb
+     * @param schemaId
+     * @return the schema compiled to validate BsonValues, check
+     * BsonSchema.isSupported() before using it
+     * @throws JsonSchemaNotFoundException
+     */
+    public BsonSchema getCompiled(String schemaStoreDb, BsonValue schemaId) throws JsonSchemaNotFoundException {
+        if (MongoServiceConfiguration.get().isSchemaCacheEnabled()) {
+            Optional<BsonSchema> _schema
+                    = compiledSchemaCache.get(schemaStoreDb + SEPARATOR + schemaId);
+
+            if (_schema != null && _schema.isPresent()) {
+                return _schema.get();
+            } else {
+                // compile it
+                var s = BsonSchema.compile(getRaw(schemaStoreDb, schemaId));
+
+                compiledSchemaCache.put(schemaStoreDb + SEPARATOR + schemaId, s);
+
+                return s;
+            }
+        } else {
+            return BsonSchema.compile(loadRaw(schemaStoreDb, schemaId));
+        }
+    }
+
     private Schema load(String schemaStoreDb, BsonValue schemaId) throws JsonSchemaNotFoundException {
         var document = loadRaw(schemaStoreDb, schemaId);
 
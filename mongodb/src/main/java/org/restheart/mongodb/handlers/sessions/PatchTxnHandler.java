@@ -20,11 +20,13 @@
  */
 package org.restheart.mongodb.handlers.sessions;
 
+import com.mongodb.MongoException;
 import io.undertow.server.HttpServerExchange;
 import java.util.UUID;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.handlers.PipelinedHandler;
+import org.restheart.mongodb.db.sessions.ClientSessionsPool;
 import org.restheart.mongodb.db.sessions.Txn;
 import org.restheart.mongodb.db.sessions.TxnClientSessionFactory;
 import org.restheart.utils.HttpStatus;
@@ -77,7 +79,13 @@ public class PatchTxnHandler extends PipelinedHandler {
             cs.startTransaction();
         }
 
-        cs.commitTransaction();
+        try {
+            cs.commitTransaction();
+        } catch (MongoException me) {
+            // the client sessions of the sid might be not valid anymore
+            ClientSessionsPool.getInstance().invalidate(cs);
+            throw me;
+        }
 
         response.setContentTypeAsJson();
         response.setStatusCode(HttpStatus.SC_OK);
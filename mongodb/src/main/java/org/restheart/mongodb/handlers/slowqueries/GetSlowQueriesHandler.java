@@ -0,0 +1,92 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.slowqueries;
+
+import io.undertow.server.HttpServerExchange;
+import org.bson.BsonArray;
+import static org.restheart.exchange.ExchangeKeys._SLOW_QUERIES;
+import org.restheart.exchange.MongoRequest;
+import org.restheart.exchange.MongoResponse;
+import org.restheart.handlers.PipelinedHandler;
+import org.restheart.mongodb.db.SlowQueries;
+import org.restheart.utils.HttpStatus;
+
+/**
+ * Returns the slow queries recorded in the SlowQueries buffer, the newest
+ * first. /_slowqueries returns all of them, /db/_slowqueries and
+ * /db/coll/_slowqueries the ones on the given db and collection.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class GetSlowQueriesHandler extends PipelinedHandler {
+    private final SlowQueries slowQueries = SlowQueries.getInstance();
+
+    /**
+     *
+     */
+    public GetSlowQueriesHandler() {
+        super();
+    }
+
+    /**
+     *
+     * @param next
+     */
+    public GetSlowQueriesHandler(PipelinedHandler next) {
+        super(next);
+    }
+
+    /**
+     *
+     * @param exchange
+     * @throws Exception
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        var request = MongoRequest.of(exchange);
+        var response = MongoResponse.of(exchange);
+
+        if (request.isInError()) {
+            next(exchange);
+            return;
+        }
+
+        var db = isFilledAndNotSlowQueries(request.getDBName()) ? request.getDBName() : null;
+        var coll = db != null && isFilledAndNotSlowQueries(request.getCollectionName()) ? request.getCollectionName() : null;
+
+        var content = new BsonArray();
+
+        slowQueries.snapshot(db, coll).stream()
+            .map(SlowQueries.SlowQuery::asBson)
+            .forEachOrdered(content::add);
+
+        response.setContent(content);
+        response.setCount(content.size());
+        response.setContentTypeAsJson();
+        response.setStatusCode(HttpStatus.SC_OK);
+
+        next(exchange);
+    }
+
+    private boolean isFilledAndNotSlowQueries(String dbOrCollectionName) {
+        return dbOrCollectionName != null && !dbOrCollectionName.equalsIgnoreCase(_SLOW_QUERIES);
+    }
+}
@@ -134,6 +134,7 @@ public class CollectionPropsInjector implements MongoInterceptor {
                 && request.isHandledBy("mongo")
                 && !(request.isInError()
                 || request.isMetrics()
+                || request.isSlowQueries()
                 || request.isDbSize()
                 || request.isTxn()
                 || request.isTxns());
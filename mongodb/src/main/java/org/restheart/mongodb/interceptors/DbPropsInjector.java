@@ -134,6 +134,7 @@ public class DbPropsInjector implements MongoInterceptor {
             || request.isTxns()
             || request.isRoot()
             || request.isRootSize()
-            || request.isMetrics());
+            || request.isMetrics()
+            || request.isSlowQueries());
     }
 }
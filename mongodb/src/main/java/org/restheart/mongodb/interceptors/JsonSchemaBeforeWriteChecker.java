@@ -23,8 +23,12 @@ package org.restheart.mongodb.interceptors;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
+import org.bson.json.JsonMode;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
 import org.json.JSONObject;
@@ -32,6 +36,7 @@ import static org.restheart.exchange.ExchangeKeys._SCHEMAS;
 import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import org.restheart.exchange.UnsupportedDocumentIdException;
+import org.restheart.mongodb.handlers.schema.BsonSchema;
 import org.restheart.mongodb.handlers.schema.JsonSchemaCacheSingleton;
 import org.restheart.mongodb.handlers.schema.JsonSchemaNotFoundException;
 import org.restheart.mongodb.utils.URLUtils;
@@ -62,6 +67,11 @@ import org.slf4j.LoggerFactory;
  * <br><br>
  * schemaStoreDb is optional, default value is same db, skipNotSuppored is
  * optional, defaul value is false
+ * <br><br>
+ * Documents are validated directly with the compiled BsonSchema when the
+ * schema only uses the keywords it supports, otherwise with everit. The
+ * documents of bulk requests are validated in parallel and the violations
+ * are reported for each document.
  *
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  */
@@ -89,6 +99,12 @@ public class JsonSchemaBeforeWriteChecker implements MongoInterceptor {
     static final Logger LOGGER
             = LoggerFactory.getLogger(JsonSchemaBeforeWriteChecker.class);
 
+    /**
+     * bulk requests with at least this number of documents are validated in
+     * parallel
+     */
+    static final int PARALLEL_VALIDATION_THRESHOLD = 100;
+
     @Override
     public void handle(MongoRequest request, MongoResponse response) throws Exception {
         var args = request.getCollectionProps()
@@ -148,12 +164,12 @@ public class JsonSchemaBeforeWriteChecker implements MongoInterceptor {
             return;
         }
 
-        Schema theschema;
+        BsonSchema compiled;
 
         try {
-            theschema = JsonSchemaCacheSingleton
+            compiled = JsonSchemaCacheSingleton
                     .getInstance()
-                    .get(schemaStoreDb, schemaId);
+                    .getCompiled(schemaStoreDb, schemaId);
         } catch (JsonSchemaNotFoundException ex) {
             response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR,
                     "wrong 'jsonSchema': schema "
@@ -163,68 +179,104 @@ public class JsonSchemaBeforeWriteChecker implements MongoInterceptor {
             return;
         }
 
-        if (Objects.isNull(theschema)) {
-            response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR,
-                    "wrong 'jsonSchema': schema "
-                    + schemaStoreDb + "/" + _SCHEMAS + "/"
-                    + BsonUtils.getIdAsString(schemaId, false)
-                    + " not found");
-            return;
-        }
+        Function<BsonDocument, List<String>> validator;
+        var jsonMode = request.getJsonMode();
 
-        documentsToCheck(request, response)
-                .stream()
-                .forEachOrdered(doc -> {
+        if (compiled.isSupported()) {
+            validator = doc -> compiled.validate(doc, jsonMode);
+        } else {
+            Schema theschema;
+
+            try {
+                theschema = JsonSchemaCacheSingleton
+                        .getInstance()
+                        .get(schemaStoreDb, schemaId);
+            } catch (JsonSchemaNotFoundException ex) {
+                theschema = null;
+            }
 
-                    try {
-                        theschema.validate(doc);
-                    } catch (ValidationException ve) {
-                        var errors = new ArrayList<String>();
+            if (Objects.isNull(theschema)) {
+                response.setInError(HttpStatus.SC_INTERNAL_SERVER_ERROR,
+                        "wrong 'jsonSchema': schema "
+                        + schemaStoreDb + "/" + _SCHEMAS + "/"
+                        + BsonUtils.getIdAsString(schemaId, false)
+                        + " not found");
+                return;
+            }
 
-                        errors.add(ve.getMessage().replaceAll("#: ", ""));
+            final var _theschema = theschema;
+            validator = doc -> validate(_theschema, doc, jsonMode);
+        }
 
-                        ve.getCausingExceptions().stream()
-                                .map(ValidationException::getMessage)
-                                .forEach(errors::add);
+        var docs = documentsToCheck(request, response);
 
-                        var errMsgBuilder = new StringBuilder();
+        var violations = docs.size() >= PARALLEL_VALIDATION_THRESHOLD
+            ? IntStream.range(0, docs.size()).parallel().mapToObj(idx -> validator.apply(docs.get(idx))).toList()
+            : docs.stream().map(validator).toList();
 
-                        errors.stream()
-                                .map(e -> e.replaceAll("#: ", ""))
-                                .forEachOrdered(e -> errMsgBuilder.append(e).append(", "));
+        String errMsg;
 
-                        var errMsg = errMsgBuilder.toString();
+        if (request.getContent() != null && request.getContent().isArray()) {
+            errMsg = IntStream.range(0, violations.size())
+                .filter(idx -> !violations.get(idx).isEmpty())
+                .mapToObj(idx -> "document " + idx + ": " + String.join(", ", violations.get(idx)))
+                .collect(Collectors.joining("; "));
+        } else {
+            errMsg = violations.stream()
+                .filter(v -> !v.isEmpty())
+                .map(v -> String.join(", ", v))
+                .collect(Collectors.joining("; "));
+        }
 
-                        if (errMsg.length() > 2
-                                && ", ".equals(errMsg.substring(errMsg.length() - 2, errMsg.length()))) {
-                            errMsg = errMsg.substring(0, errMsg.length() - 2);
+        if (!errMsg.isEmpty()) {
+            response.setInError(HttpStatus.SC_BAD_REQUEST,
+                    "Request content violates schema "
+                    + BsonUtils.getIdAsString(schemaId, true)
+                    + ": "
+                    + errMsg);
+        }
+    }
 
-                        }
+    /**
+     * validates the document with everit
+     *
+     * @param schema
+     * @param doc
+     * @param jsonMode
+     * @return the list of violations
+     */
+    private static List<String> validate(Schema schema, BsonDocument doc, JsonMode jsonMode) {
+        try {
+            schema.validate(new JSONObject(BsonUtils.toJson(doc, jsonMode)));
+            return List.of();
+        } catch (ValidationException ve) {
+            var errors = new ArrayList<String>();
 
-                        response.setInError(HttpStatus.SC_BAD_REQUEST,
-                                "Request content violates schema "
-                                + BsonUtils.getIdAsString(schemaId, true)
-                                + ": "
-                                + errMsg);
-                    }
-                });
+            errors.add(ve.getMessage().replaceAll("#: ", ""));
+
+            ve.getCausingExceptions().stream()
+                    .map(ValidationException::getMessage)
+                    .map(e -> e.replaceAll("#: ", ""))
+                    .forEach(errors::add);
+
+            return errors;
+        }
     }
 
-    List<JSONObject> documentsToCheck(MongoRequest request, MongoResponse response) {
-        var ret = new ArrayList<JSONObject>();
+    List<BsonDocument> documentsToCheck(MongoRequest request, MongoResponse response) {
+        var ret = new ArrayList<BsonDocument>();
 
         var content = request.getContent() == null
                 ? new BsonDocument()
                 : request.getContent();
 
         if (content.isDocument()) {
-            ret.add(new JSONObject(BsonUtils.toJson(content, request.getJsonMode())));
+            ret.add(content.asDocument());
         } else if (content.isArray()) {
             content.asArray()
                     .stream()
                     .filter(doc -> doc.isDocument())
-                    .map(doc -> BsonUtils.toJson(doc, request.getJsonMode()))
-                    .map(doc -> new JSONObject(doc))
+                    .map(doc -> doc.asDocument())
                     .forEachOrdered(ret::add);
         }
 
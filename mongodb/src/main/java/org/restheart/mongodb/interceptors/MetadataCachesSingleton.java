@@ -86,10 +86,11 @@ public class MetadataCachesSingleton {
         }
 
         if (enabled) {
+            // entries are reloaded in background after ttl/2
             // no client session
-            this.dbPropsCache = CacheFactory.createLocalLoadingCache(MAX_CACHE_SIZE, Cache.EXPIRE_POLICY.AFTER_WRITE, ttl, (String key) ->  this.dbsDAO.getDatabaseProperties(Optional.empty(),  key));
+            this.dbPropsCache = CacheFactory.createLocalLoadingCache("mongo.dbProps", MAX_CACHE_SIZE, Cache.EXPIRE_POLICY.AFTER_WRITE, ttl, ttl / 2, (String key) ->  this.dbsDAO.getDatabaseProperties(Optional.empty(),  key));
 
-            this.collectionPropsCache = CacheFactory.createLocalLoadingCache(MAX_CACHE_SIZE, Cache.EXPIRE_POLICY.AFTER_WRITE, ttl,
+            this.collectionPropsCache = CacheFactory.createLocalLoadingCache("mongo.collectionProps", MAX_CACHE_SIZE, Cache.EXPIRE_POLICY.AFTER_WRITE, ttl, ttl / 2,
                 key -> {
                     var dbNameAndCollectionName = key.split(SEPARATOR);
                     return this.dbsDAO.getCollectionProperties(
@@ -0,0 +1,166 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.interceptors;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonValue;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import static org.restheart.exchange.ExchangeKeys.CLIENT_SESSION_KEY;
+import static org.restheart.exchange.ExchangeKeys.TXNID_KEY;
+import org.restheart.exchange.MongoRequest;
+import org.restheart.exchange.MongoResponse;
+import org.restheart.mongodb.db.CollectionVersions;
+import org.restheart.mongodb.db.DocumentsCache;
+import org.restheart.plugins.InterceptPoint;
+import org.restheart.plugins.MongoInterceptor;
+import org.restheart.plugins.RegisterPlugin;
+
+/**
+ * Invalidates the read caches affected by write requests
+ *
+ * The documents written in a transaction are not committed yet when the
+ * write request completes and a concurrent read could cache them again with
+ * their previous version, or get the version ETag of the collection before
+ * the commit. The writes are therefore recorded by session and invalidated
+ * again, and the versions bumped, when the transaction commits.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+@RegisterPlugin(name = "readCachesInvalidator",
+        description = "invalidates the read caches affected by write requests",
+        interceptPoint = InterceptPoint.RESPONSE)
+public class ReadCachesInvalidator implements MongoInterceptor {
+    /**
+     * a write, id is null if it affects the whole collection
+     */
+    private static record Write(String db, String coll, BsonValue id) {}
+
+    // MongoDB aborts transactions running for more than 60 seconds by default
+    private static final long TXN_WRITES_TTL = 10 * 60 * 1_000;
+
+    // the writes of the transactions in progress by session id
+    private final Cache<String, Set<Write>> txnWrites = CacheFactory.createLocalCache(10_000, Cache.EXPIRE_POLICY.AFTER_WRITE, TXN_WRITES_TTL);
+
+    @Override
+    public void handle(MongoRequest request, MongoResponse response) throws Exception {
+        if (request.isTxn()) {
+            // PATCH commits, DELETE aborts the transaction
+            var sid = sid(request.getSid());
+            var writes = txnWrites.get(sid);
+            txnWrites.invalidate(sid);
+
+            if (request.isPatch() && !response.isInError()) {
+                if (writes != null && writes.isPresent()) {
+                    writes.get().forEach(this::invalidate);
+                } else {
+                    // the writes are unknown, e.g. executed by another node
+                    DocumentsCache.get().invalidateAll();
+                    CollectionVersions.get().bumpAll();
+                }
+            }
+
+            return;
+        }
+
+        var db = request.getDBName();
+        var coll = request.getCollectionName();
+        var docsCache = DocumentsCache.get();
+        var versions = CollectionVersions.get();
+
+        if (request.isDb()) {
+            // DELETE /db
+            docsCache.dropDb(db);
+            versions.dropDb(db);
+            return;
+        }
+
+        if (request.isCollection() && !request.isPost()) {
+            // PUT, PATCH or DELETE /coll, the cache settings might have changed
+            docsCache.drop(db, coll);
+            versions.drop(db, coll);
+            return;
+        }
+
+        final Write write;
+
+        if (request.isDocument()) {
+            write = new Write(db, coll, request.getDocumentId());
+        } else if (request.isCollection() && request.isPost()) {
+            var newData = response.getDbOperationResult() != null
+                ? response.getDbOperationResult().getNewData()
+                : null;
+
+            if (request.getContent() != null && request.getContent().isDocument()
+                && newData != null && newData.containsKey("_id")) {
+                // POST can upsert an existing document
+                write = new Write(db, coll, newData.get("_id"));
+            } else {
+                write = new Write(db, coll, null);
+            }
+        } else {
+            // bulk requests
+            write = new Write(db, coll, null);
+        }
+
+        invalidate(write);
+
+        if (request.getQueryParameters().containsKey(CLIENT_SESSION_KEY) && request.getQueryParameters().containsKey(TXNID_KEY)) {
+            var sid = sid(request.getQueryParameters().get(CLIENT_SESSION_KEY).getFirst());
+            txnWrites.asMap().compute(sid, (k, writes) -> {
+                var _writes = writes == null || writes.isEmpty() ? ConcurrentHashMap.<Write>newKeySet() : writes.get();
+                _writes.add(write);
+                return Optional.of(_writes);
+            });
+        }
+    }
+
+    private static String sid(String sid) {
+        try {
+            return UUID.fromString(sid).toString();
+        } catch(IllegalArgumentException iae) {
+            return sid;
+        }
+    }
+
+    private void invalidate(Write write) {
+        CollectionVersions.get().bump(write.db(), write.coll());
+
+        if (write.id() != null) {
+            DocumentsCache.get().invalidate(write.db(), write.coll(), write.id());
+        } else {
+            DocumentsCache.get().invalidateCollection(write.db(), write.coll());
+        }
+    }
+
+    @Override
+    public boolean resolve(MongoRequest request, MongoResponse response) {
+        return request.isHandledBy("mongo")
+            && (request.isTxn() && (request.isPatch() || request.isDelete())
+            || request.isDelete() && request.isDb()
+            || (request.isPut() || request.isPatch() || request.isDelete()) && (request.isCollection() || request.isDocument() || request.isBulkDocuments())
+            || request.isPost() && (request.isCollection() || request.isBulkDocuments()));
+    }
+}
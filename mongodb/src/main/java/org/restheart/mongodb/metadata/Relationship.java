@@ -200,6 +200,7 @@ public class Relationship {
     private final String targetDb;
     private final String targetCollection;
     private final String referenceField;
+    private final boolean referenceFieldIsJsonPath;
 
     /**
      *
@@ -223,6 +224,7 @@ public class Relationship {
         this.targetDb = targetDb;
         this.targetCollection = targetCollection;
         this.referenceField = referenceField;
+        this.referenceFieldIsJsonPath = referenceField != null && referenceField.startsWith("$.");
     }
 
     /**
@@ -270,6 +272,7 @@ public class Relationship {
         this.targetDb = targetDb;
         this.targetCollection = targetCollection;
         this.referenceField = referenceField;
+        this.referenceFieldIsJsonPath = referenceField != null && referenceField.startsWith("$.");
     }
 
     /**
@@ -365,7 +368,7 @@ public class Relationship {
     private BsonValue getReferenceFieldValue(
             String referenceField,
             BsonDocument data) {
-        if (referenceField.startsWith("$.")) {
+        if (referenceFieldIsJsonPath) {
             // it is a json path expression
 
             List<Optional<BsonValue>> objs;
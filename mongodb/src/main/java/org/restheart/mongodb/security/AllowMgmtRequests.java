@@ -82,6 +82,9 @@ public class AllowMgmtRequests extends BaseAllowInitializer implements Initializ
             (mongoRequest.isDbMeta()) || // db metadata
             (mongoRequest.isCollectionMeta()) || // collection metadata
             (mongoRequest.isFilesBucketMeta()) || // file bucket metadata
-            (mongoRequest.isSchemaStoreMeta()));
+            (mongoRequest.isSchemaStoreMeta()) || // schema store metadata
+
+            (mongoRequest.isSlowQueries()) || // slow queries
+            (mongoRequest.isExplain())); // query plans
     };
 }
@@ -23,6 +23,7 @@ package org.restheart.mongodb.utils;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
+import java.util.Arrays;
 import org.bson.BsonObjectId;
 import org.bson.BsonValue;
 import org.bson.types.ObjectId;
@@ -55,6 +56,37 @@ public class RequestHelper {
         return vs == null || vs.getFirst() == null ? false : vs.getFirst().equals(etag.getValue().toString());
     }
 
+    /**
+     *
+     * @param exchange
+     * @param etag a weak etag, e.g. W/"123"
+     * @return true if the IF_NONE_MATCH header matches the etag, using the
+     *         weak comparison
+     */
+    public static boolean checkWeakReadEtag(HttpServerExchange exchange, String etag) {
+        if (etag == null) {
+            return false;
+        }
+
+        HeaderValues vs = exchange.getRequestHeaders().get(Headers.IF_NONE_MATCH);
+
+        if (vs == null) {
+            return false;
+        }
+
+        var opaque = opaqueTag(etag);
+
+        return vs.stream()
+            .flatMap(v -> Arrays.stream(v.split(",")))
+            .map(RequestHelper::opaqueTag)
+            .anyMatch(opaque::equals);
+    }
+
+    private static String opaqueTag(String etag) {
+        var t = etag.strip();
+        return t.startsWith("W/") ? t.substring(2) : t;
+    }
+
     /**
      *
      * @param exchange
@@ -22,13 +22,16 @@ package org.restheart.mongodb.utils;
 
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
 
 import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
 
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.restheart.mongodb.MongoServiceConfiguration;
 import org.restheart.utils.HttpStatus;
 
 /**
@@ -36,6 +39,31 @@ import org.restheart.utils.HttpStatus;
  * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  */
 public class ResponseHelper {
+    /**
+     * the response header reporting the effective write concern
+     */
+    public static final HttpString WRITE_CONCERN_HEADER = HttpString.tryFromString("Write-Concern");
+
+    /**
+     * Set the Write-Concern response header to the effective write concern,
+     * e.g. {"w": "majority", "j": true}; default means the server default
+     *
+     * @param exchange
+     * @param writeConcern the write concern of the request, null if the
+     * default one of the mongo-uri was used
+     */
+    public static void injectWriteConcernHeader(final HttpServerExchange exchange, final WriteConcern writeConcern) {
+        var wc = writeConcern != null
+            ? writeConcern
+            : MongoServiceConfiguration.get() != null ? MongoServiceConfiguration.get().getMongoUri().getWriteConcern() : null;
+
+        if (wc == null || wc.isServerDefault()) {
+            exchange.getResponseHeaders().put(WRITE_CONCERN_HEADER, "default");
+        } else {
+            exchange.getResponseHeaders().put(WRITE_CONCERN_HEADER, wc.asDocument().toJson());
+        }
+    }
+
     /**
      * Set the ETag in the response's header
      *
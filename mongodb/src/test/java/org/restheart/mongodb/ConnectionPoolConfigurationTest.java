@@ -0,0 +1,52 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb;
+
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ConnectionPoolConfigurationTest {
+    @Test
+    public void testDefaults() {
+        assertSame(ConnectionPoolConfiguration.DEFAULT, ConnectionPoolConfiguration.from(null, ConnectionPoolConfiguration.DEFAULT, true));
+    }
+
+    @Test
+    public void testOverrideDefaults() {
+        var conf = ConnectionPoolConfiguration.from(Map.of("min-size", 8, "max-size", 256), ConnectionPoolConfiguration.DEFAULT, true);
+
+        assertEquals(8, conf.minSize());
+        assertEquals(256, conf.maxSize());
+        assertEquals(ConnectionPoolConfiguration.DEFAULT.maxWaitTime(), conf.maxWaitTime());
+        assertEquals(ConnectionPoolConfiguration.DEFAULT.maxConnecting(), conf.maxConnecting());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinGreaterThanMax() {
+        ConnectionPoolConfiguration.from(Map.of("min-size", 10, "max-size", 5), ConnectionPoolConfiguration.DEFAULT, true);
+    }
+}
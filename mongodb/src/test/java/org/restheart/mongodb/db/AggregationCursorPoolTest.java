@@ -0,0 +1,225 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import com.mongodb.MongoCursorNotFoundException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AggregationCursorPoolTest {
+    private static final List<BsonDocument> DOCS = IntStream.range(0, 25)
+        .mapToObj(n -> new BsonDocument("n", new BsonInt32(n)))
+        .toList();
+
+    private final AggregationCursorPool pool = AggregationCursorPool.getInstance();
+
+    @Test
+    public void testPaging() {
+        var key = key("testPaging", 0);
+        var executions = new ArrayList<Integer>();
+
+        var page1 = pool.page(key, 10, skip -> {
+            executions.add(skip);
+            return new ListCursor(DOCS, skip);
+        });
+
+        assertEquals(DOCS.subList(0, 10), page1);
+
+        // the next page continues the pooled cursor
+        var page2 = pool.page(key.withPosition(10), 10, skip -> {
+            executions.add(skip);
+            return new ListCursor(DOCS, skip);
+        });
+
+        assertEquals(DOCS.subList(10, 20), page2);
+        assertEquals(List.of(0), executions);
+
+        // the last page exhausts the cursor, that is closed and not pooled
+        var page3 = pool.page(key.withPosition(20), 10, skip -> {
+            throw new AssertionError("the pipeline must not be executed");
+        });
+
+        assertEquals(DOCS.subList(20, 25), page3);
+        assertNull(pool.get(key.withPosition(25)));
+    }
+
+    @Test
+    public void testPoolMissSkipsOnServer() {
+        var key = key("testPoolMissSkipsOnServer", 20);
+        var cursor = new AtomicInteger(-1);
+
+        var page = pool.page(key, 10, skip -> {
+            cursor.set(skip);
+            return new ListCursor(DOCS, skip);
+        });
+
+        // the executor is asked to skip the previous pages
+        assertEquals(20, cursor.get());
+        assertEquals(DOCS.subList(20, 25), page);
+    }
+
+    @Test
+    public void testCursorNotFound() {
+        var key = key("testCursorNotFound", 0);
+        var expired = new ListCursor(DOCS, 0);
+
+        pool.page(key, 5, skip -> expired);
+        expired.failWith(new MongoCursorNotFoundException(1, new ServerAddress()));
+
+        // the expired cursor is closed and the pipeline executed again
+        var page = pool.page(key.withPosition(5), 5, skip -> new ListCursor(DOCS, skip));
+
+        assertEquals(DOCS.subList(5, 10), page);
+        assertTrue(expired.closed);
+    }
+
+    @Test
+    public void testErrorClosesCursor() {
+        var key = key("testErrorClosesCursor", 0);
+        var cursor = new ListCursor(DOCS, 0);
+
+        pool.page(key, 5, skip -> cursor);
+        cursor.failWith(new MongoSocketReadException("network error", new ServerAddress()));
+
+        assertThrows(MongoSocketReadException.class, () -> pool.page(key.withPosition(5), 5, skip -> new ListCursor(DOCS, skip)));
+
+        // the cursor is neither leaked nor put back in the pool
+        assertTrue(cursor.closed);
+        assertNull(pool.get(key.withPosition(5)));
+        assertNull(pool.get(key.withPosition(10)));
+    }
+
+    @Test
+    public void testClaimedOnce() {
+        var key = key("testClaimedOnce", 0);
+        var cursor = new ListCursor(DOCS, 0);
+
+        pool.put(key, cursor);
+
+        assertSame(cursor, pool.get(key));
+        assertNull(pool.get(key));
+        assertFalse(cursor.closed);
+    }
+
+    @Test
+    public void testReadOptions() {
+        var key = key("testReadOptions", 0);
+
+        pool.page(key, 5, skip -> new ListCursor(DOCS, skip));
+
+        var secondary = new AggregationCursorPoolEntryKey(key.namespace(), key.stages(), false, ReadPreference.secondary(), ReadConcern.MAJORITY, 5);
+        var local = new AggregationCursorPoolEntryKey(key.namespace(), key.stages(), false, ReadPreference.primary(), ReadConcern.LOCAL, 5);
+
+        // the cursor opened with other read options is not reused
+        assertNull(pool.get(secondary));
+        assertNull(pool.get(local));
+        assertTrue(pool.get(key.withPosition(5)) != null);
+    }
+
+    private static AggregationCursorPoolEntryKey key(String ns, int position) {
+        return new AggregationCursorPoolEntryKey("db." + ns, List.of(new BsonDocument("$match", new BsonDocument("a", new BsonString("a")))), false, ReadPreference.primary(), ReadConcern.MAJORITY, position);
+    }
+
+    /**
+     * a cursor over a list of documents, that can be made fail
+     */
+    private static class ListCursor implements MongoCursor<BsonDocument> {
+        private final List<BsonDocument> docs;
+        private int position;
+        private RuntimeException error = null;
+        private boolean closed = false;
+
+        ListCursor(List<BsonDocument> docs, int skip) {
+            this.docs = docs;
+            this.position = skip;
+        }
+
+        void failWith(RuntimeException error) {
+            this.error = error;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (error != null) {
+                throw error;
+            }
+
+            return position < docs.size();
+        }
+
+        @Override
+        public BsonDocument next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return docs.get(position++);
+        }
+
+        @Override
+        public int available() {
+            return docs.size() - position;
+        }
+
+        @Override
+        public BsonDocument tryNext() {
+            return hasNext() ? next() : null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return position < docs.size() ? new ServerCursor(1, new ServerAddress()) : null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+    }
+}
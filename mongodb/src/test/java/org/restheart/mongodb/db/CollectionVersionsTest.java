@@ -0,0 +1,84 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import org.bson.BsonDocument;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import org.junit.Test;
+import org.restheart.mongodb.db.CollectionVersions.Settings;
+import org.restheart.mongodb.db.DocumentsCache.INVALIDATION;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CollectionVersionsTest {
+    // the period never changes during the test
+    private static final Settings SETTINGS = new Settings(Long.MAX_VALUE, INVALIDATION.WRITES);
+
+    @Test
+    public void testSettings() {
+        assertFalse(Settings.from(null).isPresent());
+        assertFalse(Settings.from(BsonDocument.parse("{'_id': 'coll'}")).isPresent());
+        assertFalse(Settings.from(BsonDocument.parse("{'versionETag': {'invalidation': 'NEVER'}}")).isPresent());
+        // the version must change periodically
+        assertFalse(Settings.from(BsonDocument.parse("{'versionETag': {'ttl': 0}}")).isPresent());
+        assertThrows(IllegalArgumentException.class, () -> new Settings(-1, INVALIDATION.WRITES));
+
+        assertEquals(new Settings(60_000, INVALIDATION.WRITES), Settings.from(BsonDocument.parse("{'versionETag': {}}")).get());
+        assertEquals(new Settings(1_000, INVALIDATION.CHANGE_STREAM),
+            Settings.from(BsonDocument.parse("{'versionETag': {'ttl': 1000, 'invalidation': 'CHANGE_STREAM'}}")).get());
+    }
+
+    @Test
+    public void testVersion() {
+        var versions = CollectionVersions.get();
+
+        var v1 = versions.version("testVersion", "coll", SETTINGS);
+        assertEquals(v1, versions.version("testVersion", "coll", SETTINGS));
+
+        versions.bump("testVersion", "other");
+        assertEquals(v1, versions.version("testVersion", "coll", SETTINGS));
+
+        versions.bump("testVersion", "coll");
+        var v2 = versions.version("testVersion", "coll", SETTINGS);
+        assertNotEquals(v1, v2);
+
+        // a dropped version is never reused
+        versions.drop("testVersion", "coll");
+        var v3 = versions.version("testVersion", "coll", SETTINGS);
+        assertNotEquals(v1, v3);
+        assertNotEquals(v2, v3);
+
+        versions.dropDb("testVersion");
+        var v4 = versions.version("testVersion", "coll", SETTINGS);
+        assertNotEquals(v3, v4);
+
+        // updated settings change the version
+        assertNotEquals(v4, versions.version("testVersion", "coll", new Settings(60_000, INVALIDATION.WRITES)));
+
+        versions.bumpAll();
+        assertNotEquals(v4, versions.version("testVersion", "coll", SETTINGS));
+    }
+}
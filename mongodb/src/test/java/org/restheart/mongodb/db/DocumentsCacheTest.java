@@ -0,0 +1,170 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.cache.CacheRegistry;
+import org.restheart.mongodb.db.DocumentsCache.DocKey;
+import org.restheart.mongodb.db.DocumentsCache.INVALIDATION;
+import org.restheart.mongodb.db.DocumentsCache.Settings;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class DocumentsCacheTest {
+    private static final Settings SETTINGS = new Settings(100, 60_000, INVALIDATION.WRITES);
+    private static final BsonDocument NO_KEYS = new BsonDocument();
+    private static final BsonDocument NO_FILTER = new BsonDocument();
+
+    @Test
+    public void testSettings() {
+        assertFalse(Settings.from(null).isPresent());
+        assertFalse(Settings.from(BsonDocument.parse("{'_id': 'coll'}")).isPresent());
+        assertFalse(Settings.from(BsonDocument.parse("{'docCache': {'size': 0}}")).isPresent());
+        // cached documents must expire
+        assertFalse(Settings.from(BsonDocument.parse("{'docCache': {'ttl': 0}}")).isPresent());
+        assertFalse(Settings.from(BsonDocument.parse("{'docCache': {'invalidation': 'NEVER'}}")).isPresent());
+
+        assertEquals(new Settings(1_000, 60_000, INVALIDATION.WRITES), Settings.from(BsonDocument.parse("{'docCache': {}}")).get());
+        assertEquals(new Settings(10, 1_000, INVALIDATION.CHANGE_STREAM),
+            Settings.from(BsonDocument.parse("{'docCache': {'size': 10, 'ttl': 1000, 'invalidation': 'change-stream'}}")).get());
+    }
+
+    @Test
+    public void testGetPut() {
+        var cache = DocumentsCache.get();
+        var key = new DocKey(new BsonInt32(1), NO_KEYS, NO_FILTER);
+        var doc = doc(1);
+
+        assertFalse(cache.get("testGetPut", "coll", SETTINGS, key).isPresent());
+
+        cache.put("testGetPut", "coll", SETTINGS, key, doc, cache.generation("testGetPut", "coll", SETTINGS));
+
+        // the cache stores and returns copies
+        doc.put("a", new BsonString("changed"));
+        var cached = cache.get("testGetPut", "coll", SETTINGS, key).get();
+        assertEquals(doc(1), cached);
+        cached.put("a", new BsonString("changed"));
+        assertEquals(doc(1), cache.get("testGetPut", "coll", SETTINGS, key).get());
+
+        // keys and filter are part of the key
+        assertFalse(cache.get("testGetPut", "coll", SETTINGS, new DocKey(new BsonInt32(1), BsonDocument.parse("{'a': 1}"), NO_FILTER)).isPresent());
+        assertFalse(cache.get("testGetPut", "coll", SETTINGS, new DocKey(new BsonInt32(1), NO_KEYS, BsonDocument.parse("{'filter': {'a': 1}}"))).isPresent());
+        assertFalse(cache.get("testGetPut", "other", SETTINGS, key).isPresent());
+
+        // updated settings drop the cached documents
+        assertFalse(cache.get("testGetPut", "coll", new Settings(10, 60_000, INVALIDATION.WRITES), key).isPresent());
+    }
+
+    @Test
+    public void testInvalidate() {
+        var cache = DocumentsCache.get();
+        var key1 = new DocKey(new BsonInt32(1), NO_KEYS, NO_FILTER);
+        var key1WithKeys = new DocKey(new BsonInt32(1), BsonDocument.parse("{'a': 1}"), NO_FILTER);
+        var key2 = new DocKey(new BsonInt32(2), NO_KEYS, NO_FILTER);
+
+        cache.put("testInvalidate", "coll", SETTINGS, key1, doc(1), cache.generation("testInvalidate", "coll", SETTINGS));
+        cache.put("testInvalidate", "coll", SETTINGS, key1WithKeys, doc(1), cache.generation("testInvalidate", "coll", SETTINGS));
+        cache.put("testInvalidate", "coll", SETTINGS, key2, doc(2), cache.generation("testInvalidate", "coll", SETTINGS));
+
+        cache.invalidate("testInvalidate", "coll", new BsonInt32(1));
+
+        assertFalse(cache.get("testInvalidate", "coll", SETTINGS, key1).isPresent());
+        assertFalse(cache.get("testInvalidate", "coll", SETTINGS, key1WithKeys).isPresent());
+        assertTrue(cache.get("testInvalidate", "coll", SETTINGS, key2).isPresent());
+
+        cache.invalidateCollection("testInvalidate", "coll");
+        assertFalse(cache.get("testInvalidate", "coll", SETTINGS, key2).isPresent());
+
+        cache.put("testInvalidate", "coll", SETTINGS, key2, doc(2), cache.generation("testInvalidate", "coll", SETTINGS));
+        cache.dropDb("testInvalidate");
+        assertFalse(cache.get("testInvalidate", "coll", SETTINGS, key2).isPresent());
+    }
+
+    @Test
+    public void testInvalidatedWhileReading() {
+        var cache = DocumentsCache.get();
+        var key1 = new DocKey(new BsonInt32(1), NO_KEYS, NO_FILTER);
+        var key2 = new DocKey(new BsonInt32(2), NO_KEYS, NO_FILTER);
+
+        // a document read before an invalidation is not cached
+        var generation = cache.generation("testInvalidatedWhileReading", "coll", SETTINGS);
+        cache.invalidate("testInvalidatedWhileReading", "coll", new BsonInt32(1));
+        cache.put("testInvalidatedWhileReading", "coll", SETTINGS, key1, doc(1), generation);
+        assertFalse(cache.get("testInvalidatedWhileReading", "coll", SETTINGS, key1).isPresent());
+
+        generation = cache.generation("testInvalidatedWhileReading", "coll", SETTINGS);
+        cache.invalidateAll();
+        cache.put("testInvalidatedWhileReading", "coll", SETTINGS, key2, doc(2), generation);
+        assertFalse(cache.get("testInvalidatedWhileReading", "coll", SETTINGS, key2).isPresent());
+
+        generation = cache.generation("testInvalidatedWhileReading", "coll", SETTINGS);
+        cache.put("testInvalidatedWhileReading", "coll", SETTINGS, key2, doc(2), generation);
+        assertTrue(cache.get("testInvalidatedWhileReading", "coll", SETTINGS, key2).isPresent());
+    }
+
+    @Test
+    public void testRegisteredCacheIsTheLiveOne() throws Exception {
+        var cache = DocumentsCache.get();
+        var key = new DocKey(new BsonInt32(1), NO_KEYS, NO_FILTER);
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // concurrent first reads race to create the collection cache
+            var reads = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(() -> {
+                    start.await();
+                    return cache.get("testRegistered", "coll", SETTINGS, key);
+                }))
+                .collect(Collectors.toList());
+
+            start.countDown();
+
+            for (var read : reads) {
+                read.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        cache.put("testRegistered", "coll", SETTINGS, key, doc(1), cache.generation("testRegistered", "coll", SETTINGS));
+
+        // the registered cache is the one that holds the documents
+        var registered = CacheRegistry.getInstance().get("mongo.docs.testRegistered.coll");
+        assertTrue(registered.asMap().containsKey(key));
+    }
+
+    private static BsonDocument doc(int id) {
+        return new BsonDocument("_id", new BsonInt32(id)).append("a", new BsonString("a"));
+    }
+}
@@ -0,0 +1,99 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.mongodb.db.IndexBuilds.STATUS;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class IndexBuildsTest {
+    private static final BsonDocument KEYS = new BsonDocument("a", new BsonInt32(1));
+
+    @Test
+    public void testBuild() throws Exception {
+        var builds = new IndexBuilds(Executors.newSingleThreadExecutor());
+        var started = new CountDownLatch(1);
+        var proceed = new CountDownLatch(1);
+
+        var build = builds.submit("db", "coll", "a_1", KEYS, () -> {
+            started.countDown();
+            await(proceed);
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(STATUS.RUNNING, build.getStatus());
+        assertEquals(1, builds.getIndexBuilds("db", "coll").size());
+        assertTrue(builds.getIndexBuilds("db", "other").isEmpty());
+
+        // the same index cannot be built twice at the same time
+        assertThrows(IllegalStateException.class, () -> builds.submit("db", "coll", "a_1", KEYS, () -> {}));
+
+        proceed.countDown();
+        waitFinished(build);
+
+        assertEquals(STATUS.COMPLETED, build.getStatus());
+        assertEquals("COMPLETED", build.asBson(null).getDocument("_build").getString("status").getValue());
+    }
+
+    @Test
+    public void testFailedBuild() throws Exception {
+        var builds = new IndexBuilds(Executors.newSingleThreadExecutor());
+
+        var build = builds.submit("db", "coll", "a_1", KEYS, () -> {
+            throw new IllegalArgumentException("duplicate key");
+        });
+
+        waitFinished(build);
+
+        assertEquals(STATUS.FAILED, build.getStatus());
+        assertEquals("duplicate key", build.getError());
+
+        // a failed build can be retried
+        var retry = builds.submit("db", "coll", "a_1", KEYS, () -> {});
+        waitFinished(retry);
+        assertEquals(STATUS.COMPLETED, retry.getStatus());
+    }
+
+    private static void waitFinished(IndexBuilds.IndexBuild build) throws InterruptedException {
+        for (var n = 0; n < 500 && build.getStatus() == STATUS.RUNNING; n++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.BsonDocument;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.mongodb.db.SlowQueries.SlowQuery;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class SlowQueriesTest {
+    @Test
+    public void testDisabled() {
+        var slowQueries = new SlowQueries(0, 10);
+
+        assertFalse(slowQueries.isEnabled());
+        slowQueries.record(query("db", "coll", 1000));
+        assertTrue(slowQueries.snapshot(null, null).isEmpty());
+    }
+
+    @Test
+    public void testThreshold() {
+        var slowQueries = new SlowQueries(100, 10);
+
+        slowQueries.record(query("db", "coll", 99));
+        slowQueries.record(query("db", "coll", 100));
+
+        assertEquals(1, slowQueries.snapshot(null, null).size());
+    }
+
+    @Test
+    public void testRingBuffer() {
+        var slowQueries = new SlowQueries(1, 3);
+
+        for (var n = 1; n <= 5; n++) {
+            slowQueries.record(query("db", "coll", n));
+        }
+
+        var snapshot = slowQueries.snapshot(null, null);
+
+        assertEquals(3, snapshot.size());
+        // newest first
+        assertEquals(5, snapshot.get(0).elapsed());
+        assertEquals(3, snapshot.get(2).elapsed());
+    }
+
+    @Test
+    public void testFilter() {
+        var slowQueries = new SlowQueries(1, 10);
+
+        slowQueries.record(query("db1", "coll1", 10));
+        slowQueries.record(query("db1", "coll2", 10));
+        slowQueries.record(query("db2", "coll1", 10));
+
+        assertEquals(2, slowQueries.snapshot("db1", null).size());
+        assertEquals(1, slowQueries.snapshot("db1", "coll2").size());
+        assertEquals(0, slowQueries.snapshot("db3", null).size());
+    }
+
+    @Test
+    public void testPlanSummary() {
+        var explain = BsonDocument.parse("{'queryPlanner': {'winningPlan': {'stage': 'LIMIT', 'inputStage': {'stage': 'FETCH', 'inputStage': {'stage': 'IXSCAN', 'keyPattern': {'a': 1}}}}}}");
+
+        assertEquals("LIMIT > FETCH > IXSCAN {\"a\": 1}", SlowQueries.planSummary(explain));
+        assertEquals("n/a", SlowQueries.planSummary(new BsonDocument()));
+    }
+
+    @Test
+    public void testAsyncExplain() {
+        var explained = new AtomicInteger(0);
+        var slowQueries = new SlowQueries(100, 10, Runnable::run);
+        var explain = BsonDocument.parse("{'queryPlanner': {'winningPlan': {'stage': 'COLLSCAN'}}}");
+
+        // fast queries are not explained
+        slowQueries.record(query("db", "coll", 10), () -> {
+            explained.incrementAndGet();
+            return explain;
+        });
+
+        slowQueries.record(query("db", "coll", 100), () -> {
+            explained.incrementAndGet();
+            return explain;
+        });
+
+        slowQueries.record(query("db", "coll", 100), () -> {
+            throw new IllegalStateException("explain failed");
+        });
+
+        var snapshot = slowQueries.snapshot(null, null);
+
+        assertEquals(1, explained.get());
+        assertEquals(2, snapshot.size());
+        assertEquals("n/a", snapshot.get(0).plan());
+        assertEquals("COLLSCAN", snapshot.get(1).plan());
+    }
+
+    @Test
+    public void testExplainQueueFull() {
+        var explained = new AtomicInteger(0);
+        var slowQueries = new SlowQueries(100, 10, r -> {
+            throw new RejectedExecutionException();
+        });
+
+        slowQueries.record(query("db", "coll", 100), () -> {
+            explained.incrementAndGet();
+            return new BsonDocument();
+        });
+
+        var snapshot = slowQueries.snapshot(null, null);
+
+        // recorded without explaining it
+        assertEquals(0, explained.get());
+        assertEquals(1, snapshot.size());
+        assertEquals("n/a", snapshot.get(0).plan());
+    }
+
+    private static SlowQuery query(String db, String coll, long elapsed) {
+        return new SlowQuery(System.currentTimeMillis(), db, coll, new BsonDocument(), null, null, null, null, 1, 100, elapsed, "COLLSCAN");
+    }
+}
@@ -0,0 +1,143 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.db.sessions;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.internal.session.ServerSessionPool;
+import com.mongodb.session.ServerSession;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.BsonBinary;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ClientSessionsPoolTest {
+    private final AtomicInteger created = new AtomicInteger(0);
+
+    @Test
+    public void testReuse() {
+        var pool = new ClientSessionsPool(10, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var cs = pool.acquire(sid, this::create);
+        pool.release(sid, cs);
+
+        Assert.assertSame(cs, pool.acquire(sid, this::create));
+        Assert.assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testNoConcurrentUse() {
+        var pool = new ClientSessionsPool(10, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var cs1 = pool.acquire(sid, this::create);
+        var cs2 = pool.acquire(sid, this::create);
+
+        Assert.assertNotSame(cs1, cs2);
+        Assert.assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testInvalidateClosesIdleSessions() {
+        var pool = new ClientSessionsPool(10, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var cs = pool.acquire(sid, this::create);
+        pool.release(sid, cs);
+        pool.invalidate(sid);
+
+        Assert.assertTrue(cs.getServerSession().isClosed());
+        Assert.assertNotSame(cs, pool.acquire(sid, this::create));
+    }
+
+    @Test
+    public void testInvalidatedInUseNotPooled() {
+        var pool = new ClientSessionsPool(10, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var idle = pool.acquire(sid, () -> create(sid));
+        var inUse = pool.acquire(sid, () -> create(sid));
+        var inUseServerSession = inUse.getServerSession();
+        pool.release(sid, idle);
+
+        // the request using inUse fails with NoSuchSession
+        pool.invalidate(inUse);
+        pool.release(sid, inUse);
+
+        Assert.assertTrue(idle.getServerSession().isClosed());
+        Assert.assertTrue(inUseServerSession.isClosed());
+
+        var next = pool.acquire(sid, () -> create(sid));
+        Assert.assertNotSame(idle, next);
+        Assert.assertNotSame(inUse, next);
+    }
+
+    @Test
+    public void testMaxIdlePerSid() {
+        var pool = new ClientSessionsPool(10, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var sessions = new ClientSessionImpl[ClientSessionsPool.MAX_IDLE_PER_SID + 1];
+
+        for (var n = 0; n < sessions.length; n++) {
+            sessions[n] = pool.acquire(sid, this::create);
+        }
+
+        for (var cs: sessions) {
+            pool.release(sid, cs);
+        }
+
+        Assert.assertTrue(sessions[sessions.length - 1].getServerSession().isClosed());
+    }
+
+    @Test
+    public void testDisabled() {
+        var pool = new ClientSessionsPool(0, 60_000);
+        var sid = Sid.randomUUID(new SessionOptions(true));
+
+        var cs = pool.acquire(sid, this::create);
+        pool.release(sid, cs);
+
+        Assert.assertNotSame(cs, pool.acquire(sid, this::create));
+    }
+
+    private ClientSessionImpl create() {
+        return create(UUID.randomUUID());
+    }
+
+    private ClientSessionImpl create(UUID sid) {
+        created.incrementAndGet();
+
+        var serverSessions = new ServerSessionPool(null, null) {
+            @Override
+            public ServerSession get() {
+                return new ServerSessionImpl(new BsonBinary(sid));
+            }
+        };
+
+        return new ClientSessionImpl(serverSessions, this, ClientSessionOptions.builder().build());
+    }
+}
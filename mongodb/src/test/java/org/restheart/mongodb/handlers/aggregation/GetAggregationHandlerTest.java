@@ -18,27 +18,31 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  * =========================LICENSE_END==================================
  */
-package org.restheart.mongodb.handlers.changestreams;
+package org.restheart.mongodb.handlers.aggregation;
+
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
 
 /**
  *
- * @author omartrasatti
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
  */
-public class ChangeStreamNotification {
-
-    private final SessionKey sessionKey;
-    private final String notificationMessage;
+public class GetAggregationHandlerTest {
+    @Test
+    public void testWithSkip() {
+        var stages = List.of(BsonDocument.parse("{'$match': {'a': 1}}"));
 
-    public ChangeStreamNotification(SessionKey sessionKey, String notificationMessage) {
-        this.sessionKey = sessionKey;
-        this.notificationMessage = notificationMessage;
-    }
-
-    public SessionKey getSessionKey() {
-        return this.sessionKey;
-    }
+        assertSame(stages, GetAggregationHandler.withSkip(stages, 0));
 
-    public String getNotificationMessage() {
-        return this.notificationMessage;
+        var skipped = GetAggregationHandler.withSkip(stages, 20);
+        assertEquals(2, skipped.size());
+        assertEquals(stages.get(0), skipped.get(0));
+        assertEquals(new BsonDocument("$skip", new BsonInt32(20)), skipped.get(1));
+        // the stages are not modified
+        assertEquals(1, stages.size());
     }
 }
@@ -0,0 +1,58 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.json.JsonMode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ChangeStreamSseTest {
+    @Test
+    public void testEventId() {
+        var token = new BsonDocument("_data", new BsonString("8263F0A1B2000000012B"));
+
+        assertEquals("8263F0A1B2000000012B", ChangeStreamSubscriber.eventId(token));
+        assertNull(ChangeStreamSubscriber.eventId(null));
+        assertNull(ChangeStreamSubscriber.eventId(new BsonDocument("_data", new BsonBinary(new byte[] { 1 }))));
+    }
+
+    @Test
+    public void testSessionKeyWithResumeToken() {
+        var avars = new BsonDocument();
+
+        var shared = new SessionKey("/db/coll/_streams/all", avars, JsonMode.RELAXED);
+        var sharedToo = new SessionKey("/db/coll/_streams/all", avars, JsonMode.RELAXED, null);
+        var resumed = new SessionKey("/db/coll/_streams/all", avars, JsonMode.RELAXED, "8263F0A1B2000000012B");
+
+        assertEquals(shared, sharedToo);
+        assertNotEquals(shared, resumed);
+        assertEquals(resumed, new SessionKey("/db/coll/_streams/all", avars, JsonMode.RELAXED, "8263F0A1B2000000012B"));
+    }
+}
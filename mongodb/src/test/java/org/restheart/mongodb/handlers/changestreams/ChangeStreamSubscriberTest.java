@@ -0,0 +1,60 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import java.util.List;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import org.reactivestreams.Subscription;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ChangeStreamSubscriberTest {
+    @Test
+    public void testNotificationResetsRestarts() {
+        var sessionKey = new SessionKey("/db/coll/_streams/restarts", new BsonDocument(), JsonMode.RELAXED);
+
+        // a subscriber that already restarted the stream 3 times
+        var subscriber = new ChangeStreamSubscriber(sessionKey, List.of(), "db", "coll", true, null, 3);
+        subscriber.onSubscribe(mock(Subscription.class));
+
+        assertEquals(3, subscriber.getRestarts());
+
+        var token = new BsonDocument("_data", new BsonString("8263F0A1B2000000012B"));
+        var notification = new ChangeStreamDocument<Document>(OperationType.INSERT, token, null, null, null, new BsonDocument("_id", new BsonString("a")), null, null, null, null);
+
+        subscriber.onNext(notification);
+
+        assertEquals(0, subscriber.getRestarts());
+        assertEquals(token, subscriber.getResumeToken());
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.changestreams;
+
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.bson.json.JsonMode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class ChangeStreamsRegistryTest {
+    @Test
+    public void testIndexes() {
+        var registry = new ChangeStreamsRegistry();
+
+        var k1 = key("/db/coll/_streams/all");
+        var k2 = key("/db/coll/_streams/inserts");
+        var k3 = key("/db/other/_streams/all");
+        var k4 = key("/db2/coll/_streams/all");
+
+        registry.put(k1, new SessionInfo("db", "coll", "all"));
+        registry.put(k2, new SessionInfo("db", "coll", "inserts"));
+        registry.put(k3, new SessionInfo("db", "other", "all"));
+        registry.put(k4, new SessionInfo("db2", "coll", "all"));
+
+        assertEquals(Set.of(k1, k2, k3), registry.getSessionKeysOnDb("db"));
+        assertEquals(Set.of(k1, k2), registry.getSessionKeysOnCollection("db", "coll"));
+        assertEquals(Set.of(k2), registry.getSessionKeysOnOperation("db", "coll", "inserts"));
+        assertEquals(Set.of(k4), registry.getSessionKeysOnCollection("db2", "coll"));
+    }
+
+    @Test
+    public void testRemove() {
+        var registry = new ChangeStreamsRegistry();
+
+        var k1 = key("/db/coll/_streams/all");
+        var k2 = key("/db/coll/_streams/inserts");
+
+        registry.put(k1, new SessionInfo("db", "coll", "all"));
+        registry.put(k2, new SessionInfo("db", "coll", "inserts"));
+
+        registry.remove(k1);
+
+        assertEquals(Set.of(k2), registry.getSessionKeysOnDb("db"));
+        assertEquals(Set.of(k2), registry.getSessionKeysOnCollection("db", "coll"));
+
+        registry.remove(k2);
+
+        assertTrue(registry.getSessionKeysOnDb("db").isEmpty());
+        assertTrue(registry.getSessionKeysOnCollection("db", "coll").isEmpty());
+        assertTrue(registry.getSessionKeysOnDb(null).isEmpty());
+    }
+
+    private static SessionKey key(String url) {
+        return new SessionKey(url, new BsonDocument(), JsonMode.RELAXED);
+    }
+}
@@ -0,0 +1,158 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-mongodb
+ * %%
+ * Copyright (C) 2014 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.mongodb.handlers.schema;
+
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.utils.BsonUtils;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class BsonSchemaTest {
+    private static final String SCHEMA = """
+        {
+            "$schema": "http://json-schema.org/draft-04/schema#",
+            "type": "object",
+            "properties": {
+                "_id": { "type": "object", "properties": { "$oid": { "type": "string" } } },
+                "name": { "type": "string", "minLength": 2, "pattern": "^[A-Z]" },
+                "age": { "type": "integer", "minimum": 0, "maximum": 150, "exclusiveMaximum": true },
+                "score": { "type": "number", "multipleOf": 0.5 },
+                "kind": { "enum": [ "a", "b", 1 ] },
+                "tags": { "type": "array", "items": { "type": "string" }, "uniqueItems": true, "maxItems": 3 },
+                "address": { "$ref": "#/definitions/address" },
+                "contact": { "oneOf": [ { "type": "string" }, { "type": "integer" } ] }
+            },
+            "required": [ "name" ],
+            "additionalProperties": false,
+            "definitions": {
+                "address": {
+                    "type": "object",
+                    "properties": { "city": { "type": "string" } },
+                    "required": [ "city" ]
+                }
+            }
+        }
+        """;
+
+    private static final List<String> DOCS = List.of(
+        "{ 'name': 'Andrea' }",
+        "{ 'name': 'A' }",
+        "{ 'name': 'andrea' }",
+        "{ 'age': 10 }",
+        "{ 'name': 'Andrea', 'age': 150 }",
+        "{ 'name': 'Andrea', 'age': 10.5 }",
+        "{ 'name': 'Andrea', 'age': { '$numberLong': '10' } }",
+        "{ 'name': 'Andrea', 'score': 1.5 }",
+        "{ 'name': 'Andrea', 'score': 1.2 }",
+        "{ 'name': 'Andrea', 'kind': 'b' }",
+        "{ 'name': 'Andrea', 'kind': 1.0 }",
+        "{ 'name': 'Andrea', 'kind': 'c' }",
+        "{ 'name': 'Andrea', 'tags': [ 'x', 'y' ] }",
+        "{ 'name': 'Andrea', 'tags': [ 'x', 'x' ] }",
+        "{ 'name': 'Andrea', 'tags': [ 'x', 1 ] }",
+        "{ 'name': 'Andrea', 'tags': [ 'x', 'y', 'z', 'w' ] }",
+        "{ 'name': 'Andrea', 'address': { 'city': 'Rome' } }",
+        "{ 'name': 'Andrea', 'address': { 'zip': '00100' } }",
+        "{ 'name': 'Andrea', 'contact': 'a@b.c' }",
+        "{ 'name': 'Andrea', 'contact': true }",
+        "{ 'name': 'Andrea', 'other': true }",
+        "{ 'name': 'Andrea', '_id': { '$oid': '5d0b3b4f9d6d2c0001a1b2c3' } }",
+        "{ 'name': 'Andrea', '_id': 'string id' }");
+
+    @Test
+    public void testSameResultsAsEverit() {
+        var bsonSchema = BsonSchema.compile(schema(SCHEMA));
+        var everitSchema = SchemaLoader.load(new JSONObject(SCHEMA));
+
+        assertTrue(bsonSchema.isSupported());
+
+        for (var json : DOCS) {
+            var doc = BsonDocument.parse(json);
+
+            assertEquals(json, isValid(everitSchema, doc), bsonSchema.validate(doc, null).isEmpty());
+        }
+    }
+
+    @Test
+    public void testObjectIdIsCheckedAsExtendedJson() {
+        var schema = BsonSchema.compile(schema("{ 'properties': { '_id': { 'type': 'object', 'required': [ '$oid' ] } } }"));
+
+        assertTrue(schema.validate(new BsonDocument("_id", new BsonObjectId()), null).isEmpty());
+        assertFalse(BsonSchema.compile(schema("{ 'properties': { '_id': { 'type': 'string' } } }"))
+            .validate(new BsonDocument("_id", new BsonObjectId()), null).isEmpty());
+    }
+
+    @Test
+    public void testErrorPaths() {
+        var schema = BsonSchema.compile(schema(SCHEMA));
+
+        var errors = schema.validate(BsonDocument.parse("{ 'address': { 'city': 1 } }"), null);
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.contains("#: required key [name] not found"));
+        assertTrue(errors.contains("#/address/city: expected type: string, found: integer"));
+    }
+
+    @Test
+    public void testUnsupportedKeywords() {
+        assertFalse(BsonSchema.compile(schema("{ 'properties': { 'email': { 'type': 'string', 'format': 'email' } } }")).isSupported());
+        assertFalse(BsonSchema.compile(schema("{ 'properties': { 'a': { '$ref': 'mongodb://app/db/_schemas/a#' } } }")).isSupported());
+    }
+
+    @Test
+    public void testRecursiveRef() {
+        var schema = BsonSchema.compile(schema("{ 'type': 'object', 'properties': { 'child': { '$ref': '#' }, 'v': { 'type': 'integer' } } }"));
+
+        assertTrue(schema.isSupported());
+        assertTrue(schema.validate(BsonDocument.parse("{ 'v': 1, 'child': { 'v': 2, 'child': { 'v': 3 } } }"), null).isEmpty());
+        assertEquals(List.of("#/child/child/v: expected type: integer, found: string"),
+            schema.validate(BsonDocument.parse("{ 'v': 1, 'child': { 'v': 2, 'child': { 'v': 'x' } } }"), null));
+    }
+
+    /**
+     * parses the schema as RESTHeart does, i.e. with escaped $ prefixed keys
+     */
+    private static BsonDocument schema(String json) {
+        var escaped = json.replace("\"$", "\"_$").replace("'$", "'_$");
+        return BsonUtils.unescapeKeys(BsonDocument.parse(escaped)).asDocument();
+    }
+
+    private static boolean isValid(Schema schema, BsonDocument doc) {
+        try {
+            schema.validate(new JSONObject(BsonUtils.toJson(doc, null)));
+            return true;
+        } catch (ValidationException ve) {
+            return false;
+        }
+    }
+}
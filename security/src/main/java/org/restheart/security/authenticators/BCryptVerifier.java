@@ -0,0 +1,164 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.mindrot.jbcrypt.BCrypt;
+import org.restheart.plugins.security.AuthenticatorOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies bcrypt hashed passwords on a bounded, dedicated executor, so that
+ * a burst of logins cannot occupy all the worker threads with the CPU
+ * intensive bcrypt check.
+ *
+ * Concurrent verifications of the same credentials share a single
+ * computation. When the queue is full, or a verification is not completed
+ * within the timeout, an AuthenticatorOverloadedException is thrown and the
+ * request is rejected with 503 Service Unavailable.
+ *
+ * The metrics are registered in the AUTH shared metric registry.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class BCryptVerifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptVerifier.class);
+
+    private static final MetricRegistry AUTH_METRIC_REGISTRY = SharedMetricRegistries.getOrCreate("AUTH");
+
+    private static final String LATENCY_METRIC = name(BCryptVerifier.class, "latency");
+    private static final String QUEUE_DEPTH_METRIC = name(BCryptVerifier.class, "queue-depth");
+    private static final String IN_FLIGHT_METRIC = name(BCryptVerifier.class, "in-flight");
+    private static final String COALESCED_METRIC = name(BCryptVerifier.class, "coalesced");
+    private static final String REJECTED_METRIC = name(BCryptVerifier.class, "rejected");
+
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer latency;
+    private final Meter coalesced;
+    private final Meter rejected;
+
+    /**
+     *
+     * @param threads the number of threads verifying passwords
+     * @param queueSize the max number of verifications waiting for a thread
+     * @param timeout the max time in milliseconds to wait for a verification
+     */
+    public BCryptVerifier(int threads, int queueSize, long timeout) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("bcrypt-verifier-%d").build());
+        this.timeout = timeout;
+
+        this.latency = AUTH_METRIC_REGISTRY.timer(LATENCY_METRIC);
+        this.coalesced = AUTH_METRIC_REGISTRY.meter(COALESCED_METRIC);
+        this.rejected = AUTH_METRIC_REGISTRY.meter(REJECTED_METRIC);
+
+        // the gauges refer to the last created verifier
+        AUTH_METRIC_REGISTRY.remove(QUEUE_DEPTH_METRIC);
+        AUTH_METRIC_REGISTRY.register(QUEUE_DEPTH_METRIC, (Gauge<Integer>) () -> executor.getQueue().size());
+        AUTH_METRIC_REGISTRY.remove(IN_FLIGHT_METRIC);
+        AUTH_METRIC_REGISTRY.register(IN_FLIGHT_METRIC, (Gauge<Integer>) inFlight::size);
+    }
+
+    /**
+     *
+     * @param id the account id
+     * @param password the password to verify
+     * @param hashed the bcrypt hash of the expected password
+     * @return true if the password matches the hash
+     * @throws AuthenticatorOverloadedException if the verification is
+     *         rejected because of too many concurrent verifications
+     */
+    public boolean checkpw(String id, String password, String hashed) throws AuthenticatorOverloadedException {
+        var key = DigestUtils.sha256Hex(id + '\u0000' + hashed + '\u0000' + password);
+        var submitted = new boolean[] { false };
+
+        CompletableFuture<Boolean> verification;
+
+        try {
+            verification = inFlight.computeIfAbsent(key, k -> {
+                submitted[0] = true;
+                return submit(password, hashed);
+            });
+        } catch (RejectedExecutionException ree) {
+            rejected.mark();
+            throw new AuthenticatorOverloadedException("too many concurrent password verifications");
+        }
+
+        if (submitted[0]) {
+            // removed when completed, so that the result is shared only with concurrent requests
+            verification.whenComplete((r, t) -> inFlight.remove(key, verification));
+        } else {
+            coalesced.mark();
+        }
+
+        try {
+            return verification.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException te) {
+            rejected.mark();
+            throw new AuthenticatorOverloadedException("password verification timed out");
+        } catch (ExecutionException ee) {
+            LOGGER.warn("Error checking bcryped pwd hash", ee.getCause());
+            return false;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<Boolean> submit(String password, String hashed) {
+        var verification = new CompletableFuture<Boolean>();
+        var ctx = latency.time();
+
+        executor.execute(() -> {
+            try {
+                verification.complete(BCrypt.checkpw(password, hashed));
+            } catch (Throwable t) {
+                verification.completeExceptionally(t);
+            } finally {
+                ctx.stop();
+            }
+        });
+
+        return verification;
+    }
+}
@@ -0,0 +1,118 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.bson.BsonValue;
+import org.restheart.utils.BsonUtils;
+
+import com.google.gson.JsonElement;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * Processes the passwords of the documents of bulk requests in parallel on a
+ * dedicated fork-join pool bounded to the number of cores, so that hashing
+ * thousands of passwords uses all the cores without occupying the worker
+ * threads that serve the other requests.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+class BulkPwdExecutor {
+    /**
+     * @param <T>   the type of the result
+     * @param value the result, null if the document has no password or processing failed
+     * @param error the error, null if processing succeeded
+     */
+    record Outcome<T>(T value, Throwable error) {
+        static final Outcome<?> NO_PASSWORD = new Outcome<>(null, null);
+    }
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("bulk-pwd-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    private BulkPwdExecutor() {
+    }
+
+    /**
+     * applies fn to the passwords of the documents in parallel
+     *
+     * @param <T>      the type of the result
+     * @param docs     the documents
+     * @param propName the name of the password property
+     * @param fn       the function to apply to each password
+     * @return the outcomes, in the order of the documents
+     * @throws InterruptedException
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<Outcome<T>> process(List<BsonValue> docs, String propName, Function<String, T> fn) throws InterruptedException {
+        try {
+            return POOL.submit(() -> IntStream.range(0, docs.size())
+                .parallel()
+                .mapToObj(idx -> {
+                    var plain = plainPassword(docs.get(idx), propName);
+
+                    if (plain == null) {
+                        return (Outcome<T>) Outcome.NO_PASSWORD;
+                    }
+
+                    try {
+                        return new Outcome<T>(fn.apply(plain), null);
+                    } catch(Throwable t) {
+                        return new Outcome<T>(null, t);
+                    }
+                })
+                .toList())
+                .get();
+        } catch(ExecutionException ee) {
+            throw new IllegalStateException("error processing passwords", ee.getCause());
+        }
+    }
+
+    /**
+     * @param doc      the document
+     * @param propName the name of the password property
+     * @return the plain password, or null if the document has no string password
+     */
+    static String plainPassword(BsonValue doc, String propName) {
+        if (doc == null || !doc.isDocument()) {
+            return null;
+        }
+
+        try {
+            JsonElement plain = JsonPath.read(BsonUtils.toJson(doc), "$.".concat(propName));
+
+            return plain != null && plain.isJsonPrimitive() && plain.getAsJsonPrimitive().isString()
+                ? plain.getAsJsonPrimitive().getAsString()
+                : null;
+        } catch (PathNotFoundException pnfe) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.security.MongoRealmAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The accounts cache of mongoRealmAuthenticator.
+ *
+ * A cached account older than refresh ms is still returned while it is
+ * reloaded in the background, at most once per id at a time. The ids of the
+ * accounts that do not exist are cached for negativeTtl ms. Lookup errors are
+ * not cached.
+ *
+ * invalidate() clears both caches; a generation counter stops a lookup that
+ * started before the invalidation from caching a stale account.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+class MongoRealmAccountsCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoRealmAccountsCache.class);
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mongo-realm-refresh-%d").build());
+
+    private static record CachedAccount(MongoRealmAccount account, long loadedAt) {}
+
+    private final Cache<String, CachedAccount> accounts;
+
+    /**
+     * the ids of the accounts that do not exist
+     */
+    private final Cache<String, Boolean> unknownAccounts;
+
+    /**
+     * finds the account with the given id, null if it does not exist
+     */
+    private final Function<String, MongoRealmAccount> loader;
+
+    private final long refresh;
+
+    /**
+     * incremented when the caches are invalidated, so that a lookup started
+     * before the invalidation does not cache a stale account
+     */
+    private long generation = 0;
+    private final Object lock = new Object();
+
+    /**
+     * the ids of the accounts being reloaded in the background
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     *
+     * @param size
+     * @param expirePolicy
+     * @param ttl
+     * @param refresh the age in ms of the accounts reloaded in the background
+     * @param negativeTtl the time in ms the ids of the accounts that do not exist are cached
+     * @param loader finds the account with the given id, null if it does not
+     * exist; it throws if the account cannot be retrieved
+     */
+    MongoRealmAccountsCache(long size, Cache.EXPIRE_POLICY expirePolicy, long ttl, long refresh, long negativeTtl, Function<String, MongoRealmAccount> loader) {
+        this.accounts = CacheFactory.createLocalCache("mongoRealmAuthenticator.users", size, expirePolicy, ttl);
+        this.unknownAccounts = CacheFactory.createLocalCache("mongoRealmAuthenticator.unknownUsers", size, Cache.EXPIRE_POLICY.AFTER_WRITE, negativeTtl);
+        this.refresh = refresh;
+        this.loader = loader;
+    }
+
+    /**
+     *
+     * @param id
+     * @return the account or null if it does not exist
+     * @throws RuntimeException if the account is not cached and cannot be retrieved
+     */
+    MongoRealmAccount get(String id) {
+        var cached = accounts.get(id);
+
+        if (cached != null && cached.isPresent()) {
+            // refresh-ahead: serve the cached account while reloading it
+            if (System.currentTimeMillis() - cached.get().loadedAt() > this.refresh) {
+                refresh(id);
+            }
+
+            return cached.get().account();
+        }
+
+        if (unknownAccounts.get(id) != null) {
+            return null;
+        }
+
+        return load(id);
+    }
+
+    /**
+     * finds the account and caches it, or caches its id as unknown if the
+     * account does not exist
+     */
+    private MongoRealmAccount load(String id) {
+        long _generation;
+
+        synchronized (lock) {
+            _generation = this.generation;
+        }
+
+        var account = loader.apply(id);
+
+        synchronized (lock) {
+            if (_generation == this.generation) {
+                if (account == null) {
+                    accounts.invalidate(id);
+                    unknownAccounts.put(id, true);
+                } else {
+                    accounts.put(id, new CachedAccount(account, System.currentTimeMillis()));
+                }
+            }
+        }
+
+        return account;
+    }
+
+    private void refresh(String id) {
+        if (!refreshing.add(id)) {
+            // already being reloaded
+            return;
+        }
+
+        try {
+            REFRESH_EXECUTOR.execute(() -> {
+                try {
+                    load(id);
+                } catch (Throwable t) {
+                    // keep serving the cached account
+                    LOGGER.warn("Error reloading account {}", id, t);
+                } finally {
+                    refreshing.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            refreshing.remove(id);
+        }
+    }
+
+    /**
+     * invalidates the cached accounts and the ids of the unknown accounts
+     */
+    void invalidate() {
+        synchronized (lock) {
+            this.generation++;
+            accounts.invalidateAll();
+            unknownAccounts.invalidateAll();
+        }
+    }
+}
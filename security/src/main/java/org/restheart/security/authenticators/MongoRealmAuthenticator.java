@@ -25,6 +25,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import static com.mongodb.client.model.Filters.eq;
 import io.undertow.security.idm.Account;
@@ -40,11 +41,9 @@ import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import org.bson.BsonDocument;
-import org.mindrot.jbcrypt.BCrypt;
 import org.restheart.ConfigurationException;
 import org.restheart.cache.Cache;
 import org.restheart.cache.CacheFactory;
-import org.restheart.cache.LoadingCache;
 import org.restheart.security.MongoRealmAccount;
 import org.restheart.security.PwdCredentialAccount;
 import static org.restheart.plugins.ConfigurablePlugin.argValue;
@@ -89,10 +88,14 @@ public class MongoRealmAuthenticator implements Authenticator {
     private Integer cacheSize = 1_000; // 1000 entries
     private Integer cacheTTL = 60 * 1_000; // 1 minute
     private Cache.EXPIRE_POLICY cacheExpirePolicy = Cache.EXPIRE_POLICY.AFTER_WRITE;
+    private Integer cacheRefresh = 30 * 1_000; // 30 seconds
+    private Integer cacheNegativeTTL = 5 * 1_000; // 5 seconds
 
-    private LoadingCache<String, MongoRealmAccount> USERS_CACHE = null;
+    private MongoRealmAccountsCache USERS_CACHE = null;
 
-    private static final transient Cache<String, String> USERS_PWDS_CACHE = CacheFactory.createLocalCache(1_000l, Cache.EXPIRE_POLICY.AFTER_READ, 20 * 60 * 1_000l);
+    private BCryptVerifier bcryptVerifier = null;
+
+    private static final transient Cache<String, String> USERS_PWDS_CACHE = CacheFactory.createLocalCache("mongoRealmAuthenticator.passwords", 1_000l, Cache.EXPIRE_POLICY.AFTER_READ, 20 * 60 * 1_000l);
 
     private PluginsRegistry registry;
     private MongoClient mclient;
@@ -114,12 +117,33 @@ public class MongoRealmAuthenticator implements Authenticator {
             }
         }
 
+        // cached accounts older than cache-refresh are reloaded in the background
+        this.cacheRefresh = args.containsKey("cache-refresh")
+            ? argValue(args, "cache-refresh")
+            : this.cacheTTL > 0 ? this.cacheTTL / 2 : this.cacheRefresh;
+        this.cacheNegativeTTL = args.containsKey("cache-negative-ttl") ? argValue(args, "cache-negative-ttl") : this.cacheNegativeTTL;
+
         this.enforceMinimumPasswordStrenght = argValue(args, "enforce-minimum-password-strenght");
         this.minimumPasswordStrength = argValue(args, "minimum-password-strength");
 
         this.bcryptHashedPassword = argValue(args, "bcrypt-hashed-password");
         this.bcryptComplexity = argValue(args, "bcrypt-complexity");
 
+        if (this.bcryptHashedPassword) {
+            // bcrypt checks run on a dedicated executor, off the worker threads
+            int threads = args.containsKey("bcrypt-verification-threads")
+                ? argValue(args, "bcrypt-verification-threads")
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            int queueSize = args.containsKey("bcrypt-verification-queue-size")
+                ? argValue(args, "bcrypt-verification-queue-size")
+                : threads * 4;
+            int timeout = args.containsKey("bcrypt-verification-timeout")
+                ? argValue(args, "bcrypt-verification-timeout")
+                : 5_000;
+
+            this.bcryptVerifier = new BCryptVerifier(threads, queueSize, timeout);
+        }
+
         this.createUser = argValue(args, "create-user");
         String _createUserDocument = argValue(args, "create-user-document");
 
@@ -150,10 +174,16 @@ public class MongoRealmAuthenticator implements Authenticator {
         this.mclient = mclient;
 
         if (this.cacheEnabled) {
-            this.USERS_CACHE = CacheFactory.createLocalLoadingCache(
+            this.USERS_CACHE = new MongoRealmAccountsCache(
                     this.cacheSize,
                     this.cacheExpirePolicy,
-                    this.cacheTTL, key -> findAccount(accountIdTrasformer(key)));
+                    this.cacheTTL,
+                    this.cacheRefresh,
+                    this.cacheNegativeTTL,
+                    id -> {
+                        var accountId = accountIdTrasformer(id);
+                        return toAccount(accountId, findAccountDocument(accountId));
+                    });
         }
 
         try {
@@ -266,7 +296,7 @@ public class MongoRealmAuthenticator implements Authenticator {
             return false;
         }
 
-        return checkPassword(ref.getPrincipal().getName(), this.bcryptHashedPassword, credential.getPassword(), ref.getCredentials().getPassword());
+        return checkPassword(ref.getPrincipal().getName(), credential.getPassword(), ref.getCredentials().getPassword());
     }
 
     /**
@@ -317,8 +347,8 @@ public class MongoRealmAuthenticator implements Authenticator {
         return null;
     }
 
-    static boolean checkPassword(String username, boolean hashed, char[] password, char[] expected) {
-        if (hashed) {
+    boolean checkPassword(String username, char[] password, char[] expected) {
+        if (this.bcryptHashedPassword) {
             if (username == null || password == null || expected == null) {
                 return false;
             }
@@ -336,18 +366,13 @@ public class MongoRealmAuthenticator implements Authenticator {
                 return true;
             }
 
-            try {
-                boolean check = BCrypt.checkpw(_password, _expected);
+            // can throw AuthenticatorOverloadedException
+            boolean check = this.bcryptVerifier.checkpw(username, _password, _expected);
 
-                if (check) {
-                    USERS_PWDS_CACHE.put(username.concat(_expected), _password);
-                    return true;
-                } else {
-                    return false;
-                }
-            } catch (Throwable t) {
-                USERS_PWDS_CACHE.invalidate(username.concat(_expected));
-                LOGGER.warn("Error checking bcryped pwd hash", t);
+            if (check) {
+                USERS_PWDS_CACHE.put(username.concat(_expected), _password);
+                return true;
+            } else {
                 return false;
             }
         } else {
@@ -363,15 +388,26 @@ public class MongoRealmAuthenticator implements Authenticator {
 
         if (USERS_CACHE == null) {
             return findAccount(this.accountIdTrasformer(id));
-        } else {
-            var _account = USERS_CACHE.getLoading(id);
+        }
 
-            if (_account != null && _account.isPresent()) {
-                return _account.get();
-            } else {
-                return null;
-            }
+        try {
+            return USERS_CACHE.get(id);
+        } catch (Throwable t) {
+            LOGGER.error("Error finding account {}", id, t);
+            return null;
+        }
+    }
+
+    /**
+     * Invalidates the cached accounts. It is invoked by
+     * mongoRealmCacheInvalidator on the writes to the users collection.
+     */
+    public void invalidateCache() {
+        if (USERS_CACHE == null) {
+            return;
         }
+
+        USERS_CACHE.invalidate();
     }
 
     /**
@@ -482,17 +518,27 @@ public class MongoRealmAuthenticator implements Authenticator {
     }
 
     public MongoRealmAccount findAccount(String accountId) {
-        var coll = mclient.getDatabase(this.getUsersDb()).getCollection(this.getUsersCollection()).withDocumentClass(BsonDocument.class);
-
         BsonDocument _account;
 
         try {
-            _account = coll.find(eq(propId, accountId)).first();
+            _account = findAccountDocument(accountId);
         } catch (Throwable t) {
             LOGGER.error("Error finding account {}", propId, t);
             return null;
         }
 
+        return toAccount(accountId, _account);
+    }
+
+    private BsonDocument findAccountDocument(String accountId) throws MongoException {
+        return mclient.getDatabase(this.getUsersDb())
+            .getCollection(this.getUsersCollection())
+            .withDocumentClass(BsonDocument.class)
+            .find(eq(propId, accountId))
+            .first();
+    }
+
+    private MongoRealmAccount toAccount(String accountId, BsonDocument _account) {
         if (_account == null) {
             return null;
         }
@@ -0,0 +1,79 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import org.restheart.ConfigurationException;
+import org.restheart.exchange.MongoRequest;
+import org.restheart.exchange.MongoResponse;
+import org.restheart.plugins.InjectPluginsRegistry;
+import org.restheart.plugins.InterceptPoint;
+import org.restheart.plugins.MongoInterceptor;
+import org.restheart.plugins.PluginRecord;
+import org.restheart.plugins.PluginsRegistry;
+import org.restheart.plugins.RegisterPlugin;
+import org.restheart.plugins.security.Authenticator;
+
+/**
+ * Invalidates the accounts cached by mongoRealmAuthenticator when the users
+ * collection is written, so that password and roles updates are effective
+ * immediately.
+ *
+ * Writes done by other RESTHeart nodes or directly on MongoDB are seen
+ * when the cached accounts are reloaded, see cache-refresh.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+@RegisterPlugin(name = "mongoRealmCacheInvalidator",
+        description = "invalidates the accounts cached by mongoRealmAuthenticator on writes to the users collection",
+        interceptPoint = InterceptPoint.RESPONSE)
+public class MongoRealmCacheInvalidator implements MongoInterceptor {
+    private MongoRealmAuthenticator mra = null;
+
+    @InjectPluginsRegistry
+    public void init(PluginsRegistry registry) {
+        PluginRecord<Authenticator> _mra;
+
+        try {
+            _mra = registry.getAuthenticator("mongoRealmAuthenticator");
+        } catch (ConfigurationException ce) {
+            return;
+        }
+
+        if (_mra != null && _mra.isEnabled()) {
+            this.mra = (MongoRealmAuthenticator) _mra.getInstance();
+        }
+    }
+
+    @Override
+    public void handle(MongoRequest request, MongoResponse response) throws Exception {
+        mra.invalidateCache();
+    }
+
+    @Override
+    public boolean resolve(MongoRequest request, MongoResponse response) {
+        return mra != null
+                && request.isHandledBy("mongo")
+                && (request.isPost() || request.isPut() || request.isPatch() || request.isDelete())
+                && mra.getUsersDb().equalsIgnoreCase(request.getDBName())
+                // DELETE /db has no collection name
+                && (request.getCollectionName() == null || mra.getUsersCollection().equalsIgnoreCase(request.getCollectionName()));
+    }
+}
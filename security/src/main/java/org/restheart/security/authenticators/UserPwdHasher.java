@@ -20,7 +20,6 @@
  */
 package org.restheart.security.authenticators;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -37,6 +36,9 @@ import org.restheart.plugins.PluginsRegistry;
 import org.restheart.plugins.RegisterPlugin;
 import org.restheart.plugins.security.Authenticator;
 import org.restheart.utils.BsonUtils;
+import static org.restheart.utils.BsonUtils.array;
+import static org.restheart.utils.BsonUtils.document;
+import org.restheart.utils.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,19 +112,32 @@ public class UserPwdHasher implements MongoInterceptor {
             return;
         } else if (content.isArray() && request.isPost()) {
             // POST collection with array of documents
-            JsonArray passwords = JsonPath.read(BsonUtils.toJson(content), "$.[*].".concat(this.propNamePassword));
-
-            int[] iarr = {0};
-
-            passwords.forEach(plain -> {
-                if (plain != null && plain.isJsonPrimitive() && plain.getAsJsonPrimitive().isString()) {
-                    var hashed = BCrypt.hashpw(plain.getAsJsonPrimitive().getAsString(), BCrypt.gensalt(complexity));
-
-                    content.asArray().get(iarr[0]).asDocument().put(this.propNamePassword, new BsonString(hashed));
+            // passwords are hashed in parallel
+            var docs = content.asArray().getValues();
+            var outcomes = BulkPwdExecutor.process(docs, this.propNamePassword, plain -> BCrypt.hashpw(plain, BCrypt.gensalt(complexity)));
+            var errors = array();
+
+            for (int idx = 0; idx < outcomes.size(); idx++) {
+                var outcome = outcomes.get(idx);
+
+                if (outcome.error() != null) {
+                    LOGGER.warn("Error hashing the password of user document at index {}", idx, outcome.error());
+                    errors.add(document().put("index", idx).put("message", "Error hashing the password"));
+                } else if (outcome.value() != null) {
+                    docs.get(idx).asDocument().put(this.propNamePassword, new BsonString(outcome.value()));
                 }
+            }
 
-                iarr[0]++;
-            });
+            // never store plain passwords
+            if (!errors.get().isEmpty()) {
+                response.setContent(document()
+                    .put("message", "Error hashing the password of " + errors.get().size() + " user documents")
+                    .put("http status code", HttpStatus.SC_INTERNAL_SERVER_ERROR)
+                    .put("http status description", HttpStatus.getStatusText(HttpStatus.SC_INTERNAL_SERVER_ERROR))
+                    .put("errors", errors));
+                response.setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                response.setInError(true);
+            }
         } else if (content.isDocument()) {
             // PUT/PATCH document or bulk PATCH
             JsonElement plain;
@@ -25,9 +25,6 @@ import org.restheart.exchange.MongoRequest;
 import org.restheart.exchange.MongoResponse;
 import static org.restheart.plugins.InterceptPoint.REQUEST_AFTER_AUTH;
 
-import java.util.Spliterators;
-import java.util.stream.StreamSupport;
-
 import org.restheart.plugins.InjectPluginsRegistry;
 import org.restheart.plugins.MongoInterceptor;
 import org.restheart.plugins.PluginRecord;
@@ -37,9 +34,9 @@ import org.restheart.plugins.security.Authenticator;
 import org.restheart.utils.BsonUtils;
 import static org.restheart.utils.BsonUtils.document;
 import static org.restheart.utils.BsonUtils.array;
+import org.restheart.utils.BsonUtils.DocumentBuilder;
 import org.restheart.utils.HttpStatus;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -122,24 +119,32 @@ public class UserPwdStrengthEnforcer implements MongoInterceptor {
             return;
         } else if (content.isArray() && request.isPost()) {
             // POST collection with array of documents
-            JsonArray passwords = JsonPath.read(BsonUtils.toJson(content), "$.[*].".concat(this.propNamePassword));
-
-            int[] iarr = {0};
-
-            StreamSupport.stream(Spliterators.spliteratorUnknownSize(passwords.iterator(), 0), false)
-                .takeWhile(p -> !response.isInError())
-                .forEach(plain -> {
-                if (plain != null && plain.isJsonPrimitive() && plain.getAsJsonPrimitive().isString()) {
-                    var password = plain.getAsJsonPrimitive().getAsString();
-                    var measure = zxcvbn.measure(password);
-
-                    if (measure.getScore()  < this.minimumPasswordStrength) {
-                        reject(response, measure.getFeedback(), iarr[0]);
-                    }
+            // passwords are checked in parallel and every weak one is reported
+            var outcomes = BulkPwdExecutor.process(content.asArray().getValues(), this.propNamePassword, plain -> zxcvbn.measure(plain));
+            var errors = array();
+
+            for (int idx = 0; idx < outcomes.size(); idx++) {
+                var outcome = outcomes.get(idx);
+
+                if (outcome.error() != null) {
+                    LOGGER.warn("Error checking the password strength of user document at index {}", idx, outcome.error());
+                    errors.add(document().put("index", idx).put("message", "Error checking the password strength"));
+                } else if (outcome.value() != null && outcome.value().getScore() < this.minimumPasswordStrength) {
+                    errors.add(feedback(document().put("index", idx).put("message", "Password is too weak"), outcome.value().getFeedback()));
                 }
+            }
+
+            if (!errors.get().isEmpty()) {
+                var error = document()
+                    .put("message", "Password is too weak in " + errors.get().size() + " user documents")
+                    .put("http status code", HttpStatus.SC_NOT_ACCEPTABLE)
+                    .put("http status description", HttpStatus.getStatusText(HttpStatus.SC_NOT_ACCEPTABLE))
+                    .put("errors", errors);
 
-                iarr[0]++;
-            });
+                response.setContent(error);
+                response.setStatusCode(HttpStatus.SC_NOT_ACCEPTABLE);
+                response.setInError(true);
+            }
         } else if (content.isDocument()) {
             // PUT/PATCH document or bulk PATCH
             try {
@@ -161,15 +166,17 @@ public class UserPwdStrengthEnforcer implements MongoInterceptor {
     }
 
     private void reject(MongoResponse response, Feedback feedback) {
-        reject(response, feedback, null);
-    }
-
-    private void reject(MongoResponse response, Feedback feedback, Integer idx) {
-        var error = document()
-            .put("message", idx == null ? "Password is too weak" : "Password is too weak in user document at index " + idx)
+        var error = feedback(document()
+            .put("message", "Password is too weak")
             .put("http status code", HttpStatus.SC_NOT_ACCEPTABLE)
-            .put("http status description", HttpStatus.getStatusText(HttpStatus.SC_NOT_ACCEPTABLE));
+            .put("http status description", HttpStatus.getStatusText(HttpStatus.SC_NOT_ACCEPTABLE)), feedback);
 
+        response.setContent(error);
+        response.setStatusCode(HttpStatus.SC_NOT_ACCEPTABLE);
+        response.setInError(true);
+    }
+
+    private static DocumentBuilder feedback(DocumentBuilder error, Feedback feedback) {
         var warning = feedback.getWarning();
 
         if (warning != null && !warning.isEmpty()) {
@@ -184,9 +191,7 @@ public class UserPwdStrengthEnforcer implements MongoInterceptor {
             error.put("suggestions", _suggestions);
         }
 
-        response.setContent(error);
-        response.setStatusCode(HttpStatus.SC_NOT_ACCEPTABLE);
-        response.setInError(true);
+        return error;
     }
 
     @Override
@@ -0,0 +1,240 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authorizers;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.restheart.security.BaseAclPermission;
+
+/**
+ * Indexes the permissions of a role by the literal path constraint of their
+ * predicates, so that only the permissions that can possibly resolve a request
+ * are evaluated.
+ *
+ * A permission whose predicate is path-prefix('/x') or path('/x'), possibly
+ * AND composed with other conditions, is stored in a trie of path segments at
+ * the node of /x; all other permissions are always candidates. Candidates are
+ * returned in the original (priority) order.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ * @param <P> the permission type
+ */
+public class AclPermissionsIndex<P extends BaseAclPermission> {
+    private static final Pattern PATH_TERM = Pattern.compile("^(?:path-prefix|path)\\s*\\(\\s*(?:path\\s*=\\s*)?(?:'([^']*)'|\"([^\"]*)\")\\s*\\)$");
+
+    private final List<P> permissions;
+    private final LinkedHashSet<P> permissionsSet;
+    private final Node root = new Node();
+    private final BitSet unindexed = new BitSet();
+
+    /**
+     * @param permissions the permissions ordered by priority
+     * @param predicateOf the function that returns the predicate string of a permission
+     */
+    public AclPermissionsIndex(LinkedHashSet<P> permissions, Function<P, String> predicateOf) {
+        this.permissionsSet = permissions;
+        this.permissions = new ArrayList<>(permissions);
+
+        for (int idx = 0; idx < this.permissions.size(); idx++) {
+            var path = literalPath(predicateOf.apply(this.permissions.get(idx)));
+
+            if (path.isPresent()) {
+                var node = this.root;
+
+                for (var segment: segments(path.get())) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+
+                node.permissions.set(idx);
+            } else {
+                this.unindexed.set(idx);
+            }
+        }
+    }
+
+    /**
+     * @return all the permissions, ordered by priority
+     */
+    public LinkedHashSet<P> all() {
+        return this.permissionsSet;
+    }
+
+    /**
+     * @return the number of permissions
+     */
+    public int size() {
+        return this.permissions.size();
+    }
+
+    /**
+     * @param requestPath the request path
+     * @return the permissions that can resolve a request to requestPath, ordered by priority
+     */
+    public Stream<P> candidates(String requestPath) {
+        var matching = (BitSet) this.unindexed.clone();
+        var node = this.root;
+        matching.or(node.permissions);
+
+        for (var segment: segments(requestPath)) {
+            node = node.children.get(segment);
+
+            if (node == null) {
+                break;
+            }
+
+            matching.or(node.permissions);
+        }
+
+        return matching.stream().mapToObj(this.permissions::get);
+    }
+
+    /**
+     * Extracts the literal path of a predicate in the form path-prefix('/x') or
+     * path('/x'), optionally AND composed with other conditions
+     *
+     * @param predicate the predicate string
+     * @return the literal path, or empty if the predicate does not constrain the path to a literal prefix
+     */
+    static Optional<String> literalPath(String predicate) {
+        if (predicate == null) {
+            return Optional.empty();
+        }
+
+        var terms = andTerms(unwrap(predicate.trim()));
+
+        if (terms == null) {
+            return Optional.empty();
+        }
+
+        for (var term: terms) {
+            var m = PATH_TERM.matcher(unwrap(term));
+
+            if (m.matches()) {
+                var path = m.group(1) != null ? m.group(1) : m.group(2);
+
+                // paths with variables are interpolated at request time
+                if (!path.contains("@") && !path.contains("{") && !path.contains("$")) {
+                    return Optional.of(path);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return the terms of a top level AND expression, or null if the
+     * expression contains a top level OR
+     */
+    private static List<String> andTerms(String expression) {
+        var terms = new ArrayList<String>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (depth == 0 && i > 0 && (Character.isWhitespace(expression.charAt(i - 1)) || expression.charAt(i - 1) == ')')) {
+                if (isKeyword(expression, i, "or")) {
+                    return null;
+                } else if (isKeyword(expression, i, "and")) {
+                    terms.add(expression.substring(start, i).trim());
+                    start = i + "and".length();
+                    i = start - 1;
+                }
+            }
+        }
+
+        terms.add(expression.substring(start).trim());
+        return terms;
+    }
+
+    private static boolean isKeyword(String expression, int idx, String keyword) {
+        var end = idx + keyword.length();
+
+        return expression.regionMatches(true, idx, keyword, 0, keyword.length())
+            && end < expression.length()
+            && (Character.isWhitespace(expression.charAt(end)) || expression.charAt(end) == '(');
+    }
+
+    /**
+     * removes the parenthesis enclosing the whole expression, if any
+     */
+    private static String unwrap(String expression) {
+        while (expression.startsWith("(") && closing(expression) == expression.length() - 1) {
+            expression = expression.substring(1, expression.length() - 1).trim();
+        }
+
+        return expression;
+    }
+
+    private static int closing(String expression) {
+        int depth = 0;
+        char quote = 0;
+
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String[] segments(String path) {
+        return Stream.of(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final BitSet permissions = new BitSet();
+    }
+}
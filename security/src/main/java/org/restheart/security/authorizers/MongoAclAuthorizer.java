@@ -81,9 +81,10 @@ public class MongoAclAuthorizer implements Authorizer {
     private boolean cacheEnabled = false;
     private Integer cacheSize = 1_000; // 1000 entries
     private Integer cacheTTL = 60 * 1_000; // 1 minute
+    private Integer cacheRefresh = null; // cacheTTL/2
     private Cache.EXPIRE_POLICY cacheExpirePolicy = Cache.EXPIRE_POLICY.AFTER_WRITE;
 
-    private LoadingCache<String, LinkedHashSet<MongoAclPermission>> acl = null;
+    private LoadingCache<String, AclPermissionsIndex<MongoAclPermission>> acl = null;
 
     private MongoClient mclient;
 
@@ -101,6 +102,7 @@ public class MongoAclAuthorizer implements Authorizer {
             if (this.cacheEnabled) {
                 this.cacheSize = argValue(args, "cache-size");
                 this.cacheTTL = argValue(args, "cache-ttl");
+                this.cacheRefresh = args.containsKey("cache-refresh") ? argValue(args, "cache-refresh") : this.cacheTTL / 2;
 
                 String _cacheExpirePolicy = argValue(args, "cache-expire-policy");
 
@@ -117,10 +119,12 @@ public class MongoAclAuthorizer implements Authorizer {
                 }
 
                 this.acl = CacheFactory.createLocalLoadingCache(
+                    "mongoAclAuthorizer.acl",
                     this.cacheSize,
                     this.cacheExpirePolicy,
-                    this.cacheTTL, (String role) -> {
-                        return this.findRolePermissions(role);
+                    this.cacheTTL,
+                    this.cacheRefresh, (String role) -> {
+                        return this.indexRolePermissions(role);
                     });
             }
         }
@@ -187,50 +191,52 @@ public class MongoAclAuthorizer implements Authorizer {
         exchange.setRelativePath(exchange.getRequestPath());
 
         final ArrayList<MongoAclPermission> permissions = new ArrayList<>();
+        final var path = exchange.getRequestPath();
+        final var debug = LOGGER.isDebugEnabled();
 
-        // debug roles and predicates evaluation order
-        if (LOGGER.isDebugEnabled()) {
-            roles(exchange).forEachOrdered(role
-                    -> {
+        // the applicable permission is the first candidate, in priority order,
+        // that resolves the exchange
+        roles(exchange).forEachOrdered(role -> {
+            var index = rolePermissionsIndex(role);
+
+            if (index == null) {
+                return;
+            }
+
+            if (debug) {
+                // debug roles and predicates evaluation order
                 ArrayList<MongoAclPermission> matched = Lists.newArrayListWithCapacity(1);
 
-                rolePermissions(role)
-                    .stream().anyMatch(permission -> {
-                        var resolved = permission.allow(request);
+                index.candidates(path).forEachOrdered(permission -> {
+                    var resolved = permission.allow(request);
 
-                        String marker;
+                    String marker;
 
-                        // to highlight the effective permission
-                        if (resolved && matched.isEmpty()) {
-                            matched.add(permission);
-                            marker = "<--";
-                        } else {
-                            marker = "";
-                        }
+                    // to highlight the effective permission
+                    if (resolved && matched.isEmpty()) {
+                        matched.add(permission);
+                        marker = "<--";
+                    } else {
+                        marker = "";
+                    }
 
-                        LOGGER.debug("role {}, permission id {}, resolve {} {}",
-                            role,
-                            permission.getId(),
-                            resolved,
-                            marker);
+                    LOGGER.debug("role {}, permission id {}, resolve {} {}",
+                        role,
+                        permission.getId(),
+                        resolved,
+                        marker);
+                });
 
-                        return false;
-                    });
-            });
-        }
+                LOGGER.debug("role {}, evaluated {} of {} permissions", role, index.candidates(path).count(), index.size());
 
-        // the applicable permission is the ones that
-        // resolves the exchange
-        roles(exchange).forEachOrdered(role -> rolePermissions(role)
-            .stream()
-            .anyMatch(r -> {
-                if (r.allow(request)) {
-                    permissions.add(r);
-                    return true;
-                } else {
-                    return false;
-                }
-            }));
+                permissions.addAll(matched);
+            } else {
+                index.candidates(path)
+                    .filter(r -> r.allow(request))
+                    .findFirst()
+                    .ifPresent(permissions::add);
+            }
+        });
 
         if (permissions.isEmpty()) {
             return false;
@@ -250,7 +256,7 @@ public class MongoAclAuthorizer implements Authorizer {
 
         var exchange = request.getExchange();
 
-        var ps = rolePermissions($UNAUTHENTICATED);
+        var ps = rolePermissionsIndex($UNAUTHENTICATED);
 
         if (ps != null) {
             // this fixes undertow bug 377
@@ -264,7 +270,7 @@ public class MongoAclAuthorizer implements Authorizer {
             // see https://issues.jboss.org/browse/UNDERTOW-1317
             exchange.setRelativePath(request.getPath());
 
-            return !ps.stream().anyMatch(r -> r.allow(request));
+            return !ps.candidates(request.getPath()).anyMatch(r -> r.allow(request));
         } else {
             return true;
         }
@@ -288,6 +294,15 @@ public class MongoAclAuthorizer implements Authorizer {
      * @return the acl
      */
     public LinkedHashSet<MongoAclPermission> rolePermissions(String role) {
+        var index = rolePermissionsIndex(role);
+        return index == null ? null : index.all();
+    }
+
+    /**
+     * @param role
+     * @return the acl of the role indexed by the path of the permissions
+     */
+    AclPermissionsIndex<MongoAclPermission> rolePermissionsIndex(String role) {
         if (this.cacheEnabled) {
             var _rolePermissions = this.acl.getLoading(role);
 
@@ -297,7 +312,7 @@ public class MongoAclAuthorizer implements Authorizer {
                 return null;
             }
         } else {
-            return findRolePermissions(role);
+            return indexRolePermissions(role);
         }
     }
 
@@ -319,9 +334,14 @@ public class MongoAclAuthorizer implements Authorizer {
         }
     }
 
-    private static final BsonDocument PROJECTION = BsonDocument.parse("{\"_id\":1,\"roles\":1,\"predicate\":1,\"writeFilter\":1,\"readFilter\":1,\"priority\":1,\"mongo\":1}");
+    private static final BsonDocument PROJECTION = BsonDocument.parse("{\"_id\":1,\"roles\":1,\"predicate\":1,\"writeFilter\":1,\"readFilter\":1,\"priority\":1,\"mongo\":1,\"rateLimit\":1}");
     private static final BsonDocument SORT = BsonDocument.parse("{\"priority\":-1,\"_id\":-1}");
 
+    private AclPermissionsIndex<MongoAclPermission> indexRolePermissions(final String role) {
+        var permissions = findRolePermissions(role);
+        return permissions == null ? null : new AclPermissionsIndex<>(permissions, MongoAclPermission::getRequestPredicate);
+    }
+
     private LinkedHashSet<MongoAclPermission> findRolePermissions(final String role) {
         if (this.mclient == null) {
             LOGGER.error("Cannot find acl: mongo service is not enabled.");
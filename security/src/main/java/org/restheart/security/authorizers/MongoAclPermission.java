@@ -21,12 +21,14 @@
 package org.restheart.security.authorizers;
 
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
 import org.restheart.ConfigurationException;
+import org.restheart.exchange.Request;
 import org.restheart.security.AclVarsInterpolator;
 import org.restheart.security.BaseAclPermission;
 import org.slf4j.Logger;
@@ -46,10 +48,25 @@ public class MongoAclPermission extends BaseAclPermission {
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoAclPermission.class);
 
     private final BsonValue _id;
+    private final String requestPredicate;
 
     MongoAclPermission(BsonValue _id, String requestPredicate, Set<String> roles, int priority, BsonDocument raw) throws ConfigurationException {
-        super(req -> AclVarsInterpolator.interpolatePredicate(req, requestPredicate, MongoAclPermission.class.getClassLoader()).resolve(req.getExchange()), roles, priority, raw);
+        super(requestPredicate(requestPredicate), roles, priority, raw);
         this._id = _id;
+        this.requestPredicate = requestPredicate;
+    }
+
+    /**
+     * predicates without @user variables don't need to be interpolated
+     * and are parsed only once
+     */
+    private static Predicate<Request<?>> requestPredicate(String requestPredicate) {
+        if (requestPredicate.contains("@user")) {
+            return req -> AclVarsInterpolator.interpolatePredicate(req, requestPredicate, MongoAclPermission.class.getClassLoader()).resolve(req.getExchange());
+        } else {
+            var parsed = PredicateParser.parse(requestPredicate, MongoAclPermission.class.getClassLoader());
+            return req -> parsed.resolve(req.getExchange());
+        }
     }
 
     /**
@@ -106,4 +123,11 @@ public class MongoAclPermission extends BaseAclPermission {
     public BsonValue getId() {
         return _id;
     }
+
+    /**
+     * @return the request predicate
+     */
+    public String getRequestPredicate() {
+        return requestPredicate;
+    }
 }
@@ -28,19 +28,14 @@ import org.restheart.plugins.InjectConfiguration;
 import org.restheart.plugins.InterceptPoint;
 import org.restheart.plugins.RegisterPlugin;
 import org.restheart.plugins.WildcardInterceptor;
-import static org.restheart.utils.MetricsUtils.unauthHistogramName;
+import org.restheart.security.AuthFailuresTracker;
 import org.restheart.utils.LogUtils;
 import io.undertow.attribute.ExchangeAttributes;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HttpString;
 
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
-import com.codahale.metrics.Histogram;
-import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.SharedMetricRegistries;
-import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
 import com.google.common.net.HttpHeaders;
 
 import org.slf4j.Logger;
@@ -57,8 +52,6 @@ import org.slf4j.LoggerFactory;
 public class BruteForceAttackGuard implements WildcardInterceptor {
     private static final Logger LOGGER = LoggerFactory.getLogger(BruteForceAttackGuard.class);
 
-    private static final MetricRegistry AUTH_METRIC_REGISTRY = SharedMetricRegistries.getOrCreate("AUTH");
-
     private boolean trustXForwardedFor = false;
 
     @InjectConfiguration
@@ -68,12 +61,17 @@ public class BruteForceAttackGuard implements WildcardInterceptor {
         } catch(ConfigurationException ce) {
             this.trustXForwardedFor = false;
         }
+
+        if (args != null && args.containsKey("max-tracked-clients")) {
+            int maxTrackedClients = argValue(args, "max-tracked-clients");
+            AuthFailuresTracker.getInstance().setMaxClients(maxTrackedClients);
+        }
     }
 
     @Override
     public void handle(ServiceRequest<?> request, ServiceResponse<?> response) throws Exception {
         // if more the 50% of attempts in last 10 seconds, deny access anyway
-        var mean = authHisto(request).getSnapshot().getMean();
+        var mean = failureRate(request);
         if (mean > 0.5d) {
             logWarning(request.getExchange(), mean);
             // this blocks the request authentication
@@ -101,14 +99,16 @@ public class BruteForceAttackGuard implements WildcardInterceptor {
             "request url: " + ExchangeAttributes.requestURL().readAttribute(exchange));
     }
 
-    private Histogram authHisto(ServiceRequest<?> request) {
+    private double failureRate(ServiceRequest<?> request) {
+        var tracker = AuthFailuresTracker.getInstance();
+
         if (trustXForwardedFor) {
-            var histoNameWithXFF = unauthHistogramName(request.getExchange(), true);
-            if (histoNameWithXFF != null) {
-                return AUTH_METRIC_REGISTRY.histogram(histoNameWithXFF, () -> new Histogram(new SlidingTimeWindowArrayReservoir(10, TimeUnit.SECONDS)));
+            var keyWithXFF = AuthFailuresTracker.key(request.getExchange(), true);
+            if (keyWithXFF != null) {
+                return tracker.failureRate(keyWithXFF);
             }
         }
 
-        return AUTH_METRIC_REGISTRY.histogram(unauthHistogramName(request.getExchange(), false), () -> new Histogram(new SlidingTimeWindowArrayReservoir(10, TimeUnit.SECONDS)));
+        return tracker.failureRate(AuthFailuresTracker.key(request.getExchange(), false));
     }
 }
@@ -0,0 +1,325 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.interceptors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.bson.BsonDocument;
+import org.restheart.ConfigurationException;
+import org.restheart.exchange.Request;
+import org.restheart.exchange.ServiceRequest;
+import org.restheart.exchange.ServiceResponse;
+import static org.restheart.plugins.ConfigurablePlugin.argValue;
+import org.restheart.plugins.InjectConfiguration;
+import org.restheart.plugins.InterceptPoint;
+import org.restheart.plugins.RegisterPlugin;
+import org.restheart.plugins.WildcardInterceptor;
+import org.restheart.security.BaseAclPermission;
+import org.restheart.utils.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.net.HttpHeaders;
+
+import io.undertow.attribute.ExchangeAttributes;
+import io.undertow.util.HttpString;
+
+/**
+ * Limits the request rate with token buckets keyed by principal, role, ip or
+ * acl permission.
+ *
+ * Limits are defined in the configuration and by the rateLimit property of
+ * the acl permission that authorized the request, e.g.
+ * {"rateLimit": {"requests": 100, "period": 60, "key": "principal"}}
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+@RegisterPlugin(name = "rateLimiter",
+        description = "limits the request rate per principal, role, ip or acl permission returning 429 Too Many Requests when exceeded",
+        interceptPoint = InterceptPoint.REQUEST_AFTER_AUTH,
+        enabledByDefault = false)
+public class RateLimiter implements WildcardInterceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final HttpString RATE_LIMIT_LIMIT = HttpString.tryFromString("RateLimit-Limit");
+    private static final HttpString RATE_LIMIT_REMAINING = HttpString.tryFromString("RateLimit-Remaining");
+    private static final HttpString RATE_LIMIT_RESET = HttpString.tryFromString("RateLimit-Reset");
+    private static final HttpString RETRY_AFTER = HttpString.tryFromString(HttpHeaders.RETRY_AFTER);
+    private static final HttpString X_FORWARDED_FOR = HttpString.tryFromString(HttpHeaders.X_FORWARDED_FOR);
+
+    private static final String UNAUTHENTICATED = "$unauthenticated";
+
+    enum KEY { principal, role, ip, permission }
+
+    /**
+     * @param key   what the buckets are keyed by
+     * @param limit the limit
+     * @param roles the roles the limit applies to, all if empty
+     */
+    record RateLimit(KEY key, TokenBuckets.Limit limit, Set<String> roles) {
+    }
+
+    /**
+     * the rate limits of the acl permissions, parsed once per permission
+     */
+    private final Map<BaseAclPermission, Optional<RateLimit>> aclLimits = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private List<RateLimit> limits = List.of();
+    private boolean trustXForwardedFor = false;
+    private TokenBuckets buckets = new TokenBuckets(1_000_000, TimeUnit.HOURS.toMillis(1), System::nanoTime);
+
+    @InjectConfiguration
+    public void config(Map<String, Object> args) {
+        this.trustXForwardedFor = args.containsKey("trust-x-forwarded-for") ? argValue(args, "trust-x-forwarded-for") : false;
+
+        int maxBuckets = args.containsKey("max-buckets") ? argValue(args, "max-buckets") : 1_000_000;
+        int bucketTTL = args.containsKey("bucket-ttl") ? argValue(args, "bucket-ttl") : 3600;
+        this.buckets = new TokenBuckets(maxBuckets, TimeUnit.SECONDS.toMillis(bucketTTL), System::nanoTime);
+
+        if (args.containsKey("limits")) {
+            List<Map<String, Object>> _limits = argValue(args, "limits");
+
+            if (_limits != null) {
+                var ret = new ArrayList<RateLimit>();
+
+                for (var _limit: _limits) {
+                    try {
+                        var limit = rateLimit(_limit);
+
+                        if (limit.key() == KEY.permission) {
+                            throw new IllegalArgumentException("key permission can only be used in acl permissions");
+                        }
+
+                        ret.add(limit);
+                    } catch(IllegalArgumentException | ClassCastException e) {
+                        throw new ConfigurationException("wrong rate limit " + _limit + ": " + e.getMessage());
+                    }
+                }
+
+                this.limits = ret;
+            }
+        }
+    }
+
+    @Override
+    public void handle(ServiceRequest<?> request, ServiceResponse<?> response) throws Exception {
+        var buckets = new ArrayList<Map.Entry<String, TokenBuckets.Limit>>();
+
+        for (int idx = 0; idx < this.limits.size(); idx++) {
+            var limit = this.limits.get(idx);
+
+            for (var key: bucketKeys(request, limit)) {
+                buckets.add(Map.entry("c" + idx + ":" + key, limit.limit()));
+            }
+        }
+
+        var permission = BaseAclPermission.of(request);
+        var aclLimit = aclRateLimit(permission);
+
+        if (aclLimit != null) {
+            for (var key: bucketKeys(request, aclLimit)) {
+                buckets.add(Map.entry("p" + permissionId(permission) + ":" + key, aclLimit.limit()));
+            }
+        }
+
+        TokenBuckets.Result mostRestrictive = null;
+
+        for (int idx = 0; idx < buckets.size(); idx++) {
+            var bucket = buckets.get(idx);
+            var result = this.buckets.consume(bucket.getKey(), bucket.getValue());
+
+            if (!result.allowed()) {
+                // the request is rejected, give back the tokens consumed so far
+                for (var consumed: buckets.subList(0, idx)) {
+                    this.buckets.refund(consumed.getKey(), consumed.getValue());
+                }
+
+                reject(request, response, result);
+                return;
+            }
+
+            mostRestrictive = mostRestrictive(mostRestrictive, result);
+        }
+
+        if (mostRestrictive != null) {
+            setHeaders(response, mostRestrictive);
+        }
+    }
+
+    @Override
+    public boolean resolve(ServiceRequest<?> request, ServiceResponse<?> response) {
+        return !request.isOptions();
+    }
+
+    private void reject(ServiceRequest<?> request, ServiceResponse<?> response, TokenBuckets.Result result) {
+        LOGGER.debug("rate limit exceeded for {} {}", request.getMethod(), request.getPath());
+
+        setHeaders(response, result);
+        response.getHeaders().put(RETRY_AFTER, seconds(result.retryAfter()));
+        response.setInError(HttpStatus.SC_TOO_MANY_REQUESTS, "Rate limit exceeded");
+    }
+
+    private static TokenBuckets.Result mostRestrictive(TokenBuckets.Result current, TokenBuckets.Result result) {
+        return current == null || result.remaining() < current.remaining() ? result : current;
+    }
+
+    private static void setHeaders(ServiceResponse<?> response, TokenBuckets.Result result) {
+        response.getHeaders().put(RATE_LIMIT_LIMIT, result.limit().burst());
+        response.getHeaders().put(RATE_LIMIT_REMAINING, result.remaining());
+        response.getHeaders().put(RATE_LIMIT_RESET, seconds(result.reset()));
+    }
+
+    private static long seconds(long millis) {
+        return TimeUnit.MILLISECONDS.toSeconds(millis + 999);
+    }
+
+    /**
+     * @return the keys of the buckets the limit applies to; empty if the limit
+     *         does not apply to the request
+     */
+    private Collection<String> bucketKeys(Request<?> request, RateLimit limit) {
+        var roles = roles(request);
+
+        if (!limit.roles().isEmpty() && roles.stream().noneMatch(limit.roles()::contains)) {
+            return List.of();
+        }
+
+        return switch(limit.key()) {
+            case principal -> request.isAuthenticated()
+                ? List.of("principal:" + request.getAuthenticatedAccount().getPrincipal().getName())
+                : List.of("ip:" + ip(request));
+            case role -> roles.stream()
+                .filter(role -> limit.roles().isEmpty() || limit.roles().contains(role))
+                .map(role -> "role:" + role)
+                .collect(Collectors.toList());
+            case ip -> List.of("ip:" + ip(request));
+            case permission -> List.of("");
+        };
+    }
+
+    private static Set<String> roles(Request<?> request) {
+        return request.isAuthenticated()
+            ? request.getAuthenticatedAccount().getRoles()
+            : Set.of(UNAUTHENTICATED);
+    }
+
+    private String ip(Request<?> request) {
+        if (this.trustXForwardedFor) {
+            var xff = ExchangeAttributes.requestHeader(X_FORWARDED_FOR).readAttribute(request.getExchange());
+
+            if (xff != null) {
+                return xff;
+            }
+        }
+
+        return ExchangeAttributes.remoteIp().readAttribute(request.getExchange());
+    }
+
+    /**
+     * @return the rate limit declared by the rateLimit property of the acl
+     *         permission, or null
+     */
+    private RateLimit aclRateLimit(BaseAclPermission permission) {
+        if (permission == null || !hasRateLimit(permission.getRaw())) {
+            return null;
+        }
+
+        return this.aclLimits.computeIfAbsent(permission, p -> Optional.ofNullable(parseAclRateLimit(p.getRaw()))).orElse(null);
+    }
+
+    private static boolean hasRateLimit(Object raw) {
+        return (raw instanceof BsonDocument doc && doc.containsKey("rateLimit"))
+            || (raw instanceof Map<?, ?> map && map.containsKey("rateLimit"));
+    }
+
+    /**
+     * @return the rate limit declared by the rateLimit property of the raw acl
+     *         permission, or null if missing or wrong
+     */
+    @SuppressWarnings("unchecked")
+    static RateLimit parseAclRateLimit(Object raw) {
+        try {
+            if (raw instanceof BsonDocument doc && doc.isDocument("rateLimit")) {
+                var _limit = doc.getDocument("rateLimit");
+                var ret = new HashMap<String, Object>();
+
+                _limit.forEach((k, v) -> {
+                    if (v.isNumber()) {
+                        ret.put(k, v.asNumber().longValue());
+                    } else if (v.isString()) {
+                        ret.put(k, v.asString().getValue());
+                    } else if (v.isArray()) {
+                        ret.put(k, v.asArray().stream().filter(e -> e.isString()).map(e -> e.asString().getValue()).collect(Collectors.toList()));
+                    }
+                });
+
+                return rateLimit(ret);
+            } else if (raw instanceof Map<?, ?> map && map.get("rateLimit") instanceof Map<?, ?> _limit) {
+                return rateLimit((Map<String, Object>) _limit);
+            } else {
+                return null;
+            }
+        } catch(IllegalArgumentException | ClassCastException e) {
+            LOGGER.warn("ignoring wrong rateLimit of acl permission {}: {}", raw, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String permissionId(BaseAclPermission permission) {
+        if (permission.getRaw() instanceof BsonDocument doc && doc.containsKey("_id")) {
+            return doc.get("_id").toString();
+        } else {
+            return String.valueOf(System.identityHashCode(permission));
+        }
+    }
+
+    /**
+     * @param args {key, requests, period (seconds), burst, roles}
+     * @return the RateLimit
+     */
+    @SuppressWarnings("unchecked")
+    static RateLimit rateLimit(Map<String, Object> args) {
+        var key = args.containsKey("key") ? KEY.valueOf((String) args.get("key")) : KEY.principal;
+
+        if (!(args.get("requests") instanceof Number requests)) {
+            throw new IllegalArgumentException("requests must be a number");
+        }
+
+        if (!(args.get("period") instanceof Number period)) {
+            throw new IllegalArgumentException("period must be a number of seconds");
+        }
+
+        var burst = args.get("burst") instanceof Number _burst ? _burst.longValue() : requests.longValue();
+        var roles = args.get("roles") instanceof Collection<?> _roles ? Set.copyOf((Collection<String>) _roles) : Set.<String>of();
+
+        return new RateLimit(key, new TokenBuckets.Limit(requests.longValue(), TimeUnit.SECONDS.toMillis(period.longValue()), burst), roles);
+    }
+}
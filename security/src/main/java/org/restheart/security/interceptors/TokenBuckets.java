@@ -0,0 +1,141 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.interceptors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.cache.LoadingCache;
+
+/**
+ * A size bounded store of token buckets.
+ *
+ * Each bucket is a single AtomicLong holding the theoretical arrival time of
+ * the next request (generic cell rate algorithm), so that consuming a token is
+ * a lock free compare-and-set and a bucket costs one long.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+class TokenBuckets {
+    /**
+     * @param requests the number of requests allowed in period
+     * @param period   the period in milliseconds
+     * @param burst    the maximum number of requests that can be performed at once
+     */
+    record Limit(long requests, long period, long burst) {
+        Limit {
+            if (requests <= 0 || period <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("requests, period and burst must be positive");
+            }
+        }
+
+        long interval() {
+            return Math.max(1, TimeUnit.MILLISECONDS.toNanos(period) / requests);
+        }
+    }
+
+    /**
+     * @param allowed    true if the request is allowed
+     * @param limit      the limit
+     * @param remaining  the remaining requests
+     * @param reset      milliseconds until the bucket is full again
+     * @param retryAfter milliseconds until the next request is allowed, 0 if allowed
+     */
+    record Result(boolean allowed, Limit limit, long remaining, long reset, long retryAfter) {
+    }
+
+    private final LoadingCache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param maxBuckets the maximum number of buckets
+     * @param ttl        milliseconds after which an unused bucket is evicted
+     * @param nanoClock  the clock in nanoseconds
+     */
+    TokenBuckets(long maxBuckets, long ttl, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = CacheFactory.createLocalLoadingCache("rateLimiter.buckets", maxBuckets, Cache.EXPIRE_POLICY.AFTER_READ, ttl, k -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    /**
+     * consumes a token from the bucket with the given key
+     *
+     * @param key   the key of the bucket
+     * @param limit the limit of the bucket
+     * @return the result
+     */
+    Result consume(String key, Limit limit) {
+        var _bucket = this.buckets.getLoading(key);
+
+        if (_bucket == null || _bucket.isEmpty()) {
+            return new Result(true, limit, limit.burst(), 0, 0);
+        }
+
+        var bucket = _bucket.get();
+        var interval = limit.interval();
+        var tolerance = interval * limit.burst();
+
+        while (true) {
+            var now = this.nanoClock.getAsLong();
+            var tat = bucket.get();
+            var newTat = (tat == Long.MIN_VALUE || tat < now ? now : tat) + interval;
+            var ahead = newTat - now;
+
+            if (ahead > tolerance) {
+                var _ahead = ahead - interval;
+                return new Result(false, limit, 0, toMillis(_ahead), toMillis(ahead - tolerance));
+            } else if (bucket.compareAndSet(tat, newTat)) {
+                return new Result(true, limit, (tolerance - ahead) / interval, toMillis(ahead), 0);
+            }
+        }
+    }
+
+    /**
+     * gives back a token consumed from the bucket with the given key, to
+     * invoke when the request is rejected by a following bucket
+     *
+     * @param key   the key of the bucket
+     * @param limit the limit of the bucket
+     */
+    void refund(String key, Limit limit) {
+        var _bucket = this.buckets.get(key);
+
+        if (_bucket != null && _bucket.isPresent()) {
+            var interval = limit.interval();
+            _bucket.get().getAndUpdate(tat -> tat == Long.MIN_VALUE ? tat : tat - interval);
+        }
+    }
+
+    /**
+     * @return the (approximate) number of buckets
+     */
+    long size() {
+        this.buckets.cleanUp();
+        return this.buckets.asMap().size();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos + 999_999);
+    }
+}
@@ -41,6 +41,7 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -48,7 +49,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.apache.commons.codec.binary.StringUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bson.BsonDocument;
 import org.restheart.ConfigurationException;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
 import org.restheart.exchange.Request;
 import org.restheart.security.JwtAccount;
 import static org.restheart.plugins.ConfigurablePlugin.argValue;
@@ -56,6 +61,7 @@ import org.restheart.plugins.ConsumingPlugin;
 import org.restheart.plugins.InjectConfiguration;
 import org.restheart.plugins.RegisterPlugin;
 import org.restheart.plugins.security.AuthMechanism;
+import org.restheart.utils.BsonUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,6 +89,19 @@ public class JwtAuthenticationMechanism implements AuthMechanism, ConsumingPlugi
     private String issuer;
     private String audience;
 
+    /**
+     * verified tokens by digest, to avoid verifying the signature of tokens
+     * reused by clients on every request
+     */
+    private Cache<String, VerifiedJwt> verifiedTokens = null;
+
+    private static record VerifiedJwt(DecodedJWT jwt, JwtAccount account, String payload) {
+        boolean isExpired() {
+            var exp = jwt.getExpiresAt();
+            return exp != null && !exp.toInstant().isAfter(Instant.now());
+        }
+    }
+
     @InjectConfiguration
     public void init(Map<String, Object> args) throws ConfigurationException {
         // get configuration arguments
@@ -95,6 +114,12 @@ public class JwtAuthenticationMechanism implements AuthMechanism, ConsumingPlugi
         issuer = argValue(args, "issuer");
         audience = argValue(args, "audience");
 
+        if (args.containsKey("cacheSize") && (Integer) argValue(args, "cacheSize") > 0) {
+            // cached tokens are also verified again after their exp claim
+            long cacheTTL = args.containsKey("cacheTTL") ? ((Number) argValue(args, "cacheTTL")).longValue() : 60 * 60 * 1_000;
+            this.verifiedTokens = CacheFactory.createLocalCache("jwtAuthenticationMechanism.verifiedTokens", (Integer) argValue(args, "cacheSize"), Cache.EXPIRE_POLICY.AFTER_WRITE, cacheTTL);
+        }
+
         Algorithm _algorithm;
 
         try {
@@ -139,62 +164,89 @@ public class JwtAuthenticationMechanism implements AuthMechanism, ConsumingPlugi
                             Base64.getUrlDecoder().decode(token));
                 }
 
-                DecodedJWT verifiedJwt = jwtVerifier.verify(token);
+                var digest = verifiedTokens == null ? null : DigestUtils.sha256Hex(token);
+                var cached = digest == null ? null : verifiedTokens.get(digest);
 
-                String subject = verifiedJwt.getClaim(usernameClaim).asString();
+                VerifiedJwt verified;
 
-                if (subject == null) {
-                    LOGGER.debug("username not specified with claim {}", usernameClaim);
-                    sc.authenticationFailed("JwtAuthenticationManager", "username not specified");
-                    return AuthenticationMechanismOutcome.NOT_AUTHENTICATED;
-                }
+                if (cached != null && cached.isPresent() && !cached.get().isExpired()) {
+                    verified = cached.get();
+
+                    if (this.extraJwtVerifier != null) {
+                        this.extraJwtVerifier.accept(verified.jwt());
+                    }
+                } else {
+                    if (cached != null) {
+                        verifiedTokens.invalidate(digest);
+                    }
 
-                Set<String> actualRoles = new LinkedHashSet<>();
+                    DecodedJWT verifiedJwt = jwtVerifier.verify(token);
 
-                if (rolesClaim != null) {
-                    Claim _roles = verifiedJwt.getClaim(rolesClaim);
+                    String subject = verifiedJwt.getClaim(usernameClaim).asString();
 
-                    if (_roles != null && !_roles.isNull()) {
-                        try {
-                            String[] __roles = _roles.asArray(String.class);
+                    if (subject == null) {
+                        LOGGER.debug("username not specified with claim {}", usernameClaim);
+                        sc.authenticationFailed("JwtAuthenticationManager", "username not specified");
+                        return AuthenticationMechanismOutcome.NOT_AUTHENTICATED;
+                    }
+
+                    Set<String> actualRoles = new LinkedHashSet<>();
+
+                    if (rolesClaim != null) {
+                        Claim _roles = verifiedJwt.getClaim(rolesClaim);
 
-                            if (__roles != null) {
-                                for (String role : __roles) {
-                                    actualRoles.add(role);
+                        if (_roles != null && !_roles.isNull()) {
+                            try {
+                                String[] __roles = _roles.asArray(String.class);
+
+                                if (__roles != null) {
+                                    for (String role : __roles) {
+                                        actualRoles.add(role);
+                                    }
+                                } else {
+                                    LOGGER.debug("roles is not an array: {}",
+                                            _roles.asString());
+                                    return AuthenticationMechanismOutcome.NOT_AUTHENTICATED;
                                 }
-                            } else {
-                                LOGGER.debug("roles is not an array: {}",
-                                        _roles.asString());
-                                return AuthenticationMechanismOutcome.NOT_AUTHENTICATED;
+                            } catch (JWTDecodeException ex) {
+                                LOGGER.warn("Jwt cannot get roles from claim {}, "
+                                        + "extepected an array of strings: {}",
+                                        rolesClaim,
+                                        _roles.toString());
                             }
-                        } catch (JWTDecodeException ex) {
-                            LOGGER.warn("Jwt cannot get roles from claim {}, "
-                                    + "extepected an array of strings: {}",
-                                    rolesClaim,
-                                    _roles.toString());
                         }
+                    } else if (this.fixedRoles != null) {
+                        actualRoles.addAll(this.fixedRoles);
                     }
-                } else if (this.fixedRoles != null) {
-                    actualRoles.addAll(this.fixedRoles);
-                }
 
-                if (this.extraJwtVerifier != null) {
-                    this.extraJwtVerifier.accept(verifiedJwt);
-                }
+                    if (this.extraJwtVerifier != null) {
+                        this.extraJwtVerifier.accept(verifiedJwt);
+                    }
+
+                    var jwtPayload = new String(Base64.getUrlDecoder()
+                            .decode(verifiedJwt.getPayload()),
+                            Charset.forName("UTF-8"));
+
+                    // parsed once, the account carries it to AclVarsInterpolator, etc.
+                    var jwtPayloadDocument = BsonUtils.parse(jwtPayload);
 
-                var jwtPayload = new String(Base64.getUrlDecoder()
-                        .decode(verifiedJwt.getPayload()),
-                        Charset.forName("UTF-8"));
+                    JwtAccount account = new JwtAccount(
+                            subject,
+                            actualRoles,
+                            jwtPayload,
+                            jwtPayloadDocument instanceof BsonDocument doc ? doc : null
+                    );
 
-                JwtAccount account = new JwtAccount(
-                        subject,
-                        actualRoles,
-                        jwtPayload
-                );
+                    verified = new VerifiedJwt(verifiedJwt, account, jwtPayload);
+
+                    if (digest != null) {
+                        verifiedTokens.put(digest, verified);
+                    }
+                }
 
-                sc.authenticationComplete(account, "JwtAuthenticationManager", false);
+                sc.authenticationComplete(verified.account(), "JwtAuthenticationManager", false);
 
-                Request.of(hse).addXForwardedHeader("Jwt-Payload", jwtPayload);
+                Request.of(hse).addXForwardedHeader("Jwt-Payload", verified.payload());
 
                 return AuthenticationMechanismOutcome.AUTHENTICATED;
             }
@@ -0,0 +1,194 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.services;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheRegistry;
+import org.restheart.cache.CacheStats;
+import org.restheart.exchange.ByteArrayRequest;
+import org.restheart.exchange.ByteArrayResponse;
+import static org.restheart.plugins.ConfigurablePlugin.argValue;
+import org.restheart.plugins.ByteArrayService;
+import org.restheart.plugins.InjectConfiguration;
+import org.restheart.plugins.RegisterPlugin;
+import org.restheart.utils.GsonUtils.ObjectBuilder;
+import static org.restheart.utils.GsonUtils.object;
+import org.restheart.utils.HttpStatus;
+import org.restheart.utils.URLUtils;
+
+import io.undertow.util.Headers;
+
+/**
+ * Reports the size and the statistics of the caches registered in the
+ * CacheRegistry, in JSON or in Prometheus text format (with
+ * ?format=prometheus or Accept: text/plain), and allows to invalidate them
+ * with DELETE /caches/{name}
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+@RegisterPlugin(
+        name = "caches",
+        description = "reports the statistics of the caches and allows to invalidate them",
+        secure = true,
+        enabledByDefault = true,
+        defaultURI = "/caches")
+public class CachesService implements ByteArrayService {
+    private static final String PROMETHEUS_MEDIA_TYPE = "text/plain; version=0.0.4";
+
+    private String myURI = "/caches";
+
+    @InjectConfiguration
+    public void init(Map<String, Object> args) {
+        if (args != null && args.containsKey("uri")) {
+            this.myURI = URLUtils.removeTrailingSlashes(argValue(args, "uri"));
+        }
+    }
+
+    @Override
+    public void handle(ByteArrayRequest request, ByteArrayResponse response) throws Exception {
+        var name = cacheName(request);
+
+        switch(request.getMethod()) {
+            case GET -> {
+                Map<String, Cache<?, ?>> caches;
+
+                if (name == null) {
+                    caches = CacheRegistry.getInstance().caches();
+                } else {
+                    var cache = CacheRegistry.getInstance().get(name);
+
+                    if (cache == null) {
+                        response.setInError(HttpStatus.SC_NOT_FOUND, "cache " + name + " not found");
+                        return;
+                    }
+
+                    caches = Map.of(name, cache);
+                }
+
+                if (isPrometheus(request)) {
+                    response.setContentType(PROMETHEUS_MEDIA_TYPE);
+                    response.setContent(prometheus(caches));
+                } else {
+                    var ret = object();
+                    caches.forEach((n, cache) -> ret.put(n, json(cache).get()));
+                    response.setContentTypeAsJson();
+                    response.setContent(ret.get().toString());
+                }
+
+                response.setStatusCode(HttpStatus.SC_OK);
+            }
+
+            case DELETE -> {
+                if (name == null) {
+                    response.setInError(HttpStatus.SC_BAD_REQUEST, "the cache name is mandatory, DELETE " + myURI + "/{name}");
+                    return;
+                }
+
+                var cache = CacheRegistry.getInstance().get(name);
+
+                if (cache == null) {
+                    response.setInError(HttpStatus.SC_NOT_FOUND, "cache " + name + " not found");
+                } else {
+                    cache.invalidateAll();
+                    response.setStatusCode(HttpStatus.SC_NO_CONTENT);
+                }
+            }
+
+            case OPTIONS -> handleOptions(request);
+
+            default -> response.setStatusCode(HttpStatus.SC_METHOD_NOT_ALLOWED);
+        }
+    }
+
+    /**
+     * @return the cache name, i.e. the part of the path after /caches/, or null
+     */
+    private String cacheName(ByteArrayRequest request) {
+        var path = request.getPath();
+        var prefix = myURI + "/";
+
+        return path.startsWith(prefix) && path.length() > prefix.length()
+            ? path.substring(prefix.length())
+            : null;
+    }
+
+    private static boolean isPrometheus(ByteArrayRequest request) {
+        var accept = request.getHeaders().getFirst(Headers.ACCEPT);
+
+        return "prometheus".equals(request.getQueryParameterOfDefault("format", null))
+            || (accept != null && accept.startsWith("text/plain"));
+    }
+
+    private static ObjectBuilder json(Cache<?, ?> cache) {
+        var stats = cache.stats();
+
+        return object()
+            .put("size", cache.asMap().size())
+            .put("hitCount", stats.hitCount())
+            .put("missCount", stats.missCount())
+            .put("hitRate", stats.hitRate())
+            .put("evictionCount", stats.evictionCount())
+            .put("loadSuccessCount", stats.loadSuccessCount())
+            .put("loadFailureCount", stats.loadFailureCount())
+            // milliseconds
+            .put("averageLoadTime", stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static String prometheus(Map<String, Cache<?, ?>> caches) {
+        var sb = new StringBuilder();
+
+        metric(sb, caches, "restheart_cache_size", "gauge", "Number of entries in the cache", cache -> cache.asMap().size());
+        metric(sb, caches, "restheart_cache_hits_total", "counter", "Number of lookups that found a cached value", cache -> cache.stats().hitCount());
+        metric(sb, caches, "restheart_cache_misses_total", "counter", "Number of lookups that did not find a cached value", cache -> cache.stats().missCount());
+        metric(sb, caches, "restheart_cache_evictions_total", "counter", "Number of evicted entries", cache -> cache.stats().evictionCount());
+        metric(sb, caches, "restheart_cache_loads_total", "counter", "Number of successful loads", cache -> cache.stats().loadSuccessCount());
+        metric(sb, caches, "restheart_cache_load_failures_total", "counter", "Number of failed loads", cache -> cache.stats().loadFailureCount());
+        metric(sb, caches, "restheart_cache_load_seconds_total", "counter", "Time spent loading values", cache -> loadSeconds(cache.stats()));
+
+        return sb.toString();
+    }
+
+    private static double loadSeconds(CacheStats stats) {
+        return (double) stats.totalLoadTime() / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static void metric(StringBuilder sb, Map<String, Cache<?, ?>> caches, String name, String type, String help, ToDoubleFunction<Cache<?, ?>> value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+
+        caches.forEach((cacheName, cache) -> {
+            var v = value.applyAsDouble(cache);
+
+            sb.append(name)
+                .append("{cache=\"").append(escapeLabel(cacheName)).append("\"} ")
+                .append(v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v))
+                .append('\n');
+        });
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
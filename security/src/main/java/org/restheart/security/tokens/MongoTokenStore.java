@@ -0,0 +1,110 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.tokens;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import static com.mongodb.client.model.Updates.set;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TokenStore that keeps the tokens in a MongoDB collection, expired tokens
+ * are removed by a TTL index on the expiresAt property
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class MongoTokenStore implements TokenStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoTokenStore.class);
+
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String ACCOUNT = "account";
+    private static final String ACCOUNT_ID = "account.id";
+
+    private final MongoCollection<BsonDocument> coll;
+
+    /**
+     *
+     * @param mclient
+     * @param db
+     * @param collection
+     */
+    public MongoTokenStore(MongoClient mclient, String db, String collection) {
+        this.coll = mclient.getDatabase(db).getCollection(collection, BsonDocument.class);
+
+        try {
+            this.coll.createIndex(Indexes.ascending(EXPIRES_AT), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS));
+            this.coll.createIndex(Indexes.ascending(ACCOUNT_ID));
+        } catch (Throwable t) {
+            LOGGER.warn("Error creating the indexes of the tokens collection {}.{}", db, collection, t);
+        }
+    }
+
+    @Override
+    public void put(String tokenHash, BsonDocument account, Instant expiresAt) {
+        var token = new BsonDocument("_id", new BsonString(tokenHash))
+            .append(ACCOUNT, account)
+            .append(EXPIRES_AT, new BsonDateTime(expiresAt.toEpochMilli()));
+
+        coll.insertOne(token);
+    }
+
+    @Override
+    public BsonDocument get(String tokenHash) {
+        // the TTL monitor removes expired documents every 60 seconds
+        var token = coll.find(and(eq("_id", tokenHash), gt(EXPIRES_AT, new Date()))).first();
+
+        return token == null ? null : token.getDocument(ACCOUNT, null);
+    }
+
+    @Override
+    public BsonDocument touch(String tokenHash, Instant expiresAt) {
+        var token = coll.findOneAndUpdate(
+            and(eq("_id", tokenHash), gt(EXPIRES_AT, new Date())),
+            set(EXPIRES_AT, new BsonDateTime(expiresAt.toEpochMilli())),
+            new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+
+        return token == null ? null : token.getDocument(ACCOUNT, null);
+    }
+
+    @Override
+    public void invalidate(String id) {
+        coll.deleteMany(eq(ACCOUNT_ID, id));
+    }
+
+    @Override
+    public void update(String id, BsonDocument account) {
+        coll.updateMany(eq(ACCOUNT_ID, id), set(ACCOUNT, account));
+    }
+}
@@ -21,6 +21,7 @@
 package org.restheart.security.tokens;
 
 import com.google.common.collect.Sets;
+import com.mongodb.client.MongoClient;
 import io.undertow.security.idm.Account;
 import io.undertow.security.idm.Credential;
 import io.undertow.security.idm.PasswordCredential;
@@ -31,8 +32,16 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bson.BsonArray;
 import org.bson.BsonDocument;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
 import org.restheart.ConfigurationException;
 import org.restheart.cache.Cache;
 import org.restheart.cache.CacheFactory;
@@ -43,6 +52,7 @@ import org.restheart.security.MongoRealmAccount;
 import org.restheart.security.PwdCredentialAccount;
 import org.restheart.plugins.ConfigurablePlugin;
 import org.restheart.plugins.InjectConfiguration;
+import org.restheart.plugins.InjectMongoClient;
 import org.restheart.plugins.InjectPluginsRegistry;
 import org.restheart.plugins.PluginsRegistry;
 import org.restheart.plugins.RegisterPlugin;
@@ -62,11 +72,33 @@ public class RndTokenManager implements TokenManager {
 
     private static final SecureRandom RND_GENERATOR = new SecureRandom();
 
-    private static Cache<String, PwdCredentialAccount> CACHE = null;
+    /**
+     * the tokens generated by this node, by account id
+     */
+    private Cache<String, PwdCredentialAccount> CACHE = null;
+
+    /**
+     * the tokens retrieved from the store, by token hash
+     */
+    private Cache<String, PwdCredentialAccount> STORED_TOKENS_CACHE = null;
+
+    /**
+     * the hashes of the tokens recently checked against the store, a cached
+     * token is checked again after near-cache-ttl to detect revocations and
+     * updates done by other nodes
+     */
+    private Cache<String, Boolean> CHECKED_TOKENS_CACHE = null;
 
     private int ttl = -1;
     private String srvURI = null;
 
+    private String store = "local";
+    private String storeDb = "restheart";
+    private String storeCollection = "tokens";
+    private int nearCacheTTL = 60 * 1_000;
+
+    private TokenStore tokenStore = null;
+
     @InjectConfiguration
     @InjectPluginsRegistry
     public void init(Map<String, Object> confArgs, PluginsRegistry pluginsRegistry) throws ConfigurationException {
@@ -74,7 +106,27 @@ public class RndTokenManager implements TokenManager {
 
         this.srvURI = ConfigurablePlugin.argValue(confArgs, "srv-uri");
 
-        CACHE = CacheFactory.createLocalCache(Long.MAX_VALUE, Cache.EXPIRE_POLICY.AFTER_READ, ttl * 60 * 1_000);
+        CACHE = CacheFactory.createLocalCache("rndTokenManager.tokens", Long.MAX_VALUE, Cache.EXPIRE_POLICY.AFTER_READ, ttl * 60 * 1_000);
+
+        if (confArgs.containsKey("store")) {
+            this.store = ConfigurablePlugin.argValue(confArgs, "store");
+
+            if (!"local".equals(this.store) && !"mongo".equals(this.store)) {
+                throw new ConfigurationException("wrong rndTokenManager configuration, store valid values are local and mongo");
+            }
+        }
+
+        if (confArgs.containsKey("store-db")) {
+            this.storeDb = ConfigurablePlugin.argValue(confArgs, "store-db");
+        }
+
+        if (confArgs.containsKey("store-collection")) {
+            this.storeCollection = ConfigurablePlugin.argValue(confArgs, "store-collection");
+        }
+
+        if (confArgs.containsKey("near-cache-ttl")) {
+            this.nearCacheTTL = ConfigurablePlugin.argValue(confArgs, "near-cache-ttl");
+        }
 
         // add the auth token header to CORS header Access-Control-Expose-Headers
         // using helper interceptor tokenCORSResponseInterceptor
@@ -91,6 +143,26 @@ public class RndTokenManager implements TokenManager {
         }
     }
 
+    @InjectMongoClient
+    public void setMongoClient(MongoClient mclient) {
+        if ("mongo".equals(this.store)) {
+            setTokenStore(new MongoTokenStore(mclient, this.storeDb, this.storeCollection));
+        }
+    }
+
+    /**
+     * Sets the store shared by the nodes. The local caches act as a
+     * near-cache of the store: tokens are verified in memory and checked
+     * against the store at most every near-cache-ttl milliseconds.
+     *
+     * @param tokenStore
+     */
+    public void setTokenStore(TokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+        this.STORED_TOKENS_CACHE = CacheFactory.createLocalCache("rndTokenManager.storedTokens", Long.MAX_VALUE, Cache.EXPIRE_POLICY.AFTER_READ, ttl * 60 * 1_000);
+        this.CHECKED_TOKENS_CACHE = CacheFactory.createLocalCache("rndTokenManager.checkedTokens", Long.MAX_VALUE, Cache.EXPIRE_POLICY.AFTER_WRITE, nearCacheTTL);
+    }
+
     @Override
     public Account verify(final Account account) {
         return account;
@@ -100,9 +172,111 @@ public class RndTokenManager implements TokenManager {
     public Account verify(final String id, final Credential credential) {
         final var _account = CACHE.get(id);
 
-        return _account != null && _account.isPresent() && verifyToken(_account.get(), credential)
-                ? _account.get()
-                : null;
+        if (_account != null && _account.isPresent() && verifyToken(_account.get(), credential)) {
+            return tokenStore == null ? _account.get() : check(_account.get());
+        }
+
+        if (tokenStore == null || !(credential instanceof PasswordCredential)) {
+            return null;
+        }
+
+        // the token might have been generated by another node
+        var token = ((PasswordCredential) credential).getPassword();
+        var hash = tokenHash(token);
+
+        var _stored = STORED_TOKENS_CACHE.get(hash);
+
+        if (_stored != null && _stored.isPresent()) {
+            return id.equals(_stored.get().getPrincipal().getName()) ? adopt(check(_stored.get())) : null;
+        }
+
+        BsonDocument stored;
+
+        try {
+            stored = tokenStore.get(hash);
+        } catch (Throwable t) {
+            LOGGER.error("Error getting the auth token from the store", t);
+            return null;
+        }
+
+        if (stored == null || !id.equals(stored.getString("id", new BsonString("")).getValue())) {
+            return null;
+        }
+
+        var account = fromStoredAccount(stored, token);
+
+        STORED_TOKENS_CACHE.put(hash, account);
+        CHECKED_TOKENS_CACHE.put(hash, true);
+
+        return adopt(account);
+    }
+
+    /**
+     * makes a token issued by another node the local token of its account,
+     * unless this node already has one, so that get() returns the token that
+     * authenticated the request rather than issuing a new one
+     *
+     * @param account the account verified via the store, or null
+     * @return the account
+     */
+    private PwdCredentialAccount adopt(PwdCredentialAccount account) {
+        if (account != null) {
+            CACHE.asMap().putIfAbsent(account.getPrincipal().getName(), Optional.of(account));
+        }
+
+        return account;
+    }
+
+    /**
+     * checks a cached token against the store, at most every near-cache-ttl
+     *
+     * @param account the cached account
+     * @return the account, possibly updated by another node, or null if the
+     * token has been revoked
+     */
+    private PwdCredentialAccount check(PwdCredentialAccount account) {
+        var token = account.getCredentials().getPassword();
+        var hash = tokenHash(token);
+
+        if (CHECKED_TOKENS_CACHE.get(hash) != null) {
+            return account;
+        }
+
+        BsonDocument stored;
+
+        try {
+            // also extends the expiration of the stored token
+            stored = tokenStore.touch(hash, Instant.now().plus(ttl, ChronoUnit.MINUTES));
+        } catch (Throwable t) {
+            LOGGER.warn("Error checking the auth token against the store", t);
+            return account;
+        }
+
+        var id = account.getPrincipal().getName();
+        var _local = CACHE.get(id);
+        var local = _local != null && _local.isPresent() && Arrays.equals(_local.get().getCredentials().getPassword(), token);
+
+        if (stored == null) {
+            // revoked by another node
+            if (local) {
+                CACHE.invalidate(id);
+            }
+
+            STORED_TOKENS_CACHE.invalidate(hash);
+            return null;
+        }
+
+        var updated = fromStoredAccount(stored, token);
+
+        if (local) {
+            CACHE.put(id, updated);
+        } else {
+            STORED_TOKENS_CACHE.put(hash, updated);
+        }
+
+        CHECKED_TOKENS_CACHE.put(hash, true);
+
+        return updated;
     }
 
     @Override
@@ -135,6 +309,17 @@ public class RndTokenManager implements TokenManager {
 
             CACHE.put(account.getPrincipal().getName(), newCachedTokenAccount);
 
+            if (tokenStore != null) {
+                var hash = tokenHash(newCachedTokenAccount.getCredentials().getPassword());
+
+                try {
+                    tokenStore.put(hash, toStoredAccount(newCachedTokenAccount), Instant.now().plus(ttl, ChronoUnit.MINUTES));
+                    CHECKED_TOKENS_CACHE.put(hash, true);
+                } catch (Throwable t) {
+                    LOGGER.error("Error storing the auth token, it can be only verified by this node", t);
+                }
+            }
+
             return newCachedTokenAccount.getCredentials();
         }
     }
@@ -147,8 +332,8 @@ public class RndTokenManager implements TokenManager {
         } else if (account instanceof FileRealmAccount faccount) {
             ret = new FileRealmAccount(faccount.getPrincipal().getName(), token, Sets.newTreeSet(faccount.getRoles()), faccount.getAccountProperties());
         } else if (account instanceof JwtAccount jwtAccount) {
-            var accountDocument = BsonUtils.parse(jwtAccount.getJwtPayload());
-            if (accountDocument instanceof BsonDocument bad) {
+            var bad = jwtAccount.getJwtPayloadDocument();
+            if (bad != null) {
                 ret = new MongoRealmAccount(jwtAccount.getPrincipal().getName(), token, Sets.newTreeSet(jwtAccount.getRoles()), bad);
             } else {
                 ret = new PwdCredentialAccount(jwtAccount.getPrincipal().getName(), token, Sets.newTreeSet(jwtAccount.getRoles()));
@@ -162,7 +347,19 @@ public class RndTokenManager implements TokenManager {
 
     @Override
     public void invalidate(Account account) {
-        CACHE.invalidate(account.getPrincipal().getName());
+        var id = account.getPrincipal().getName();
+
+        CACHE.invalidate(id);
+
+        if (tokenStore != null) {
+            STORED_TOKENS_CACHE.asMap().values().removeIf(a -> a.isPresent() && id.equals(a.get().getPrincipal().getName()));
+
+            try {
+                tokenStore.invalidate(id);
+            } catch (Throwable t) {
+                LOGGER.error("Error removing the auth tokens of {} from the store", id, t);
+            }
+        }
     }
 
     @Override
@@ -178,6 +375,67 @@ public class RndTokenManager implements TokenManager {
 
             CACHE.put(id, updatedAuthTokenAccount);
         }
+
+        if (tokenStore != null) {
+            STORED_TOKENS_CACHE.asMap().replaceAll((hash, a) -> a.isPresent() && id.equals(a.get().getPrincipal().getName())
+                ? Optional.of(cloneWithToken(account, a.get().getCredentials().getPassword()))
+                : a);
+
+            try {
+                tokenStore.update(id, toStoredAccount(cloneWithToken(account, new char[0])));
+            } catch (Throwable t) {
+                LOGGER.error("Error updating the auth tokens of {} in the store", id, t);
+            }
+        }
+    }
+
+    /**
+     * @param account
+     * @return the account as stored in the TokenStore, without the token
+     */
+    private static BsonDocument toStoredAccount(PwdCredentialAccount account) {
+        var roles = new BsonArray();
+        account.getRoles().stream().map(BsonString::new).forEachOrdered(roles::add);
+
+        var ret = new BsonDocument("id", new BsonString(account.getPrincipal().getName()))
+            .append("roles", roles);
+
+        if (account instanceof MongoRealmAccount maccount) {
+            ret.append("type", new BsonString("mongo"));
+            ret.append("properties", maccount.getAccountDocument() == null ? BsonNull.VALUE : maccount.getAccountDocument());
+        } else if (account instanceof FileRealmAccount faccount) {
+            ret.append("type", new BsonString("file"));
+            ret.append("properties", faccount.getAccountProperties() == null ? BsonNull.VALUE : BsonUtils.toBsonDocument(faccount.getAccountProperties()));
+        } else {
+            ret.append("type", new BsonString("pwd"));
+        }
+
+        return ret;
+    }
+
+    private static PwdCredentialAccount fromStoredAccount(BsonDocument stored, char[] token) {
+        var id = stored.getString("id").getValue();
+
+        var roles = new TreeSet<String>();
+        stored.getArray("roles", new BsonArray()).stream()
+            .filter(BsonValue::isString)
+            .map(r -> r.asString().getValue())
+            .forEachOrdered(roles::add);
+
+        var type = stored.getString("type", new BsonString("pwd")).getValue();
+        var properties = stored.get("properties");
+
+        if ("mongo".equals(type)) {
+            return new MongoRealmAccount(id, token, roles, properties != null && properties.isDocument() ? properties.asDocument() : null);
+        } else if ("file".equals(type)) {
+            return new FileRealmAccount(id, token, roles, properties != null && properties.isDocument() ? Document.parse(properties.asDocument().toJson()) : null);
+        } else {
+            return new PwdCredentialAccount(id, token, roles);
+        }
+    }
+
+    private static String tokenHash(char[] token) {
+        return DigestUtils.sha256Hex(new String(token));
     }
 
     @Override
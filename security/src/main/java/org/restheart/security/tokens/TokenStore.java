@@ -0,0 +1,78 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.tokens;
+
+import java.time.Instant;
+import org.bson.BsonDocument;
+
+/**
+ * A store of the auth tokens shared by the RESTHeart nodes, so that a token
+ * generated by a node can be verified by any node.
+ *
+ * Tokens are identified by their hash, the token values are never stored.
+ * The stored account is a document with the properties id, type, roles and
+ * properties, see RndTokenManager.
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public interface TokenStore {
+    /**
+     * stores a token
+     *
+     * @param tokenHash the hash of the token
+     * @param account the account the token is issued to
+     * @param expiresAt the expiration of the token
+     */
+    void put(String tokenHash, BsonDocument account, Instant expiresAt);
+
+    /**
+     *
+     * @param tokenHash the hash of the token
+     * @return the account the token is issued to, or null if the token does
+     * not exist or is expired
+     */
+    BsonDocument get(String tokenHash);
+
+    /**
+     * postpones the expiration of a token
+     *
+     * @param tokenHash the hash of the token
+     * @param expiresAt the new expiration of the token
+     * @return the account the token is issued to, or null if the token does
+     * not exist or is expired
+     */
+    BsonDocument touch(String tokenHash, Instant expiresAt);
+
+    /**
+     * removes the tokens issued to an account
+     *
+     * @param id the account id
+     */
+    void invalidate(String id);
+
+    /**
+     * updates the account of the tokens issued to it
+     *
+     * @param id the account id
+     * @param account the updated account
+     */
+    void update(String id, BsonDocument account);
+}
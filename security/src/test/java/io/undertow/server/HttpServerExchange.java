@@ -26,6 +26,7 @@ import io.undertow.util.HeaderMap;
 import io.undertow.util.HttpString;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
@@ -49,6 +50,9 @@ public class HttpServerExchange extends AbstractAttachable {
     private String relativePath;
     private HttpString requestMethod;
     private Map<String, Deque<String>> queryParameters;
+    private final HeaderMap requestHeaders = new HeaderMap();
+    private final HeaderMap responseHeaders = new HeaderMap();
+    private SecurityContext securityContext;
 
     public HttpServerExchange() {
     }
@@ -157,11 +161,23 @@ public class HttpServerExchange extends AbstractAttachable {
     }
 
     public HeaderMap getRequestHeaders() {
-        return null;
+        return requestHeaders;
+    }
+
+    public HeaderMap getResponseHeaders() {
+        return responseHeaders;
     }
 
     public SecurityContext getSecurityContext() {
-        return null;
+        return securityContext;
+    }
+
+    public void setSecurityContext(SecurityContext securityContext) {
+        this.securityContext = securityContext;
+    }
+
+    public InetSocketAddress getSourceAddress() {
+        return new InetSocketAddress("127.0.0.1", 12345);
     }
 
     /**
@@ -0,0 +1,90 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2022 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.mindrot.jbcrypt.BCrypt;
+import org.restheart.plugins.security.AuthenticatorOverloadedException;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class BCryptVerifierTest {
+    // cost 12, about 250 ms
+    private static final String SLOW_HASH = BCrypt.hashpw("slow", BCrypt.gensalt(12));
+    private static final String FAST_HASH = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+
+    @Test
+    public void testCheckpw() {
+        var verifier = new BCryptVerifier(1, 1, 5_000);
+
+        assertTrue(verifier.checkpw("user", "secret", FAST_HASH));
+        assertFalse(verifier.checkpw("user", "wrong", FAST_HASH));
+        assertFalse(verifier.checkpw("user", "secret", "not a bcrypt hash"));
+    }
+
+    @Test
+    public void testRejection() throws Exception {
+        var verifier = new BCryptVerifier(1, 1, 5_000);
+
+        // occupies the thread and the queue
+        var running = CompletableFuture.supplyAsync(() -> verifier.checkpw("user1", "slow", SLOW_HASH));
+        var queued = CompletableFuture.supplyAsync(() -> verifier.checkpw("user2", "slow", SLOW_HASH));
+
+        Thread.sleep(100);
+
+        assertThrows(AuthenticatorOverloadedException.class, () -> verifier.checkpw("user3", "secret", FAST_HASH));
+
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        var verifier = new BCryptVerifier(1, 1, 5_000);
+
+        var running = CompletableFuture.supplyAsync(() -> verifier.checkpw("user1", "slow", SLOW_HASH));
+
+        Thread.sleep(100);
+
+        // the same credentials share the only queue slot
+        var first = CompletableFuture.supplyAsync(() -> verifier.checkpw("user2", "slow", SLOW_HASH));
+        Thread.sleep(50);
+        var second = CompletableFuture.supplyAsync(() -> verifier.checkpw("user2", "slow", SLOW_HASH));
+
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        var verifier = new BCryptVerifier(1, 1, 10);
+
+        assertThrows(AuthenticatorOverloadedException.class, () -> verifier.checkpw("user", "slow", SLOW_HASH));
+    }
+}
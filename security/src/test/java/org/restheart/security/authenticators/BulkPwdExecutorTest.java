@@ -0,0 +1,114 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2022 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.bson.BsonArray;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.restheart.utils.BsonUtils;
+
+import com.jayway.jsonpath.spi.json.GsonJsonProvider;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.mapper.GsonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.MappingProvider;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class BulkPwdExecutorTest {
+    @BeforeClass
+    public static void setJsonpathDefaults() {
+        com.jayway.jsonpath.Configuration.setDefaults(new com.jayway.jsonpath.Configuration.Defaults() {
+            private final JsonProvider jsonProvider = new GsonJsonProvider();
+            private final MappingProvider mappingProvider = new GsonMappingProvider();
+
+            @Override
+            public JsonProvider jsonProvider() {
+                return jsonProvider;
+            }
+
+            @Override
+            public MappingProvider mappingProvider() {
+                return mappingProvider;
+            }
+
+            @Override
+            public Set<com.jayway.jsonpath.Option> options() {
+                return EnumSet.noneOf(com.jayway.jsonpath.Option.class);
+            }
+        });
+    }
+
+    @Test
+    public void testOrderAndMissingPasswords() throws Exception {
+        var docs = new BsonArray();
+
+        for (int idx = 0; idx < 100; idx++) {
+            docs.add(idx % 10 == 0
+                ? BsonUtils.document().put("_id", "user" + idx).get()
+                : BsonUtils.document().put("_id", "user" + idx).put("password", "pwd" + idx).get());
+        }
+
+        var outcomes = BulkPwdExecutor.process(docs.getValues(), "password", String::toUpperCase);
+
+        assertEquals(100, outcomes.size());
+
+        for (int idx = 0; idx < 100; idx++) {
+            assertNull(outcomes.get(idx).error());
+
+            if (idx % 10 == 0) {
+                assertNull(outcomes.get(idx).value());
+            } else {
+                assertEquals("PWD" + idx, outcomes.get(idx).value());
+            }
+        }
+    }
+
+    @Test
+    public void testErrorsAreReportedPerDocument() throws Exception {
+        var docs = new BsonArray();
+        docs.add(BsonUtils.document().put("password", "good").get());
+        docs.add(BsonUtils.document().put("password", "bad").get());
+        docs.add(BsonUtils.document().put("password", 1).get());
+
+        var outcomes = BulkPwdExecutor.process(docs.getValues(), "password", plain -> {
+            if ("bad".equals(plain)) {
+                throw new IllegalArgumentException("bad password");
+            }
+
+            return plain;
+        });
+
+        assertEquals("good", outcomes.get(0).value());
+        assertNull(outcomes.get(1).value());
+        assertNotNull(outcomes.get(1).error());
+        // not a string password
+        assertNull(outcomes.get(2).value());
+        assertNull(outcomes.get(2).error());
+    }
+}
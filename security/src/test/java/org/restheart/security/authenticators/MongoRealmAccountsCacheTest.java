@@ -0,0 +1,177 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2022 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authenticators;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import org.bson.BsonDocument;
+import org.junit.Test;
+import org.restheart.cache.Cache;
+import org.restheart.security.MongoRealmAccount;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class MongoRealmAccountsCacheTest {
+    // the users collection
+    private final Map<String, MongoRealmAccount> users = new ConcurrentHashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger(0);
+
+    private MongoRealmAccount find(String id) {
+        lookups.incrementAndGet();
+        return users.get(id);
+    }
+
+    private MongoRealmAccountsCache cache(long refresh) {
+        return new MongoRealmAccountsCache(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 60_000, refresh, 60_000, this::find);
+    }
+
+    private static MongoRealmAccount account(String id, String password, String role) {
+        return new MongoRealmAccount(id, password.toCharArray(), Set.of(role), new BsonDocument());
+    }
+
+    @Test
+    public void testCached() {
+        var cache = cache(60_000);
+        users.put("user", account("user", "secret", "user"));
+
+        assertNotNull(cache.get("user"));
+        assertNotNull(cache.get("user"));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void testInvalidation() {
+        var cache = cache(60_000);
+        users.put("user", account("user", "secret", "user"));
+
+        assertEquals(Set.of("user"), cache.get("user").getRoles());
+
+        // the roles are updated and the users collection write invalidates the cache
+        users.put("user", account("user", "secret", "admin"));
+        assertEquals(Set.of("user"), cache.get("user").getRoles());
+
+        cache.invalidate();
+        assertEquals(Set.of("admin"), cache.get("user").getRoles());
+
+        // the user is deleted
+        users.remove("user");
+        cache.invalidate();
+        assertNull(cache.get("user"));
+    }
+
+    @Test
+    public void testNegativeCacheAndUserCreation() {
+        var cache = cache(60_000);
+
+        // unknown ids are cached
+        assertNull(cache.get("newuser"));
+        assertNull(cache.get("newuser"));
+        assertEquals(1, lookups.get());
+
+        // the user is created, the write to the users collection invalidates
+        // the unknown ids, so that the new user can authenticate immediately
+        users.put("newuser", account("newuser", "secret", "user"));
+        cache.invalidate();
+
+        assertNotNull(cache.get("newuser"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testLookupErrorsAreNotCached() {
+        var fail = new AtomicInteger(1);
+        var cache = new MongoRealmAccountsCache(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 60_000, 60_000, 60_000, id -> {
+            if (fail.getAndDecrement() > 0) {
+                throw new IllegalStateException("mongodb not available");
+            }
+
+            return account(id, "secret", "user");
+        });
+
+        assertThrows(IllegalStateException.class, () -> cache.get("user"));
+        assertNotNull(cache.get("user"));
+    }
+
+    @Test
+    public void testLookupStartedBeforeInvalidation() throws Exception {
+        var started = new CountDownLatch(1);
+        var proceed = new CountDownLatch(1);
+        var stale = account("user", "old", "user");
+
+        var cache = new MongoRealmAccountsCache(100, Cache.EXPIRE_POLICY.AFTER_WRITE, 60_000, 60_000, 60_000, id -> {
+            var found = users.getOrDefault(id, stale);
+            started.countDown();
+
+            try {
+                proceed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+
+            return found;
+        });
+
+        // a lookup reads the account, then the password is updated
+        var lookup = CompletableFuture.supplyAsync(() -> cache.get("user"));
+        started.await(5, TimeUnit.SECONDS);
+
+        users.put("user", account("user", "new", "user"));
+        cache.invalidate();
+        proceed.countDown();
+
+        assertEquals("old", new String(lookup.get(5, TimeUnit.SECONDS).getCredentials().getPassword()));
+
+        // the stale account has not been cached
+        assertEquals("new", new String(cache.get("user").getCredentials().getPassword()));
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        // accounts are always older than the refresh time
+        var cache = cache(0);
+        users.put("user", account("user", "secret", "user"));
+
+        assertEquals(Set.of("user"), cache.get("user").getRoles());
+        Thread.sleep(5);
+
+        // the cached account is served while reloaded in the background
+        users.put("user", account("user", "secret", "admin"));
+        assertEquals(Set.of("user"), cache.get("user").getRoles());
+
+        var deadline = System.currentTimeMillis() + 5_000;
+        while (!cache.get("user").getRoles().contains("admin") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Set.of("admin"), cache.get("user").getRoles());
+    }
+}
@@ -0,0 +1,92 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.authorizers;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.Assert.assertEquals;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.Test;
+import static org.restheart.security.authorizers.AclPermissionsIndex.literalPath;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class AclPermissionsIndexTest {
+    @Test
+    public void testLiteralPath() {
+        assertEquals(Optional.of("/a"), literalPath("path-prefix('/a')"));
+        assertEquals(Optional.of("/a/b"), literalPath("path('/a/b')"));
+        assertEquals(Optional.of("/a"), literalPath("path-prefix(path=\"/a\")"));
+        assertEquals(Optional.of("/a"), literalPath("method(GET) and path-prefix('/a')"));
+        assertEquals(Optional.of("/a"), literalPath("(path-prefix('/a') and (method(GET) or method(POST)))"));
+        assertEquals(Optional.of("/a"), literalPath("path-prefix('/a')and not method(DELETE)"));
+
+        assertEquals(Optional.empty(), literalPath("path-prefix('/a') or method(GET)"));
+        assertEquals(Optional.empty(), literalPath("path-prefix('/a')or method(GET)"));
+        assertEquals(Optional.empty(), literalPath("not path-prefix('/a')"));
+        assertEquals(Optional.empty(), literalPath("path-prefix('/a', '/b')"));
+        assertEquals(Optional.empty(), literalPath("path-prefix('/@user._id')"));
+        assertEquals(Optional.empty(), literalPath("path-template('/{db}/coll')"));
+        assertEquals(Optional.empty(), literalPath("equals(%R, '/a and b')"));
+    }
+
+    @Test
+    public void testCandidates() {
+        var index = index(
+            "path-prefix('/a/b') and method(GET)",
+            "path('/a')",
+            "method(GET)",
+            "path-prefix('/')",
+            "path-prefix('/c')",
+            "path-prefix('/a/bc')");
+
+        assertEquals(List.of(0, 1, 2, 3), ids(index, "/a/b/c"));
+        assertEquals(List.of(0, 1, 2, 3), ids(index, "/a/b"));
+        assertEquals(List.of(1, 2, 3), ids(index, "/a"));
+        assertEquals(List.of(1, 2, 3), ids(index, "/a/"));
+        assertEquals(List.of(1, 2, 3, 5), ids(index, "/a/bc"));
+        assertEquals(List.of(2, 3), ids(index, "/ab"));
+        assertEquals(List.of(2, 3, 4), ids(index, "/c/d"));
+        assertEquals(List.of(2, 3), ids(index, "/"));
+    }
+
+    private static AclPermissionsIndex<MongoAclPermission> index(String... predicates) {
+        var permissions = new LinkedHashSet<MongoAclPermission>();
+
+        for (int idx = 0; idx < predicates.length; idx++) {
+            permissions.add(MongoAclPermission.build(BsonDocument.parse("{'roles': ['user']}")
+                .append("_id", new BsonInt32(idx))
+                .append("predicate", new BsonString(predicates[idx]))
+                .append("priority", new BsonInt32(predicates.length - idx))));
+        }
+
+        return new AclPermissionsIndex<>(permissions, MongoAclPermission::getRequestPredicate);
+    }
+
+    private static List<Integer> ids(AclPermissionsIndex<MongoAclPermission> index, String path) {
+        return index.candidates(path).map(p -> p.getId().asInt32().getValue()).toList();
+    }
+}
@@ -0,0 +1,158 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.interceptors;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bson.BsonDocument;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.exchange.BsonResponse;
+import org.restheart.exchange.ExchangeWithRequestFactory;
+import org.restheart.exchange.ServiceRequest;
+import org.restheart.exchange.ServiceResponse;
+import org.restheart.security.BaseAclPermission;
+import org.restheart.utils.HttpStatus;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class RateLimiterTest {
+    private static final HttpString RATE_LIMIT_LIMIT = HttpString.tryFromString("RateLimit-Limit");
+    private static final HttpString RATE_LIMIT_REMAINING = HttpString.tryFromString("RateLimit-Remaining");
+    private static final HttpString RATE_LIMIT_RESET = HttpString.tryFromString("RateLimit-Reset");
+    private static final HttpString RETRY_AFTER = HttpString.tryFromString("Retry-After");
+
+    @Test
+    public void testHeaders() throws Exception {
+        var rateLimiter = rateLimiter(limit(10, 60, 3));
+
+        var response = handle(rateLimiter, null);
+
+        assertFalse(response.isInError());
+        assertEquals("3", response.getHeader(RATE_LIMIT_LIMIT));
+        assertEquals("2", response.getHeader(RATE_LIMIT_REMAINING));
+        // one token every 6 seconds
+        assertEquals("6", response.getHeader(RATE_LIMIT_RESET));
+        assertNull(response.getHeader(RETRY_AFTER));
+
+        assertEquals("1", handle(rateLimiter, null).getHeader(RATE_LIMIT_REMAINING));
+    }
+
+    @Test
+    public void testTooManyRequests() throws Exception {
+        var rateLimiter = rateLimiter(limit(10, 60, 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(handle(rateLimiter, null).isInError());
+        }
+
+        var response = handle(rateLimiter, null);
+
+        assertEquals(HttpStatus.SC_TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("0", response.getHeader(RATE_LIMIT_REMAINING));
+        var retryAfter = Long.parseLong(response.getHeader(RETRY_AFTER));
+        assertTrue(retryAfter > 0 && retryAfter <= 6);
+    }
+
+    @Test
+    public void testAclLimit() throws Exception {
+        var rateLimiter = rateLimiter();
+        var permission = permission(BsonDocument.parse("{'_id': 1, 'rateLimit': {'requests': 1, 'period': 60, 'key': 'ip'}}"));
+
+        var response = handle(rateLimiter, permission);
+
+        assertFalse(response.isInError());
+        assertEquals("1", response.getHeader(RATE_LIMIT_LIMIT));
+        assertEquals("0", response.getHeader(RATE_LIMIT_REMAINING));
+
+        assertEquals(HttpStatus.SC_TOO_MANY_REQUESTS, handle(rateLimiter, permission).getStatusCode());
+
+        // requests authorized by other permissions are not limited
+        assertNull(handle(rateLimiter, null).getHeader(RATE_LIMIT_LIMIT));
+    }
+
+    @Test
+    public void testWrongAclLimit() throws Exception {
+        var rateLimiter = rateLimiter();
+        var permission = permission(BsonDocument.parse("{'_id': 1, 'rateLimit': {'requests': 'many'}}"));
+
+        assertFalse(handle(rateLimiter, permission).isInError());
+        assertFalse(handle(rateLimiter, permission).isInError());
+    }
+
+    @Test
+    public void testRefundOnReject() throws Exception {
+        var rateLimiter = rateLimiter(limit(10, 60, 10));
+        var permission = permission(BsonDocument.parse("{'_id': 1, 'rateLimit': {'requests': 1, 'period': 60, 'key': 'ip'}}"));
+
+        assertFalse(handle(rateLimiter, permission).isInError());
+
+        // rejected by the acl limit
+        assertEquals(HttpStatus.SC_TOO_MANY_REQUESTS, handle(rateLimiter, permission).getStatusCode());
+        assertEquals(HttpStatus.SC_TOO_MANY_REQUESTS, handle(rateLimiter, permission).getStatusCode());
+
+        // the rejected requests did not consume the tokens of the configured limit
+        assertEquals("8", handle(rateLimiter, null).getHeader(RATE_LIMIT_REMAINING));
+    }
+
+    private static Map<String, Object> limit(int requests, int period, int burst) {
+        return Map.of("requests", requests, "period", period, "burst", burst, "key", "ip");
+    }
+
+    @SafeVarargs
+    private static RateLimiter rateLimiter(Map<String, Object>... limits) {
+        var args = new HashMap<String, Object>();
+        args.put("limits", List.of(limits));
+
+        var rateLimiter = new RateLimiter();
+        rateLimiter.config(args);
+        return rateLimiter;
+    }
+
+    private static BaseAclPermission permission(BsonDocument raw) {
+        return new BaseAclPermission(r -> true, Set.of("user"), 0, raw) {};
+    }
+
+    private static ServiceResponse<?> handle(RateLimiter rateLimiter, BaseAclPermission permission) throws Exception {
+        var exchange = new HttpServerExchange();
+        exchange.setRequestMethod(HttpString.tryFromString("GET"));
+        exchange.setRequestPath("/coll");
+        ExchangeWithRequestFactory.withBson(exchange, null);
+        BsonResponse.init(exchange);
+
+        if (permission != null) {
+            exchange.putAttachment(BaseAclPermission.MATCHING_ACL_PERMISSION, permission);
+        }
+
+        var response = ServiceResponse.of(exchange);
+        rateLimiter.handle(ServiceRequest.of(exchange), response);
+        return response;
+    }
+}
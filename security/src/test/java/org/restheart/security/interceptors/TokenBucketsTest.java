@@ -0,0 +1,109 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.interceptors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class TokenBucketsTest {
+    @Test
+    public void testConsume() {
+        var now = new AtomicLong(0);
+        var buckets = new TokenBuckets(100, 60_000, now::get);
+        // 10 requests per second, burst 3
+        var limit = new TokenBuckets.Limit(10, 1_000, 3);
+
+        assertEquals(2, buckets.consume("a", limit).remaining());
+        assertEquals(1, buckets.consume("a", limit).remaining());
+        assertEquals(0, buckets.consume("a", limit).remaining());
+
+        var rejected = buckets.consume("a", limit);
+        assertFalse(rejected.allowed());
+        assertEquals(100, rejected.retryAfter());
+        assertEquals(300, rejected.reset());
+
+        // other keys have their own bucket
+        assertTrue(buckets.consume("b", limit).allowed());
+
+        // a token is added every 100 ms
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(buckets.consume("a", limit).allowed());
+        assertFalse(buckets.consume("a", limit).allowed());
+
+        // the bucket never holds more than burst tokens
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(2, buckets.consume("a", limit).remaining());
+    }
+
+    @Test
+    public void testRefund() {
+        var now = new AtomicLong(0);
+        var buckets = new TokenBuckets(100, 60_000, now::get);
+        var limit = new TokenBuckets.Limit(10, 1_000, 3);
+
+        assertEquals(2, buckets.consume("a", limit).remaining());
+        assertEquals(1, buckets.consume("a", limit).remaining());
+
+        buckets.refund("a", limit);
+        assertEquals(1, buckets.consume("a", limit).remaining());
+
+        // refunding a missing bucket is a no-op
+        buckets.refund("b", limit);
+        assertEquals(2, buckets.consume("b", limit).remaining());
+    }
+
+    @Test
+    public void testBounded() {
+        var buckets = new TokenBuckets(100, 60_000, System::nanoTime);
+        var limit = new TokenBuckets.Limit(10, 1_000, 10);
+
+        for (int i = 0; i < 10_000; i++) {
+            buckets.consume("key-" + i, limit);
+        }
+
+        assertTrue(buckets.size() <= 100);
+    }
+
+    @Test
+    public void testRateLimit() {
+        var limit = RateLimiter.rateLimit(Map.of("key", "role", "requests", 100, "period", 60, "roles", List.of("user")));
+
+        assertEquals(RateLimiter.KEY.role, limit.key());
+        assertEquals(new TokenBuckets.Limit(100, 60_000, 100), limit.limit());
+        assertEquals(Set.of("user"), limit.roles());
+
+        assertEquals(RateLimiter.KEY.principal, RateLimiter.rateLimit(Map.of("requests", 1, "period", 1, "burst", 5)).key());
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.rateLimit(Map.of("requests", 1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.rateLimit(Map.of("key", "foo", "requests", 1, "period", 1)));
+    }
+}
@@ -0,0 +1,129 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2022 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.mechanisms;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.undertow.security.api.AuthenticationMechanism.AuthenticationMechanismOutcome;
+import io.undertow.security.api.SecurityContext;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.restheart.exchange.PipelineInfo;
+import org.restheart.exchange.PipelineInfo.PIPELINE_TYPE;
+import org.restheart.exchange.Request;
+import org.restheart.plugins.RegisterPlugin.MATCH_POLICY;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class JwtAuthenticationMechanismTest {
+    private static final String KEY = "secret";
+
+    @Test
+    public void testExpiredCachedTokenRejected() throws Exception {
+        var am = mechanism();
+
+        var token = token(new Date(System.currentTimeMillis() + 1_000));
+
+        assertEquals(AuthenticationMechanismOutcome.AUTHENTICATED, authenticate(am, token));
+        // cache hit
+        assertEquals(AuthenticationMechanismOutcome.AUTHENTICATED, authenticate(am, token));
+
+        // the exp claim has seconds precision
+        Thread.sleep(2_000);
+
+        // the token is still cached (cacheTTL is 1 hour) but it is expired
+        assertEquals(AuthenticationMechanismOutcome.NOT_AUTHENTICATED, authenticate(am, token));
+    }
+
+    @Test
+    public void testExtraJwtVerifierOnCacheHit() throws Exception {
+        var am = mechanism();
+
+        var token = token(new Date(System.currentTimeMillis() + 60_000));
+
+        var calls = new AtomicInteger(0);
+        am.addConsumer(jwt -> calls.incrementAndGet());
+
+        assertEquals(AuthenticationMechanismOutcome.AUTHENTICATED, authenticate(am, token));
+        assertEquals(AuthenticationMechanismOutcome.AUTHENTICATED, authenticate(am, token));
+        assertEquals(2, calls.get());
+
+        // the cached token is now rejected by the extra verifier
+        am.addConsumer(jwt -> {
+            calls.incrementAndGet();
+            throw new JWTVerificationException("revoked");
+        });
+
+        assertEquals(AuthenticationMechanismOutcome.NOT_AUTHENTICATED, authenticate(am, token));
+        assertEquals(3, calls.get());
+    }
+
+    private static JwtAuthenticationMechanism mechanism() throws Exception {
+        var args = new HashMap<String, Object>();
+        args.put("base64Encoded", false);
+        args.put("algorithm", "HS256");
+        args.put("key", KEY);
+        args.put("usernameClaim", "sub");
+        args.put("rolesClaim", "roles");
+        args.put("fixedRoles", null);
+        args.put("issuer", null);
+        args.put("audience", null);
+        args.put("cacheSize", 100);
+        args.put("cacheTTL", 60 * 60 * 1_000);
+
+        var am = new JwtAuthenticationMechanism();
+        am.init(args);
+        return am;
+    }
+
+    private static String token(Date expiresAt) {
+        return JWT.create()
+            .withSubject("user")
+            .withArrayClaim("roles", new String[] { "user" })
+            .withExpiresAt(expiresAt)
+            .sign(Algorithm.HMAC256(KEY));
+    }
+
+    private static AuthenticationMechanismOutcome authenticate(JwtAuthenticationMechanism am, String token) {
+        var exchange = new HttpServerExchange();
+        exchange.getRequestHeaders().put(Headers.AUTHORIZATION, JwtAuthenticationMechanism.JWT_AUTH_HEADER_PREFIX + token);
+        Request.setPipelineInfo(exchange, new PipelineInfo(PIPELINE_TYPE.PROXY, "/", MATCH_POLICY.PREFIX, "foo"));
+
+        return am.authenticate(exchange, securityContext());
+    }
+
+    /**
+     * a SecurityContext that ignores the authentication outcome
+     */
+    private static SecurityContext securityContext() {
+        return (SecurityContext) Proxy.newProxyInstance(SecurityContext.class.getClassLoader(), new Class<?>[] { SecurityContext.class },
+            (proxy, method, args) -> method.getReturnType().equals(boolean.class) ? false : null);
+    }
+}
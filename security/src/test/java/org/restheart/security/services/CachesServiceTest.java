@@ -0,0 +1,127 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2020 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.services;
+
+import com.google.gson.JsonParser;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import java.util.HashMap;
+import java.util.Map;
+import org.restheart.cache.Cache;
+import org.restheart.cache.CacheFactory;
+import org.restheart.exchange.ByteArrayRequest;
+import org.restheart.exchange.ByteArrayResponse;
+import org.restheart.exchange.PipelineInfo;
+import org.restheart.exchange.PipelineInfo.PIPELINE_TYPE;
+import org.restheart.exchange.Request;
+import org.restheart.plugins.RegisterPlugin.MATCH_POLICY;
+import org.restheart.utils.HttpStatus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class CachesServiceTest {
+    private static final String NAME = "cachesServiceTest.cache";
+
+    // caches are weakly referenced by the CacheRegistry
+    private final Cache<String, String> cache = CacheFactory.createLocalCache(NAME, 10, Cache.EXPIRE_POLICY.NEVER, -1);
+
+    @Test
+    public void testJson() throws Exception {
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+
+        var response = handle("GET", "/caches/" + NAME, null);
+
+        assertEquals(HttpStatus.SC_OK, response.getStatusCode());
+        assertTrue(response.getContentType().startsWith("application/json"));
+
+        var stats = JsonParser.parseString(response.readContent()).getAsJsonObject().getAsJsonObject(NAME);
+
+        assertEquals(1, stats.get("size").getAsInt());
+        assertEquals(1, stats.get("hitCount").getAsLong());
+        assertEquals(1, stats.get("missCount").getAsLong());
+
+        // all caches
+        var all = JsonParser.parseString(handle("GET", "/caches", null).readContent()).getAsJsonObject();
+        assertTrue(all.has(NAME));
+    }
+
+    @Test
+    public void testPrometheus() throws Exception {
+        cache.put("a", "1");
+        cache.get("a");
+
+        var response = handle("GET", "/caches/" + NAME, "prometheus");
+
+        assertEquals(HttpStatus.SC_OK, response.getStatusCode());
+        assertTrue(response.getContentType().startsWith("text/plain"));
+
+        var content = response.readContent();
+
+        assertTrue(content.contains("# TYPE restheart_cache_size gauge\n"));
+        assertTrue(content.contains("restheart_cache_size{cache=\"" + NAME + "\"} 1\n"));
+        assertTrue(content.contains("restheart_cache_hits_total{cache=\"" + NAME + "\"} 1\n"));
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        assertEquals(HttpStatus.SC_NOT_FOUND, handle("GET", "/caches/missing", null).getStatusCode());
+        assertEquals(HttpStatus.SC_NOT_FOUND, handle("DELETE", "/caches/missing", null).getStatusCode());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        cache.put("a", "1");
+
+        assertEquals(HttpStatus.SC_NO_CONTENT, handle("DELETE", "/caches/" + NAME, null).getStatusCode());
+        assertFalse(cache.get("a") != null && cache.get("a").isPresent());
+
+        assertEquals(HttpStatus.SC_BAD_REQUEST, handle("DELETE", "/caches", null).getStatusCode());
+    }
+
+    private static ByteArrayResponse handle(String method, String path, String format) throws Exception {
+        var exchange = new HttpServerExchange();
+        exchange.setRequestMethod(HttpString.tryFromString(method));
+        exchange.setRequestPath(path);
+
+        if (format != null) {
+            exchange.addQueryParam("format", format);
+        }
+
+        Request.setPipelineInfo(exchange, new PipelineInfo(PIPELINE_TYPE.SERVICE, "/caches", MATCH_POLICY.PREFIX, "caches"));
+
+        var request = ByteArrayRequest.init(exchange);
+        var response = ByteArrayResponse.init(exchange);
+
+        var service = new CachesService();
+        service.init(new HashMap<String, Object>(Map.of("uri", "/caches")));
+        service.handle(request, response);
+
+        return response;
+    }
+}
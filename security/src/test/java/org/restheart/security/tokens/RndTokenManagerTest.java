@@ -0,0 +1,192 @@
+/*-
+ * ========================LICENSE_START=================================
+ * restheart-security
+ * %%
+ * Copyright (C) 2018 - 2022 SoftInstigate
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * =========================LICENSE_END==================================
+ */
+package org.restheart.security.tokens;
+
+import io.undertow.security.idm.PasswordCredential;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.restheart.plugins.PluginsRegistry;
+import org.restheart.security.MongoRealmAccount;
+
+/**
+ *
+ * @author Andrea Di Cesare {@literal <andrea@softinstigate.com>}
+ */
+public class RndTokenManagerTest {
+    private static final long NEAR_CACHE_TTL = 100;
+
+    private final InMemoryTokenStore store = new InMemoryTokenStore();
+
+    @Test
+    public void testRevokedTokenRejectedAfterNearCacheTtl() throws Exception {
+        var node1 = node();
+        var node2 = node();
+
+        var token = node1.get(account()).getPassword();
+
+        // the token issued by node1 is verified by node2 via the store
+        assertNotNull(node2.verify("user", new PasswordCredential(token)));
+
+        // logout on node1
+        node1.invalidate(account());
+        assertNull(node1.verify("user", new PasswordCredential(token)));
+
+        // node2 sees the revocation once its near-cache entry expires
+        Thread.sleep(NEAR_CACHE_TTL * 2);
+        assertNull(node2.verify("user", new PasswordCredential(token)));
+    }
+
+    @Test
+    public void testPlainSecretsNotPersisted() {
+        var node = node();
+
+        var token = new String(node.get(account()).getPassword());
+
+        assertEquals(1, store.tokens.size());
+
+        var stored = store.tokens.entrySet().iterator().next();
+
+        // the token is stored by hash
+        assertEquals(DigestUtils.sha256Hex(token), stored.getKey());
+
+        // neither the token nor the password are stored
+        var json = stored.getValue().account().toJson();
+        assertFalse(json.contains(token));
+        assertFalse(json.contains("secret"));
+        assertEquals("user", stored.getValue().account().getString("id").getValue());
+    }
+
+    @Test
+    public void testExpiredToken() throws Exception {
+        var node1 = node();
+        var node2 = node();
+
+        var token = node1.get(account()).getPassword();
+        assertNotNull(node2.verify("user", new PasswordCredential(token)));
+
+        store.expireAll();
+        Thread.sleep(NEAR_CACHE_TTL * 2);
+
+        // check() fails on both the issuing node and the other node
+        assertNull(node1.verify("user", new PasswordCredential(token)));
+        assertNull(node2.verify("user", new PasswordCredential(token)));
+
+        // the issuing node has dropped the expired token and issues a new one
+        var newToken = node1.get(account()).getPassword();
+        assertFalse(new String(token).equals(new String(newToken)));
+        assertNotNull(node2.verify("user", new PasswordCredential(newToken)));
+    }
+
+    @Test
+    public void testTokenIssuedByAnotherNodeReused() {
+        var node1 = node();
+        var node2 = node();
+
+        var token = node1.get(account()).getPassword();
+        assertNotNull(node2.verify("user", new PasswordCredential(token)));
+
+        // node2 returns the token that authenticated the request instead of issuing a new one
+        assertEquals(new String(token), new String(node2.get(account()).getPassword()));
+        assertEquals(1, store.tokens.size());
+    }
+
+    private static MongoRealmAccount account() {
+        return new MongoRealmAccount("user", "secret".toCharArray(), Set.of("user"), new BsonDocument("name", new BsonString("a user")));
+    }
+
+    private RndTokenManager node() {
+        var args = new HashMap<String, Object>();
+        args.put("ttl", 15);
+        args.put("srv-uri", "/tokens");
+        args.put("near-cache-ttl", (int) NEAR_CACHE_TTL);
+
+        var tm = new RndTokenManager();
+        tm.init(args, registry());
+        tm.setTokenStore(store);
+        return tm;
+    }
+
+    /**
+     * a PluginsRegistry without plugins
+     */
+    private static PluginsRegistry registry() {
+        return (PluginsRegistry) Proxy.newProxyInstance(PluginsRegistry.class.getClassLoader(), new Class<?>[] { PluginsRegistry.class },
+            (proxy, method, args) -> Set.class.equals(method.getReturnType()) ? Set.of() : null);
+    }
+
+    private static record StoredToken(BsonDocument account, Instant expiresAt) {}
+
+    /**
+     * a TokenStore shared by the nodes
+     */
+    private static class InMemoryTokenStore implements TokenStore {
+        private final Map<String, StoredToken> tokens = new ConcurrentHashMap<>();
+
+        @Override
+        public void put(String tokenHash, BsonDocument account, Instant expiresAt) {
+            tokens.put(tokenHash, new StoredToken(account, expiresAt));
+        }
+
+        @Override
+        public BsonDocument get(String tokenHash) {
+            var token = tokens.get(tokenHash);
+            return token == null || token.expiresAt().isBefore(Instant.now()) ? null : token.account();
+        }
+
+        @Override
+        public BsonDocument touch(String tokenHash, Instant expiresAt) {
+            var account = get(tokenHash);
+
+            if (account != null) {
+                tokens.put(tokenHash, new StoredToken(account, expiresAt));
+            }
+
+            return account;
+        }
+
+        @Override
+        public void invalidate(String id) {
+            tokens.values().removeIf(t -> id.equals(t.account().getString("id").getValue()));
+        }
+
+        @Override
+        public void update(String id, BsonDocument account) {
+            tokens.replaceAll((hash, t) -> id.equals(t.account().getString("id").getValue()) ? new StoredToken(account, t.expiresAt()) : t);
+        }
+
+        void expireAll() {
+            tokens.replaceAll((hash, t) -> new StoredToken(t.account(), Instant.now().minusSeconds(1)));
+        }
+    }
+}